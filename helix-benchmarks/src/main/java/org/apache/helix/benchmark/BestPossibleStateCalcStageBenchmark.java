@@ -0,0 +1,47 @@
+package org.apache.helix.benchmark;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.helix.controller.stages.AttributeName;
+import org.apache.helix.controller.stages.BestPossibleStateCalcStage;
+import org.apache.helix.controller.stages.BestPossibleStateOutput;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+
+/**
+ * Benchmark of {@link BestPossibleStateCalcStage} with the DelayedAutoRebalancer and the CRUSH-ED
+ * strategy. The cached ideal mappings are dropped before every run so each invocation recomputes
+ * the assignment as it would after a cluster change.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class BestPossibleStateCalcStageBenchmark {
+
+  @Benchmark
+  public BestPossibleStateOutput bestPossibleStateCalc(ControllerPipelineState state) {
+    state.getDataProvider().clearCachedResourceAssignments();
+    SyntheticCluster.runStage(state.event, new BestPossibleStateCalcStage());
+    return state.event.getAttribute(AttributeName.BEST_POSSIBLE_STATE.name());
+  }
+}
@@ -0,0 +1,96 @@
+package org.apache.helix.benchmark;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.helix.HelixRebalanceException;
+import org.apache.helix.controller.dataproviders.ResourceControllerDataProvider;
+import org.apache.helix.controller.rebalancer.waged.RebalanceAlgorithm;
+import org.apache.helix.controller.rebalancer.waged.constraints.ConstraintBasedAlgorithmFactory;
+import org.apache.helix.controller.rebalancer.waged.model.ClusterModel;
+import org.apache.helix.controller.rebalancer.waged.model.ClusterModelProvider;
+import org.apache.helix.controller.rebalancer.waged.model.OptimalAssignment;
+import org.apache.helix.controller.stages.AttributeName;
+import org.apache.helix.controller.stages.ClusterEvent;
+import org.apache.helix.model.Resource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmark of the WAGED ConstraintBasedAlgorithm calculating a global baseline from scratch. The
+ * algorithm mutates the cluster model, so a fresh model is generated before every invocation and
+ * the model generation is excluded from the measurement.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class ConstraintBasedAlgorithmBenchmark {
+  @Param({"100"})
+  public int numInstances;
+
+  @Param({"100"})
+  public int numResources;
+
+  @Param({"64"})
+  public int numPartitions;
+
+  @Param({"3"})
+  public int numReplicas;
+
+  private ResourceControllerDataProvider _dataProvider;
+  private Map<String, Resource> _resourceMap;
+  private RebalanceAlgorithm _algorithm;
+  private ClusterModel _clusterModel;
+
+  @Setup(Level.Trial)
+  public void setupCluster() {
+    SyntheticCluster cluster =
+        new SyntheticCluster(numInstances, numResources, numPartitions, numReplicas);
+    ClusterEvent event = cluster.newPreparedEvent();
+    _dataProvider = event.getAttribute(AttributeName.ControllerDataProvider.name());
+    _resourceMap = event.getAttribute(AttributeName.RESOURCES_TO_REBALANCE.name());
+    _algorithm = ConstraintBasedAlgorithmFactory
+        .getInstance(_dataProvider.getClusterConfig().getGlobalRebalancePreference());
+  }
+
+  @Setup(Level.Invocation)
+  public void setupClusterModel() {
+    _clusterModel = ClusterModelProvider
+        .generateClusterModelForBaseline(_dataProvider, _resourceMap,
+            new HashSet<>(_dataProvider.getAssignableInstances()), Collections.emptyMap(),
+            Collections.emptyMap());
+  }
+
+  @Benchmark
+  public OptimalAssignment calculate() throws HelixRebalanceException {
+    return _algorithm.calculate(_clusterModel);
+  }
+}
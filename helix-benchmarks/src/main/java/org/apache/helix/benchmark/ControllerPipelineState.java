@@ -0,0 +1,70 @@
+package org.apache.helix.benchmark;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.helix.controller.dataproviders.ResourceControllerDataProvider;
+import org.apache.helix.controller.stages.AttributeName;
+import org.apache.helix.controller.stages.BestPossibleStateCalcStage;
+import org.apache.helix.controller.stages.ClusterEvent;
+import org.apache.helix.controller.stages.MessageGenerationPhase;
+import org.apache.helix.controller.stages.MessageSelectionStage;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Shared JMH state for the controller pipeline benchmarks. The cluster size is configured through
+ * the JMH parameters, e.g. "-p numInstances=400 -p numResources=1000".
+ *
+ * The prepared event has gone through the data refresh, preprocess and the rebalance stages that
+ * precede the stage under test, so every benchmark only measures its own stage.
+ */
+@State(Scope.Benchmark)
+public class ControllerPipelineState {
+  @Param({"100"})
+  public int numInstances;
+
+  @Param({"100"})
+  public int numResources;
+
+  @Param({"64"})
+  public int numPartitions;
+
+  @Param({"3"})
+  public int numReplicas;
+
+  public SyntheticCluster cluster;
+  public ClusterEvent event;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    cluster = new SyntheticCluster(numInstances, numResources, numPartitions, numReplicas);
+    event = cluster.newPreparedEvent();
+    SyntheticCluster.runStage(event, new BestPossibleStateCalcStage());
+    SyntheticCluster.runStage(event, new MessageGenerationPhase());
+    SyntheticCluster.runStage(event, new MessageSelectionStage());
+  }
+
+  public ResourceControllerDataProvider getDataProvider() {
+    return event.getAttribute(AttributeName.ControllerDataProvider.name());
+  }
+}
@@ -0,0 +1,95 @@
+package org.apache.helix.benchmark;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.helix.controller.dataproviders.ResourceControllerDataProvider;
+import org.apache.helix.controller.rebalancer.strategy.CrushEdRebalanceStrategy;
+import org.apache.helix.controller.stages.AttributeName;
+import org.apache.helix.model.BuiltInStateModelDefinitions;
+import org.apache.helix.model.StateModelDefinition;
+import org.apache.helix.zookeeper.datamodel.ZNRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmark of {@link CrushEdRebalanceStrategy#computePartitionAssignment} for a single resource.
+ * The resource count parameter does not apply here; use numPartitions to scale the resource.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class CrushEdRebalanceStrategyBenchmark {
+  @Param({"100"})
+  public int numInstances;
+
+  @Param({"1024"})
+  public int numPartitions;
+
+  @Param({"3"})
+  public int numReplicas;
+
+  private ResourceControllerDataProvider _dataProvider;
+  private String _resourceName;
+  private List<String> _partitions;
+  private LinkedHashMap<String, Integer> _stateCountMap;
+  private List<String> _allNodes;
+  private List<String> _liveNodes;
+  private Map<String, Map<String, String>> _currentMapping;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    SyntheticCluster cluster = new SyntheticCluster(numInstances, 1, numPartitions, numReplicas);
+    _dataProvider =
+        cluster.newPreparedEvent().getAttribute(AttributeName.ControllerDataProvider.name());
+    _resourceName = cluster.getResourceNames().get(0);
+    _partitions = cluster.getPartitionNames(_resourceName);
+    StateModelDefinition stateModelDef =
+        BuiltInStateModelDefinitions.MasterSlave.getStateModelDefinition();
+    _stateCountMap = stateModelDef.getStateCountMap(numInstances, numReplicas);
+    _allNodes = cluster.getInstanceNames();
+    Collections.sort(_allNodes);
+    _liveNodes = new ArrayList<>(_allNodes);
+    _currentMapping = new HashMap<>();
+  }
+
+  @Benchmark
+  public ZNRecord computePartitionAssignment() {
+    CrushEdRebalanceStrategy strategy = new CrushEdRebalanceStrategy();
+    strategy.init(_resourceName, _partitions, _stateCountMap, Integer.MAX_VALUE);
+    return strategy
+        .computePartitionAssignment(new ArrayList<>(_allNodes), _liveNodes, _currentMapping,
+            _dataProvider);
+  }
+}
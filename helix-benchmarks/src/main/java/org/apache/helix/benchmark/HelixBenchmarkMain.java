@@ -0,0 +1,55 @@
+package org.apache.helix.benchmark;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.IOException;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of the benchmark jar. Accepts the regular JMH command line options, and always
+ * attaches the GC profiler so the allocation rate is reported alongside the throughput.
+ *
+ * Example:
+ * java -jar helix-benchmarks.jar BestPossibleStateCalcStage -p numInstances=400 -p numResources=500
+ */
+public class HelixBenchmarkMain {
+  public static void main(String[] args)
+      throws RunnerException, CommandLineOptionException, IOException {
+    CommandLineOptions cmdOptions = new CommandLineOptions(args);
+    if (cmdOptions.shouldHelp() || cmdOptions.shouldList() || cmdOptions.shouldListProfilers()
+        || cmdOptions.shouldListResultFormats() || cmdOptions.shouldListWithParams()) {
+      // Delegate the informational commands to the stock JMH launcher.
+      org.openjdk.jmh.Main.main(args);
+      return;
+    }
+    Options options = new OptionsBuilder()
+        .parent(cmdOptions)
+        .addProfiler(GCProfiler.class)
+        .build();
+    new Runner(options).run();
+  }
+}
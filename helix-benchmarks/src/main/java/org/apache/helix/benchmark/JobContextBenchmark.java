@@ -0,0 +1,150 @@
+package org.apache.helix.benchmark;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.helix.task.JobContext;
+import org.apache.helix.task.JobContextBucketCodec;
+import org.apache.helix.task.TaskPartitionState;
+import org.apache.helix.zookeeper.constant.ZkSystemPropertyKeys;
+import org.apache.helix.zookeeper.datamodel.ZNRecord;
+import org.apache.helix.zookeeper.datamodel.serializer.ZNRecordSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmark of reading and writing the JobContext of a job, stored as one record or in partition
+ * buckets by {@link JobContextBucketCodec}. Every operation changes the state of one task, the way
+ * a pipeline run usually does, so the bucketed variants only serialize or deserialize the changed
+ * bucket and the header. The ZK round trips are not included. The serialized sizes are printed
+ * once per trial.
+ *
+ * Example:
+ * java -jar helix-benchmarks.jar JobContextBenchmark -p numTasks=100000
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class JobContextBenchmark {
+  @Param({"1000", "10000", "100000"})
+  public int numTasks;
+
+  private final ZNRecordSerializer _serializer = new ZNRecordSerializer();
+  private JobContext _jobContext;
+  private byte[] _serializedContext;
+  private List<ZNRecord> _buckets;
+  private byte[] _serializedHeader;
+  private List<byte[]> _serializedBuckets;
+  private int _nextTask;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    // The whole context of a large job does not fit in a ZNode, lift the limit to measure it.
+    System.setProperty(ZkSystemPropertyKeys.ZK_SERIALIZER_ZNRECORD_WRITE_SIZE_LIMIT_BYTES,
+        String.valueOf(Integer.MAX_VALUE));
+    _jobContext = new JobContext(new ZNRecord("Workflow_Job"));
+    _jobContext.setName("Workflow_Job");
+    _jobContext.setStartTime(System.currentTimeMillis());
+    for (int p = 0; p < numTasks; p++) {
+      _jobContext.setPartitionState(p, TaskPartitionState.RUNNING);
+      _jobContext.setAssignedParticipant(p, SyntheticCluster.INSTANCE_PREFIX + p % 100);
+      _jobContext.setPartitionNumAttempts(p, 1);
+      _jobContext.setPartitionStartTime(p, 1600000000000L + p);
+      _jobContext.setTaskIdForPartition(p, "task_" + p);
+    }
+    _serializedContext = _serializer.serialize(_jobContext.getRecord());
+
+    _buckets = JobContextBucketCodec
+        .encodeBuckets(_jobContext.getRecord(), JobContextBucketCodec.DEFAULT_BUCKET_SIZE);
+    _serializedBuckets = new ArrayList<>();
+    long bucketBytes = 0;
+    for (ZNRecord bucket : _buckets) {
+      JobContextBucketCodec.setVersion(bucket, "0");
+      byte[] serializedBucket = _serializer.serialize(bucket);
+      _serializedBuckets.add(serializedBucket);
+      bucketBytes += serializedBucket.length;
+    }
+    _serializedHeader = _serializer.serialize(JobContextBucketCodec
+        .buildHeader(_jobContext.getRecord(), JobContextBucketCodec.DEFAULT_BUCKET_SIZE,
+            _buckets));
+    System.out.printf("%nSerialized size of %d tasks: %d bytes, in %d buckets: %d bytes%n",
+        numTasks, _serializedContext.length, _buckets.size(), bucketBytes);
+  }
+
+  @Benchmark
+  public byte[] writeContext() {
+    changeTask();
+    return _serializer.serialize(_jobContext.getRecord());
+  }
+
+  @Benchmark
+  public Object readContext() {
+    return new JobContext((ZNRecord) _serializer.deserialize(_serializedContext));
+  }
+
+  @Benchmark
+  public List<byte[]> writeBucketedContext() {
+    changeTask();
+    List<ZNRecord> buckets = JobContextBucketCodec
+        .encodeBuckets(_jobContext.getRecord(), JobContextBucketCodec.DEFAULT_BUCKET_SIZE);
+    List<byte[]> written = new ArrayList<>();
+    for (int i = 0; i < buckets.size(); i++) {
+      if (JobContextBucketCodec.hasSameContent(buckets.get(i), _buckets.get(i))) {
+        buckets.set(i, _buckets.get(i));
+      } else {
+        JobContextBucketCodec.setVersion(buckets.get(i), "1");
+        written.add(_serializer.serialize(buckets.get(i)));
+      }
+    }
+    written.add(_serializer.serialize(JobContextBucketCodec
+        .buildHeader(_jobContext.getRecord(), JobContextBucketCodec.DEFAULT_BUCKET_SIZE,
+            buckets)));
+    _buckets = buckets;
+    return written;
+  }
+
+  @Benchmark
+  public Object readBucketedContext() {
+    // One bucket changed since the last read, the others are cached
+    ZNRecord header = (ZNRecord) _serializer.deserialize(_serializedHeader);
+    List<ZNRecord> buckets = new ArrayList<>(_buckets);
+    int changedBucket = _nextTask++ % buckets.size();
+    buckets.set(changedBucket,
+        (ZNRecord) _serializer.deserialize(_serializedBuckets.get(changedBucket)));
+    return new JobContext(JobContextBucketCodec.decode(header, buckets));
+  }
+
+  private void changeTask() {
+    int task = _nextTask++ % numTasks;
+    TaskPartitionState state = _jobContext.getPartitionState(task);
+    _jobContext.setPartitionState(task, state == TaskPartitionState.RUNNING
+        ? TaskPartitionState.COMPLETED : TaskPartitionState.RUNNING);
+  }
+}
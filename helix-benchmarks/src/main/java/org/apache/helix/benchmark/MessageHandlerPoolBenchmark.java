@@ -0,0 +1,119 @@
+package org.apache.helix.benchmark;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.helix.messaging.handling.BoundedThreadPerTaskExecutor;
+import org.apache.helix.messaging.handling.VirtualThreads;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Benchmark of the participant message handler pools with state transitions that block, for
+ * example on bootstrapping a replica from a peer. Each invocation submits a burst of transitions
+ * that sleep for blockMs, and waits for all of them to complete, so the score is the transition
+ * throughput.
+ * <ul>
+ * <li>PLATFORM: a fixed size thread pool of concurrency threads, the default mode.</li>
+ * <li>VIRTUAL: one virtual thread per transition, with at most concurrency of them running at the
+ * same time. This is the mode enabled by helix.participant.messageHandlerVirtualThreads.enabled.
+ * It needs Java 21, and the benchmark fails to set up on older JVMs.</li>
+ * </ul>
+ *
+ * Example:
+ * java -jar helix-benchmarks.jar MessageHandlerPoolBenchmark -p concurrency=40,1000
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class MessageHandlerPoolBenchmark {
+  private static final int TRANSITIONS_PER_INVOCATION = 2000;
+
+  public enum PoolMode {
+    PLATFORM,
+    VIRTUAL
+  }
+
+  @Param({"PLATFORM", "VIRTUAL"})
+  public PoolMode mode;
+
+  @Param({"40", "1000"})
+  public int concurrency;
+
+  @Param({"10"})
+  public long blockMs;
+
+  private ExecutorService _executor;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    switch (mode) {
+      case PLATFORM:
+        _executor = Executors.newFixedThreadPool(concurrency);
+        break;
+      case VIRTUAL:
+        if (!VirtualThreads.isSupported()) {
+          throw new IllegalStateException("The VIRTUAL mode requires Java 21 or later.");
+        }
+        _executor = new BoundedThreadPerTaskExecutor(concurrency,
+            VirtualThreads.newThreadFactory("benchmark-virtual-"));
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown mode " + mode);
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws InterruptedException {
+    _executor.shutdownNow();
+    _executor.awaitTermination(1, TimeUnit.MINUTES);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(TRANSITIONS_PER_INVOCATION)
+  public void blockingTransitions() throws InterruptedException {
+    CountDownLatch completed = new CountDownLatch(TRANSITIONS_PER_INVOCATION);
+    for (int i = 0; i < TRANSITIONS_PER_INVOCATION; i++) {
+      _executor.execute(() -> {
+        try {
+          Thread.sleep(blockMs);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        } finally {
+          completed.countDown();
+        }
+      });
+    }
+    completed.await();
+  }
+}
@@ -0,0 +1,130 @@
+package org.apache.helix.benchmark;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.helix.metaclient.impl.zk.ZkMetaClient;
+import org.apache.helix.metaclient.impl.zk.factory.ZkMetaClientConfig;
+import org.apache.helix.zookeeper.zkclient.ZkServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Benchmark of reading and writing numKeys entries through ZkMetaClient against an embedded
+ * ZooKeeper server. The sequential benchmarks issue one synchronous request per key, so every key
+ * pays a full round trip. The batch benchmarks use the list variants of get and set, which keep
+ * up to MetaClientConstants.DEFAULT_BATCH_IN_FLIGHT_WINDOW requests in flight.
+ *
+ * Example:
+ * java -jar helix-benchmarks.jar MetaClientBatchBenchmark -p numKeys=100,1000
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class MetaClientBatchBenchmark {
+  private static final String ROOT = "/MetaClientBatchBenchmark";
+  private static final String VALUE = "value";
+
+  @Param({"1000"})
+  private int numKeys;
+
+  @Param({"2199"})
+  private int zkPort;
+
+  private File _zkDir;
+  private ZkServer _zkServer;
+  private ZkMetaClient<String> _metaClient;
+  private List<String> _keys;
+  private List<String> _values;
+  private List<Integer> _versions;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    _zkDir = Files.createTempDirectory("MetaClientBatchBenchmark").toFile();
+    _zkServer = new ZkServer(new File(_zkDir, "data").getAbsolutePath(),
+        new File(_zkDir, "log").getAbsolutePath(), zkClient -> {
+    }, zkPort);
+    _zkServer.start();
+
+    _metaClient = new ZkMetaClient<>(new ZkMetaClientConfig.ZkMetaClientConfigBuilder()
+        .setConnectionAddress("localhost:" + zkPort).build());
+    _metaClient.connect();
+    _metaClient.create(ROOT, VALUE);
+
+    _keys = new ArrayList<>(numKeys);
+    for (int i = 0; i < numKeys; i++) {
+      _keys.add(ROOT + "/key_" + i);
+    }
+    _values = Collections.nCopies(numKeys, VALUE);
+    _versions = Collections.nCopies(numKeys, -1);
+    _metaClient.create(_keys, _values);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    _metaClient.close();
+    _zkServer.shutdown();
+    FileUtils.deleteDirectory(_zkDir);
+  }
+
+  @Benchmark
+  public int sequentialGet() {
+    int found = 0;
+    for (String key : _keys) {
+      if (_metaClient.get(key) != null) {
+        found++;
+      }
+    }
+    return found;
+  }
+
+  @Benchmark
+  public List<String> batchGet() {
+    return _metaClient.get(_keys);
+  }
+
+  @Benchmark
+  public void sequentialSet() {
+    for (String key : _keys) {
+      _metaClient.set(key, VALUE, -1);
+    }
+  }
+
+  @Benchmark
+  public boolean[] batchSet() {
+    return _metaClient.set(_keys, _values, _versions);
+  }
+}
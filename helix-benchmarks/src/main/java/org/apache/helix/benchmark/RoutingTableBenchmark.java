@@ -0,0 +1,145 @@
+package org.apache.helix.benchmark;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.helix.model.ExternalView;
+import org.apache.helix.model.InstanceConfig;
+import org.apache.helix.model.LiveInstance;
+import org.apache.helix.spectator.RoutingTableSnapshot;
+import org.apache.helix.spectator.RoutingTableTestUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmark of the routing table lookups and construction, comparing the original table with the
+ * compact one. The routing table classes are package private, so the tables are built with
+ * {@link RoutingTableTestUtil} and read through a {@link RoutingTableSnapshot}.
+ *
+ * Example:
+ * java -jar helix-benchmarks.jar RoutingTableBenchmark -p tableType=COMPACT -p numPartitions=4096
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class RoutingTableBenchmark {
+  private static final String[] STATES = {"MASTER", "SLAVE"};
+
+  public enum TableType {
+    ORIGINAL,
+    COMPACT
+  }
+
+  @Param({"ORIGINAL", "COMPACT"})
+  public TableType tableType;
+
+  @Param({"100"})
+  public int numInstances;
+
+  @Param({"100"})
+  public int numResources;
+
+  @Param({"1024"})
+  public int numPartitions;
+
+  @Param({"3"})
+  public int numReplicas;
+
+  private List<ExternalView> _externalViews;
+  private List<InstanceConfig> _instanceConfigs;
+  private List<LiveInstance> _liveInstances;
+  private RoutingTableSnapshot _routingTable;
+  private String[] _resourceNames;
+  private String[][] _partitionNames;
+  private int _cursor;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    _instanceConfigs = new ArrayList<>(numInstances);
+    _liveInstances = new ArrayList<>(numInstances);
+    for (int i = 0; i < numInstances; i++) {
+      String instanceName = "localhost_" + i;
+      _instanceConfigs.add(new InstanceConfig(instanceName));
+      _liveInstances.add(new LiveInstance(instanceName));
+    }
+
+    _externalViews = new ArrayList<>(numResources);
+    _resourceNames = new String[numResources];
+    _partitionNames = new String[numResources][numPartitions];
+    int offset = 0;
+    for (int r = 0; r < numResources; r++) {
+      _resourceNames[r] = "resource_" + r;
+      ExternalView externalView = new ExternalView(_resourceNames[r]);
+      for (int p = 0; p < numPartitions; p++) {
+        _partitionNames[r][p] = _resourceNames[r] + "_" + p;
+        for (int replica = 0; replica < numReplicas; replica++) {
+          externalView.setState(_partitionNames[r][p],
+              "localhost_" + (offset + replica) % numInstances, replica == 0 ? "MASTER" : "SLAVE");
+        }
+        offset++;
+      }
+      _externalViews.add(externalView);
+    }
+    _routingTable = build();
+  }
+
+  @Benchmark
+  public List<InstanceConfig> lookupPartition() {
+    int cursor = _cursor++ & Integer.MAX_VALUE;
+    int resource = cursor % numResources;
+    int partition = (cursor / numResources) % numPartitions;
+    return _routingTable.getInstancesForResource(_resourceNames[resource],
+        _partitionNames[resource][partition], STATES[cursor & 1]);
+  }
+
+  @Benchmark
+  public void lookupResource(Blackhole blackhole) {
+    int cursor = _cursor++ & Integer.MAX_VALUE;
+    blackhole.consume(_routingTable
+        .getInstancesForResource(_resourceNames[cursor % numResources], STATES[cursor & 1]));
+  }
+
+  @Benchmark
+  public RoutingTableSnapshot buildTable() {
+    return build();
+  }
+
+  private RoutingTableSnapshot build() {
+    switch (tableType) {
+    case COMPACT:
+      return RoutingTableTestUtil
+          .buildCompactRoutingTable(_externalViews, _instanceConfigs, _liveInstances);
+    default:
+      return RoutingTableTestUtil.buildRoutingTable(_externalViews, _instanceConfigs,
+          _liveInstances);
+    }
+  }
+}
@@ -0,0 +1,241 @@
+package org.apache.helix.benchmark;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.apache.helix.HelixDataAccessor;
+import org.apache.helix.HelixManager;
+import org.apache.helix.PropertyKey;
+import org.apache.helix.controller.dataproviders.ResourceControllerDataProvider;
+import org.apache.helix.controller.pipeline.AbstractAsyncBaseStage;
+import org.apache.helix.controller.pipeline.Stage;
+import org.apache.helix.controller.pipeline.StageContext;
+import org.apache.helix.controller.rebalancer.DelayedAutoRebalancer;
+import org.apache.helix.controller.rebalancer.strategy.CrushEdRebalanceStrategy;
+import org.apache.helix.controller.stages.AttributeName;
+import org.apache.helix.controller.stages.ClusterEvent;
+import org.apache.helix.controller.stages.ClusterEventType;
+import org.apache.helix.controller.stages.CurrentStateComputationStage;
+import org.apache.helix.controller.stages.ReadClusterDataStage;
+import org.apache.helix.controller.stages.ResourceComputationStage;
+import org.apache.helix.mock.MockManager;
+import org.apache.helix.model.BuiltInStateModelDefinitions;
+import org.apache.helix.model.ClusterConfig;
+import org.apache.helix.model.CurrentState;
+import org.apache.helix.model.IdealState;
+import org.apache.helix.model.InstanceConfig;
+import org.apache.helix.model.LiveInstance;
+import org.apache.helix.model.StateModelDefinition;
+
+/**
+ * An in-memory cluster of configurable size used to drive the controller benchmarks. All the
+ * cluster metadata lives in a {@link MockManager} backed accessor, so no ZooKeeper is required.
+ *
+ * The cluster is populated with MasterSlave FULL_AUTO resources that use the
+ * {@link CrushEdRebalanceStrategy}. The current states are placed round-robin, which generally
+ * differs from the CRUSH-ED placement, so every pipeline run has a realistic amount of movement
+ * and message generation to do.
+ */
+public class SyntheticCluster {
+  public static final String INSTANCE_PREFIX = "localhost_";
+  public static final String RESOURCE_PREFIX = "resource_";
+  public static final String SESSION_PREFIX = "session_";
+  public static final String CAPACITY_KEY_CU = "CU";
+  public static final String CAPACITY_KEY_DISK = "DISK";
+  private static final String STATE_MODEL = BuiltInStateModelDefinitions.MasterSlave.name();
+
+  private final String _clusterName;
+  private final int _numInstances;
+  private final int _numResources;
+  private final int _numPartitions;
+  private final int _numReplicas;
+  private final HelixManager _manager;
+  private final HelixDataAccessor _accessor;
+
+  public SyntheticCluster(int numInstances, int numResources, int numPartitions,
+      int numReplicas) {
+    if (numReplicas > numInstances) {
+      throw new IllegalArgumentException(String
+          .format("Replica count %d cannot exceed instance count %d.", numReplicas,
+              numInstances));
+    }
+    _clusterName = String
+        .format("benchmarkCluster_%d_%d_%d_%d", numInstances, numResources, numPartitions,
+            numReplicas);
+    _numInstances = numInstances;
+    _numResources = numResources;
+    _numPartitions = numPartitions;
+    _numReplicas = numReplicas;
+    _manager = new MockManager(_clusterName);
+    _accessor = _manager.getHelixDataAccessor();
+    populate();
+  }
+
+  public String getClusterName() {
+    return _clusterName;
+  }
+
+  public HelixManager getManager() {
+    return _manager;
+  }
+
+  public HelixDataAccessor getAccessor() {
+    return _accessor;
+  }
+
+  public List<String> getInstanceNames() {
+    List<String> instances = new ArrayList<>(_numInstances);
+    for (int i = 0; i < _numInstances; i++) {
+      instances.add(INSTANCE_PREFIX + i);
+    }
+    return instances;
+  }
+
+  public List<String> getResourceNames() {
+    List<String> resources = new ArrayList<>(_numResources);
+    for (int r = 0; r < _numResources; r++) {
+      resources.add(RESOURCE_PREFIX + r);
+    }
+    return resources;
+  }
+
+  public List<String> getPartitionNames(String resourceName) {
+    List<String> partitions = new ArrayList<>(_numPartitions);
+    for (int p = 0; p < _numPartitions; p++) {
+      partitions.add(resourceName + "_" + p);
+    }
+    return partitions;
+  }
+
+  public int getNumReplicas() {
+    return _numReplicas;
+  }
+
+  /**
+   * Create a new cluster event with a freshly refreshed data provider, and run the data refresh
+   * and preprocess stages on it so that the event carries everything the rebalance stages need.
+   */
+  public ClusterEvent newPreparedEvent() {
+    ClusterEvent event = new ClusterEvent(_clusterName, ClusterEventType.Unknown);
+    event.addAttribute(AttributeName.helixmanager.name(), _manager);
+    event.addAttribute(AttributeName.ControllerDataProvider.name(),
+        new ResourceControllerDataProvider(_clusterName));
+    runStage(event, new ReadClusterDataStage());
+    runStage(event, new ResourceComputationStage());
+    runStage(event, new CurrentStateComputationStage());
+    return event;
+  }
+
+  /**
+   * Run a single stage the same way the controller pipeline does.
+   */
+  public static void runStage(ClusterEvent event, Stage stage) {
+    StageContext context = new StageContext();
+    stage.init(context);
+    stage.preProcess();
+    try {
+      if (stage instanceof AbstractAsyncBaseStage) {
+        ((AbstractAsyncBaseStage) stage).execute(event);
+      } else {
+        stage.process(event);
+      }
+    } catch (Exception e) {
+      throw new IllegalStateException("Failed to run stage " + stage.getStageName(), e);
+    } finally {
+      stage.postProcess();
+    }
+  }
+
+  private void populate() {
+    PropertyKey.Builder keyBuilder = _accessor.keyBuilder();
+
+    ClusterConfig clusterConfig = new ClusterConfig(_clusterName);
+    clusterConfig.setInstanceCapacityKeys(ImmutableList.of(CAPACITY_KEY_CU, CAPACITY_KEY_DISK));
+    int replicasPerInstance =
+        (_numResources * _numPartitions * _numReplicas + _numInstances - 1) / _numInstances;
+    // Leave enough head room so the WAGED hard constraints can always be satisfied.
+    int instanceCapacity = Math.max(100, replicasPerInstance * 20);
+    clusterConfig.setDefaultInstanceCapacityMap(
+        ImmutableMap.of(CAPACITY_KEY_CU, instanceCapacity, CAPACITY_KEY_DISK, instanceCapacity));
+    clusterConfig.setDefaultPartitionWeightMap(
+        ImmutableMap.of(CAPACITY_KEY_CU, 5, CAPACITY_KEY_DISK, 5));
+    _accessor.setProperty(keyBuilder.clusterConfig(), clusterConfig);
+
+    StateModelDefinition masterSlave = BuiltInStateModelDefinitions.MasterSlave.getStateModelDefinition();
+    _accessor.setProperty(keyBuilder.stateModelDef(masterSlave.getId()), masterSlave);
+
+    for (String instance : getInstanceNames()) {
+      InstanceConfig config = new InstanceConfig(instance);
+      config.setHostName(instance);
+      config.setPort("12134");
+      _accessor.setProperty(keyBuilder.instanceConfig(instance), config);
+
+      LiveInstance liveInstance = new LiveInstance(instance);
+      liveInstance.setSessionId(sessionId(instance));
+      _accessor.setProperty(keyBuilder.liveInstance(instance), liveInstance);
+    }
+
+    List<String> instances = getInstanceNames();
+    Map<String, Map<String, CurrentState>> currentStates = new HashMap<>();
+    int offset = 0;
+    for (String resource : getResourceNames()) {
+      IdealState idealState = new IdealState(resource);
+      idealState.setStateModelDefRef(STATE_MODEL);
+      idealState.setRebalanceMode(IdealState.RebalanceMode.FULL_AUTO);
+      idealState.setRebalancerClassName(DelayedAutoRebalancer.class.getName());
+      idealState.setRebalanceStrategy(CrushEdRebalanceStrategy.class.getName());
+      idealState.setNumPartitions(_numPartitions);
+      idealState.setReplicas(String.valueOf(_numReplicas));
+
+      for (String partition : getPartitionNames(resource)) {
+        idealState.getRecord().setListField(partition, Collections.emptyList());
+        for (int r = 0; r < _numReplicas; r++) {
+          String instance = instances.get((offset + r) % _numInstances);
+          CurrentState currentState = currentStates
+              .computeIfAbsent(instance, k -> new HashMap<>())
+              .computeIfAbsent(resource, k -> {
+                CurrentState cs = new CurrentState(k);
+                cs.setSessionId(sessionId(instance));
+                cs.setStateModelDefRef(STATE_MODEL);
+                return cs;
+              });
+          currentState.setState(partition, r == 0 ? "MASTER" : "SLAVE");
+        }
+        offset++;
+      }
+      _accessor.setProperty(keyBuilder.idealStates(resource), idealState);
+    }
+
+    currentStates.forEach((instance, resourceStates) -> resourceStates.forEach(
+        (resource, currentState) -> _accessor.setProperty(
+            keyBuilder.currentState(instance, sessionId(instance), resource), currentState)));
+  }
+
+  private static String sessionId(String instance) {
+    return SESSION_PREFIX + instance;
+  }
+}
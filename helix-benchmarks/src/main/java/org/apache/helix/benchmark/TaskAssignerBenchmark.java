@@ -0,0 +1,175 @@
+package org.apache.helix.benchmark;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.helix.common.caches.TaskDataCache;
+import org.apache.helix.model.ClusterConfig;
+import org.apache.helix.model.InstanceConfig;
+import org.apache.helix.model.LiveInstance;
+import org.apache.helix.task.AssignableInstanceManager;
+import org.apache.helix.task.TaskConfig;
+import org.apache.helix.task.assigner.AssignableInstance;
+import org.apache.helix.task.assigner.TaskAssignResult;
+import org.apache.helix.task.assigner.ThreadCountBasedTaskAssigner;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmark of assigning the tasks of one job, the unit of work AbstractTaskDispatcher hands to the
+ * task assigner on every pipeline run. The indexed variant uses ThreadCountBasedTaskAssigner with
+ * the capacity index of AssignableInstanceManager; the sched queue variant is the previous
+ * algorithm, which sorted all instances into a priority queue on every call. Assigned tasks are
+ * released after every operation so the cluster stays in the same partially loaded state.
+ *
+ * Example:
+ * java -jar helix-benchmarks.jar TaskAssignerBenchmark -p numInstances=1000 -p tasksPerJob=10
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class TaskAssignerBenchmark {
+  private static final String RESOURCE_TYPE =
+      LiveInstance.InstanceResourceType.TASK_EXEC_THREAD.name();
+  private static final String QUOTA_TYPE = AssignableInstance.DEFAULT_QUOTA_TYPE;
+  private static final String CLUSTER_NAME = "TaskAssignerBenchmarkCluster";
+
+  @Param({"100", "1000"})
+  public int numInstances;
+
+  @Param({"10", "100"})
+  public int tasksPerJob;
+
+  @Param({"40"})
+  public int threadsPerInstance;
+
+  private final ThreadCountBasedTaskAssigner _assigner = new ThreadCountBasedTaskAssigner();
+  private AssignableInstanceManager _assignableInstanceManager;
+  private Set<String> _instances;
+  private List<TaskConfig> _tasks;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    ClusterConfig clusterConfig = new ClusterConfig(CLUSTER_NAME);
+    Map<String, LiveInstance> liveInstances = new HashMap<>();
+    Map<String, InstanceConfig> instanceConfigs = new HashMap<>();
+    for (int i = 0; i < numInstances; i++) {
+      String instanceName = SyntheticCluster.INSTANCE_PREFIX + i;
+      LiveInstance liveInstance = new LiveInstance(instanceName);
+      liveInstance.setResourceCapacityMap(
+          Collections.singletonMap(RESOURCE_TYPE, Integer.toString(threadsPerInstance)));
+      liveInstances.put(instanceName, liveInstance);
+      instanceConfigs.put(instanceName, new InstanceConfig(instanceName));
+    }
+    _assignableInstanceManager = new AssignableInstanceManager();
+    _assignableInstanceManager.buildAssignableInstances(clusterConfig,
+        new TaskDataCache(CLUSTER_NAME), liveInstances, instanceConfigs);
+    _instances = _assignableInstanceManager.getAssignableInstanceNames();
+
+    // Leave the instances unevenly loaded by the tasks of other jobs
+    Random random = new Random(0);
+    for (String instanceName : _instances) {
+      int runningTasks = random.nextInt(threadsPerInstance / 2);
+      for (int t = 0; t < runningTasks; t++) {
+        TaskConfig task = new TaskConfig(null, null, instanceName + "_running_" + t, null);
+        _assignableInstanceManager.assign(instanceName,
+            _assignableInstanceManager.tryAssign(instanceName, task, QUOTA_TYPE));
+      }
+    }
+
+    _tasks = new ArrayList<>(tasksPerJob);
+    for (int t = 0; t < tasksPerJob; t++) {
+      _tasks.add(new TaskConfig(null, null, "job_task_" + t, null));
+    }
+  }
+
+  @Benchmark
+  public Map<String, TaskAssignResult> indexedAssign() {
+    Map<String, TaskAssignResult> results =
+        _assigner.assignTasks(_assignableInstanceManager, _instances, _tasks, QUOTA_TYPE);
+    release(results);
+    return results;
+  }
+
+  @Benchmark
+  public Map<String, TaskAssignResult> schedQueueAssign() {
+    Map<String, TaskAssignResult> results = assignWithSchedQueue();
+    release(results);
+    return results;
+  }
+
+  private void release(Map<String, TaskAssignResult> results) {
+    for (TaskAssignResult result : results.values()) {
+      if (result.isSuccessful()) {
+        _assignableInstanceManager.release(result.getInstanceName(), result.getTaskConfig(),
+            QUOTA_TYPE);
+      }
+    }
+  }
+
+  /**
+   * The assignment algorithm ThreadCountBasedTaskAssigner used before the capacity index.
+   */
+  private Map<String, TaskAssignResult> assignWithSchedQueue() {
+    PriorityQueue<AssignableInstance> queue =
+        new PriorityQueue<>(200, new Comparator<AssignableInstance>() {
+          @Override
+          public int compare(AssignableInstance o1, AssignableInstance o2) {
+            return getRemainingCapacity(o2) - getRemainingCapacity(o1);
+          }
+        });
+    for (String instance : _instances) {
+      queue.offer(_assignableInstanceManager.getAssignableInstance(instance));
+    }
+    Map<String, TaskAssignResult> assignResults = new HashMap<>();
+    for (TaskConfig task : _tasks) {
+      AssignableInstance instance = queue.poll();
+      TaskAssignResult result = instance.tryAssign(task, QUOTA_TYPE);
+      assignResults.put(task.getId(), result);
+      if (result.isSuccessful()) {
+        _assignableInstanceManager.assign(instance.getInstanceName(), result);
+      }
+      queue.offer(instance);
+    }
+    return assignResults;
+  }
+
+  private static int getRemainingCapacity(AssignableInstance instance) {
+    return instance.getTotalCapacity().get(RESOURCE_TYPE).get(QUOTA_TYPE)
+        - instance.getUsedCapacity().get(RESOURCE_TYPE).get(QUOTA_TYPE);
+  }
+}
@@ -0,0 +1,103 @@
+package org.apache.helix.benchmark;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.helix.msdcommon.datamodel.TrieRoutingData;
+import org.apache.helix.msdcommon.exception.InvalidRoutingDataException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmark of resolving the realm and the sharding key of ZK paths with TrieRoutingData, which
+ * FederatedZkClient does for every ZK request. The routing data has numShardingKeys sharding keys
+ * of the form /cluster_group_i/cluster_j spread over numRealms realms. Paths are looked up in a
+ * random order, three levels below their sharding keys.
+ * Run with -prof gc to see the allocation rate of the lookups.
+ *
+ * Example:
+ * java -jar helix-benchmarks.jar TrieRoutingDataBenchmark -p numShardingKeys=1000,100000 -prof gc
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class TrieRoutingDataBenchmark {
+  private static final int NUM_PATHS = 1 << 16;
+  private static final int CLUSTERS_PER_GROUP = 100;
+
+  @Param({"100000"})
+  private int numShardingKeys;
+
+  @Param({"20"})
+  private int numRealms;
+
+  private TrieRoutingData _routingData;
+  private String[] _paths;
+  private int _nextPath;
+
+  @Setup(Level.Trial)
+  public void setUp() throws InvalidRoutingDataException {
+    Map<String, List<String>> rawRoutingData = new HashMap<>();
+    for (int i = 0; i < numShardingKeys; i++) {
+      rawRoutingData.computeIfAbsent("zk-realm-" + i % numRealms + ":2181",
+          realm -> new ArrayList<>()).add(getShardingKey(i));
+    }
+    _routingData = new TrieRoutingData(rawRoutingData);
+
+    Random random = new Random(0);
+    _paths = new String[NUM_PATHS];
+    for (int i = 0; i < NUM_PATHS; i++) {
+      int key = random.nextInt(numShardingKeys);
+      _paths[i] = getShardingKey(key) + "/INSTANCES/instance_" + key % 50 + "/CURRENTSTATES";
+    }
+  }
+
+  @Benchmark
+  public String getMetadataStoreRealm() {
+    return _routingData.getMetadataStoreRealm(nextPath());
+  }
+
+  @Benchmark
+  public String getShardingKeyInPath() {
+    return _routingData.getShardingKeyInPath(nextPath());
+  }
+
+  private String nextPath() {
+    _nextPath = (_nextPath + 1) & (NUM_PATHS - 1);
+    return _paths[_nextPath];
+  }
+
+  private static String getShardingKey(int i) {
+    return "/cluster_group_" + i / CLUSTERS_PER_GROUP + "/cluster_" + i;
+  }
+}
@@ -0,0 +1,119 @@
+package org.apache.helix.benchmark;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.helix.zookeeper.datamodel.ZNRecord;
+import org.apache.helix.zookeeper.datamodel.serializer.ZNRecordBinarySerializer;
+import org.apache.helix.zookeeper.datamodel.serializer.ZNRecordSerializer;
+import org.apache.helix.zookeeper.datamodel.serializer.ZNRecordStreamingSerializer;
+import org.apache.helix.zookeeper.zkclient.serialize.ZkSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmark of the ZNRecord serializers on an ExternalView sized record. The compressed variants
+ * force GZip compression with {@link ZNRecord#ENABLE_COMPRESSION_BOOLEAN_FIELD}. The serialized
+ * size of each variant is printed once per trial.
+ *
+ * Example:
+ * java -jar helix-benchmarks.jar ZNRecordSerializerBenchmark -p format=BINARY -p compressed=true
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class ZNRecordSerializerBenchmark {
+  public enum Format {
+    JSON(new ZNRecordSerializer()),
+    STREAMING_JSON(new ZNRecordStreamingSerializer()),
+    // Streaming JSON reading only the partition state maps, with the values pooled.
+    STREAMING_JSON_MAP_FIELDS(new ZNRecordStreamingSerializer(
+        EnumSet.of(ZNRecordStreamingSerializer.Field.MAP_FIELDS), 1024)),
+    BINARY(new ZNRecordBinarySerializer());
+
+    private final ZkSerializer _serializer;
+
+    Format(ZkSerializer serializer) {
+      _serializer = serializer;
+    }
+  }
+
+  @Param({"JSON", "STREAMING_JSON", "STREAMING_JSON_MAP_FIELDS", "BINARY"})
+  public Format format;
+
+  @Param({"false", "true"})
+  public boolean compressed;
+
+  @Param({"100"})
+  public int numInstances;
+
+  @Param({"1024"})
+  public int numPartitions;
+
+  @Param({"3"})
+  public int numReplicas;
+
+  private ZkSerializer _serializer;
+  private ZNRecord _record;
+  private byte[] _serializedBytes;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    _serializer = format._serializer;
+    _record = new ZNRecord("resource_0");
+    _record.setSimpleField("BUCKET_SIZE", "0");
+    _record.setSimpleField("STATE_MODEL_DEF_REF", "MasterSlave");
+    if (compressed) {
+      _record.setBooleanField(ZNRecord.ENABLE_COMPRESSION_BOOLEAN_FIELD, true);
+    }
+    for (int p = 0; p < numPartitions; p++) {
+      Map<String, String> stateMap = new HashMap<>();
+      for (int r = 0; r < numReplicas; r++) {
+        stateMap.put(SyntheticCluster.INSTANCE_PREFIX + (p + r) % numInstances,
+            r == 0 ? "MASTER" : "SLAVE");
+      }
+      _record.setMapField("resource_0_" + p, stateMap);
+    }
+    _serializedBytes = _serializer.serialize(_record);
+    System.out.printf("%nSerialized size of %s (compressed: %s): %d bytes%n", format, compressed,
+        _serializedBytes.length);
+  }
+
+  @Benchmark
+  public byte[] serialize() {
+    return _serializer.serialize(_record);
+  }
+
+  @Benchmark
+  public Object deserialize() {
+    return _serializer.deserialize(_serializedBytes);
+  }
+}
@@ -34,6 +34,10 @@ public class SystemPropertyKeys {
   // Task Driver
   public static final String TASK_CONFIG_LIMITATION = "helixTask.configsLimitation";
 
+  // Job contexts with at least this many tasks are stored in partition buckets, off by default
+  public static final String TASK_JOB_CONTEXT_BUCKET_THRESHOLD =
+      "helixTask.jobContext.bucketThreshold";
+
   // Task executor threadpool reset timeout in ms
   public static final String TASK_THREADPOOL_RESET_TIMEOUT = "helixTask.threadpool.resetTimeout";
 
@@ -71,6 +75,13 @@ public class SystemPropertyKeys {
 
   // Controller
   public static final String CONTROLLER_MESSAGE_PURGE_DELAY = "helix.controller.stages.MessageGenerationPhase.messagePurgeDelay";
+  // Log the stage breakdown of the pipeline runs that take longer than this in ms, off by default
+  public static final String CONTROLLER_SLOW_PIPELINE_THRESHOLD =
+      "helix.controller.pipeline.slowPipelineThreshold";
+  // Refresh the caches of the leader controller from persistent recursive ZK watches, with a full
+  // reconciliation of each cache at least this often in ms, off by default
+  public static final String CONTROLLER_WATCH_DRIVEN_CACHE_REFRESH_INTERVAL =
+      "helix.controller.watchDrivenCacheRefresh.reconciliationInterval";
 
   // Message
   public static final String MESSAGE_EXPECTED_COMPLETION_PERIOD = "helix.controller.message.ExpectMessageCompletionPeriod";
@@ -90,4 +101,29 @@ public class SystemPropertyKeys {
 
   public static final String TASK_CURRENT_STATE_PATH_DISABLED =
       "helix.taskCurrentStatePathDisabled";
+
+  // Participant CurrentState write coalescing
+  public static final String CURRENT_STATE_WRITE_COALESCING_ENABLED =
+      "helix.participant.currentStateWriteCoalescing.enabled";
+
+  public static final String CURRENT_STATE_WRITE_WINDOW_MS =
+      "helix.participant.currentStateWriteWindowMs";
+
+  public static final String CURRENT_STATE_WRITE_MAX_BATCH_SIZE =
+      "helix.participant.currentStateWriteMaxBatchSize";
+
+  // Participant state transition priority execution. Only the shared STATE_TRANSITION pool is
+  // ordered, the transitions on per-resource or custom thread pools keep their arrival order.
+  public static final String STATE_TRANSITION_PRIORITY_EXECUTION_ENABLED =
+      "helix.participant.stateTransitionPriorityExecution.enabled";
+
+  public static final String STATE_TRANSITION_PRIORITY_POLICY_CLASS =
+      "helix.participant.stateTransitionPriorityPolicy";
+
+  // Participant message handling on virtual threads, requires Java 21
+  public static final String MESSAGE_HANDLER_VIRTUAL_THREADS_ENABLED =
+      "helix.participant.messageHandlerVirtualThreads.enabled";
+
+  // Cache the configs read by the ConfigAccessor of HelixManagers and the REST server
+  public static final String CONFIG_ACCESSOR_CACHE_ENABLED = "helix.configAccessor.cache.enabled";
 }
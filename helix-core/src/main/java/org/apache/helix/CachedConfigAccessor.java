@@ -0,0 +1,450 @@
+package org.apache.helix;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import javax.management.JMException;
+
+import org.apache.helix.manager.zk.GenericZkHelixApiBuilder;
+import org.apache.helix.model.ClusterConfig;
+import org.apache.helix.model.ConfigScope;
+import org.apache.helix.model.HelixConfigScope;
+import org.apache.helix.model.HelixConfigScope.ConfigScopeProperty;
+import org.apache.helix.model.InstanceConfig;
+import org.apache.helix.model.ResourceConfig;
+import org.apache.helix.model.builder.HelixConfigScopeBuilder;
+import org.apache.helix.monitoring.mbeans.ConfigAccessorCacheMonitor;
+import org.apache.helix.zookeeper.api.client.RealmAwareZkClient;
+import org.apache.helix.zookeeper.datamodel.ZNRecord;
+import org.apache.helix.zookeeper.zkclient.IZkDataListener;
+import org.apache.helix.zookeeper.zkclient.annotation.PreFetchChangedData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link ConfigAccessor} that keeps the cluster, instance and resource configs it reads in
+ * memory, so the repeated lookups on hot paths don't read and decode the ZNode every time.
+ *
+ * Every cached config ZNode is watched, and its entry is dropped as soon as the watch fires. A
+ * lookup therefore never returns a config older than the last change event the accessor has
+ * observed. Writes made through this accessor drop the affected entries right away. Each config
+ * scope holds a bounded number of entries, and evicts the least recently used one when it is full.
+ *
+ * The configs returned are copies of the cached ones, so callers are free to modify them.
+ */
+public class CachedConfigAccessor extends ConfigAccessor {
+  private static final Logger LOG = LoggerFactory.getLogger(CachedConfigAccessor.class);
+
+  public static final int DEFAULT_MAX_CLUSTER_CONFIGS = 64;
+  public static final int DEFAULT_MAX_INSTANCE_CONFIGS = 10000;
+  public static final int DEFAULT_MAX_RESOURCE_CONFIGS = 10000;
+
+  private static final AtomicInteger ACCESSOR_ID = new AtomicInteger(0);
+  // Marks a cached lookup whose config ZNode does not exist.
+  private static final ZNRecord NOT_EXIST = new ZNRecord("NOT_EXIST");
+
+  private final RealmAwareZkClient _zkClient;
+  private final String _name;
+  private final InvalidationListener _invalidationListener = new InvalidationListener();
+  private final ScopeCache _clusterConfigs;
+  private final ScopeCache _instanceConfigs;
+  private final ScopeCache _resourceConfigs;
+
+  /**
+   * Create a cached accessor on an existing ZkClient, which is not closed with the accessor.
+   * @param zkClient the ZkClient to read and watch the configs with
+   * @param name the name of the accessor in the cache MBeans, or null to generate one
+   */
+  public CachedConfigAccessor(RealmAwareZkClient zkClient, String name) {
+    this(zkClient, true, name, DEFAULT_MAX_CLUSTER_CONFIGS, DEFAULT_MAX_INSTANCE_CONFIGS,
+        DEFAULT_MAX_RESOURCE_CONFIGS);
+  }
+
+  private CachedConfigAccessor(RealmAwareZkClient zkClient, boolean usesExternalZkClient,
+      String name, int maxClusterConfigs, int maxInstanceConfigs, int maxResourceConfigs) {
+    super(zkClient, usesExternalZkClient);
+    _zkClient = zkClient;
+    _name = name == null ? "ConfigAccessor-" + ACCESSOR_ID.incrementAndGet() : name;
+    _clusterConfigs = new ScopeCache(ConfigScopeProperty.CLUSTER, maxClusterConfigs);
+    _instanceConfigs = new ScopeCache(ConfigScopeProperty.PARTICIPANT, maxInstanceConfigs);
+    _resourceConfigs = new ScopeCache(ConfigScopeProperty.RESOURCE, maxResourceConfigs);
+  }
+
+  public String getName() {
+    return _name;
+  }
+
+  @Override
+  public ClusterConfig getClusterConfig(String clusterName) {
+    ZNRecord record = _clusterConfigs.get(clusterConfigPath(clusterName), () -> {
+      ClusterConfig config = super.getClusterConfig(clusterName);
+      return config == null ? null : config.getRecord();
+    });
+    return record == null ? null : new ClusterConfig(new ZNRecord(record));
+  }
+
+  @Override
+  public InstanceConfig getInstanceConfig(String clusterName, String instanceName) {
+    ZNRecord record = _instanceConfigs.get(instanceConfigPath(clusterName, instanceName), () -> {
+      InstanceConfig config = super.getInstanceConfig(clusterName, instanceName);
+      return config == null ? null : config.getRecord();
+    });
+    return record == null ? null : new InstanceConfig(new ZNRecord(record));
+  }
+
+  @Override
+  public ResourceConfig getResourceConfig(String clusterName, String resourceName) {
+    ZNRecord record = _resourceConfigs.get(resourceConfigPath(clusterName, resourceName), () -> {
+      ResourceConfig config = super.getResourceConfig(clusterName, resourceName);
+      return config == null ? null : config.getRecord();
+    });
+    return record == null ? null : new ResourceConfig(new ZNRecord(record));
+  }
+
+  @Override
+  public void setClusterConfig(String clusterName, ClusterConfig clusterConfig) {
+    try {
+      super.setClusterConfig(clusterName, clusterConfig);
+    } finally {
+      invalidate(clusterConfigPath(clusterName));
+    }
+  }
+
+  @Override
+  public void updateClusterConfig(String clusterName, ClusterConfig clusterConfig) {
+    try {
+      super.updateClusterConfig(clusterName, clusterConfig);
+    } finally {
+      invalidate(clusterConfigPath(clusterName));
+    }
+  }
+
+  @Override
+  public void setInstanceConfig(String clusterName, String instanceName,
+      InstanceConfig instanceConfig) {
+    try {
+      super.setInstanceConfig(clusterName, instanceName, instanceConfig);
+    } finally {
+      invalidate(instanceConfigPath(clusterName, instanceName));
+    }
+  }
+
+  @Override
+  public void updateInstanceConfig(String clusterName, String instanceName,
+      InstanceConfig instanceConfig) {
+    try {
+      super.updateInstanceConfig(clusterName, instanceName, instanceConfig);
+    } finally {
+      invalidate(instanceConfigPath(clusterName, instanceName));
+    }
+  }
+
+  @Override
+  public void setResourceConfig(String clusterName, String resourceName,
+      ResourceConfig resourceConfig) {
+    try {
+      super.setResourceConfig(clusterName, resourceName, resourceConfig);
+    } finally {
+      invalidate(resourceConfigPath(clusterName, resourceName));
+    }
+  }
+
+  @Override
+  public void updateResourceConfig(String clusterName, String resourceName,
+      ResourceConfig resourceConfig) {
+    try {
+      super.updateResourceConfig(clusterName, resourceName, resourceConfig);
+    } finally {
+      invalidate(resourceConfigPath(clusterName, resourceName));
+    }
+  }
+
+  @Override
+  public void set(HelixConfigScope scope, Map<String, String> keyValueMap) {
+    try {
+      super.set(scope, keyValueMap);
+    } finally {
+      invalidate(scope);
+    }
+  }
+
+  @Override
+  public void remove(HelixConfigScope scope, List<String> keys) {
+    try {
+      super.remove(scope, keys);
+    } finally {
+      invalidate(scope);
+    }
+  }
+
+  @Override
+  public void remove(HelixConfigScope scope, ZNRecord recordToRemove) {
+    try {
+      super.remove(scope, recordToRemove);
+    } finally {
+      invalidate(scope);
+    }
+  }
+
+  @Override
+  public void set(ConfigScope scope, Map<String, String> keyValueMap) {
+    try {
+      super.set(scope, keyValueMap);
+    } finally {
+      invalidate(scope);
+    }
+  }
+
+  @Override
+  public void remove(ConfigScope scope, List<String> keys) {
+    try {
+      super.remove(scope, keys);
+    } finally {
+      invalidate(scope);
+    }
+  }
+
+  /**
+   * Drop all the cached configs.
+   */
+  public void invalidateAll() {
+    _clusterConfigs.clear();
+    _instanceConfigs.clear();
+    _resourceConfigs.clear();
+  }
+
+  @Override
+  public void close() {
+    invalidateAll();
+    _clusterConfigs.unregisterMonitor();
+    _instanceConfigs.unregisterMonitor();
+    _resourceConfigs.unregisterMonitor();
+    super.close();
+  }
+
+  private void invalidate(HelixConfigScope scope) {
+    if (scope != null && scope.getType() != null && scope.isFullKey()) {
+      invalidate(scope.getZkPath());
+    }
+  }
+
+  private void invalidate(ConfigScope scope) {
+    if (scope != null && scope.getScopeStr() != null) {
+      // The scope string is the ZNode path, followed by the map key if any.
+      invalidate(scope.getScopeStr().split("\\|")[0]);
+    }
+  }
+
+  private void invalidate(String path) {
+    ScopeCache cache = getScopeCache(path);
+    if (cache != null) {
+      cache.invalidate(path);
+    }
+  }
+
+  private ScopeCache getScopeCache(String path) {
+    // The config paths end with /CONFIGS/{scope}/{name}
+    String[] parts = path.split("/");
+    if (parts.length < 4 || !"CONFIGS".equals(parts[parts.length - 3])) {
+      return null;
+    }
+    String scope = parts[parts.length - 2];
+    if (ConfigScopeProperty.CLUSTER.name().equals(scope)) {
+      return _clusterConfigs;
+    } else if (ConfigScopeProperty.PARTICIPANT.name().equals(scope)) {
+      return _instanceConfigs;
+    } else if (ConfigScopeProperty.RESOURCE.name().equals(scope)) {
+      return _resourceConfigs;
+    }
+    return null;
+  }
+
+  private static String clusterConfigPath(String clusterName) {
+    return new HelixConfigScopeBuilder(ConfigScopeProperty.CLUSTER).forCluster(clusterName).build()
+        .getZkPath();
+  }
+
+  private static String instanceConfigPath(String clusterName, String instanceName) {
+    return new HelixConfigScopeBuilder(ConfigScopeProperty.PARTICIPANT).forCluster(clusterName)
+        .forParticipant(instanceName).build().getZkPath();
+  }
+
+  private static String resourceConfigPath(String clusterName, String resourceName) {
+    return new HelixConfigScopeBuilder(ConfigScopeProperty.RESOURCE).forCluster(clusterName)
+        .forResource(resourceName).build().getZkPath();
+  }
+
+  @PreFetchChangedData(enabled = false)
+  private class InvalidationListener implements IZkDataListener {
+    @Override
+    public void handleDataChange(String dataPath, Object data) {
+      invalidate(dataPath);
+    }
+
+    @Override
+    public void handleDataDeleted(String dataPath) {
+      invalidate(dataPath);
+    }
+  }
+
+  /**
+   * The LRU cache of one config scope, keyed by the config ZNode path.
+   *
+   * Every entry in the cache has a data watch on its path. A lookup that misses subscribes to the
+   * path before reading it, and only caches the result if no entry of the scope was invalidated or
+   * evicted meanwhile. Otherwise a change between the read and the caching could be lost.
+   */
+  private class ScopeCache {
+    private final int _maxSize;
+    private final ConfigAccessorCacheMonitor _monitor;
+    private final LinkedHashMap<String, ZNRecord> _entries;
+    // Bumped whenever an entry is removed, guarded by this
+    private long _generation = 0L;
+
+    ScopeCache(ConfigScopeProperty scope, int maxSize) {
+      if (maxSize <= 0) {
+        throw new IllegalArgumentException("Max cache size must be positive: " + maxSize);
+      }
+      _maxSize = maxSize;
+      _entries = new LinkedHashMap<>(16, 0.75f, true);
+      _monitor = new ConfigAccessorCacheMonitor(_name, scope.name());
+      try {
+        _monitor.register();
+      } catch (JMException e) {
+        LOG.warn("Failed to register the config cache monitor of {} scope {}.", _name, scope, e);
+      }
+    }
+
+    ZNRecord get(String path, Supplier<ZNRecord> loader) {
+      long generation;
+      synchronized (this) {
+        ZNRecord cached = _entries.get(path);
+        if (cached != null) {
+          _monitor.increaseHitCounter();
+          return cached == NOT_EXIST ? null : cached;
+        }
+        generation = _generation;
+      }
+      _monitor.increaseMissCounter();
+
+      // Watch before reading, so any change after the read invalidates the entry.
+      _zkClient.subscribeDataChanges(path, _invalidationListener);
+      ZNRecord record = null;
+      boolean loaded = false;
+      try {
+        record = loader.get();
+        loaded = true;
+      } finally {
+        synchronized (this) {
+          if (loaded && generation == _generation) {
+            _entries.put(path, record == null ? NOT_EXIST : record);
+            evictIfFull();
+            _monitor.updateCacheSize(_entries.size());
+          } else if (!_entries.containsKey(path)) {
+            // Not cached, stop watching. Other loaders of the path must not cache unwatched.
+            _generation++;
+            _zkClient.unsubscribeDataChanges(path, _invalidationListener);
+          }
+        }
+      }
+      return record;
+    }
+
+    synchronized void invalidate(String path) {
+      if (_entries.remove(path) != null) {
+        _monitor.increaseInvalidationCounter();
+        _monitor.updateCacheSize(_entries.size());
+      }
+      _generation++;
+      _zkClient.unsubscribeDataChanges(path, _invalidationListener);
+    }
+
+    synchronized void clear() {
+      for (String path : new ArrayList<>(_entries.keySet())) {
+        _zkClient.unsubscribeDataChanges(path, _invalidationListener);
+      }
+      _entries.clear();
+      _generation++;
+      _monitor.updateCacheSize(0);
+    }
+
+    void unregisterMonitor() {
+      _monitor.unregister();
+    }
+
+    private void evictIfFull() {
+      Iterator<Map.Entry<String, ZNRecord>> iterator = _entries.entrySet().iterator();
+      while (_entries.size() > _maxSize && iterator.hasNext()) {
+        String path = iterator.next().getKey();
+        iterator.remove();
+        _generation++;
+        _zkClient.unsubscribeDataChanges(path, _invalidationListener);
+        _monitor.increaseEvictionCounter();
+      }
+    }
+  }
+
+  public static class Builder extends GenericZkHelixApiBuilder<Builder> {
+    private String _name;
+    private int _maxClusterConfigs = DEFAULT_MAX_CLUSTER_CONFIGS;
+    private int _maxInstanceConfigs = DEFAULT_MAX_INSTANCE_CONFIGS;
+    private int _maxResourceConfigs = DEFAULT_MAX_RESOURCE_CONFIGS;
+
+    public Builder() {
+    }
+
+    /**
+     * Set the name of the accessor in the cache MBeans. A name is generated if not set.
+     */
+    public Builder setName(String name) {
+      _name = name;
+      return this;
+    }
+
+    public Builder setMaxClusterConfigs(int maxClusterConfigs) {
+      _maxClusterConfigs = maxClusterConfigs;
+      return this;
+    }
+
+    public Builder setMaxInstanceConfigs(int maxInstanceConfigs) {
+      _maxInstanceConfigs = maxInstanceConfigs;
+      return this;
+    }
+
+    public Builder setMaxResourceConfigs(int maxResourceConfigs) {
+      _maxResourceConfigs = maxResourceConfigs;
+      return this;
+    }
+
+    public CachedConfigAccessor build() {
+      validate();
+      return new CachedConfigAccessor(
+          createZkClient(_realmMode, _realmAwareZkConnectionConfig, _realmAwareZkClientConfig,
+              _zkAddress), false, _name, _maxClusterConfigs, _maxInstanceConfigs,
+          _maxResourceConfigs);
+    }
+  }
+}
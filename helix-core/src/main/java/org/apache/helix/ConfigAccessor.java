@@ -84,7 +84,7 @@ public class ConfigAccessor {
   // This is used for close() to determine how ConfigAccessor should close the underlying ZkClient
   private final boolean _usesExternalZkClient;
 
-  private ConfigAccessor(RealmAwareZkClient zkClient, boolean usesExternalZkClient) {
+  protected ConfigAccessor(RealmAwareZkClient zkClient, boolean usesExternalZkClient) {
     _zkClient = zkClient;
     _usesExternalZkClient = usesExternalZkClient;
   }
@@ -18,7 +18,10 @@ package org.apache.helix.common;
  * specific language governing permissions and limitations
  * under the License.
  */
+import java.util.Map;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.helix.controller.stages.ClusterEvent;
 import org.apache.helix.controller.stages.ClusterEventType;
@@ -31,13 +34,31 @@ import org.slf4j.LoggerFactory;
  * made. This queue has no capacity. This class is meant to be a limited implementation of the
  * {@link BlockingQueue} interface.
  *
+ * Optionally, the queue batches the events adaptively. When more than one event has arrived since
+ * the previous take, the consumer waits for a window before running the event, and the events of
+ * the same type that arrive within the window are coalesced into the taken one. The window doubles
+ * while the events keep arriving, halves once they slow down, and is capped by the max window.
+ *
  * This class is deprecated, please use {@link org.apache.helix.common.DedupEventBlockingQueue}.
  */
 @Deprecated
 public class ClusterEventBlockingQueue {
   private static final Logger LOG = LoggerFactory.getLogger(ClusterEventBlockingQueue.class);
 
+  // The first window after the queue becomes busy.
+  private static final long INITIAL_BATCH_WINDOW_MS = 10L;
+
   private DedupEventBlockingQueue<ClusterEventType, ClusterEvent> _eventQueue;
+  // The number of events put since the previous take.
+  private final AtomicInteger _arrivalCount = new AtomicInteger();
+  // The number of events put for each type that is still in the queue.
+  private final Map<ClusterEventType, Integer> _pendingEventCounts = new ConcurrentHashMap<>();
+  private volatile long _maxBatchWindowMs = 0L;
+
+  // The following fields are only accessed by the consumer thread.
+  private long _batchWindowMs = 0L;
+  private long _lastBatchWindowMs = 0L;
+  private int _lastCoalescedEventCount = 0;
 
   /**
    * Instantiate the queue
@@ -51,6 +72,7 @@ public class ClusterEventBlockingQueue {
    */
   public void clear() {
     _eventQueue.clear();
+    _pendingEventCounts.clear();
   }
 
   /**
@@ -58,6 +80,8 @@ public class ClusterEventBlockingQueue {
    * @param event ClusterEvent event to add
    */
   public void put(ClusterEvent event) {
+    _arrivalCount.incrementAndGet();
+    _pendingEventCounts.merge(event.getEventType(), 1, Integer::sum);
     _eventQueue.put(event.getEventType(), event);
     LOG.debug("Putting event {}", event.getEventType());
     LOG.debug("Event queue size: {}", _eventQueue.size());
@@ -65,19 +89,77 @@ public class ClusterEventBlockingQueue {
 
   /**
    * Remove an element from the front of the queue, blocking if none is available. This method
-   * will return the most recent event seen with the oldest enqueued event name.
+   * will return the most recent event seen with the oldest enqueued event name. If the batching is
+   * enabled, the events of the same type that arrive within the batch window are coalesced into
+   * the returned event, which keeps the creation time of the oldest coalesced event.
    * @return ClusterEvent at the front of the queue
    * @throws InterruptedException if the wait for elements was interrupted
    */
   public ClusterEvent take() throws InterruptedException {
     ClusterEvent event = _eventQueue.take();
     if (event != null) {
+      int coalescedEventCount = removePendingEventCount(event.getEventType()) - 1;
+      long batchWindow = nextBatchWindow();
+      if (batchWindow > 0) {
+        Thread.sleep(batchWindow);
+        ClusterEvent newerEvent = _eventQueue.remove(event.getEventType());
+        if (newerEvent != null) {
+          coalescedEventCount += removePendingEventCount(newerEvent.getEventType());
+          newerEvent.setCreationTime(
+              Math.min(event.getCreationTime(), newerEvent.getCreationTime()));
+          event = newerEvent;
+        }
+      }
+      _lastBatchWindowMs = batchWindow;
+      _lastCoalescedEventCount = Math.max(0, coalescedEventCount);
       LOG.debug("Taking event " + event.getEventType());
       LOG.debug("Event queue size: " + _eventQueue.size());
     }
     return event;
   }
 
+  /**
+   * Set the max batch window. The change applies from the next take.
+   * @param maxBatchWindowMs the max window in milliseconds, 0 to disable the batching
+   */
+  public void setMaxBatchWindow(long maxBatchWindowMs) {
+    _maxBatchWindowMs = Math.max(0L, maxBatchWindowMs);
+  }
+
+  /**
+   * @return the time in milliseconds that the latest take waited for the batch window
+   */
+  public long getLastBatchWindow() {
+    return _lastBatchWindowMs;
+  }
+
+  /**
+   * @return the number of events that have been coalesced into the latest taken event
+   */
+  public int getLastCoalescedEventCount() {
+    return _lastCoalescedEventCount;
+  }
+
+  private long nextBatchWindow() {
+    int arrivalCount = _arrivalCount.getAndSet(0);
+    long maxBatchWindow = _maxBatchWindowMs;
+    if (maxBatchWindow <= 0) {
+      _batchWindowMs = 0L;
+    } else if (arrivalCount > 1) {
+      // More events have arrived while the previous event was processed.
+      _batchWindowMs =
+          Math.min(maxBatchWindow, Math.max(INITIAL_BATCH_WINDOW_MS, _batchWindowMs * 2));
+    } else {
+      _batchWindowMs = _batchWindowMs / 2;
+    }
+    return _batchWindowMs;
+  }
+
+  private int removePendingEventCount(ClusterEventType eventType) {
+    Integer count = _pendingEventCounts.remove(eventType);
+    return count == null ? 1 : count;
+  }
+
   /**
    * Get at the head of the queue without removing it
    * @return ClusterEvent at the front of the queue, or null if none available
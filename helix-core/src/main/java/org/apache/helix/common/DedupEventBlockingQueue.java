@@ -109,6 +109,19 @@ public class DedupEventBlockingQueue<T, E> {
     return null;
   }
 
+  /**
+   * Remove the event of the given type from the queue, regardless of its position in the queue.
+   * @return the most recent event seen with the given type, or null if there is no such event
+   */
+  public synchronized E remove(T type) {
+    Entry entry = _eventMap.remove(type);
+    if (entry == null) {
+      return null;
+    }
+    _eventQueue.removeIf(queued -> type.equals(queued.getType()));
+    return (E) entry.getEvent();
+  }
+
   /**
    * Get at the head of the queue without removing it
    * @return ClusterEvent at the front of the queue, or null if none available
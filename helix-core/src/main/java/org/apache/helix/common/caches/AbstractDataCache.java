@@ -43,13 +43,53 @@ public abstract class AbstractDataCache<T extends HelixProperty> {
 
   protected ControlContextProvider _controlContextProvider;
 
+  private ZkPathChangeTracker _changeTracker;
+  private long _statReadCount = 0L;
+  private long _dataReadCount = 0L;
+
   public AbstractDataCache(ControlContextProvider controlContextProvider) {
     _controlContextProvider = controlContextProvider;
   }
 
+  /**
+   * Set the tracker of the ZNodes changed under the cached properties. With a tracker, a refresh
+   * only reloads the properties whose ZNode has changed, except when the tracker asks for a full
+   * reconciliation. The tracker is started and stopped by the caller.
+   * @param changeTracker the change tracker, or null to check the stat of all the cached
+   *                      properties on every refresh
+   */
+  public void setChangeTracker(ZkPathChangeTracker changeTracker) {
+    _changeTracker = changeTracker;
+  }
+
+  public ZkPathChangeTracker getChangeTracker() {
+    return _changeTracker;
+  }
+
+  /**
+   * @return the total number of ZNode stats read by this cache
+   */
+  public long getStatReadCount() {
+    return _statReadCount;
+  }
+
+  /**
+   * @return the total number of ZNodes read by this cache
+   */
+  public long getDataReadCount() {
+    return _dataReadCount;
+  }
+
+  protected void increaseReadCounts(long statReadCount, long dataReadCount) {
+    _statReadCount += statReadCount;
+    _dataReadCount += dataReadCount;
+  }
+
   /**
    * Selectively fetch Helix Properties from ZK by comparing the version of local cached one with the one on ZK.
    * If version on ZK is newer, fetch it from zk and update local cache.
+   * If a change tracker is set, only the properties changed according to the tracker are fetched,
+   * unless the tracker requires a full reconciliation.
    * @param accessor the HelixDataAccessor
    * @param reloadKeysIn keys needs to be reload
    * @param cachedKeys keys already exists in the cache
@@ -63,29 +103,27 @@ public abstract class AbstractDataCache<T extends HelixProperty> {
     // All new entries from zk not cached locally yet should be read from ZK.
     List<PropertyKey> reloadKeys = new ArrayList<>(reloadKeysIn);
     Map<PropertyKey, T> refreshedPropertyMap = Maps.newHashMap();
-    List<HelixProperty.Stat> stats = accessor.getPropertyStats(cachedKeys);
-    for (int i = 0; i < cachedKeys.size(); i++) {
-      PropertyKey key = cachedKeys.get(i);
-      HelixProperty.Stat stat = stats.get(i);
-      if (stat != null) {
+    Set<String> changedPaths =
+        _changeTracker == null ? null : _changeTracker.drainChangedPaths();
+    if (changedPaths != null) {
+      for (PropertyKey key : cachedKeys) {
         T property = cachedPropertyMap.get(key);
-
-        if (property != null && property.getBucketSize() == 0 && property.getStat().equals(stat)) {
+        if (property != null && property.getBucketSize() == 0 && !isChanged(key, changedPaths)) {
           refreshedPropertyMap.put(key, property);
         } else {
-          // need update from zk
           reloadKeys.add(key);
         }
-      } else {
-        LOG.warn("stat is null for key: " + key);
-        reloadKeys.add(key);
       }
+    } else {
+      refreshCachedProperties(accessor, cachedKeys, cachedPropertyMap, refreshedPropertyMap,
+          reloadKeys);
     }
 
     reloadedKeys.clear();
     reloadedKeys.addAll(reloadKeys);
 
     List<T> reloadedProperty = accessor.getProperty(reloadKeys, true);
+    increaseReadCounts(0, reloadKeys.size());
     Iterator<PropertyKey> csKeyIter = reloadKeys.iterator();
     for (T property : reloadedProperty) {
       PropertyKey key = csKeyIter.next();
@@ -97,12 +135,46 @@ public abstract class AbstractDataCache<T extends HelixProperty> {
     }
 
     LogUtil.logInfo(LOG, genEventInfo(),
-        String.format("%s properties refreshed from ZK.", reloadKeys.size()));
+        String.format("%s properties refreshed from ZK. Watch driven: %s", reloadKeys.size(),
+            changedPaths != null));
     LOG.debug("refreshed keys: {}", reloadKeys);
 
     return refreshedPropertyMap;
   }
 
+  // A key is changed if its ZNode or its parent ZNode has changed. The parent is reported by the
+  // child change callbacks of the HelixManager.
+  private static boolean isChanged(PropertyKey key, Set<String> changedPaths) {
+    String path = key.getPath();
+    return changedPaths.contains(path) || changedPaths
+        .contains(path.substring(0, Math.max(path.lastIndexOf('/'), 0)));
+  }
+
+  // Keep the cached properties whose stat on ZK is unchanged, and add the others to the reload keys.
+  private void refreshCachedProperties(HelixDataAccessor accessor, List<PropertyKey> cachedKeys,
+      Map<PropertyKey, T> cachedPropertyMap, Map<PropertyKey, T> refreshedPropertyMap,
+      List<PropertyKey> reloadKeys) {
+    List<HelixProperty.Stat> stats = accessor.getPropertyStats(cachedKeys);
+    increaseReadCounts(cachedKeys.size(), 0);
+    for (int i = 0; i < cachedKeys.size(); i++) {
+      PropertyKey key = cachedKeys.get(i);
+      HelixProperty.Stat stat = stats.get(i);
+      if (stat != null) {
+        T property = cachedPropertyMap.get(key);
+
+        if (property != null && property.getBucketSize() == 0 && property.getStat().equals(stat)) {
+          refreshedPropertyMap.put(key, property);
+        } else {
+          // need update from zk
+          reloadKeys.add(key);
+        }
+      } else {
+        LOG.warn("stat is null for key: " + key);
+        reloadKeys.add(key);
+      }
+    }
+  }
+
   protected String genEventInfo() {
     return String.format("%s::%s::%s", _controlContextProvider.getClusterName(),
         _controlContextProvider.getPipelineName(), _controlContextProvider.getClusterEventId());
@@ -69,6 +69,18 @@ public class CurrentStateCache extends ParticipantStateCache<CurrentState> {
     return participantStateKeys;
   }
 
+  @Override
+  protected Set<String> getParticipantStateRootPaths(HelixDataAccessor accessor,
+      Map<String, LiveInstance> liveInstanceMap) {
+    Set<String> rootPaths = new HashSet<>();
+    PropertyKey.Builder keyBuilder = accessor.keyBuilder();
+    for (LiveInstance liveInstance : liveInstanceMap.values()) {
+      rootPaths.add(keyBuilder.currentStates(liveInstance.getInstanceName(),
+          liveInstance.getEphemeralOwner()).getPath());
+    }
+    return rootPaths;
+  }
+
   protected void refreshSnapshot(Map<PropertyKey, CurrentState> newStateCache,
       Map<PropertyKey, CurrentState> participantStateCache, Set<PropertyKey> reloadedKeys) {
     if (_initialized) {
@@ -107,6 +107,14 @@ public abstract class ParticipantStateCache<T> extends AbstractDataCache {
       Map<String, LiveInstance> liveInstanceMap) {
 
     long start = System.currentTimeMillis();
+    ZkPathChangeTracker changeTracker = getChangeTracker();
+    if (changeTracker != null) {
+      // Track the participants that are live now, before their states are listed and read.
+      Set<String> rootPaths = getParticipantStateRootPaths(accessor, liveInstanceMap);
+      if (rootPaths != null) {
+        changeTracker.setRootPaths(rootPaths);
+      }
+    }
     Set<PropertyKey> participantStateKeys =
         PopulateParticipantKeys(accessor, liveInstanceMap);
 
@@ -139,6 +147,17 @@ public abstract class ParticipantStateCache<T> extends AbstractDataCache {
   protected abstract Set<PropertyKey> PopulateParticipantKeys(HelixDataAccessor accessor,
       Map<String, LiveInstance> liveInstanceMap);
 
+  /**
+   * Get the ZK paths under which the states of the live participants are stored, to be watched by
+   * the change tracker of this cache. The states of a new live participant session are not cached
+   * yet, so they are read anyway on the first refresh that tracks them.
+   * @return the paths, or null to keep the paths the change tracker was created with
+   */
+  protected Set<String> getParticipantStateRootPaths(HelixDataAccessor accessor,
+      Map<String, LiveInstance> liveInstanceMap) {
+    return null;
+  }
+
   /**
    * Refresh the snapshot of the cache. This method is optional for child class to extend. If the
    * child class does not need to refresh snapshot, it just does nothing.
@@ -166,6 +166,7 @@ public class PropertyCache<T extends HelixProperty> extends AbstractDataCache<T>
 
   private void doSimpleCacheRefresh(final HelixDataAccessor accessor) {
     _objCache = accessor.getChildValuesMap(_keyFuncs.getRootKey(accessor), true);
+    increaseReadCounts(0, _objCache.size());
     _objMap = new HashMap<>(_objCache);
   }
 
@@ -56,4 +56,16 @@ public class TaskCurrentStateCache extends ParticipantStateCache<CurrentState> {
     }
     return participantStateKeys;
   }
+
+  @Override
+  protected Set<String> getParticipantStateRootPaths(HelixDataAccessor accessor,
+      Map<String, LiveInstance> liveInstanceMap) {
+    Set<String> rootPaths = new HashSet<>();
+    PropertyKey.Builder keyBuilder = accessor.keyBuilder();
+    for (LiveInstance liveInstance : liveInstanceMap.values()) {
+      rootPaths.add(keyBuilder.taskCurrentStates(liveInstance.getInstanceName(),
+          liveInstance.getEphemeralOwner()).getPath());
+    }
+    return rootPaths;
+  }
 }
@@ -30,16 +30,19 @@ import java.util.concurrent.ConcurrentHashMap;
 import org.apache.helix.AccessOption;
 import org.apache.helix.HelixDataAccessor;
 import org.apache.helix.PropertyType;
+import org.apache.helix.SystemPropertyKeys;
 import org.apache.helix.common.controllers.ControlContextProvider;
 import org.apache.helix.controller.LogUtil;
 import org.apache.helix.model.ResourceConfig;
 import org.apache.helix.task.AssignableInstanceManager;
 import org.apache.helix.task.JobConfig;
 import org.apache.helix.task.JobContext;
+import org.apache.helix.task.JobContextBucketCodec;
 import org.apache.helix.task.RuntimeJobDag;
 import org.apache.helix.task.TaskConstants;
 import org.apache.helix.task.WorkflowConfig;
 import org.apache.helix.task.WorkflowContext;
+import org.apache.helix.util.HelixUtil;
 import org.apache.helix.zookeeper.datamodel.ZNRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -60,6 +63,11 @@ public class TaskDataCache extends AbstractDataCache {
   private Map<String, ZNRecord> _contextMap = new HashMap<>();
   private Set<String> _contextToUpdate = new HashSet<>();
   private Set<String> _contextToRemove = new HashSet<>();
+  // The buckets of the bucketed job contexts as they are in ZK, used to read and write the changed
+  // buckets only.
+  private Map<String, List<ZNRecord>> _contextBucketMap = new HashMap<>();
+  private final long _contextBucketThreshold = HelixUtil
+      .getSystemPropertyAsLong(SystemPropertyKeys.TASK_JOB_CONTEXT_BUCKET_THRESHOLD, -1L);
   // The following fields have been added for quota-based task scheduling
   private final AssignableInstanceManager _assignableInstanceManager =
       new AssignableInstanceManager();
@@ -161,6 +169,7 @@ public class TaskDataCache extends AbstractDataCache {
     }
 
     List<ZNRecord> contexts = accessor.getBaseDataAccessor().get(contextPaths, null, 0, true);
+    contexts = readContextBuckets(accessor, childNames, contexts);
 
     for (int i = 0; i < contexts.size(); i++) {
       ZNRecord context = contexts.get(i);
@@ -180,6 +189,72 @@ public class TaskDataCache extends AbstractDataCache {
     }
   }
 
+  /**
+   * Decode the bucketed job contexts. Only the buckets whose versions are different from the cached
+   * ones are read.
+   * @return the contexts, with the bucketed ones decoded
+   */
+  private List<ZNRecord> readContextBuckets(HelixDataAccessor accessor, List<String> childNames,
+      List<ZNRecord> contexts) {
+    Map<String, List<ZNRecord>> contextBucketMap = new HashMap<>();
+    List<String> bucketPaths = new ArrayList<>();
+    for (int i = 0; i < contexts.size(); i++) {
+      ZNRecord header = contexts.get(i);
+      if (!JobContextBucketCodec.isBucketed(header)) {
+        continue;
+      }
+      String resourceName = childNames.get(i);
+      List<String> versions = JobContextBucketCodec.getBucketVersions(header);
+      List<ZNRecord> cachedBuckets =
+          _contextBucketMap.getOrDefault(resourceName, new ArrayList<>());
+      List<ZNRecord> buckets = new ArrayList<>(versions.size());
+      for (int bucketIndex = 0; bucketIndex < versions.size(); bucketIndex++) {
+        if (bucketIndex < cachedBuckets.size() && versions.get(bucketIndex)
+            .equals(JobContextBucketCodec.getVersion(cachedBuckets.get(bucketIndex)))) {
+          buckets.add(cachedBuckets.get(bucketIndex));
+        } else {
+          // To be read
+          buckets.add(null);
+          bucketPaths.add(getContextBucketPath(resourceName, bucketIndex));
+        }
+      }
+      contextBucketMap.put(resourceName, buckets);
+    }
+    if (contextBucketMap.isEmpty()) {
+      _contextBucketMap.clear();
+      return contexts;
+    }
+
+    List<ZNRecord> readBuckets = bucketPaths.isEmpty() ? new ArrayList<>()
+        : accessor.getBaseDataAccessor().get(bucketPaths, null, 0, true);
+    int readPtr = 0;
+    List<ZNRecord> decodedContexts = new ArrayList<>(contexts);
+    for (int i = 0; i < contexts.size(); i++) {
+      List<ZNRecord> buckets = contextBucketMap.get(childNames.get(i));
+      if (buckets == null) {
+        continue;
+      }
+      for (int bucketIndex = 0; bucketIndex < buckets.size(); bucketIndex++) {
+        if (buckets.get(bucketIndex) == null) {
+          ZNRecord bucket = readBuckets.get(readPtr++);
+          if (bucket == null) {
+            LogUtil.logWarn(LOG, genEventInfo(), String
+                .format("Bucket %d of the context of %s is missing!", bucketIndex,
+                    childNames.get(i)));
+            bucket = new ZNRecord(childNames.get(i) + "_" + bucketIndex);
+          }
+          buckets.set(bucketIndex, bucket);
+        }
+      }
+      decodedContexts.set(i, JobContextBucketCodec.decode(contexts.get(i), buckets));
+    }
+    _contextBucketMap = contextBucketMap;
+    LogUtil.logDebug(LOG, genEventInfo(), String
+        .format("Read %d buckets of %d bucketed job contexts.", bucketPaths.size(),
+            contextBucketMap.size()));
+    return decodedContexts;
+  }
+
   /**
    * Returns job config map
    *
@@ -277,12 +352,105 @@ public class TaskDataCache extends AbstractDataCache {
   public void persistDataChanges(HelixDataAccessor accessor) {
     // Do not update it if the is need to be remove
     _contextToUpdate.removeAll(_contextToRemove);
-    batchUpdateData(accessor, new ArrayList<>(_contextToUpdate), _contextMap, _contextToUpdate,
+    List<String> contextsToUpdate = new ArrayList<>();
+    List<String> bucketedContextsToUpdate = new ArrayList<>();
+    for (String resourceName : _contextToUpdate) {
+      if (isBucketedContext(resourceName)) {
+        bucketedContextsToUpdate.add(resourceName);
+      } else {
+        contextsToUpdate.add(resourceName);
+      }
+    }
+    batchUpdateData(accessor, contextsToUpdate, _contextMap, _contextToUpdate,
         TaskDataType.CONTEXT);
+    batchUpdateBucketedContexts(accessor, bucketedContextsToUpdate);
     batchDeleteData(accessor, new ArrayList<>(_contextToRemove), TaskDataType.CONTEXT);
+    _contextBucketMap.keySet().removeAll(_contextToRemove);
     _contextToRemove.clear();
   }
 
+  private boolean isBucketedContext(String resourceName) {
+    if (_contextBucketMap.containsKey(resourceName)) {
+      return true;
+    }
+    ZNRecord context = _contextMap.get(resourceName);
+    return _contextBucketThreshold > 0 && context != null
+        && _jobConfigMap.containsKey(resourceName)
+        && context.getMapFields().size() >= _contextBucketThreshold;
+  }
+
+  /**
+   * Write the job contexts in buckets. Only the buckets that are different from the ones in ZK are
+   * written, then the headers that refer to the new bucket versions.
+   */
+  private void batchUpdateBucketedContexts(HelixDataAccessor accessor,
+      List<String> resourceNames) {
+    if (resourceNames.isEmpty()) {
+      return;
+    }
+    Map<String, List<ZNRecord>> newBucketMap = new HashMap<>();
+    List<String> bucketPaths = new ArrayList<>();
+    List<ZNRecord> dirtyBuckets = new ArrayList<>();
+    List<String> bucketOwners = new ArrayList<>();
+    for (String resourceName : resourceNames) {
+      ZNRecord context = _contextMap.get(resourceName);
+      if (context == null) {
+        continue;
+      }
+      List<ZNRecord> oldBuckets =
+          _contextBucketMap.getOrDefault(resourceName, new ArrayList<>());
+      List<ZNRecord> buckets =
+          JobContextBucketCodec.encodeBuckets(context, JobContextBucketCodec.DEFAULT_BUCKET_SIZE);
+      for (int bucketIndex = 0; bucketIndex < buckets.size(); bucketIndex++) {
+        ZNRecord bucket = buckets.get(bucketIndex);
+        ZNRecord oldBucket = bucketIndex < oldBuckets.size() ? oldBuckets.get(bucketIndex) : null;
+        if (oldBucket != null && JobContextBucketCodec.hasSameContent(bucket, oldBucket)) {
+          buckets.set(bucketIndex, oldBucket);
+          continue;
+        }
+        long version = oldBucket == null ? 0
+            : Long.parseLong(JobContextBucketCodec.getVersion(oldBucket)) + 1;
+        JobContextBucketCodec.setVersion(bucket, String.valueOf(version));
+        bucketPaths.add(getContextBucketPath(resourceName, bucketIndex));
+        dirtyBuckets.add(bucket);
+        bucketOwners.add(resourceName);
+      }
+      newBucketMap.put(resourceName, buckets);
+    }
+
+    // The headers are only written if all the buckets they refer to are written
+    boolean[] bucketSuccess = dirtyBuckets.isEmpty() ? new boolean[0]
+        : accessor.getBaseDataAccessor().setChildren(bucketPaths, dirtyBuckets,
+            AccessOption.PERSISTENT);
+    for (int i = 0; i < bucketSuccess.length; i++) {
+      if (!bucketSuccess[i] && newBucketMap.remove(bucketOwners.get(i)) != null) {
+        // The buckets in ZK are unknown now, so all of them are written again on the retry.
+        _contextBucketMap.remove(bucketOwners.get(i));
+        LogUtil.logWarn(LOG, _controlContextProvider.getClusterEventId(), String
+            .format("Failed to update the context buckets for %s", bucketOwners.get(i)));
+      }
+    }
+
+    List<String> headerNames = new ArrayList<>(newBucketMap.keySet());
+    Map<String, ZNRecord> headerMap = new HashMap<>();
+    for (String resourceName : headerNames) {
+      headerMap.put(resourceName, JobContextBucketCodec
+          .buildHeader(_contextMap.get(resourceName), JobContextBucketCodec.DEFAULT_BUCKET_SIZE,
+              newBucketMap.get(resourceName)));
+    }
+    Set<String> headersToUpdate = new HashSet<>(headerNames);
+    batchUpdateData(accessor, headerNames, headerMap, headersToUpdate, TaskDataType.CONTEXT);
+    for (String resourceName : headerNames) {
+      if (!headersToUpdate.contains(resourceName)) {
+        _contextBucketMap.put(resourceName, newBucketMap.get(resourceName));
+        _contextToUpdate.remove(resourceName);
+      }
+    }
+    LogUtil.logDebug(LOG, _controlContextProvider.getClusterEventId(), String
+        .format("Wrote %d buckets of %d bucketed job contexts.", dirtyBuckets.size(),
+            resourceNames.size()));
+  }
+
   private void batchUpdateData(HelixDataAccessor accessor, List<String> dataUpdateNames,
       Map<String, ZNRecord> dataMap, Set<String> dataToUpdate, TaskDataType taskDataType) {
     List<String> contextUpdatePaths = new ArrayList<>();
@@ -317,6 +485,12 @@ public class TaskDataCache extends AbstractDataCache {
     List<String> contextPathsToRemove = new ArrayList<>();
     for (String resourceName : contextNamesToRemove) {
       contextPathsToRemove.add(getTaskDataPath(resourceName, taskDataType));
+      if (_contextBucketMap.containsKey(resourceName)) {
+        // The batch remove is not recursive
+        accessor.getBaseDataAccessor().remove(String.format("%s/%s",
+            getJobDataPath(resourceName), TaskConstants.CONTEXT_BUCKETS_NODE),
+            AccessOption.PERSISTENT);
+      }
     }
 
     // TODO: current behavior is when you delete non-existing data will return false.
@@ -371,8 +545,7 @@ public class TaskDataCache extends AbstractDataCache {
    * @return
    */
   private String getTaskDataPath(String resourceName, TaskDataType taskDataType) {
-    String prevFix = String.format("/%s/%s%s/%s", _controlContextProvider.getClusterName(),
-        PropertyType.PROPERTYSTORE.name(), TaskConstants.REBALANCER_CONTEXT_ROOT, resourceName);
+    String prevFix = getJobDataPath(resourceName);
     switch (taskDataType) {
     case CONTEXT:
       return String.format("%s/%s", prevFix, TaskConstants.CONTEXT_NODE);
@@ -380,6 +553,15 @@ public class TaskDataCache extends AbstractDataCache {
     return null;
   }
 
+  private String getJobDataPath(String resourceName) {
+    return String.format("/%s/%s%s/%s", _controlContextProvider.getClusterName(),
+        PropertyType.PROPERTYSTORE.name(), TaskConstants.REBALANCER_CONTEXT_ROOT, resourceName);
+  }
+
+  private String getContextBucketPath(String resourceName, int bucketIndex) {
+    return JobContextBucketCodec.getBucketPath(getJobDataPath(resourceName), bucketIndex);
+  }
+
   public void dispatchJob(String jobName) {
     _dispatchedJobs.add(jobName);
   }
@@ -0,0 +1,225 @@
+package org.apache.helix.common.caches;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.helix.zookeeper.zkclient.IZkStateListener;
+import org.apache.helix.zookeeper.zkclient.RecursivePersistListener;
+import org.apache.helix.zookeeper.zkclient.ZkClient;
+import org.apache.zookeeper.Watcher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Tracks the ZNodes changed under a set of paths with ZooKeeper persistent recursive watches, so a
+ * data cache only needs to reload the changed properties instead of checking the stat of every
+ * cached property on each refresh.
+ *
+ * Changes can be missed, e.g. while the session is expired, and a change notification may arrive
+ * before the change is visible to the session that reads the data. So the tracker periodically
+ * asks for a full reconciliation, in which the cache checks the stat of all the cached properties
+ * as it does without a tracker.
+ *
+ * The ZkClient must be created with the persist watcher enabled. Since that changes how all the
+ * other listeners of the client are notified, it should be a client dedicated to the trackers.
+ */
+public class ZkPathChangeTracker implements RecursivePersistListener, IZkStateListener {
+  private static final Logger LOG = LoggerFactory.getLogger(ZkPathChangeTracker.class);
+  // Beyond this many pending changes, a full reconciliation is cheaper than the tracked paths.
+  static final int MAX_CHANGED_PATHS = 100000;
+
+  private final ZkClient _zkClient;
+  private final long _reconciliationIntervalMs;
+
+  private Set<String> _rootPaths = Collections.emptySet();
+
+  private Set<String> _changedPaths = new HashSet<>();
+  private boolean _watching = false;
+  private boolean _reconciliationRequired = true;
+  private long _lastReconciliationTime = 0L;
+
+  /**
+   * @param zkClient the client to watch the paths with
+   * @param reconciliationIntervalMs the maximum time between two full reconciliations
+   */
+  public ZkPathChangeTracker(ZkClient zkClient, long reconciliationIntervalMs) {
+    _zkClient = zkClient;
+    _reconciliationIntervalMs = reconciliationIntervalMs;
+  }
+
+  /**
+   * @param zkClient the client to watch the path with
+   * @param rootPath the root of the subtree to track
+   * @param reconciliationIntervalMs the maximum time between two full reconciliations
+   */
+  public ZkPathChangeTracker(ZkClient zkClient, String rootPath, long reconciliationIntervalMs) {
+    this(zkClient, reconciliationIntervalMs);
+    _rootPaths = Collections.singleton(rootPath);
+  }
+
+  /**
+   * Start watching the root paths. Any change made before the first full reconciliation that
+   * follows this call is covered by that reconciliation.
+   */
+  public synchronized void start() {
+    if (_watching) {
+      return;
+    }
+    _zkClient.subscribeStateChanges(this);
+    for (String rootPath : _rootPaths) {
+      _zkClient.subscribePersistRecursiveListener(rootPath, this);
+    }
+    _watching = true;
+    _reconciliationRequired = true;
+    LOG.info("Start tracking the changes under {}.", _rootPaths);
+  }
+
+  public synchronized void stop() {
+    if (!_watching) {
+      return;
+    }
+    _watching = false;
+    _changedPaths = new HashSet<>();
+    _zkClient.unsubscribeStateChanges(this);
+    for (String rootPath : _rootPaths) {
+      unwatch(rootPath);
+    }
+    LOG.info("Stop tracking the changes under {}.", _rootPaths);
+  }
+
+  /**
+   * Change the tracked subtrees. The changes under a new root are only tracked from this call on,
+   * so the caller must not have cached any ZNode under it, e.g. because the root belongs to a new
+   * participant session.
+   * @param rootPaths the roots of the subtrees to track
+   */
+  public synchronized void setRootPaths(Set<String> rootPaths) {
+    if (_rootPaths.equals(rootPaths)) {
+      return;
+    }
+    if (_watching) {
+      for (String rootPath : _rootPaths) {
+        if (!rootPaths.contains(rootPath)) {
+          unwatch(rootPath);
+        }
+      }
+      for (String rootPath : rootPaths) {
+        if (!_rootPaths.contains(rootPath)) {
+          _zkClient.subscribePersistRecursiveListener(rootPath, this);
+        }
+      }
+    }
+    _rootPaths = Collections.unmodifiableSet(new HashSet<>(rootPaths));
+  }
+
+  public synchronized Set<String> getRootPaths() {
+    return _rootPaths;
+  }
+
+  /**
+   * Get the paths changed since the previous call. The returned paths are no longer tracked.
+   * @return the changed paths, or null if the caller needs to do a full reconciliation instead
+   */
+  public synchronized Set<String> drainChangedPaths() {
+    Set<String> changedPaths = _changedPaths;
+    _changedPaths = new HashSet<>();
+    if (!_watching) {
+      return null;
+    }
+    long now = System.currentTimeMillis();
+    if (_reconciliationRequired || now - _lastReconciliationTime >= _reconciliationIntervalMs) {
+      _reconciliationRequired = false;
+      _lastReconciliationTime = now;
+      return null;
+    }
+    return changedPaths;
+  }
+
+  @Override
+  public void handleZNodeChange(String dataPath, Watcher.Event.EventType eventType) {
+    markChanged(dataPath);
+  }
+
+  /**
+   * Record a change that was reported by another ZK session. The watch of this tracker may deliver
+   * the same change only after the next drain, so without this the change could be missed until
+   * the next full reconciliation. A changed path also marks its direct children as changed.
+   * @param path the path of the changed ZNode
+   */
+  public synchronized void markChanged(String path) {
+    if (!_watching || _reconciliationRequired) {
+      // The next drain reconciles everything anyway.
+      return;
+    }
+    if (_changedPaths.size() >= MAX_CHANGED_PATHS) {
+      LOG.warn("More than {} changed paths under {}, fall back to a full reconciliation.",
+          MAX_CHANGED_PATHS, _rootPaths);
+      _changedPaths = new HashSet<>();
+      _reconciliationRequired = true;
+      return;
+    }
+    _changedPaths.add(path);
+  }
+
+  @Override
+  public synchronized void handleStateChanged(Watcher.Event.KeeperState state) {
+    // Changes may be missed while the connection is lost.
+    if (state != Watcher.Event.KeeperState.SyncConnected) {
+      _reconciliationRequired = true;
+    }
+  }
+
+  @Override
+  public synchronized void handleNewSession(String sessionId) {
+    if (!_watching) {
+      return;
+    }
+    // The recursive watches do not survive the expired session, so register them again.
+    _reconciliationRequired = true;
+    try {
+      for (String rootPath : _rootPaths) {
+        _zkClient.unsubscribePersistRecursiveListener(rootPath, this);
+        _zkClient.subscribePersistRecursiveListener(rootPath, this);
+      }
+    } catch (Exception e) {
+      LOG.error("Failed to watch {} in the new session {}, stop tracking the changes.", _rootPaths,
+          sessionId, e);
+      _watching = false;
+      _zkClient.unsubscribeStateChanges(this);
+    }
+  }
+
+  @Override
+  public void handleSessionEstablishmentError(Throwable error) {
+    LOG.warn("Failed to establish the ZooKeeper session to track the changes under {}.",
+        _rootPaths, error);
+  }
+
+  private void unwatch(String rootPath) {
+    try {
+      _zkClient.unsubscribePersistRecursiveListener(rootPath, this);
+    } catch (Exception e) {
+      LOG.warn("Failed to remove the watch on {}.", rootPath, e);
+    }
+  }
+}
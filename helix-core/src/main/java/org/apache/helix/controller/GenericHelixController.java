@@ -32,9 +32,11 @@ import java.util.TimerTask;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
@@ -46,6 +48,7 @@ import org.apache.helix.HelixManager;
 import org.apache.helix.NotificationContext;
 import org.apache.helix.PropertyKey;
 import org.apache.helix.PropertyKey.Builder;
+import org.apache.helix.SystemPropertyKeys;
 import org.apache.helix.api.exceptions.HelixMetaDataAccessException;
 import org.apache.helix.api.listeners.ClusterConfigChangeListener;
 import org.apache.helix.api.listeners.ControllerChangeListener;
@@ -111,6 +114,8 @@ import org.apache.helix.model.Message;
 import org.apache.helix.model.ResourceConfig;
 import org.apache.helix.monitoring.mbeans.ClusterEventMonitor;
 import org.apache.helix.monitoring.mbeans.ClusterStatusMonitor;
+import org.apache.helix.util.HelixUtil;
+import org.apache.helix.zookeeper.impl.client.ZkClient;
 import org.apache.helix.zookeeper.zkclient.exception.ZkInterruptedException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -142,6 +147,9 @@ public class GenericHelixController implements IdealStateChangeListener, LiveIns
 
   private static final long EVENT_THREAD_JOIN_TIMEOUT = 1000;
   private static final int ASYNC_TASKS_THREADPOOL_SIZE = 10;
+  private static final int RESOURCE_COMPUTE_THREADPOOL_SIZE =
+      Runtime.getRuntime().availableProcessors();
+  private static final long RESOURCE_COMPUTE_THREAD_KEEP_ALIVE_SECONDS = 60L;
   private final PipelineRegistry _registry;
   private final PipelineRegistry _taskRegistry;
   private final PipelineRegistry _managementModeRegistry;
@@ -201,6 +209,9 @@ public class GenericHelixController implements IdealStateChangeListener, LiveIns
   private final WorkflowControllerDataProvider _workflowControlDataProvider;
   private final ManagementControllerDataProvider _managementControllerDataProvider;
   private final ScheduledExecutorService _asyncTasksThreadPool;
+  // The workers that the pipeline stages use to compute the resources in parallel. The threads are
+  // only created when the parallelism is configured in the ClusterConfig.
+  private final ThreadPoolExecutor _resourceComputeThreadPool;
 
   /**
    * A record of last pipeline finish duration
@@ -210,6 +221,12 @@ public class GenericHelixController implements IdealStateChangeListener, LiveIns
   private final String _clusterName;
   private final Set<Pipeline.Type> _enabledPipelineTypes;
 
+  // The maximum time between two full reconciliations of the caches refreshed from ZK watches.
+  // The caches are refreshed from the watches while this controller leads if it is positive.
+  private final long _watchDrivenCacheRefreshInterval;
+  // The client dedicated to the watches of the caches, guarded by this
+  private ZkClient _cacheChangeTrackingZkClient;
+
   private HelixManager _helixManager;
 
   // Since the stateful rebalancer needs to be lazily constructed when the HelixManager instance is
@@ -695,6 +712,8 @@ public class GenericHelixController implements IdealStateChangeListener, LiveIns
     _clusterName = clusterName;
     _lastPipelineEndTimestamp = TopStateHandoffReportStage.TIMESTAMP_NOT_RECORDED;
     _clusterStatusMonitor = new ClusterStatusMonitor(_clusterName);
+    _watchDrivenCacheRefreshInterval = HelixUtil.getSystemPropertyAsLong(
+        SystemPropertyKeys.CONTROLLER_WATCH_DRIVEN_CACHE_REFRESH_INTERVAL, -1L);
 
     _asyncTasksThreadPool =
         Executors.newScheduledThreadPool(ASYNC_TASKS_THREADPOOL_SIZE, new ThreadFactory() {
@@ -702,6 +721,17 @@ public class GenericHelixController implements IdealStateChangeListener, LiveIns
             return new Thread(r, "HelixController-async_tasks-" + _clusterName);
           }
         });
+    _resourceComputeThreadPool =
+        new ThreadPoolExecutor(RESOURCE_COMPUTE_THREADPOOL_SIZE, RESOURCE_COMPUTE_THREADPOOL_SIZE,
+            RESOURCE_COMPUTE_THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(), new ThreadFactory() {
+          @Override public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "HelixController-resource_compute-" + _clusterName);
+            thread.setDaemon(true);
+            return thread;
+          }
+        });
+    _resourceComputeThreadPool.allowCoreThreadTimeOut(true);
     _asyncFIFOWorkerPool = new HashMap<>();
     initializeAsyncFIFOWorkers();
 
@@ -1338,9 +1368,11 @@ public class GenericHelixController implements IdealStateChangeListener, LiveIns
 
     if (controllerIsLeader) {
       enableClusterStatusMonitor(true);
+      startWatchDrivenCacheRefresh(changeContext.getManager());
       pushToEventQueues(ClusterEventType.ControllerChange, changeContext, Collections.emptyMap());
     } else {
       enableClusterStatusMonitor(false);
+      stopWatchDrivenCacheRefresh();
       // Note that onControllerChange is executed in parallel with the event processing thread. It
       // is possible that the current WAGED rebalancer object is in use for handling callback. So
       // mark the rebalancer invalid only, instead of closing it here.
@@ -1446,6 +1478,73 @@ public class GenericHelixController implements IdealStateChangeListener, LiveIns
     }
   }
 
+  /**
+   * Refresh the controller data caches from the ZNode changes reported by persistent recursive
+   * watches, instead of reading the stat of every cached ZNode on each pipeline run. This is done
+   * while the controller leads if SystemPropertyKeys.CONTROLLER_WATCH_DRIVEN_CACHE_REFRESH_INTERVAL
+   * is set. The watches are registered by a dedicated client, because the persist watcher changes
+   * how all the listeners of a client are notified.
+   * @see BaseControllerDataProvider#enableWatchDrivenRefresh
+   */
+  private synchronized void startWatchDrivenCacheRefresh(HelixManager manager) {
+    if (_watchDrivenCacheRefreshInterval <= 0 || _cacheChangeTrackingZkClient != null) {
+      return;
+    }
+    String zkAddress = manager.getMetadataStoreConnectionString();
+    if (zkAddress == null) {
+      logger.warn("Cannot refresh the caches of cluster {} from ZK watches, the HelixManager has "
+          + "no ZK address.", _clusterName);
+      return;
+    }
+    ZkClient zkClient = null;
+    try {
+      zkClient = new ZkClient.Builder().setZkServer(zkAddress).setUsePersistWatcher(true).build();
+      if (_resourceControlDataProvider != null) {
+        _resourceControlDataProvider
+            .enableWatchDrivenRefresh(zkClient, _watchDrivenCacheRefreshInterval);
+      }
+      if (_workflowControlDataProvider != null) {
+        _workflowControlDataProvider
+            .enableWatchDrivenRefresh(zkClient, _watchDrivenCacheRefreshInterval);
+      }
+      _cacheChangeTrackingZkClient = zkClient;
+      logger.info("Refresh the caches of cluster {} from ZK watches.", _clusterName);
+    } catch (Exception e) {
+      // The caches keep reading the stats of all the cached ZNodes.
+      logger.error("Failed to refresh the caches of cluster {} from ZK watches.", _clusterName, e);
+      disableWatchDrivenCacheRefresh();
+      if (zkClient != null) {
+        zkClient.close();
+      }
+    }
+  }
+
+  private synchronized void stopWatchDrivenCacheRefresh() {
+    if (_cacheChangeTrackingZkClient == null) {
+      return;
+    }
+    disableWatchDrivenCacheRefresh();
+    _cacheChangeTrackingZkClient.close();
+    _cacheChangeTrackingZkClient = null;
+    logger.info("Stop refreshing the caches of cluster {} from ZK watches.", _clusterName);
+  }
+
+  private void disableWatchDrivenCacheRefresh() {
+    if (_resourceControlDataProvider != null) {
+      _resourceControlDataProvider.disableWatchDrivenRefresh();
+    }
+    if (_workflowControlDataProvider != null) {
+      _workflowControlDataProvider.disableWatchDrivenRefresh();
+    }
+  }
+
+  /**
+   * @return true if the controller data caches are refreshed from ZK watches
+   */
+  public synchronized boolean isWatchDrivenCacheRefreshEnabled() {
+    return _cacheChangeTrackingZkClient != null;
+  }
+
   public void shutdown() throws InterruptedException {
     removeController(this);
 
@@ -1462,6 +1561,7 @@ public class GenericHelixController implements IdealStateChangeListener, LiveIns
 
     logger.info("Shutting down {} pipeline", Pipeline.Type.TASK.name());
     shutdownPipeline(_taskEventThread, _taskEventQueue);
+    stopWatchDrivenCacheRefresh();
 
     // shutdown asycTasksThreadpool and wait for terminate.
     _asyncTasksThreadPool.shutdownNow();
@@ -1470,6 +1570,7 @@ public class GenericHelixController implements IdealStateChangeListener, LiveIns
     } catch (InterruptedException ex) {
       logger.warn("Timeout when terminating async tasks. Some async tasks are still executing.");
     }
+    _resourceComputeThreadPool.shutdownNow();
 
     // shutdown async workers
     shutdownAsyncFIFOWorkers();
@@ -1549,7 +1650,16 @@ public class GenericHelixController implements IdealStateChangeListener, LiveIns
               + _processorName);
       while (!isInterrupted()) {
         try {
+          ClusterConfig clusterConfig = _cache.getClusterConfig();
+          _eventBlockingQueue.setMaxBatchWindow(clusterConfig == null
+              ? ClusterConfig.DEFAULT_CLUSTER_EVENT_BATCH_MAX_WINDOW_MS
+              : clusterConfig.getClusterEventBatchMaxWindow());
           ClusterEvent newClusterEvent = _eventBlockingQueue.take();
+          // Same as the other event process durations, only report for the default pipeline.
+          if (_isMonitoring && _cache instanceof ResourceControllerDataProvider) {
+            _clusterStatusMonitor.updateClusterEventBatch(_eventBlockingQueue.getLastBatchWindow(),
+                _eventBlockingQueue.getLastCoalescedEventCount(), _eventBlockingQueue.size());
+          }
           String threadName = String.format(
               "HelixController-pipeline-%s-(%s)", _processorName, newClusterEvent.getEventId());
           this.setName(threadName);
@@ -1579,6 +1689,7 @@ public class GenericHelixController implements IdealStateChangeListener, LiveIns
       return;
     }
     cache.setAsyncTasksThreadPool(_asyncTasksThreadPool);
+    cache.setResourceComputeThreadPool(_resourceComputeThreadPool);
 
     eventThread.setDaemon(true);
     eventThread.start();
@@ -45,6 +45,7 @@ import org.apache.helix.common.caches.CurrentStateCache;
 import org.apache.helix.common.caches.InstanceMessagesCache;
 import org.apache.helix.common.caches.PropertyCache;
 import org.apache.helix.common.caches.TaskCurrentStateCache;
+import org.apache.helix.common.caches.ZkPathChangeTracker;
 import org.apache.helix.common.controllers.ControlContextProvider;
 import org.apache.helix.constants.InstanceConstants;
 import org.apache.helix.controller.LogUtil;
@@ -66,6 +67,7 @@ import org.apache.helix.task.TaskConstants;
 import org.apache.helix.util.HelixUtil;
 import org.apache.helix.zookeeper.datamodel.ZNRecord;
 import org.apache.helix.zookeeper.zkclient.DataUpdater;
+import org.apache.helix.zookeeper.zkclient.ZkClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -95,6 +97,7 @@ public class BaseControllerDataProvider implements ControlContextProvider {
   private boolean _isMaintenanceModeEnabled;
   private boolean _hasMaintenanceSignalChanged;
   private ExecutorService _asyncTasksThreadPool;
+  private ExecutorService _resourceComputeThreadPool;
 
   // A map recording what data has changed
   protected Map<HelixConstants.ChangeType, AtomicBoolean> _propertyDataChangedMap;
@@ -1045,6 +1048,15 @@ public class BaseControllerDataProvider implements ControlContextProvider {
    */
   public void notifyDataChange(HelixConstants.ChangeType changeType, String pathChanged) {
     notifyDataChange(changeType);
+    // The change trackers watch over their own ZK session, which may deliver this change only
+    // after the pipeline it triggers has refreshed the caches. So mark the path as changed here.
+    AbstractDataCache<?> cache = getTrackedDataCache(changeType);
+    if (cache != null && pathChanged != null) {
+      ZkPathChangeTracker tracker = cache.getChangeTracker();
+      if (tracker != null) {
+        tracker.markChanged(pathChanged);
+      }
+    }
   }
 
   private void updateOfflineInstanceHistory(HelixDataAccessor accessor) {
@@ -1185,6 +1197,22 @@ public class BaseControllerDataProvider implements ControlContextProvider {
     _asyncTasksThreadPool = asyncTasksThreadPool;
   }
 
+  /**
+   * Get the thread pool that the pipeline stages use to compute the resources in parallel
+   * @return the thread pool, or null if the resources can only be computed in the pipeline thread
+   */
+  public ExecutorService getResourceComputeThreadPool() {
+    return _resourceComputeThreadPool;
+  }
+
+  /**
+   * Set the thread pool that the pipeline stages use to compute the resources in parallel
+   * @param resourceComputeThreadPool
+   */
+  public void setResourceComputeThreadPool(ExecutorService resourceComputeThreadPool) {
+    _resourceComputeThreadPool = resourceComputeThreadPool;
+  }
+
   public MonitoredAbnormalResolver getAbnormalStateResolver(String stateModel) {
     return _abnormalStateResolverMap
         .getOrDefault(stateModel, MonitoredAbnormalResolver.DUMMY_STATE_RESOLVER);
@@ -1297,6 +1325,95 @@ public class BaseControllerDataProvider implements ControlContextProvider {
     return _allLiveInstanceCache;
   }
 
+  /**
+   * Track the CurrentState and config ZNodes of the cluster with persistent recursive watches, so
+   * the caches only reload the changed ZNodes instead of reading the stat of every cached one on
+   * each refresh. The stats are still read by a periodic full reconciliation.
+   * @param zkClient a client with the persist watcher enabled, dedicated to the change tracking
+   * @param reconciliationIntervalMs the maximum time between two full reconciliations of a cache
+   */
+  public synchronized void enableWatchDrivenRefresh(ZkClient zkClient,
+      long reconciliationIntervalMs) {
+    disableWatchDrivenRefresh();
+    PropertyKey.Builder keyBuilder = new PropertyKey.Builder(_clusterName);
+    // The CurrentState caches watch the CurrentStates of each live participant session, which
+    // they set on every refresh.
+    startChangeTracker(_currentStateCache,
+        new ZkPathChangeTracker(zkClient, reconciliationIntervalMs));
+    startChangeTracker(_taskCurrentStateCache,
+        new ZkPathChangeTracker(zkClient, reconciliationIntervalMs));
+    startChangeTracker(_allInstanceConfigCache, zkClient, keyBuilder.instanceConfigs().getPath(),
+        reconciliationIntervalMs);
+    startChangeTracker(_resourceConfigCache, zkClient, keyBuilder.resourceConfigs().getPath(),
+        reconciliationIntervalMs);
+  }
+
+  /**
+   * Stop the change tracking, so the caches read the stat of every cached ZNode on each refresh.
+   */
+  public synchronized void disableWatchDrivenRefresh() {
+    for (AbstractDataCache<?> cache : getDataCaches()) {
+      ZkPathChangeTracker tracker = cache.getChangeTracker();
+      if (tracker != null) {
+        cache.setChangeTracker(null);
+        tracker.stop();
+      }
+    }
+  }
+
+  protected void startChangeTracker(AbstractDataCache<?> cache, ZkClient zkClient,
+      String rootPath, long reconciliationIntervalMs) {
+    startChangeTracker(cache,
+        new ZkPathChangeTracker(zkClient, rootPath, reconciliationIntervalMs));
+  }
+
+  private void startChangeTracker(AbstractDataCache<?> cache, ZkPathChangeTracker tracker) {
+    tracker.start();
+    cache.setChangeTracker(tracker);
+  }
+
+  /**
+   * @return the cache of the given change type that may be refreshed from a change tracker, or
+   *         null if there is none
+   */
+  protected AbstractDataCache<?> getTrackedDataCache(HelixConstants.ChangeType changeType) {
+    switch (changeType) {
+    case CURRENT_STATE:
+      return _currentStateCache;
+    case TASK_CURRENT_STATE:
+      return _taskCurrentStateCache;
+    case INSTANCE_CONFIG:
+      return _allInstanceConfigCache;
+    case RESOURCE_CONFIG:
+      return _resourceConfigCache;
+    default:
+      return null;
+    }
+  }
+
+  /**
+   * @return all the caches refreshed from ZK by this provider
+   */
+  protected List<AbstractDataCache<?>> getDataCaches() {
+    return Arrays.asList(_resourceConfigCache, _allInstanceConfigCache, _allLiveInstanceCache,
+        _idealStateCache, _clusterConstraintsCache, _stateModelDefinitionCache, _currentStateCache,
+        _taskCurrentStateCache);
+  }
+
+  /**
+   * @return the total number of ZNode stats read by the caches
+   */
+  public synchronized long getStatReadCount() {
+    return getDataCaches().stream().mapToLong(AbstractDataCache::getStatReadCount).sum();
+  }
+
+  /**
+   * @return the total number of ZNodes read by the caches
+   */
+  public synchronized long getDataReadCount() {
+    return getDataCaches().stream().mapToLong(AbstractDataCache::getDataReadCount).sum();
+  }
+
   @Override
   public String toString() {
     return genCacheContentStringBuilder().toString();
@@ -53,6 +53,7 @@ import org.apache.helix.model.IdealState;
 import org.apache.helix.model.InstanceConfig;
 import org.apache.helix.model.ResourceAssignment;
 import org.apache.helix.zookeeper.datamodel.ZNRecord;
+import org.apache.helix.zookeeper.zkclient.ZkClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -142,8 +143,9 @@ public class ResourceControllerDataProvider extends BaseControllerDataProvider {
         return obj.getResourceName();
       }
     }, true);
-    _resourceAssignmentCache = new HashMap<>();
-    _idealMappingCache = new HashMap<>();
+    // The rebalancers update these caches per resource, possibly from the resource compute workers.
+    _resourceAssignmentCache = new ConcurrentHashMap<>();
+    _idealMappingCache = new ConcurrentHashMap<>();
     _missingTopStateMap = new HashMap<>();
     _lastTopStateLocationMap = new HashMap<>();
     _refreshedChangeTypes = ConcurrentHashMap.newKeySet();
@@ -151,6 +153,33 @@ public class ResourceControllerDataProvider extends BaseControllerDataProvider {
     _customizedViewCacheMap = new HashMap<>();
   }
 
+  @Override
+  public synchronized void enableWatchDrivenRefresh(ZkClient zkClient,
+      long reconciliationIntervalMs) {
+    super.enableWatchDrivenRefresh(zkClient, reconciliationIntervalMs);
+    startChangeTracker(_externalViewCache, zkClient,
+        new PropertyKey.Builder(getClusterName()).externalViews().getPath(),
+        reconciliationIntervalMs);
+  }
+
+  @Override
+  protected AbstractDataCache<?> getTrackedDataCache(HelixConstants.ChangeType changeType) {
+    if (changeType == HelixConstants.ChangeType.EXTERNAL_VIEW) {
+      return _externalViewCache;
+    }
+    return super.getTrackedDataCache(changeType);
+  }
+
+  @Override
+  protected List<AbstractDataCache<?>> getDataCaches() {
+    List<AbstractDataCache<?>> caches = new ArrayList<>(super.getDataCaches());
+    caches.add(_externalViewCache);
+    caches.add(_targetExternalViewCache);
+    caches.add(_customizedStateCache);
+    caches.addAll(_customizedViewCacheMap.values());
+    return caches;
+  }
+
   public synchronized void refresh(HelixDataAccessor accessor) {
     long startTime = System.currentTimeMillis();
 
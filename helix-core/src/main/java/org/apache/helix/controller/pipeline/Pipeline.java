@@ -19,17 +19,26 @@ package org.apache.helix.controller.pipeline;
  * under the License.
  */
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.apache.helix.SystemPropertyKeys;
 import org.apache.helix.controller.stages.AttributeName;
 import org.apache.helix.controller.stages.ClusterEvent;
 import org.apache.helix.monitoring.mbeans.ClusterStatusMonitor;
+import org.apache.helix.util.HelixUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public class Pipeline {
   private static final Logger logger = LoggerFactory.getLogger(Pipeline.class.getName());
+  private static final long SLOW_PIPELINE_THRESHOLD =
+      HelixUtil.getSystemPropertyAsLong(SystemPropertyKeys.CONTROLLER_SLOW_PIPELINE_THRESHOLD, -1L);
+  // Only set if the JVM can measure the allocation of a thread
+  private static final com.sun.management.ThreadMXBean ALLOCATION_MX_BEAN =
+      getAllocationMXBean();
   private final String _pipelineType;
   List<Stage> _stages;
 
@@ -68,25 +77,71 @@ public class Pipeline {
     if (_stages == null) {
       return;
     }
-    for (Stage stage : _stages) {
-      long startTime = System.currentTimeMillis();
-
-      stage.preProcess();
-      stage.process(event);
-      stage.postProcess();
-
-      long endTime = System.currentTimeMillis();
-      long duration = endTime - startTime;
-      logger.info(String.format("END %s for %s pipeline for cluster %s. took: %d ms for event %s",
-          stage.getStageName(), _pipelineType, event.getClusterName(), duration,
-          event.getEventId()));
-
-      ClusterStatusMonitor clusterStatusMonitor =
-          event.getAttribute(AttributeName.clusterStatusMonitor.name());
-      if (clusterStatusMonitor != null) {
-        clusterStatusMonitor.updateClusterEventDuration(stage.getStageName(), duration);
+    String eventType = event.getEventType() == null ? "" : event.getEventType().name();
+    long pipelineStartTime = System.currentTimeMillis();
+    StringBuilder stageBreakdown = SLOW_PIPELINE_THRESHOLD > 0 ? new StringBuilder() : null;
+    try {
+      for (Stage stage : _stages) {
+        long startTime = System.currentTimeMillis();
+        long startAllocatedBytes = getCurrentThreadAllocatedBytes();
+
+        stage.preProcess();
+        stage.process(event);
+        stage.postProcess();
+
+        long endTime = System.currentTimeMillis();
+        long duration = endTime - startTime;
+        // Stages that compute on other threads only have the allocation of the pipeline thread.
+        long allocatedBytes = startAllocatedBytes < 0 ? -1
+            : getCurrentThreadAllocatedBytes() - startAllocatedBytes;
+        logger.info(String.format("END %s for %s pipeline for cluster %s. took: %d ms for event %s",
+            stage.getStageName(), _pipelineType, event.getClusterName(), duration,
+            event.getEventId()));
+
+        ClusterStatusMonitor clusterStatusMonitor =
+            event.getAttribute(AttributeName.clusterStatusMonitor.name());
+        if (clusterStatusMonitor != null) {
+          clusterStatusMonitor.updateClusterEventDuration(stage.getStageName(), duration);
+          clusterStatusMonitor.updatePipelineStageMetrics(_pipelineType, eventType,
+              stage.getStageName(), duration, allocatedBytes);
+        }
+        if (stageBreakdown != null) {
+          stageBreakdown.append(String.format("%n  %s: %d ms, %d bytes allocated",
+              stage.getStageName(), duration, allocatedBytes));
+        }
+      }
+    } finally {
+      long pipelineDuration = System.currentTimeMillis() - pipelineStartTime;
+      if (stageBreakdown != null && pipelineDuration > SLOW_PIPELINE_THRESHOLD) {
+        logger.warn("Slow {} pipeline for cluster {} took {} ms for event {} {}, stages:{}",
+            _pipelineType, event.getClusterName(), pipelineDuration, eventType,
+            event.getEventId(), stageBreakdown);
+      }
+    }
+  }
+
+  /**
+   * @return the bytes allocated by the current thread so far, or -1 if it is not supported
+   */
+  private static long getCurrentThreadAllocatedBytes() {
+    if (ALLOCATION_MX_BEAN == null) {
+      return -1;
+    }
+    return ALLOCATION_MX_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId());
+  }
+
+  private static com.sun.management.ThreadMXBean getAllocationMXBean() {
+    ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+    if (threadMXBean instanceof com.sun.management.ThreadMXBean) {
+      com.sun.management.ThreadMXBean allocationMXBean =
+          (com.sun.management.ThreadMXBean) threadMXBean;
+      if (allocationMXBean.isThreadAllocatedMemorySupported()
+          && allocationMXBean.isThreadAllocatedMemoryEnabled()) {
+        return allocationMXBean;
       }
     }
+    logger.info("Thread allocation is not measured by this JVM, skip the stage allocation metrics.");
+    return null;
   }
 
   public void finish() {
@@ -19,8 +19,8 @@ package org.apache.helix.controller.rebalancer.util;
  * under the License.
  */
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
@@ -60,7 +60,8 @@ public class RebalanceScheduler {
     }
   }
 
-  private final Map<String, ScheduledTask> _rebalanceTasks = new HashMap<String, ScheduledTask>();
+  // The resources may be rebalanced by multiple pipeline workers at the same time.
+  private final Map<String, ScheduledTask> _rebalanceTasks = new ConcurrentHashMap<>();
   private final ScheduledExecutorService _rebalanceExecutor =
       Executors.newSingleThreadScheduledExecutor();
 
@@ -21,6 +21,9 @@ package org.apache.helix.controller.rebalancer.waged;
 
 import com.google.common.collect.ImmutableSet;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
@@ -32,9 +35,11 @@ import org.apache.helix.HelixRebalanceException;
 import org.apache.helix.controller.changedetector.ResourceChangeDetector;
 import org.apache.helix.controller.dataproviders.ResourceControllerDataProvider;
 import org.apache.helix.controller.rebalancer.util.WagedRebalanceUtil;
+import org.apache.helix.controller.rebalancer.waged.model.AssignableNode;
 import org.apache.helix.controller.rebalancer.waged.model.ClusterModel;
 import org.apache.helix.controller.rebalancer.waged.model.ClusterModelProvider;
 import org.apache.helix.controller.stages.CurrentStateOutput;
+import org.apache.helix.model.ClusterConfig;
 import org.apache.helix.model.ClusterTopologyConfig;
 import org.apache.helix.model.Partition;
 import org.apache.helix.model.Resource;
@@ -73,9 +78,16 @@ class GlobalRebalanceRunner implements AutoCloseable {
   private final LatencyMetric _writeLatency;
   private final CountMetric _baselineCalcCounter;
   private final LatencyMetric _baselineCalcLatency;
+  private final CountMetric _baselineFullCalcCounter;
+  private final LatencyMetric _baselineFullCalcLatency;
+  private final CountMetric _baselineIncrementalCalcCounter;
+  private final LatencyMetric _baselineIncrementalCalcLatency;
+  private final CountMetric _baselineIncrementalFallbackCounter;
   private final CountMetric _rebalanceFailureCount;
 
   private boolean _asyncGlobalRebalanceEnabled;
+  private volatile boolean _incrementalGlobalRebalanceEnabled =
+      ClusterConfig.DEFAULT_GLOBAL_REBALANCE_INCREMENTAL_MODE_ENABLED;
 
   public GlobalRebalanceRunner(AssignmentManager assignmentManager,
       AssignmentMetadataStore assignmentMetadataStore,
@@ -94,6 +106,21 @@ class GlobalRebalanceRunner implements AutoCloseable {
     _baselineCalcLatency = metricCollector.getMetric(
         WagedRebalancerMetricCollector.WagedRebalancerMetricNames.GlobalBaselineCalcLatencyGauge.name(),
         LatencyMetric.class);
+    _baselineFullCalcCounter = metricCollector.getMetric(
+        WagedRebalancerMetricCollector.WagedRebalancerMetricNames.GlobalBaselineFullCalcCounter.name(),
+        CountMetric.class);
+    _baselineFullCalcLatency = metricCollector.getMetric(
+        WagedRebalancerMetricCollector.WagedRebalancerMetricNames.GlobalBaselineFullCalcLatencyGauge.name(),
+        LatencyMetric.class);
+    _baselineIncrementalCalcCounter = metricCollector.getMetric(
+        WagedRebalancerMetricCollector.WagedRebalancerMetricNames.GlobalBaselineIncrementalCalcCounter.name(),
+        CountMetric.class);
+    _baselineIncrementalCalcLatency = metricCollector.getMetric(
+        WagedRebalancerMetricCollector.WagedRebalancerMetricNames.GlobalBaselineIncrementalCalcLatencyGauge.name(),
+        LatencyMetric.class);
+    _baselineIncrementalFallbackCounter = metricCollector.getMetric(
+        WagedRebalancerMetricCollector.WagedRebalancerMetricNames.GlobalBaselineIncrementalFallbackCounter.name(),
+        CountMetric.class);
     _rebalanceFailureCount = rebalanceFailureCount;
     _asyncGlobalRebalanceEnabled = isAsyncGlobalRebalanceEnabled;
   }
@@ -167,16 +194,18 @@ class GlobalRebalanceRunner implements AutoCloseable {
     // 2. Use the previous Baseline as the only parameter about the previous assignment.
     Map<String, ResourceAssignment> currentBaseline =
         _assignmentManager.getBaselineAssignment(_assignmentMetadataStore, currentStateOutput, resourceMap.keySet());
-    ClusterModel clusterModel;
-    try {
-      clusterModel = ClusterModelProvider.generateClusterModelForBaseline(clusterData, resourceMap,
-          allAssignableInstances, clusterChanges, currentBaseline);
-    } catch (Exception ex) {
-      throw new HelixRebalanceException("Failed to generate cluster model for global rebalance.",
-          HelixRebalanceException.Type.INVALID_CLUSTER_STATUS, ex);
+
+    Map<String, ResourceAssignment> newBaseline = null;
+    if (_incrementalGlobalRebalanceEnabled
+        && isIncrementalBaselineApplicable(clusterData, clusterChanges, currentBaseline)) {
+      newBaseline = calculateIncrementalBaseline(clusterData, resourceMap, allAssignableInstances,
+          algorithm, clusterChanges, currentBaseline);
+    }
+    if (newBaseline == null) {
+      newBaseline = calculateFullBaseline(clusterData, resourceMap, allAssignableInstances,
+          algorithm, clusterChanges, currentBaseline);
     }
 
-    Map<String, ResourceAssignment> newBaseline = WagedRebalanceUtil.calculateAssignment(clusterModel, algorithm);
     boolean isBaselineChanged =
         _assignmentMetadataStore != null && _assignmentMetadataStore.isBaselineChanged(newBaseline);
     // Write the new baseline to metadata store
@@ -201,10 +230,133 @@ class GlobalRebalanceRunner implements AutoCloseable {
     }
   }
 
+  private Map<String, ResourceAssignment> calculateFullBaseline(
+      ResourceControllerDataProvider clusterData, Map<String, Resource> resourceMap,
+      Set<String> allAssignableInstances, RebalanceAlgorithm algorithm,
+      Map<HelixConstants.ChangeType, Set<String>> clusterChanges,
+      Map<String, ResourceAssignment> currentBaseline) throws HelixRebalanceException {
+    _baselineFullCalcCounter.increment(1L);
+    _baselineFullCalcLatency.startMeasuringLatency();
+    try {
+      ClusterModel clusterModel;
+      try {
+        // The model generation may modify the change sets, so pass a copy to keep the original
+        // changes intact.
+        clusterModel = ClusterModelProvider.generateClusterModelForBaseline(clusterData,
+            resourceMap, allAssignableInstances, copyClusterChanges(clusterChanges),
+            currentBaseline);
+      } catch (Exception ex) {
+        throw new HelixRebalanceException("Failed to generate cluster model for global rebalance.",
+            HelixRebalanceException.Type.INVALID_CLUSTER_STATUS, ex);
+      }
+      return WagedRebalanceUtil.calculateAssignment(clusterModel, algorithm);
+    } finally {
+      _baselineFullCalcLatency.endMeasuringLatency();
+    }
+  }
+
+  /**
+   * Calculate the Baseline by re-assigning only the replicas that are touched by the changes.
+   * @return the new Baseline, or null if the incremental result is not acceptable and a full
+   *         calculation is required.
+   */
+  private Map<String, ResourceAssignment> calculateIncrementalBaseline(
+      ResourceControllerDataProvider clusterData, Map<String, Resource> resourceMap,
+      Set<String> allAssignableInstances, RebalanceAlgorithm algorithm,
+      Map<HelixConstants.ChangeType, Set<String>> clusterChanges,
+      Map<String, ResourceAssignment> currentBaseline) {
+    _baselineIncrementalCalcCounter.increment(1L);
+    _baselineIncrementalCalcLatency.startMeasuringLatency();
+    Map<String, ResourceAssignment> newBaseline = null;
+    try {
+      ClusterModel clusterModel = ClusterModelProvider
+          .generateClusterModelForIncrementalBaseline(clusterData, resourceMap,
+              allAssignableInstances, copyClusterChanges(clusterChanges), currentBaseline);
+      Map<String, ResourceAssignment> assignment =
+          WagedRebalanceUtil.calculateAssignment(clusterModel, algorithm);
+      if (isHardConstraintSatisfied(clusterModel)) {
+        newBaseline = assignment;
+      } else {
+        LOG.info("The incremental baseline violates the hard constraints.");
+      }
+    } catch (Exception ex) {
+      LOG.info("Failed to calculate the incremental baseline.", ex);
+    }
+    _baselineIncrementalCalcLatency.endMeasuringLatency();
+    if (newBaseline == null) {
+      LOG.info("Fall back to the full baseline calculation.");
+      _baselineIncrementalFallbackCounter.increment(1L);
+    }
+    return newBaseline;
+  }
+
+  /**
+   * The incremental Baseline calculation only fits the changes that touch a limited set of
+   * replicas. If the cluster topology has been modified or any node was newly connected, all the
+   * replicas need to be re-assigned for the evenness of distribution.
+   */
+  private static boolean isIncrementalBaselineApplicable(ResourceControllerDataProvider clusterData,
+      Map<HelixConstants.ChangeType, Set<String>> clusterChanges,
+      Map<String, ResourceAssignment> currentBaseline) {
+    if (currentBaseline.isEmpty() || clusterChanges
+        .containsKey(HelixConstants.ChangeType.CLUSTER_CONFIG)) {
+      return false;
+    }
+    Set<String> newlyConnectedNodes = new HashSet<>(clusterChanges
+        .getOrDefault(HelixConstants.ChangeType.LIVE_INSTANCE, Collections.emptySet()));
+    newlyConnectedNodes.retainAll(clusterData.getAssignableLiveInstances().keySet());
+    if (!newlyConnectedNodes.isEmpty()) {
+      return false;
+    }
+    // A changed instance that does not hold any replica in the current Baseline is most likely a
+    // new node. Only a full calculation can move replicas onto it.
+    Set<String> changedInstances = clusterChanges
+        .getOrDefault(HelixConstants.ChangeType.INSTANCE_CONFIG, Collections.emptySet());
+    if (changedInstances.isEmpty()) {
+      return true;
+    }
+    Set<String> baselineInstances = new HashSet<>();
+    for (ResourceAssignment assignment : currentBaseline.values()) {
+      for (Partition partition : assignment.getMappedPartitions()) {
+        baselineInstances.addAll(assignment.getReplicaMap(partition).keySet());
+      }
+    }
+    return changedInstances.stream().allMatch(
+        instance -> !clusterData.getAssignableInstances().contains(instance) || baselineInstances
+            .contains(instance));
+  }
+
+  /**
+   * The pinned replicas are assigned without checking the constraints, so verify the capacity and
+   * the partition count limit of every node once the calculation is done.
+   */
+  private static boolean isHardConstraintSatisfied(ClusterModel clusterModel) {
+    for (AssignableNode node : clusterModel.getAssignableNodes().values()) {
+      if (node.getRemainingCapacity().values().stream().anyMatch(capacity -> capacity < 0)) {
+        return false;
+      }
+      if (node.getMaxPartition() >= 0 && node.getAssignedReplicaCount() > node.getMaxPartition()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static Map<HelixConstants.ChangeType, Set<String>> copyClusterChanges(
+      Map<HelixConstants.ChangeType, Set<String>> clusterChanges) {
+    Map<HelixConstants.ChangeType, Set<String>> copy = new HashMap<>();
+    clusterChanges.forEach((changeType, names) -> copy.put(changeType, new HashSet<>(names)));
+    return copy;
+  }
+
   public void setGlobalRebalanceAsyncMode(boolean isAsyncGlobalRebalanceEnabled) {
     _asyncGlobalRebalanceEnabled = isAsyncGlobalRebalanceEnabled;
   }
 
+  public void setGlobalRebalanceIncrementalMode(boolean isIncrementalGlobalRebalanceEnabled) {
+    _incrementalGlobalRebalanceEnabled = isIncrementalGlobalRebalanceEnabled;
+  }
+
   public ResourceChangeDetector getChangeDetector() {
     return _changeDetector;
   }
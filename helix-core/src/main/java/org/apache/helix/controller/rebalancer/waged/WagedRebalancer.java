@@ -28,6 +28,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
@@ -101,6 +102,10 @@ public class WagedRebalancer implements StatefulRebalancer<ResourceControllerDat
   // the public method computeNewIdealStates.
   private RebalanceAlgorithm _rebalanceAlgorithm;
   private Map<ClusterConfig.GlobalRebalancePreferenceKey, Integer> _preference = NOT_CONFIGURED_PREFERENCE;
+  // The pool to evaluate the candidate nodes in parallel, the common pool by default. Null if the
+  // candidate nodes are evaluated in the rebalancer thread.
+  private ForkJoinPool _scoringPool = ForkJoinPool.commonPool();
+  private int _scoringParallelism = ClusterConfig.DEFAULT_GLOBAL_REBALANCE_SCORING_PARALLELISM;
 
   private static AssignmentMetadataStore constructAssignmentStore(String metadataStoreAddrs,
       String clusterName) {
@@ -200,6 +205,11 @@ public class WagedRebalancer implements StatefulRebalancer<ResourceControllerDat
     _globalRebalanceRunner.setGlobalRebalanceAsyncMode(isAsyncGlobalRebalanceEnabled);
   }
 
+  // Update the global rebalance mode to calculate the baseline incrementally or fully
+  public void setGlobalRebalanceIncrementalMode(boolean isIncrementalGlobalRebalanceEnabled) {
+    _globalRebalanceRunner.setGlobalRebalanceIncrementalMode(isIncrementalGlobalRebalanceEnabled);
+  }
+
   // Update the partial rebalance mode to be asynchronous or synchronous
   public void setPartialRebalanceAsyncMode(boolean isAsyncPartialRebalanceEnabled) {
     _partialRebalanceRunner.setPartialRebalanceAsyncMode(isAsyncPartialRebalanceEnabled);
@@ -211,11 +221,32 @@ public class WagedRebalancer implements StatefulRebalancer<ResourceControllerDat
     // 1. if the preference was not configured during constructing, no need to update.
     // 2. if the preference equals to the new preference, no need to update.
     if (!_preference.equals(NOT_CONFIGURED_PREFERENCE) && !_preference.equals(newPreference)) {
-      _rebalanceAlgorithm = ConstraintBasedAlgorithmFactory.getInstance(newPreference);
+      _rebalanceAlgorithm = ConstraintBasedAlgorithmFactory.getInstance(newPreference, _scoringPool);
       _preference = ImmutableMap.copyOf(newPreference);
     }
   }
 
+  // Update the number of threads that evaluate the candidate nodes if it is changed.
+  public synchronized void setScoringParallelism(int parallelism) {
+    // Only the algorithm that is created by the rebalancer according to the preference can be
+    // replaced.
+    if (_preference.equals(NOT_CONFIGURED_PREFERENCE) || parallelism == _scoringParallelism) {
+      return;
+    }
+    ForkJoinPool oldPool = _scoringPool;
+    if (parallelism == 0) {
+      _scoringPool = ForkJoinPool.commonPool();
+    } else {
+      _scoringPool = parallelism > 1 ? new ForkJoinPool(parallelism) : null;
+    }
+    _scoringParallelism = parallelism;
+    _rebalanceAlgorithm = ConstraintBasedAlgorithmFactory.getInstance(_preference, _scoringPool);
+    if (oldPool != null && oldPool != ForkJoinPool.commonPool()) {
+      // The ongoing calculation falls back to the serial evaluation once the pool is shut down.
+      oldPool.shutdown();
+    }
+  }
+
   @Override
   public void reset() {
     if (_assignmentMetadataStore != null) {
@@ -229,6 +260,11 @@ public class WagedRebalancer implements StatefulRebalancer<ResourceControllerDat
   public void close() {
     _partialRebalanceRunner.close();
     _globalRebalanceRunner.close();
+    synchronized (this) {
+      if (_scoringPool != null && _scoringPool != ForkJoinPool.commonPool()) {
+        _scoringPool.shutdownNow();
+      }
+    }
     if (_assignmentMetadataStore != null) {
       _assignmentMetadataStore.close();
     }
@@ -28,6 +28,8 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
 
 import com.google.common.collect.Maps;
@@ -57,11 +59,19 @@ class ConstraintBasedAlgorithm implements RebalanceAlgorithm {
   private static final Logger LOG = LoggerFactory.getLogger(ConstraintBasedAlgorithm.class);
   private final List<HardConstraint> _hardConstraints;
   private final Map<SoftConstraint, Float> _softConstraints;
+  // The pool to evaluate the candidate nodes in parallel. If null, evaluate in the calling thread.
+  private final ForkJoinPool _scoringPool;
 
   ConstraintBasedAlgorithm(List<HardConstraint> hardConstraints,
       Map<SoftConstraint, Float> softConstraints) {
+    this(hardConstraints, softConstraints, ForkJoinPool.commonPool());
+  }
+
+  ConstraintBasedAlgorithm(List<HardConstraint> hardConstraints,
+      Map<SoftConstraint, Float> softConstraints, ForkJoinPool scoringPool) {
     _hardConstraints = hardConstraints;
     _softConstraints = softConstraints;
+    _scoringPool = scoringPool;
   }
 
   @Override
@@ -120,8 +130,32 @@ class ConstraintBasedAlgorithm implements RebalanceAlgorithm {
   private Optional<AssignableNode> getNodeWithHighestPoints(AssignableReplica replica,
       List<AssignableNode> assignableNodes, ClusterContext clusterContext, Set<String> busyInstances,
       OptimalAssignment optimalAssignment) {
+    if (_scoringPool == ForkJoinPool.commonPool()) {
+      // The parallel streams that are started outside of any pool run on the common pool.
+      return getNodeWithHighestPoints(replica, assignableNodes, clusterContext, busyInstances,
+          optimalAssignment, true);
+    }
+    if (_scoringPool != null) {
+      try {
+        // The parallel streams that are started inside the pool are executed by the pool workers.
+        return _scoringPool.submit(
+            () -> getNodeWithHighestPoints(replica, assignableNodes, clusterContext, busyInstances,
+                optimalAssignment, true)).join();
+      } catch (RejectedExecutionException ex) {
+        // The pool has been shut down because the rebalancer configuration has been changed.
+        LOG.warn("The scoring pool is not available. Evaluate the candidate nodes serially.");
+      }
+    }
+    return getNodeWithHighestPoints(replica, assignableNodes, clusterContext, busyInstances,
+        optimalAssignment, false);
+  }
+
+  private Optional<AssignableNode> getNodeWithHighestPoints(AssignableReplica replica,
+      List<AssignableNode> assignableNodes, ClusterContext clusterContext, Set<String> busyInstances,
+      OptimalAssignment optimalAssignment, boolean parallel) {
     Map<AssignableNode, List<HardConstraint>> hardConstraintFailures = new ConcurrentHashMap<>(assignableNodes.size());
-    List<AssignableNode> candidateNodes = assignableNodes.parallelStream().filter(candidateNode -> {
+    List<AssignableNode> candidateNodes = (parallel ? assignableNodes.parallelStream()
+        : assignableNodes.stream()).filter(candidateNode -> {
       boolean isValid = true;
       for (HardConstraint hardConstraint : _hardConstraints) {
         if (!hardConstraint.isAssignmentValid(candidateNode, replica, clusterContext)) {
@@ -147,8 +181,11 @@ class ConstraintBasedAlgorithm implements RebalanceAlgorithm {
     LOG.debug("Disabling hard constraint level logging for cluster: {}", clusterContext.getClusterName());
     removeFullLoggingForCluster();
 
-    return candidateNodes.parallelStream().map(node -> new HashMap.SimpleEntry<>(node,
-        getAssignmentNormalizedScore(node, replica, clusterContext)))
+    // Note the comparator is a total order since the logical ids are unique. So the reduced result
+    // does not depend on how the candidate nodes are split across the workers.
+    return (parallel ? candidateNodes.parallelStream() : candidateNodes.stream())
+        .map(node -> new HashMap.SimpleEntry<>(node,
+            getAssignmentNormalizedScore(node, replica, clusterContext)))
         .max((nodeEntry1, nodeEntry2) -> {
           int scoreCompareResult = nodeEntry1.getValue().compareTo(nodeEntry2.getValue());
           if (scoreCompareResult == 0) {
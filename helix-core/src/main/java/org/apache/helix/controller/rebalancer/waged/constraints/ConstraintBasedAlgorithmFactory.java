@@ -23,6 +23,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ForkJoinPool;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Maps;
@@ -61,6 +62,17 @@ public class ConstraintBasedAlgorithmFactory {
 
   public static RebalanceAlgorithm getInstance(
       Map<ClusterConfig.GlobalRebalancePreferenceKey, Integer> preferences) {
+    return getInstance(preferences, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * @param preferences the global rebalance preferences
+   * @param scoringPool the pool used to evaluate the candidate nodes in parallel. If null, the
+   *                    candidate nodes are evaluated in the calling thread.
+   */
+  public static RebalanceAlgorithm getInstance(
+      Map<ClusterConfig.GlobalRebalancePreferenceKey, Integer> preferences,
+      ForkJoinPool scoringPool) {
     List<HardConstraint> hardConstraints =
         ImmutableList.of(new FaultZoneAwareConstraint(), new NodeCapacityConstraint(),
             new ReplicaActivateConstraint(), new NodeMaxPartitionLimitConstraint(),
@@ -97,6 +109,6 @@ public class ConstraintBasedAlgorithmFactory {
     });
 
 
-    return new ConstraintBasedAlgorithm(hardConstraints, softConstraintsWithWeight);
+    return new ConstraintBasedAlgorithm(hardConstraints, softConstraintsWithWeight, scoringPool);
   }
 }
@@ -22,6 +22,7 @@ package org.apache.helix.controller.rebalancer.waged.constraints;
 import java.util.Map;
 import org.apache.helix.controller.rebalancer.waged.model.AssignableNode;
 import org.apache.helix.controller.rebalancer.waged.model.AssignableReplica;
+import org.apache.helix.controller.rebalancer.waged.model.CapacityMap;
 import org.apache.helix.controller.rebalancer.waged.model.ClusterContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -37,6 +38,24 @@ class NodeCapacityConstraint extends HardConstraint {
     Map<String, Integer> nodeCapacity = node.getRemainingCapacity();
     Map<String, Integer> replicaCapacity = replica.getCapacity();
 
+    if (nodeCapacity instanceof CapacityMap && replicaCapacity instanceof CapacityMap
+        && ((CapacityMap) nodeCapacity).isAlignedWith((CapacityMap) replicaCapacity)) {
+      // Compare the capacity arrays by position, so no map lookup is needed.
+      CapacityMap alignedNodeCapacity = (CapacityMap) nodeCapacity;
+      CapacityMap alignedReplicaCapacity = (CapacityMap) replicaCapacity;
+      for (int i = 0; i < alignedNodeCapacity.size(); i++) {
+        if (alignedNodeCapacity.getValue(i) < alignedReplicaCapacity.getValue(i)) {
+          if (enableLogging) {
+            LOG.info("Node has insufficient capacity for: {}. Left available: {}, Required: {}",
+                alignedNodeCapacity.getKeyIndex().getKey(i), alignedNodeCapacity.getValue(i),
+                alignedReplicaCapacity.getValue(i));
+          }
+          return false;
+        }
+      }
+      return true;
+    }
+
     for (String key : replicaCapacity.keySet()) {
       if (nodeCapacity.containsKey(key)) {
         if (nodeCapacity.get(key) < replicaCapacity.get(key)) {
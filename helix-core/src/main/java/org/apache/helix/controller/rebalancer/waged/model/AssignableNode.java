@@ -55,15 +55,19 @@ public class AssignableNode implements Comparable<AssignableNode> {
   private final int _maxPartition;
   private final ImmutableSet<String> _instanceTags;
   private final ImmutableMap<String, List<String>> _disabledPartitionsMap;
-  private final ImmutableMap<String, Integer> _maxAllowedCapacity;
+  // The capacity arrays are indexed by the cluster capacity keys.
+  private final CapacityKeyIndex _capacityKeyIndex;
+  private final int[] _maxAllowedCapacity;
+  private final CapacityMap _maxAllowedCapacityView;
 
   // Mutable (Dynamic) Instance Properties
   // A map of <resource name, <partition name, replica>> that tracks the replicas assigned to the
   // node.
   private Map<String, Map<String, AssignableReplica>> _currentAssignedReplicaMap;
-  // A map of <capacity key, capacity value> that tracks the current available node capacity
-  private Map<String, Integer> _remainingCapacity;
-  private Map<String, Integer> _remainingTopStateCapacity;
+  // The arrays of capacity values that track the current available node capacity
+  private final int[] _remainingCapacity;
+  private final int[] _remainingTopStateCapacity;
+  private final CapacityMap _remainingCapacityView;
 
   /**
    * Update the node with a ClusterDataCache. This resets the current assignment and recalculates
@@ -84,10 +88,12 @@ public class AssignableNode implements Comparable<AssignableNode> {
     _faultZone = computeFaultZone(clusterConfig, instanceConfig);
     _instanceTags = ImmutableSet.copyOf(instanceConfig.getTags());
     _disabledPartitionsMap = ImmutableMap.copyOf(instanceConfig.getDisabledPartitionsMap());
-    // make a copy of max capacity
-    _maxAllowedCapacity = ImmutableMap.copyOf(instanceCapacity);
-    _remainingCapacity = new HashMap<>(instanceCapacity);
-    _remainingTopStateCapacity = new HashMap<>(instanceCapacity);
+    _capacityKeyIndex = CapacityKeyIndex.of(clusterConfig.getInstanceCapacityKeys());
+    _maxAllowedCapacity = _capacityKeyIndex.toArray(instanceCapacity);
+    _maxAllowedCapacityView = new CapacityMap(_capacityKeyIndex, _maxAllowedCapacity, false);
+    _remainingCapacity = _maxAllowedCapacity.clone();
+    _remainingTopStateCapacity = _maxAllowedCapacity.clone();
+    _remainingCapacityView = new CapacityMap(_capacityKeyIndex, _remainingCapacity, true);
     _maxPartition = clusterConfig.getMaxPartitionsPerInstance();
     _currentAssignedReplicaMap = new HashMap<>();
   }
@@ -103,27 +109,23 @@ public class AssignableNode implements Comparable<AssignableNode> {
    * Using this function avoids the overhead of updating capacity repeatedly.
    */
   void assignInitBatch(Collection<AssignableReplica> replicas) {
-    Map<String, Integer> totalTopStatePartitionCapacity = new HashMap<>();
-    Map<String, Integer> totalPartitionCapacity = new HashMap<>();
+    int[] totalTopStatePartitionCapacity = new int[_capacityKeyIndex.size()];
+    int[] totalPartitionCapacity = new int[_capacityKeyIndex.size()];
     for (AssignableReplica replica : replicas) {
       // TODO: the exception could occur in the middle of for loop and the previous added records cannot be reverted
       addToAssignmentRecord(replica);
       // increment the capacity requirement according to partition's capacity configuration.
-      for (Map.Entry<String, Integer> capacity : replica.getCapacity().entrySet()) {
-        if (replica.isReplicaTopState()) {
-          totalTopStatePartitionCapacity.compute(capacity.getKey(),
-              (key, totalValue) -> (totalValue == null) ? capacity.getValue()
-                  : totalValue + capacity.getValue());
-        }
-        totalPartitionCapacity.compute(capacity.getKey(),
-            (key, totalValue) -> (totalValue == null) ? capacity.getValue()
-                : totalValue + capacity.getValue());
+      if (replica.isReplicaTopState()) {
+        accumulateCapacity(replica.getCapacity(), totalTopStatePartitionCapacity, 1);
       }
+      accumulateCapacity(replica.getCapacity(), totalPartitionCapacity, 1);
     }
 
     // Update the global state after all single replications' calculation is done.
-    updateRemainingCapacity(totalTopStatePartitionCapacity, _remainingTopStateCapacity, false);
-    updateRemainingCapacity(totalPartitionCapacity, _remainingCapacity, false);
+    for (int i = 0; i < _remainingCapacity.length; i++) {
+      _remainingTopStateCapacity[i] -= totalTopStatePartitionCapacity[i];
+      _remainingCapacity[i] -= totalPartitionCapacity[i];
+    }
   }
 
   /**
@@ -225,18 +227,18 @@ public class AssignableNode implements Comparable<AssignableNode> {
   }
 
   /**
-   * @return The current available capacity.
+   * @return A map view of the current available capacity.
    */
   public Map<String, Integer> getRemainingCapacity() {
-    return _remainingCapacity;
+    return _remainingCapacityView;
   }
 
   /**
-   * @return A map of <capacity category, capacity number> that describes the max capacity of the
-   *         node.
+   * @return A read only map of <capacity category, capacity number> that describes the max
+   *         capacity of the node.
    */
   public Map<String, Integer> getMaxCapacity() {
-    return _maxAllowedCapacity;
+    return _maxAllowedCapacityView;
   }
 
   /**
@@ -309,21 +311,38 @@ public class AssignableNode implements Comparable<AssignableNode> {
   }
 
   private float getProjectedHighestUtilization(Map<String, Integer> newUsage,
-      Map<String, Integer> remainingCapacity, List<String> preferredScoringKeys) {
-    Set<String> capacityKeySet = _maxAllowedCapacity.keySet();
-    if (preferredScoringKeys != null && preferredScoringKeys.size() != 0 && capacityKeySet.contains(preferredScoringKeys.get(0))) {
-      capacityKeySet = preferredScoringKeys.stream().collect(Collectors.toSet());
-    }
+      int[] remainingCapacity, List<String> preferredScoringKeys) {
+    // If the new usage is a view of the same capacity keys, read the usage array directly.
+    CapacityMap alignedUsage =
+        newUsage instanceof CapacityMap && ((CapacityMap) newUsage).isAlignedWith(
+            _remainingCapacityView) ? (CapacityMap) newUsage : null;
     float highestCapacityUtilization = 0;
-    for (String capacityKey : capacityKeySet) {
-      float capacityValue = _maxAllowedCapacity.get(capacityKey);
-      float utilization = (capacityValue - remainingCapacity.get(capacityKey) + newUsage
-          .getOrDefault(capacityKey, 0)) / capacityValue;
-      highestCapacityUtilization = Math.max(highestCapacityUtilization, utilization);
+    if (preferredScoringKeys != null && preferredScoringKeys.size() != 0
+        && _capacityKeyIndex.getPosition(preferredScoringKeys.get(0)) >= 0) {
+      for (String capacityKey : preferredScoringKeys) {
+        int position = _capacityKeyIndex.getPosition(capacityKey);
+        if (position >= 0) {
+          highestCapacityUtilization = Math.max(highestCapacityUtilization,
+              getProjectedUtilization(position, newUsage, alignedUsage, remainingCapacity));
+        }
+      }
+    } else {
+      for (int position = 0; position < _maxAllowedCapacity.length; position++) {
+        highestCapacityUtilization = Math.max(highestCapacityUtilization,
+            getProjectedUtilization(position, newUsage, alignedUsage, remainingCapacity));
+      }
     }
     return highestCapacityUtilization;
   }
 
+  private float getProjectedUtilization(int position, Map<String, Integer> newUsage,
+      CapacityMap alignedUsage, int[] remainingCapacity) {
+    float capacityValue = _maxAllowedCapacity[position];
+    int usage = alignedUsage != null ? alignedUsage.getValue(position)
+        : newUsage.getOrDefault(_capacityKeyIndex.getKey(position), 0);
+    return (capacityValue - remainingCapacity[position] + usage) / capacityValue;
+  }
+
   public String getInstanceName() {
     return _instanceName;
   }
@@ -400,12 +419,31 @@ public class AssignableNode implements Comparable<AssignableNode> {
     }
   }
 
-  private void updateRemainingCapacity(Map<String, Integer> usedCapacity, Map<String, Integer> remainingCapacity,
+  private void updateRemainingCapacity(Map<String, Integer> usedCapacity, int[] remainingCapacity,
       boolean isRelease) {
-    int multiplier = isRelease ? -1 : 1;
-    // if the used capacity key does not exist in the node's capacity, ignore it
-    usedCapacity.forEach((capacityKey, capacityValue) -> remainingCapacity.compute(capacityKey,
-        (key, value) -> value == null ? null : value - multiplier * capacityValue));
+    accumulateCapacity(usedCapacity, remainingCapacity, isRelease ? 1 : -1);
+  }
+
+  /**
+   * Add the capacity multiplied by the multiplier to the capacity array of this node.
+   */
+  private void accumulateCapacity(Map<String, Integer> capacity, int[] capacityArray,
+      int multiplier) {
+    if (capacity instanceof CapacityMap && ((CapacityMap) capacity)
+        .isAlignedWith(_remainingCapacityView)) {
+      CapacityMap alignedCapacity = (CapacityMap) capacity;
+      for (int i = 0; i < capacityArray.length; i++) {
+        capacityArray[i] += multiplier * alignedCapacity.getValue(i);
+      }
+      return;
+    }
+    // if the capacity key does not exist in the node's capacity, ignore it
+    for (Map.Entry<String, Integer> capacityEntry : capacity.entrySet()) {
+      int position = _capacityKeyIndex.getPosition(capacityEntry.getKey());
+      if (position >= 0) {
+        capacityArray[position] += multiplier * capacityEntry.getValue();
+      }
+    }
   }
 
   /**
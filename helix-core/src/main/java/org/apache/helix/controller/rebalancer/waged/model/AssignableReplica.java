@@ -45,7 +45,8 @@ public class AssignableReplica implements Comparable<AssignableReplica> {
   private final String _resourceName;
   private final String _resourceInstanceGroupTag;
   private final int _resourceMaxPartitionsPerInstance;
-  private final Map<String, Integer> _capacityUsage;
+  // The capacity usage array is indexed by the cluster capacity keys.
+  private final CapacityMap _capacityUsage;
   // The priority of the replica's state
   private final int _statePriority;
   // The state of the replica
@@ -64,12 +65,18 @@ public class AssignableReplica implements Comparable<AssignableReplica> {
     _replicaState = replicaState;
     _statePriority = statePriority;
     _resourceName = resourceConfig.getResourceName();
-    _capacityUsage = WagedRebalanceUtil.fetchCapacityUsage(partitionName, resourceConfig, clusterConfig);
+    CapacityKeyIndex capacityKeyIndex =
+        CapacityKeyIndex.of(clusterConfig.getInstanceCapacityKeys());
+    _capacityUsage = new CapacityMap(capacityKeyIndex, capacityKeyIndex.toArray(
+        WagedRebalanceUtil.fetchCapacityUsage(partitionName, resourceConfig, clusterConfig)), true);
     _resourceInstanceGroupTag = resourceConfig.getInstanceGroupTag();
     _resourceMaxPartitionsPerInstance = resourceConfig.getMaxPartitionsPerInstance();
     _replicaKey = generateReplicaKey(_resourceName, _partitionName,_replicaState);
   }
 
+  /**
+   * @return A map view of the capacity usage. Note the keys of the map cannot be changed.
+   */
   public Map<String, Integer> getCapacity() {
     return _capacityUsage;
   }
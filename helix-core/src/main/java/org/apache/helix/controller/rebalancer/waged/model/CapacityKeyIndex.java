@@ -0,0 +1,114 @@
+package org.apache.helix.controller.rebalancer.waged.model;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+
+
+/**
+ * The positions of the capacity keys in the capacity arrays of {@link AssignableNode} and
+ * {@link AssignableReplica}. The index is interned, so the nodes and the replicas that are created
+ * with the same capacity keys share one instance and can be compared by reference.
+ */
+public final class CapacityKeyIndex {
+  private static final Interner<CapacityKeyIndex> INTERNER = Interners.newWeakInterner();
+  // The capacity keys rarely change in a cluster, so cache the last index to skip the interning.
+  private static volatile CapacityKeyIndex _lastIndex;
+
+  private final List<String> _keys;
+  private final Map<String, Integer> _positions;
+
+  private CapacityKeyIndex(List<String> keys) {
+    _keys = Collections.unmodifiableList(new ArrayList<>(new LinkedHashSet<>(keys)));
+    _positions = new HashMap<>();
+    for (int i = 0; i < _keys.size(); i++) {
+      _positions.put(_keys.get(i), i);
+    }
+  }
+
+  /**
+   * @param capacityKeys the capacity keys, usually the instance capacity keys of the cluster config
+   * @return the shared index of the capacity keys
+   */
+  public static CapacityKeyIndex of(List<String> capacityKeys) {
+    CapacityKeyIndex lastIndex = _lastIndex;
+    if (lastIndex != null && lastIndex._keys.equals(capacityKeys)) {
+      return lastIndex;
+    }
+    CapacityKeyIndex index = INTERNER.intern(new CapacityKeyIndex(capacityKeys));
+    _lastIndex = index;
+    return index;
+  }
+
+  public int size() {
+    return _keys.size();
+  }
+
+  public String getKey(int position) {
+    return _keys.get(position);
+  }
+
+  public List<String> getKeys() {
+    return _keys;
+  }
+
+  /**
+   * @return the position of the capacity key, or -1 if the key is not indexed
+   */
+  public int getPosition(String capacityKey) {
+    Integer position = _positions.get(capacityKey);
+    return position == null ? -1 : position;
+  }
+
+  /**
+   * Convert the capacity map to an array in the order of this index. The keys that are not indexed
+   * are ignored, and the missing keys are filled with 0.
+   */
+  int[] toArray(Map<String, Integer> capacity) {
+    int[] values = new int[_keys.size()];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = capacity.getOrDefault(_keys.get(i), 0);
+    }
+    return values;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    return obj instanceof CapacityKeyIndex && _keys.equals(((CapacityKeyIndex) obj)._keys);
+  }
+
+  @Override
+  public int hashCode() {
+    return _keys.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return _keys.toString();
+  }
+}
@@ -0,0 +1,137 @@
+package org.apache.helix.controller.rebalancer.waged.model;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+
+/**
+ * A map view of a capacity array that is indexed by a {@link CapacityKeyIndex}. The view reads and
+ * writes through to the array, so the map getters of {@link AssignableNode} and
+ * {@link AssignableReplica} stay compatible while the calculations work on the arrays directly.
+ * Only the indexed keys can be updated, and no key can be removed.
+ */
+public final class CapacityMap extends AbstractMap<String, Integer> {
+  private final CapacityKeyIndex _keyIndex;
+  private final int[] _values;
+  private final boolean _modifiable;
+
+  CapacityMap(CapacityKeyIndex keyIndex, int[] values, boolean modifiable) {
+    _keyIndex = keyIndex;
+    _values = values;
+    _modifiable = modifiable;
+  }
+
+  public CapacityKeyIndex getKeyIndex() {
+    return _keyIndex;
+  }
+
+  /**
+   * @return true if both maps are indexed by the same capacity keys, so their values can be
+   *         compared by position.
+   */
+  public boolean isAlignedWith(CapacityMap other) {
+    return _keyIndex == other._keyIndex;
+  }
+
+  /**
+   * @return the capacity value at the position of the key index.
+   */
+  public int getValue(int position) {
+    return _values[position];
+  }
+
+  @Override
+  public int size() {
+    return _values.length;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return key instanceof String && _keyIndex.getPosition((String) key) >= 0;
+  }
+
+  @Override
+  public Integer get(Object key) {
+    if (!(key instanceof String)) {
+      return null;
+    }
+    int position = _keyIndex.getPosition((String) key);
+    return position < 0 ? null : _values[position];
+  }
+
+  @Override
+  public Integer put(String key, Integer value) {
+    if (!_modifiable) {
+      throw new UnsupportedOperationException("The capacity map is read only.");
+    }
+    int position = _keyIndex.getPosition(key);
+    if (position < 0) {
+      throw new IllegalArgumentException(
+          String.format("Capacity key %s is not one of the capacity keys %s.", key, _keyIndex));
+    }
+    int oldValue = _values[position];
+    _values[position] = value;
+    return oldValue;
+  }
+
+  @Override
+  public Set<Entry<String, Integer>> entrySet() {
+    return new AbstractSet<Entry<String, Integer>>() {
+      @Override
+      public Iterator<Entry<String, Integer>> iterator() {
+        return new Iterator<Entry<String, Integer>>() {
+          private int _position = 0;
+
+          @Override
+          public boolean hasNext() {
+            return _position < _values.length;
+          }
+
+          @Override
+          public Entry<String, Integer> next() {
+            if (!hasNext()) {
+              throw new NoSuchElementException();
+            }
+            final int position = _position++;
+            return new SimpleEntry<String, Integer>(_keyIndex.getKey(position),
+                _values[position]) {
+              @Override
+              public Integer setValue(Integer value) {
+                Integer oldValue = put(getKey(), value);
+                super.setValue(value);
+                return oldValue;
+              }
+            };
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return _values.length;
+      }
+    };
+  }
+}
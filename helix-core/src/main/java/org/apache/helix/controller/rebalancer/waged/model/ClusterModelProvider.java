@@ -55,6 +55,9 @@ public class ClusterModelProvider {
     // Set the rebalance scope to cover all replicas that need relocation based on the cluster
     // changes.
     GLOBAL_BASELINE,
+    // Set the rebalance scope to cover only the replicas that are on the changed instances or that
+    // belong to the changed resources. All the other replicas stay pinned to the current assignment.
+    INCREMENTAL_BASELINE,
     // Set the rebalance scope to cover only replicas that are assigned to downed instances.
     EMERGENCY,
     // A temporary overwrites for partition replicas on downed instance but still within the delayed window but missing
@@ -150,6 +153,31 @@ public class ClusterModelProvider {
         Collections.emptyMap(), baselineAssignment, RebalanceScopeType.GLOBAL_BASELINE);
   }
 
+  /**
+   * Generate a new Cluster Model object for an incremental Baseline calculation. Different from
+   * {@link #generateClusterModelForBaseline}, the instance config changes do not reset the whole
+   * rebalance scope. Only the replicas that are currently placed on the changed instances, or that
+   * belong to the changed resources, are re-assigned. The other replicas are pinned to the previous
+   * Baseline.
+   * Note that the caller is responsible for verifying the result against the hard constraints and
+   * falling back to a full Baseline calculation if needed.
+   * @param dataProvider           The controller's data cache.
+   * @param resourceMap            The full list of the resources to be rebalanced. Note that any
+   *                               resources that are not in this list will be removed from the
+   *                               final assignment.
+   * @param allInstances           All the instances that will be used in the calculation.
+   * @param clusterChanges         All the cluster changes that happened after the previous rebalance.
+   * @param baselineAssignment     The previous Baseline assignment.
+   * @return the new cluster model
+   */
+  public static ClusterModel generateClusterModelForIncrementalBaseline(
+      ResourceControllerDataProvider dataProvider, Map<String, Resource> resourceMap,
+      Set<String> allInstances, Map<HelixConstants.ChangeType, Set<String>> clusterChanges,
+      Map<String, ResourceAssignment> baselineAssignment) {
+    return generateClusterModel(dataProvider, resourceMap, allInstances, clusterChanges,
+        Collections.emptyMap(), baselineAssignment, RebalanceScopeType.INCREMENTAL_BASELINE);
+  }
+
   /**
    * Generate a cluster model based on the current state output and data cache. The rebalance scope
    * is configured for recovering the missing replicas only.
@@ -239,6 +267,17 @@ public class ClusterModelProvider {
                 assignableLiveInstanceLogicalIds, clusterChanges, logicalIdCurrentAssignment,
             allocatedReplicas);
         break;
+      case INCREMENTAL_BASELINE:
+        Set<String> changedLogicalIds = clusterChanges
+            .getOrDefault(HelixConstants.ChangeType.INSTANCE_CONFIG, Collections.emptySet())
+            .stream().map(instanceName -> assignableInstanceConfigMap
+                .getOrDefault(instanceName, new InstanceConfig(instanceName))
+                .getLogicalId(clusterTopologyConfig.getEndNodeType()))
+            .collect(Collectors.toSet());
+        toBeAssignedReplicas =
+            findToBeAssignedReplicasByIncrementalChanges(replicaMap, activeLogicalIds,
+                changedLogicalIds, clusterChanges, logicalIdCurrentAssignment, allocatedReplicas);
+        break;
       case PARTIAL:
         // Filter to remove the replicas that do not exist in the ideal assignment given but exist
         // in the replicaMap. This is because such replicas are new additions that do not need to be
@@ -523,6 +562,65 @@ public class ClusterModelProvider {
     return toBeAssignedReplicas;
   }
 
+  /**
+   * Find the replicas that are touched by the cluster changes. A replica needs to be reassigned if
+   * one of the following condition is true:
+   * 1. The resource config or the ideal state of the replica's resource has been updated.
+   * 2. The replica is currently assigned to an instance whose config has been updated.
+   * 3. The current assignment does not contain the partition's valid assignment.
+   * Any other replica keeps its current allocation.
+   *
+   * @param replicaMap             A map contains all the replicas grouped by resource name.
+   * @param activeInstances        All the instances that are active in the calculation.
+   * @param changedInstances       The instances whose config has been updated.
+   * @param clusterChanges         A map that contains all the important metadata updates that happened after the previous rebalance.
+   * @param currentAssignment      The current replica assignment.
+   * @param allocatedReplicas      Return the allocated replicas grouped by the target instance name.
+   * @return The replicas that need to be reassigned.
+   */
+  private static Set<AssignableReplica> findToBeAssignedReplicasByIncrementalChanges(
+      Map<String, Set<AssignableReplica>> replicaMap, Set<String> activeInstances,
+      Set<String> changedInstances, Map<HelixConstants.ChangeType, Set<String>> clusterChanges,
+      Map<String, ResourceAssignment> currentAssignment,
+      Map<String, Set<AssignableReplica>> allocatedReplicas) {
+    Set<AssignableReplica> toBeAssignedReplicas = new HashSet<>();
+    // The replicas on the changed instances are not considered as valid allocations.
+    Set<String> pinnableInstances = new HashSet<>(activeInstances);
+    pinnableInstances.removeAll(changedInstances);
+    Set<String> changedResources = new HashSet<>(clusterChanges
+        .getOrDefault(HelixConstants.ChangeType.RESOURCE_CONFIG, Collections.emptySet()));
+    changedResources.addAll(clusterChanges
+        .getOrDefault(HelixConstants.ChangeType.IDEAL_STATE, Collections.emptySet()));
+
+    for (Map.Entry<String, Set<AssignableReplica>> replicaMapEntry : replicaMap.entrySet()) {
+      String resourceName = replicaMapEntry.getKey();
+      Set<AssignableReplica> replicas = replicaMapEntry.getValue();
+      if (changedResources.contains(resourceName) || !currentAssignment.containsKey(resourceName)) {
+        toBeAssignedReplicas.addAll(replicas);
+        continue;
+      }
+      // <partition, <state, instances list>>
+      Map<String, Map<String, Set<String>>> stateMap =
+          getValidStateInstanceMap(currentAssignment.get(resourceName), pinnableInstances);
+      for (AssignableReplica replica : replicas) {
+        Set<String> validInstances =
+            stateMap.getOrDefault(replica.getPartitionName(), Collections.emptyMap())
+                .getOrDefault(replica.getReplicaState(), Collections.emptySet());
+        if (validInstances.isEmpty()) {
+          toBeAssignedReplicas.add(replica);
+        } else {
+          Iterator<String> iter = validInstances.iterator();
+          // Remove the instance from the current allocation record after processing so that it
+          // won't be double-processed as we loop through all replicas
+          String logicalId = iter.next();
+          iter.remove();
+          allocatedReplicas.computeIfAbsent(logicalId, key -> new HashSet<>()).add(replica);
+        }
+      }
+    }
+    return toBeAssignedReplicas;
+  }
+
   /**
    * Find replicas that were assigned to non-active nodes in the current assignment.
    *
@@ -23,7 +23,6 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -295,25 +294,23 @@ public class BestPossibleStateCalcStage extends AbstractBaseStage {
     // Fallback to the original single resource rebalancer calculation.
     // This is required because we support mixed cluster that uses both WAGED rebalancer and the
     // older rebalancers.
-    Iterator<Resource> itr = remainingResourceMap.values().iterator();
-    while (itr.hasNext()) {
-      Resource resource = itr.next();
-      boolean result = false;
-      try {
-        result = computeSingleResourceBestPossibleState(event, cache, currentStateOutput, resource,
-            output);
-      } catch (HelixException ex) {
-        LogUtil.logError(logger, _eventId, String
-            .format("Exception when calculating best possible states for %s",
-                resource.getResourceName()), ex);
-
-      }
-      if (!result) {
-        failureResources.add(resource.getResourceName());
-        LogUtil.logWarn(logger, _eventId, String
-            .format("Failed to calculate best possible states for %s", resource.getResourceName()));
+    int parallelism =
+        isResourceComputeParallelizable(cache) ? ResourceComputeExecutor.getParallelism(cache) : 1;
+    List<SingleResourceComputeOutput> computeOutputs = ResourceComputeExecutor
+        .compute(cache.getResourceComputeThreadPool(), parallelism, remainingResourceMap.values(),
+            SingleResourceComputeOutput::new,
+            (resource, computeOutput) -> computeSingleResourceBestPossibleState(event, cache,
+                currentStateOutput, resource, computeOutput));
+    for (SingleResourceComputeOutput computeOutput : computeOutputs) {
+      computeOutput._bestPossibleStateOutput.getResourceStatesMap().forEach(output::setState);
+      if (computeOutput._bestPossibleStateOutput.getPreferenceLists() != null) {
+        computeOutput._bestPossibleStateOutput.getPreferenceLists()
+            .forEach(output::setPreferenceLists);
       }
+      failureResources.addAll(computeOutput._failedResources);
     }
+    ResourceComputeExecutor
+        .reportParallelism(clusterStatusMonitor, getStageName(), computeOutputs.size());
 
     // Check and report if resource rebalance has failure
     updateRebalanceStatus(!isValid || !failureResources.isEmpty(), failureResources, helixManager,
@@ -401,9 +398,13 @@ public class BestPossibleStateCalcStage extends AbstractBaseStage {
     if (clusterConfig != null) {
       // Since the rebalance configuration can be updated at runtime, try to update the rebalancer
       // before calculating.
+      wagedRebalancer
+          .setScoringParallelism(clusterConfig.getGlobalRebalanceScoringParallelism());
       wagedRebalancer.updateRebalancePreference(clusterConfig.getGlobalRebalancePreference());
       wagedRebalancer
           .setGlobalRebalanceAsyncMode(clusterConfig.isGlobalRebalanceAsyncModeEnabled());
+      wagedRebalancer.setGlobalRebalanceIncrementalMode(
+          clusterConfig.isGlobalRebalanceIncrementalModeEnabled());
     }
   }
 
@@ -482,6 +483,45 @@ public class BestPossibleStateCalcStage extends AbstractBaseStage {
     }
   }
 
+  /**
+   * The per-resource output of the resources that are computed by one worker.
+   */
+  private static class SingleResourceComputeOutput {
+    private final BestPossibleStateOutput _bestPossibleStateOutput = new BestPossibleStateOutput();
+    private final List<String> _failedResources = new ArrayList<>();
+  }
+
+  /**
+   * The single resource rebalancers are independent of each other, unless they allocate the
+   * instance capacity that is shared by all the resources. In that case, the result depends on the
+   * order of the resources, so they have to be computed in the pipeline thread.
+   */
+  private boolean isResourceComputeParallelizable(ResourceControllerDataProvider cache) {
+    ClusterConfig clusterConfig = cache.getClusterConfig();
+    return cache.getWagedInstanceCapacity() == null && (clusterConfig == null
+        || clusterConfig.getGlobalMaxPartitionAllowedPerInstance() == -1);
+  }
+
+  private void computeSingleResourceBestPossibleState(ClusterEvent event,
+      ResourceControllerDataProvider cache, CurrentStateOutput currentStateOutput,
+      Resource resource, SingleResourceComputeOutput computeOutput) {
+    boolean result = false;
+    try {
+      result = computeSingleResourceBestPossibleState(event, cache, currentStateOutput, resource,
+          computeOutput._bestPossibleStateOutput);
+    } catch (HelixException ex) {
+      LogUtil.logError(logger, _eventId, String
+          .format("Exception when calculating best possible states for %s",
+              resource.getResourceName()), ex);
+
+    }
+    if (!result) {
+      computeOutput._failedResources.add(resource.getResourceName());
+      LogUtil.logWarn(logger, _eventId, String
+          .format("Failed to calculate best possible states for %s", resource.getResourceName()));
+    }
+  }
+
   private boolean computeSingleResourceBestPossibleState(ClusterEvent event,
       ResourceControllerDataProvider cache, CurrentStateOutput currentStateOutput,
       Resource resource, BestPossibleStateOutput output) {
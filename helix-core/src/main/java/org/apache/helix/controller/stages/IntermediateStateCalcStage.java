@@ -153,41 +153,23 @@ public class IntermediateStateCalcStage extends AbstractBaseStage {
     List<String> failedResources = new ArrayList<>();
 
     // Priority is applied in assignment computation because higher priority by looping in order of
-    // decreasing priority
-    for (ResourcePriority resourcePriority : prioritizedResourceList) {
-      String resourceName = resourcePriority.getResourceName();
-
-      if (!bestPossibleStateOutput.containsResource(resourceName)) {
-        LogUtil.logInfo(logger, _eventId, String.format(
-            "Skip calculating intermediate state for resource %s because the best possible state is not available.",
-            resourceName));
-        continue;
-      }
-
-      Resource resource = resourceMap.get(resourceName);
-      IdealState idealState = dataCache.getIdealState(resourceName);
-      if (idealState == null) {
-        // If IdealState is null, use an empty one
-        LogUtil.logInfo(logger, _eventId, String
-            .format("IdealState for resource %s does not exist; resource may not exist anymore",
-                resourceName));
-        idealState = new IdealState(resourceName);
-        idealState.setStateModelDefRef(resource.getStateModelDefRef());
-      }
-
-      try {
-        output.setState(resourceName,
-            computeIntermediatePartitionState(dataCache, clusterStatusMonitor, idealState,
-                resourceMap.get(resourceName), currentStateOutput,
-                bestPossibleStateOutput.getPartitionStateMap(resourceName),
-                bestPossibleStateOutput.getPreferenceLists(resourceName), throttleController,
-                messageOutput.getResourceMessageMap(resourceName)));
-      } catch (HelixException ex) {
-        LogUtil.logInfo(logger, _eventId,
-            "Failed to calculate intermediate partition states for resource " + resourceName, ex);
-        failedResources.add(resourceName);
-      }
-    }
+    // decreasing priority. The order only matters when the throttle quota is shared by the
+    // resources, otherwise the resources can be computed by multiple workers.
+    int parallelism = throttleController.isThrottleEnabled() ? 1
+        : ResourceComputeExecutor.getParallelism(dataCache);
+    List<IntermediateStateComputeOutput> computeOutputs = ResourceComputeExecutor
+        .compute(dataCache.getResourceComputeThreadPool(), parallelism, prioritizedResourceList,
+            IntermediateStateComputeOutput::new,
+            (resourcePriority, computeOutput) -> computeIntermediateState(
+                resourcePriority.getResourceName(), dataCache, clusterStatusMonitor, resourceMap,
+                currentStateOutput, bestPossibleStateOutput, messageOutput, throttleController,
+                computeOutput));
+    for (IntermediateStateComputeOutput computeOutput : computeOutputs) {
+      computeOutput._intermediateStateOutput.getResourceStatesMap().forEach(output::setState);
+      failedResources.addAll(computeOutput._failedResources);
+    }
+    ResourceComputeExecutor
+        .reportParallelism(clusterStatusMonitor, getStageName(), computeOutputs.size());
 
     if (clusterStatusMonitor != null) {
       clusterStatusMonitor.setResourceRebalanceStates(failedResources,
@@ -199,6 +181,52 @@ public class IntermediateStateCalcStage extends AbstractBaseStage {
     return output;
   }
 
+  /**
+   * The intermediate states of the resources that are computed by one worker.
+   */
+  private static class IntermediateStateComputeOutput {
+    private final IntermediateStateOutput _intermediateStateOutput = new IntermediateStateOutput();
+    private final List<String> _failedResources = new ArrayList<>();
+  }
+
+  private void computeIntermediateState(String resourceName,
+      ResourceControllerDataProvider dataCache, ClusterStatusMonitor clusterStatusMonitor,
+      Map<String, Resource> resourceMap, CurrentStateOutput currentStateOutput,
+      BestPossibleStateOutput bestPossibleStateOutput, MessageOutput messageOutput,
+      StateTransitionThrottleController throttleController,
+      IntermediateStateComputeOutput computeOutput) {
+    if (!bestPossibleStateOutput.containsResource(resourceName)) {
+      LogUtil.logInfo(logger, _eventId, String.format(
+          "Skip calculating intermediate state for resource %s because the best possible state is not available.",
+          resourceName));
+      return;
+    }
+
+    Resource resource = resourceMap.get(resourceName);
+    IdealState idealState = dataCache.getIdealState(resourceName);
+    if (idealState == null) {
+      // If IdealState is null, use an empty one
+      LogUtil.logInfo(logger, _eventId, String
+          .format("IdealState for resource %s does not exist; resource may not exist anymore",
+              resourceName));
+      idealState = new IdealState(resourceName);
+      idealState.setStateModelDefRef(resource.getStateModelDefRef());
+    }
+
+    try {
+      computeOutput._intermediateStateOutput.setState(resourceName,
+          computeIntermediatePartitionState(dataCache, clusterStatusMonitor, idealState,
+              resourceMap.get(resourceName), currentStateOutput,
+              bestPossibleStateOutput.getPartitionStateMap(resourceName),
+              bestPossibleStateOutput.getPreferenceLists(resourceName), throttleController,
+              messageOutput.getResourceMessageMap(resourceName)));
+    } catch (HelixException ex) {
+      LogUtil.logInfo(logger, _eventId,
+          "Failed to calculate intermediate partition states for resource " + resourceName, ex);
+      computeOutput._failedResources.add(resourceName);
+    }
+  }
+
   /**
    * Go through every instance in the assignment and check that each instance does NOT have more
    * replicas for partitions assigned to it than maxPartitionsPerInstance. If the assignment
@@ -27,6 +27,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
+import org.apache.helix.BaseDataAccessor;
 import org.apache.helix.HelixDataAccessor;
 import org.apache.helix.HelixManager;
 import org.apache.helix.HelixManagerProperties;
@@ -37,11 +38,14 @@ import org.apache.helix.controller.dataproviders.BaseControllerDataProvider;
 import org.apache.helix.controller.dataproviders.WorkflowControllerDataProvider;
 import org.apache.helix.controller.pipeline.AbstractBaseStage;
 import org.apache.helix.controller.pipeline.StageException;
+import org.apache.helix.manager.zk.ZkBaseDataAccessor;
+import org.apache.helix.model.ClusterConfig;
 import org.apache.helix.model.LiveInstance;
 import org.apache.helix.model.Message;
 import org.apache.helix.model.Partition;
 import org.apache.helix.model.Resource;
 import org.apache.helix.monitoring.mbeans.ClusterStatusMonitor;
+import org.apache.helix.zookeeper.datamodel.ZNRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -93,15 +97,17 @@ public abstract class MessageDispatchStage extends AbstractBaseStage {
       }
     }
 
-    List<Message> messagesSent = sendMessages(dataAccessor, outputMessages);
-
     // TODO: Need also count messages from task rebalancer
+    ClusterStatusMonitor clusterStatusMonitor = null;
     if (!(cache instanceof WorkflowControllerDataProvider)) {
-      ClusterStatusMonitor clusterStatusMonitor =
-          event.getAttribute(AttributeName.clusterStatusMonitor.name());
-      if (clusterStatusMonitor != null) {
-        clusterStatusMonitor.increaseMessageReceived(outputMessages);
-      }
+      clusterStatusMonitor = event.getAttribute(AttributeName.clusterStatusMonitor.name());
+    }
+
+    List<Message> messagesSent =
+        sendMessages(dataAccessor, outputMessages, cache, clusterStatusMonitor);
+
+    if (clusterStatusMonitor != null) {
+      clusterStatusMonitor.increaseMessageReceived(outputMessages);
     }
     long cacheStart = System.currentTimeMillis();
     cache.cacheMessages(messagesSent);
@@ -154,6 +160,17 @@ public abstract class MessageDispatchStage extends AbstractBaseStage {
 
   // return the messages actually sent
   protected List<Message> sendMessages(HelixDataAccessor dataAccessor, List<Message> messages) {
+    return sendMessages(dataAccessor, messages, null, null);
+  }
+
+  /**
+   * Send the messages, in ZooKeeper multi transactions if the cluster config enables it.
+   * @param cache the controller data cache, null to always create the messages one by one
+   * @param clusterStatusMonitor the monitor to report the dispatch to, may be null
+   * @return the messages actually sent
+   */
+  private List<Message> sendMessages(HelixDataAccessor dataAccessor, List<Message> messages,
+      BaseControllerDataProvider cache, ClusterStatusMonitor clusterStatusMonitor) {
     List<Message> messageSent = new ArrayList<>();
     if (messages == null || messages.isEmpty()) {
       return messageSent;
@@ -184,7 +201,43 @@ public abstract class MessageDispatchStage extends AbstractBaseStage {
       keys.add(keyBuilder.message(message.getTgtName(), message.getId()));
     }
 
-    boolean[] results = dataAccessor.createChildren(keys, new ArrayList<>(messages));
+    long startTime = System.currentTimeMillis();
+    int chunkCount = 0;
+    long chunkBytes = 0L;
+    int failedChunkCount = 0;
+    boolean[] results;
+    ClusterConfig clusterConfig = cache == null ? null : cache.getClusterConfig();
+    BaseDataAccessor<ZNRecord> baseDataAccessor = dataAccessor.getBaseDataAccessor();
+    if (clusterConfig != null && clusterConfig.isMessageDispatchMultiModeEnabled()
+        && baseDataAccessor instanceof ZkBaseDataAccessor) {
+      List<String> instanceNames = new ArrayList<>(messages.size());
+      List<String> paths = new ArrayList<>(messages.size());
+      List<ZNRecord> records = new ArrayList<>(messages.size());
+      for (int i = 0; i < messages.size(); i++) {
+        instanceNames.add(messages.get(i).getTgtName());
+        paths.add(keys.get(i).getPath());
+        records.add(messages.get(i).getRecord());
+      }
+      MessageMultiDispatcher.Result result = MessageMultiDispatcher
+          .dispatch((ZkBaseDataAccessor<ZNRecord>) baseDataAccessor,
+              cache.getResourceComputeThreadPool(), clusterConfig.getMessageDispatchMaxInFlight(),
+              clusterConfig.getMessageDispatchMaxChunkBytes(), instanceNames, paths, records);
+      results = result._success;
+      chunkCount = result._chunkCount;
+      chunkBytes = result._chunkBytes;
+      failedChunkCount = result._failedChunkCount.get();
+    } else {
+      results = dataAccessor.createChildren(keys, new ArrayList<>(messages));
+    }
+    long dispatchLatency = System.currentTimeMillis() - startTime;
+    LogUtil.logDebug(logger, _eventId,
+        "Sending " + messages.size() + " messages in " + chunkCount + " multi chunks took "
+            + dispatchLatency + " ms");
+    if (clusterStatusMonitor != null) {
+      clusterStatusMonitor
+          .updateMessageDispatch(chunkCount, chunkBytes, failedChunkCount, dispatchLatency);
+    }
+
     for (int i = 0; i < results.length; i++) {
       if (!results[i]) {
         LogUtil.logError(logger, _eventId, "Failed to send message: " + keys.get(i));
@@ -98,15 +98,28 @@ public class MessageGenerationPhase extends AbstractBaseStage {
     }
     MessageOutput output = new MessageOutput();
 
-    for (Resource resource : resourceMap.values()) {
-      try {
-        generateMessage(resource, cache, bestPossibleStateOutput, currentStateOutput, manager,
-            sessionIdMap, event.getEventType(), output, messagesToCleanUp);
-      } catch (HelixException ex) {
-        LogUtil.logError(logger, _eventId,
-            "Failed to generate message for resource " + resource.getResourceName(), ex);
-      }
+    List<MessageGenerationOutput> generationOutputs = ResourceComputeExecutor
+        .compute(cache.getResourceComputeThreadPool(),
+            ResourceComputeExecutor.getParallelism(cache), resourceMap.values(),
+            MessageGenerationOutput::new, (resource, generationOutput) -> {
+              try {
+                generateMessage(resource, cache, bestPossibleStateOutput, currentStateOutput,
+                    manager, sessionIdMap, event.getEventType(), generationOutput._messageOutput,
+                    generationOutput._messagesToCleanUp);
+              } catch (HelixException ex) {
+                LogUtil.logError(logger, _eventId,
+                    "Failed to generate message for resource " + resource.getResourceName(), ex);
+              }
+            });
+    for (MessageGenerationOutput generationOutput : generationOutputs) {
+      output.merge(generationOutput._messageOutput);
+      generationOutput._messagesToCleanUp.forEach(
+          (instance, messages) -> messagesToCleanUp.computeIfAbsent(instance, k -> new HashMap<>())
+              .putAll(messages));
     }
+    ResourceComputeExecutor.reportParallelism(
+        event.getAttribute(AttributeName.clusterStatusMonitor.name()), getStageName(),
+        generationOutputs.size());
 
     // Asynchronously GC pending messages if necessary
     if (!messagesToCleanUp.isEmpty()) {
@@ -116,6 +129,14 @@ public class MessageGenerationPhase extends AbstractBaseStage {
     event.addAttribute(AttributeName.MESSAGES_ALL.name(), output);
   }
 
+  /**
+   * The messages of the resources that are generated by one worker.
+   */
+  private static class MessageGenerationOutput {
+    private final MessageOutput _messageOutput = new MessageOutput();
+    private final Map<String, Map<String, Message>> _messagesToCleanUp = new HashMap<>();
+  }
+
   private void generateMessage(final Resource resource, final BaseControllerDataProvider cache,
       final ResourcesStateMap resourcesStateMap, final CurrentStateOutput currentStateOutput,
       final HelixManager manager, final Map<String, String> sessionIdMap,
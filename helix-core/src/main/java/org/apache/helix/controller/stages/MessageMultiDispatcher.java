@@ -0,0 +1,194 @@
+package org.apache.helix.controller.stages;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.helix.AccessOption;
+import org.apache.helix.HelixException;
+import org.apache.helix.manager.zk.ZkBaseDataAccessor;
+import org.apache.helix.zookeeper.datamodel.ZNRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Sends controller messages in ZooKeeper multi transactions instead of one async create each.
+ *
+ * The messages are grouped by target instance and packed, in order, into chunks whose serialized
+ * size stays under the configured limit, so a multi never exceeds the jute.maxbuffer of the
+ * servers and a problem with one instance does not fail the messages of the others. Chunks are
+ * sent by at most the given number of workers, the calling thread being one of them, which bounds
+ * the number of outstanding multis. A failed chunk is retried once and then falls back to creating
+ * its messages one by one, which reports the result of every message as before.
+ */
+final class MessageMultiDispatcher {
+  private static final Logger LOG = LoggerFactory.getLogger(MessageMultiDispatcher.class);
+  private static final int MAX_CHUNK_ATTEMPTS = 2;
+  // Estimated bytes of a create operation in a multi request on top of its path and data.
+  private static final int CREATE_OP_OVERHEAD_BYTES = 64;
+
+  /**
+   * The outcome of one dispatch.
+   */
+  static final class Result {
+    final boolean[] _success;
+    int _chunkCount = 0;
+    long _chunkBytes = 0L;
+    final AtomicInteger _failedChunkCount = new AtomicInteger(0);
+
+    Result(int size) {
+      _success = new boolean[size];
+    }
+  }
+
+  private static final class Chunk {
+    final List<Integer> _indices = new ArrayList<>();
+    final List<String> _paths = new ArrayList<>();
+    final List<byte[]> _data = new ArrayList<>();
+    long _bytes = 0L;
+  }
+
+  private MessageMultiDispatcher() {
+  }
+
+  /**
+   * Create the message ZNodes.
+   * @param accessor the accessor used to serialize and create the ZNodes
+   * @param pool the thread pool for the workers other than the calling thread, may be null
+   * @param maxInFlight the max number of multis outstanding at the same time
+   * @param maxChunkBytes the max estimated size of one multi
+   * @param instanceNames the target instance of each message
+   * @param paths the path of each message
+   * @param records the record of each message
+   * @return the result of each message and the chunk statistics
+   */
+  static Result dispatch(ZkBaseDataAccessor<ZNRecord> accessor, ExecutorService pool,
+      int maxInFlight, int maxChunkBytes, List<String> instanceNames, List<String> paths,
+      List<ZNRecord> records) {
+    Result result = new Result(paths.size());
+    List<Chunk> chunks = buildChunks(accessor, maxChunkBytes, instanceNames, paths, records);
+    result._chunkCount = chunks.size();
+    for (Chunk chunk : chunks) {
+      result._chunkBytes += chunk._bytes;
+    }
+
+    AtomicInteger next = new AtomicInteger(0);
+    Runnable worker = () -> {
+      int i;
+      while ((i = next.getAndIncrement()) < chunks.size()) {
+        send(accessor, chunks.get(i), records, result);
+      }
+    };
+
+    int workers = Math.max(1, Math.min(maxInFlight, chunks.size()));
+    List<Future<?>> futures = new ArrayList<>(workers - 1);
+    if (pool != null) {
+      for (int i = 1; i < workers; i++) {
+        try {
+          futures.add(pool.submit(worker));
+        } catch (RejectedExecutionException ex) {
+          // The controller is shutting down, send the rest in the calling thread.
+          break;
+        }
+      }
+    }
+
+    try {
+      worker.run();
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } catch (ExecutionException ex) {
+      throw new HelixException("Failed to dispatch the messages.", ex.getCause());
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new HelixException("Interrupted while dispatching the messages.", ex);
+    }
+    return result;
+  }
+
+  private static List<Chunk> buildChunks(ZkBaseDataAccessor<ZNRecord> accessor,
+      int maxChunkBytes, List<String> instanceNames, List<String> paths, List<ZNRecord> records) {
+    Map<String, List<Integer>> indicesByInstance = new LinkedHashMap<>();
+    for (int i = 0; i < paths.size(); i++) {
+      indicesByInstance.computeIfAbsent(instanceNames.get(i), k -> new ArrayList<>()).add(i);
+    }
+
+    List<Chunk> chunks = new ArrayList<>();
+    for (List<Integer> indices : indicesByInstance.values()) {
+      Chunk chunk = new Chunk();
+      for (int i : indices) {
+        byte[] data;
+        try {
+          data = accessor.serialize(records.get(i), paths.get(i));
+        } catch (Exception e) {
+          LOG.error("Failed to serialize message: " + paths.get(i), e);
+          continue;
+        }
+        long bytes = data.length + paths.get(i).length() + CREATE_OP_OVERHEAD_BYTES;
+        if (!chunk._indices.isEmpty() && chunk._bytes + bytes > maxChunkBytes) {
+          chunks.add(chunk);
+          chunk = new Chunk();
+        }
+        chunk._indices.add(i);
+        chunk._paths.add(paths.get(i));
+        chunk._data.add(data);
+        chunk._bytes += bytes;
+      }
+      if (!chunk._indices.isEmpty()) {
+        chunks.add(chunk);
+      }
+    }
+    return chunks;
+  }
+
+  private static void send(ZkBaseDataAccessor<ZNRecord> accessor, Chunk chunk,
+      List<ZNRecord> records, Result result) {
+    for (int attempt = 0; attempt < MAX_CHUNK_ATTEMPTS; attempt++) {
+      if (accessor.multiCreate(chunk._paths, chunk._data, AccessOption.PERSISTENT)) {
+        for (int i : chunk._indices) {
+          result._success[i] = true;
+        }
+        return;
+      }
+    }
+
+    result._failedChunkCount.incrementAndGet();
+    LOG.warn("Failed to send " + chunk._indices.size()
+        + " messages in multi, falling back to individual creates.");
+    List<ZNRecord> chunkRecords = new ArrayList<>(chunk._indices.size());
+    for (int i : chunk._indices) {
+      chunkRecords.add(records.get(i));
+    }
+    boolean[] success =
+        accessor.createChildren(chunk._paths, chunkRecords, AccessOption.PERSISTENT);
+    for (int j = 0; j < success.length; j++) {
+      result._success[chunk._indices.get(j)] = success[j];
+    }
+  }
+}
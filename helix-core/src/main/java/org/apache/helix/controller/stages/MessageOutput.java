@@ -57,6 +57,18 @@ public class MessageOutput {
     _messagesMap.get(resourceName).put(partition, messages);
   }
 
+  /**
+   * Add all the messages of the other output to this output. The resources of the two outputs are
+   * expected to be disjoint.
+   * @param other the output to merge from
+   */
+  public void merge(MessageOutput other) {
+    other._messagesMap.forEach(
+        (resourceName, partitionMessages) -> _messagesMap
+            .computeIfAbsent(resourceName, k -> new HashMap<>()).putAll(partitionMessages));
+    _statusChangeMessages.addAll(other._statusChangeMessages);
+  }
+
   public void addStatusChangeMessages(List<Message> messages) {
     _statusChangeMessages.addAll(messages);
   }
@@ -59,10 +59,18 @@ public class ReadClusterDataStage extends AbstractBaseStage {
 
     HelixDataAccessor dataAccessor = manager.getHelixDataAccessor();
 
+    long statReadCount = dataProvider.getStatReadCount();
+    long dataReadCount = dataProvider.getDataReadCount();
     dataProvider.refresh(dataAccessor);
     final ClusterConfig clusterConfig = dataProvider.getClusterConfig();
         final ClusterStatusMonitor clusterStatusMonitor =
             event.getAttribute(AttributeName.clusterStatusMonitor.name());
+    // Same as the other cluster status gauges, only report the reads of the default pipeline.
+    if (clusterStatusMonitor != null && dataProvider instanceof ResourceControllerDataProvider) {
+      clusterStatusMonitor
+          .updateDataRefreshReads(dataProvider.getStatReadCount() - statReadCount,
+              dataProvider.getDataReadCount() - dataReadCount);
+    }
 
     // TODO (harry): move this to separate stage for resource controller only
     if (dataProvider instanceof ResourceControllerDataProvider) {
@@ -0,0 +1,142 @@
+package org.apache.helix.controller.stages;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+import org.apache.helix.HelixException;
+import org.apache.helix.controller.dataproviders.BaseControllerDataProvider;
+import org.apache.helix.model.ClusterConfig;
+import org.apache.helix.monitoring.mbeans.ClusterStatusMonitor;
+
+/**
+ * Fans the per-resource computation of a pipeline stage out to the resource compute thread pool of
+ * the controller.
+ *
+ * The items are split into contiguous chunks, one per worker. Every chunk writes into its own
+ * output, which is created by the given factory, so the task does not need to be thread safe as
+ * long as the items are independent of each other. The caller merges the returned outputs in the
+ * pipeline thread. The first chunk is always computed in the calling thread.
+ */
+final class ResourceComputeExecutor {
+  private ResourceComputeExecutor() {
+  }
+
+  /**
+   * @return the configured number of workers, or 1 if the controller provides no thread pool.
+   */
+  static int getParallelism(BaseControllerDataProvider cache) {
+    ClusterConfig clusterConfig = cache.getClusterConfig();
+    if (cache.getResourceComputeThreadPool() == null || clusterConfig == null) {
+      return 1;
+    }
+    return clusterConfig.getPipelineResourceComputeParallelism();
+  }
+
+  /**
+   * Compute all the items with at most the given number of workers.
+   * @param pool the thread pool for the workers other than the calling thread
+   * @param parallelism the maximum number of workers
+   * @param items the items to compute
+   * @param outputFactory creates the output of one chunk
+   * @param task computes one item into the output of its chunk
+   * @return the outputs of the chunks in the order of the items. The size of the list is the number
+   *         of workers that have been used.
+   */
+  static <T, R> List<R> compute(ExecutorService pool, int parallelism, Collection<T> items,
+      Supplier<R> outputFactory, BiConsumer<T, R> task) {
+    List<T> itemList = new ArrayList<>(items);
+    int workers = Math.max(1, Math.min(parallelism, itemList.size()));
+    if (pool == null || workers == 1) {
+      R output = outputFactory.get();
+      itemList.forEach(item -> task.accept(item, output));
+      List<R> outputs = new ArrayList<>(1);
+      outputs.add(output);
+      return outputs;
+    }
+
+    int chunkSize = (itemList.size() + workers - 1) / workers;
+    List<List<T>> chunks = new ArrayList<>();
+    List<R> outputs = new ArrayList<>();
+    for (int start = 0; start < itemList.size(); start += chunkSize) {
+      chunks.add(itemList.subList(start, Math.min(start + chunkSize, itemList.size())));
+      outputs.add(outputFactory.get());
+    }
+
+    List<Future<?>> futures = new ArrayList<>(chunks.size() - 1);
+    List<Integer> localChunks = new ArrayList<>();
+    localChunks.add(0);
+    for (int i = 1; i < chunks.size(); i++) {
+      List<T> chunk = chunks.get(i);
+      R output = outputs.get(i);
+      try {
+        futures.add(pool.submit(() -> chunk.forEach(item -> task.accept(item, output))));
+      } catch (RejectedExecutionException ex) {
+        // The controller is shutting down, finish the computation in the calling thread.
+        localChunks.add(i);
+      }
+    }
+
+    try {
+      for (int i : localChunks) {
+        R output = outputs.get(i);
+        chunks.get(i).forEach(item -> task.accept(item, output));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } catch (ExecutionException ex) {
+      Throwable cause = ex.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new HelixException("Failed to compute the resources.", cause);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new HelixException("Interrupted while computing the resources.", ex);
+    } finally {
+      for (Future<?> future : futures) {
+        future.cancel(true);
+      }
+    }
+    return outputs;
+  }
+
+  /**
+   * Report the number of workers that a stage has used in the cluster event monitor of the stage.
+   */
+  static void reportParallelism(ClusterStatusMonitor clusterStatusMonitor, String stageName,
+      int parallelism) {
+    if (clusterStatusMonitor != null) {
+      clusterStatusMonitor.updateClusterEventParallelism(stageName, parallelism);
+    }
+  }
+}
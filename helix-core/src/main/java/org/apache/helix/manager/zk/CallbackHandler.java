@@ -133,6 +133,10 @@ public class CallbackHandler implements IZkChildListener, IZkDataListener {
   private boolean _batchModeEnabled = false;
   private boolean _preFetchEnabled = true;
   private HelixCallbackMonitor _monitor;
+  // The order in which the child values of the property key are read by the invocations.
+  private final AtomicLong _preFetchSequence = new AtomicLong();
+  // The sequence of the child values that were last passed to the listener. Guarded by _manager.
+  private long _lastDeliveredPreFetchSequence = -1L;
 
   private AtomicReference<CallbackEventExecutor> _batchCallbackExecutorRef = new AtomicReference<>();
   private boolean _watchChild = true; // Whether we should subscribe to the child znode's data
@@ -343,18 +347,22 @@ public class CallbackHandler implements IZkChildListener, IZkDataListener {
       }
     }
 
+    // Read the child values before taking the manager lock, so that the reads of the handlers
+    // that are invoked at the same time do not wait for each other.
+    PreFetchedValues preFetched = isChildValuesListener() ? preFetch() : null;
+
     // This allows the Helix Manager to work with one change at a time
     // TODO: Maybe we don't need to sync on _manager for all types of listener. PCould be a
     // potential improvement candidate.
     synchronized (_manager) {
       if (_changeType == IDEAL_STATE) {
         IdealStateChangeListener idealStateChangeListener = (IdealStateChangeListener) _listener;
-        List<IdealState> idealStates = preFetch(_propertyKey);
+        List<IdealState> idealStates = getPreFetchedValues(preFetched);
         idealStateChangeListener.onIdealStateChange(idealStates, changeContext);
       } else if (_changeType == INSTANCE_CONFIG) {
         if (_listener instanceof ConfigChangeListener) {
           ConfigChangeListener configChangeListener = (ConfigChangeListener) _listener;
-          List<InstanceConfig> configs = preFetch(_propertyKey);
+          List<InstanceConfig> configs = getPreFetchedValues(preFetched);
           configChangeListener.onConfigChange(configs, changeContext);
         } else if (_listener instanceof InstanceConfigChangeListener) {
           InstanceConfigChangeListener listener = (InstanceConfigChangeListener) _listener;
@@ -365,13 +373,13 @@ public class CallbackHandler implements IZkChildListener, IZkDataListener {
             InstanceConfig config = _accessor.getProperty(_propertyKey);
             configs = config != null ? Collections.singletonList(config) : Collections.emptyList();
           } else {
-            configs = preFetch(_propertyKey);
+            configs = getPreFetchedValues(preFetched);
           }
           listener.onInstanceConfigChange(configs, changeContext);
         }
       } else if (_changeType == RESOURCE_CONFIG) {
         ResourceConfigChangeListener listener = (ResourceConfigChangeListener) _listener;
-        List<ResourceConfig> configs = preFetch(_propertyKey);
+        List<ResourceConfig> configs = getPreFetchedValues(preFetched);
         listener.onResourceConfigChange(configs, changeContext);
 
       } else if (_changeType == CUSTOMIZED_STATE_CONFIG) {
@@ -392,27 +400,27 @@ public class CallbackHandler implements IZkChildListener, IZkDataListener {
 
       } else if (_changeType == CONFIG) {
         ScopedConfigChangeListener listener = (ScopedConfigChangeListener) _listener;
-        List<HelixProperty> configs = preFetch(_propertyKey);
+        List<HelixProperty> configs = getPreFetchedValues(preFetched);
         listener.onConfigChange(configs, changeContext);
 
       } else if (_changeType == LIVE_INSTANCE) {
         LiveInstanceChangeListener liveInstanceChangeListener =
             (LiveInstanceChangeListener) _listener;
-        List<LiveInstance> liveInstances = preFetch(_propertyKey);
+        List<LiveInstance> liveInstances = getPreFetchedValues(preFetched);
         liveInstanceChangeListener.onLiveInstanceChange(liveInstances, changeContext);
 
       } else if (_changeType == CURRENT_STATE) {
         CurrentStateChangeListener currentStateChangeListener =
             (CurrentStateChangeListener) _listener;
         String instanceName = PropertyPathConfig.getInstanceNameFromPath(_path);
-        List<CurrentState> currentStates = preFetch(_propertyKey);
+        List<CurrentState> currentStates = getPreFetchedValues(preFetched);
         currentStateChangeListener.onStateChange(instanceName, currentStates, changeContext);
 
       } else if (_changeType == TASK_CURRENT_STATE) {
         TaskCurrentStateChangeListener taskCurrentStateChangeListener =
             (TaskCurrentStateChangeListener) _listener;
         String instanceName = PropertyPathConfig.getInstanceNameFromPath(_path);
-        List<CurrentState> currentStates = preFetch(_propertyKey);
+        List<CurrentState> currentStates = getPreFetchedValues(preFetched);
         taskCurrentStateChangeListener
             .onTaskCurrentStateChange(instanceName, currentStates, changeContext);
 
@@ -432,23 +440,23 @@ public class CallbackHandler implements IZkChildListener, IZkDataListener {
         CustomizedStateChangeListener customizedStateChangeListener =
             (CustomizedStateChangeListener) _listener;
         String instanceName = PropertyPathConfig.getInstanceNameFromPath(_path);
-        List<CustomizedState> customizedStates = preFetch(_propertyKey);
+        List<CustomizedState> customizedStates = getPreFetchedValues(preFetched);
         customizedStateChangeListener.onCustomizedStateChange(instanceName, customizedStates, changeContext);
 
       } else if (_changeType == MESSAGE) {
         MessageListener messageListener = (MessageListener) _listener;
         String instanceName = PropertyPathConfig.getInstanceNameFromPath(_path);
-        List<Message> messages = preFetch(_propertyKey);
+        List<Message> messages = getPreFetchedValues(preFetched);
         messageListener.onMessage(instanceName, messages, changeContext);
 
       } else if (_changeType == MESSAGES_CONTROLLER) {
         MessageListener messageListener = (MessageListener) _listener;
-        List<Message> messages = preFetch(_propertyKey);
+        List<Message> messages = getPreFetchedValues(preFetched);
         messageListener.onMessage(_manager.getInstanceName(), messages, changeContext);
 
       } else if (_changeType == EXTERNAL_VIEW || _changeType == TARGET_EXTERNAL_VIEW) {
         ExternalViewChangeListener externalViewListener = (ExternalViewChangeListener) _listener;
-        List<ExternalView> externalViewList = preFetch(_propertyKey);
+        List<ExternalView> externalViewList = getPreFetchedValues(preFetched);
         externalViewListener.onExternalViewChange(externalViewList, changeContext);
 
       } else if (_changeType == CUSTOMIZED_VIEW_ROOT) {
@@ -463,7 +471,7 @@ public class CallbackHandler implements IZkChildListener, IZkDataListener {
 
       } else if (_changeType == CUSTOMIZED_VIEW) {
         CustomizedViewChangeListener customizedViewListener = (CustomizedViewChangeListener) _listener;
-        List<CustomizedView> customizedViewListList = preFetch(_propertyKey);
+        List<CustomizedView> customizedViewListList = getPreFetchedValues(preFetched);
         customizedViewListener.onCustomizedViewChange(customizedViewListList, changeContext);
 
       } else if (_changeType == CONTROLLER) {
@@ -484,6 +492,60 @@ public class CallbackHandler implements IZkChildListener, IZkDataListener {
     }
   }
 
+  // Whether the listener is passed the child values of the property key.
+  private boolean isChildValuesListener() {
+    switch (_changeType) {
+    case IDEAL_STATE:
+    case RESOURCE_CONFIG:
+    case CONFIG:
+    case LIVE_INSTANCE:
+    case CURRENT_STATE:
+    case TASK_CURRENT_STATE:
+    case CUSTOMIZED_STATE:
+    case MESSAGE:
+    case MESSAGES_CONTROLLER:
+    case EXTERNAL_VIEW:
+    case TARGET_EXTERNAL_VIEW:
+    case CUSTOMIZED_VIEW:
+      return true;
+    case INSTANCE_CONFIG:
+      // The listener of a specific instance config is passed the config only.
+      return _listener instanceof ConfigChangeListener || _propertyKey.getParams().length <= 2
+          || !_preFetchEnabled;
+    default:
+      return false;
+    }
+  }
+
+  private PreFetchedValues preFetch() {
+    long sequence = _preFetchSequence.getAndIncrement();
+    return new PreFetchedValues(sequence, preFetch(_propertyKey));
+  }
+
+  /*
+   * Returns the child values read before the invocation took the manager lock. If the listener has
+   * been passed values that were read later by another invocation, the values are read again, so
+   * the listener never goes back to older values. Must be called with the manager lock held.
+   */
+  @SuppressWarnings("unchecked")
+  private <T extends HelixProperty> List<T> getPreFetchedValues(PreFetchedValues preFetched) {
+    if (preFetched == null || preFetched._sequence < _lastDeliveredPreFetchSequence) {
+      preFetched = preFetch();
+    }
+    _lastDeliveredPreFetchSequence = preFetched._sequence;
+    return (List<T>) preFetched._values;
+  }
+
+  private static class PreFetchedValues {
+    private final long _sequence;
+    private final List<? extends HelixProperty> _values;
+
+    PreFetchedValues(long sequence, List<? extends HelixProperty> values) {
+      _sequence = sequence;
+      _values = values;
+    }
+  }
+
   private <T extends HelixProperty> List<T> preFetch(PropertyKey key) {
     if (_preFetchEnabled) {
       return _accessor.getChildValues(key, true);
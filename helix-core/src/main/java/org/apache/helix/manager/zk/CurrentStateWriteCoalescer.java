@@ -0,0 +1,272 @@
+package org.apache.helix.manager.zk;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.helix.BaseDataAccessor;
+import org.apache.helix.monitoring.mbeans.ParticipantStatusMonitor;
+import org.apache.helix.zookeeper.datamodel.ZNRecord;
+import org.apache.helix.zookeeper.zkclient.exception.ZkBadVersionException;
+import org.apache.helix.zookeeper.zkclient.exception.ZkNoNodeException;
+import org.apache.zookeeper.data.Stat;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Coalesces the CurrentState deltas that concurrent state transitions write to the same ZNode.
+ *
+ * Every CurrentState path has its own FIFO queue. The first writer to find the queue idle becomes
+ * its leader: it optionally waits up to the configured window for more deltas, drains up to the
+ * max batch size, merges the drained deltas in arrival order on top of the current ZNode content
+ * and writes the result with a single versioned set. Other writers block until their delta has
+ * been written and return the result of the write that contained it, so a failed write still
+ * fails every transition folded into it. Since all the deltas of a partition land on the same
+ * path and are merged in order, per-partition ordering is preserved.
+ */
+public class CurrentStateWriteCoalescer {
+  private static final Logger LOG = LoggerFactory.getLogger(CurrentStateWriteCoalescer.class);
+  private static final int MAX_RETRY = 3;
+
+  public static final long DEFAULT_WINDOW_MS = 0L;
+  public static final int DEFAULT_MAX_BATCH_SIZE = 500;
+
+  private static class PathQueue {
+    final ArrayDeque<Entry> _pending = new ArrayDeque<>();
+    boolean _leaderActive = false;
+    // Set once the queue is removed from the map; writers that raced with the removal retry.
+    boolean _retired = false;
+  }
+
+  private static class Entry {
+    final ZNRecord _record;
+    boolean _done = false;
+    boolean _success = false;
+
+    Entry(ZNRecord record) {
+      _record = record;
+    }
+  }
+
+  private final ConcurrentHashMap<String, PathQueue> _queues = new ConcurrentHashMap<>();
+  private final long _windowMs;
+  private final int _maxBatchSize;
+  private final ParticipantStatusMonitor _monitor;
+
+  public CurrentStateWriteCoalescer() {
+    this(DEFAULT_WINDOW_MS, DEFAULT_MAX_BATCH_SIZE, null);
+  }
+
+  /**
+   * @param windowMs how long a leader waits for more deltas before writing; 0 only coalesces
+   *          the deltas that are already pending
+   * @param maxBatchSize the maximum number of deltas merged into one write
+   * @param monitor the monitor to report batch size and write latency to, may be null
+   */
+  public CurrentStateWriteCoalescer(long windowMs, int maxBatchSize,
+      ParticipantStatusMonitor monitor) {
+    if (windowMs < 0) {
+      throw new IllegalArgumentException("Write window cannot be negative: " + windowMs);
+    }
+    if (maxBatchSize <= 0) {
+      throw new IllegalArgumentException("Max batch size must be positive: " + maxBatchSize);
+    }
+    _windowMs = windowMs;
+    _maxBatchSize = maxBatchSize;
+    _monitor = monitor;
+  }
+
+  /**
+   * Merge a delta into the record at the given path, coalescing with concurrent callers.
+   * @param accessor accessor used to read and write the ZNode
+   * @param options see {@link org.apache.helix.AccessOption}
+   * @param path the CurrentState path
+   * @param delta the delta to merge in
+   * @param removeIfEmpty remove the ZNode if the merged record has no map fields
+   * @return true if the write containing the delta succeeded, false otherwise
+   */
+  public boolean commit(BaseDataAccessor<ZNRecord> accessor, int options, String path,
+      ZNRecord delta, boolean removeIfEmpty) {
+    Entry entry = new Entry(delta);
+    PathQueue queue;
+    while (true) {
+      queue = _queues.computeIfAbsent(path, k -> new PathQueue());
+      synchronized (queue) {
+        if (queue._retired) {
+          continue;
+        }
+        queue._pending.add(entry);
+        if (!queue._leaderActive) {
+          queue._leaderActive = true;
+          break;
+        }
+        // Wake up a leader that is waiting for the window to fill.
+        queue.notifyAll();
+        try {
+          while (!entry._done && queue._leaderActive) {
+            queue.wait();
+          }
+        } catch (InterruptedException e) {
+          LOG.error("Interrupted while committing change, path: " + path + ", record: " + delta,
+              e);
+          // Restore interrupt status
+          Thread.currentThread().interrupt();
+          queue._pending.remove(entry);
+          if (!queue._leaderActive) {
+            handOff(path, queue);
+          }
+          return false;
+        }
+        if (entry._done) {
+          return entry._success;
+        }
+        // The previous leader has left with deltas still pending, take over.
+        queue._leaderActive = true;
+        break;
+      }
+    }
+
+    // The batch being written, if the leader leaves before its deltas are marked done.
+    List<Entry> batch = null;
+    try {
+      while (true) {
+        synchronized (queue) {
+          if (entry._done) {
+            return entry._success;
+          }
+          waitForWindow(queue);
+          batch = new ArrayList<>(Math.min(queue._pending.size(), _maxBatchSize));
+          while (batch.size() < _maxBatchSize && !queue._pending.isEmpty()) {
+            batch.add(queue._pending.poll());
+          }
+        }
+
+        long startTime = System.currentTimeMillis();
+        boolean success = write(accessor, options, path, batch, removeIfEmpty);
+        if (_monitor != null) {
+          _monitor.reportCurrentStateWrite(batch.size(), System.currentTimeMillis() - startTime,
+              success);
+        }
+
+        synchronized (queue) {
+          for (Entry e : batch) {
+            e._success = success;
+            e._done = true;
+          }
+          batch = null;
+          queue.notifyAll();
+        }
+      }
+    } finally {
+      // Always step down, even on an unexpected exception, so that the waiting writers are
+      // released or take over instead of waiting for a leader that is gone.
+      synchronized (queue) {
+        if (batch != null) {
+          for (Entry e : batch) {
+            e._success = false;
+            e._done = true;
+          }
+          queue.notifyAll();
+        }
+        queue._leaderActive = false;
+        handOff(path, queue);
+      }
+    }
+  }
+
+  /**
+   * Called with the queue lock held and no active leader. Wakes up a waiting writer to lead the
+   * remaining deltas, or retires the queue if there are none.
+   */
+  private void handOff(String path, PathQueue queue) {
+    if (queue._pending.isEmpty()) {
+      queue._retired = true;
+      _queues.remove(path, queue);
+    } else {
+      queue.notifyAll();
+    }
+  }
+
+  /**
+   * Called with the queue lock held by the leader.
+   */
+  private void waitForWindow(PathQueue queue) {
+    if (_windowMs <= 0) {
+      return;
+    }
+    long deadline = System.currentTimeMillis() + _windowMs;
+    long remaining = _windowMs;
+    while (remaining > 0 && queue._pending.size() < _maxBatchSize) {
+      try {
+        queue.wait(remaining);
+      } catch (InterruptedException e) {
+        // The deltas in hand still have to be written; stop waiting and keep the interrupt.
+        Thread.currentThread().interrupt();
+        return;
+      }
+      remaining = deadline - System.currentTimeMillis();
+    }
+  }
+
+  private boolean write(BaseDataAccessor<ZNRecord> accessor, int options, String path,
+      List<Entry> batch, boolean removeIfEmpty) {
+    for (int retry = 0; retry < MAX_RETRY; retry++) {
+      try {
+        Stat stat = new Stat();
+        ZNRecord current = null;
+        try {
+          current = accessor.get(path, stat, options);
+        } catch (ZkNoNodeException e) {
+          // OK.
+        }
+
+        ZNRecord merged = current == null ? new ZNRecord(batch.get(0)._record.getId()) : current;
+        for (Entry e : batch) {
+          merged.merge(e._record);
+        }
+
+        boolean success;
+        if (removeIfEmpty && merged.getMapFields().isEmpty()) {
+          success = current == null || accessor.remove(path, options);
+          if (success) {
+            LOG.info("Removed " + path);
+          }
+        } else if (current == null) {
+          // Fails if the node was created concurrently, the retry will then merge on top of it.
+          success = accessor.create(path, merged, options);
+        } else {
+          success = accessor.set(path, merged, stat.getVersion(), options);
+        }
+        if (success) {
+          return true;
+        }
+        LOG.error("Fails to update " + path + " to ZK, retry it!");
+      } catch (ZkBadVersionException e) {
+        LOG.debug("Version conflict while updating " + path + ", retry it!", e);
+      } catch (Exception e) {
+        LOG.error("Fails to update " + path + " to ZK due to ZK issue.", e);
+      }
+    }
+    return false;
+  }
+}
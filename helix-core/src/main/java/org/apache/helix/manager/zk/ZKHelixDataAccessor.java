@@ -58,6 +58,7 @@ public class ZKHelixDataAccessor implements HelixDataAccessor {
   protected final String _clusterName;
   private final Builder _propertyKeyBuilder;
   private final GroupCommit _groupCommit = new GroupCommit();
+  private volatile CurrentStateWriteCoalescer _currentStateWriteCoalescer;
 
   public ZKHelixDataAccessor(String clusterName, BaseDataAccessor<ZNRecord> baseDataAccessor) {
     _clusterName = clusterName;
@@ -77,6 +78,16 @@ public class ZKHelixDataAccessor implements HelixDataAccessor {
     _clusterName = dataAccessor._clusterName;
     _baseDataAccessor = dataAccessor._baseDataAccessor;
     _propertyKeyBuilder = new PropertyKey.Builder(_clusterName);
+    _currentStateWriteCoalescer = dataAccessor._currentStateWriteCoalescer;
+  }
+
+  /**
+   * Route CurrentState and task CurrentState updates through the given coalescer instead of the
+   * default group commit.
+   * @param coalescer the coalescer to use, or null to fall back to the group commit
+   */
+  public void setCurrentStateWriteCoalescer(CurrentStateWriteCoalescer coalescer) {
+    _currentStateWriteCoalescer = coalescer;
   }
 
   @Override
@@ -186,6 +197,13 @@ public class ZKHelixDataAccessor implements HelixDataAccessor {
     switch (type) {
       case CURRENTSTATES:
       case TASKCURRENTSTATES:
+        CurrentStateWriteCoalescer coalescer = _currentStateWriteCoalescer;
+        if (coalescer != null) {
+          success = coalescer.commit(_baseDataAccessor, options, path, value.getRecord(), true);
+          break;
+        }
+        success = _groupCommit.commit(_baseDataAccessor, options, path, value.getRecord(), true);
+        break;
       case CUSTOMIZEDSTATES:
         success = _groupCommit.commit(_baseDataAccessor, options, path, value.getRecord(), true);
         break;
@@ -35,6 +35,7 @@ import javax.management.JMException;
 
 import com.google.common.collect.Sets;
 import org.apache.helix.BaseDataAccessor;
+import org.apache.helix.CachedConfigAccessor;
 import org.apache.helix.ClusterMessagingService;
 import org.apache.helix.ConfigAccessor;
 import org.apache.helix.HelixAdmin;
@@ -145,6 +146,7 @@ public class ZKHelixManager implements HelixManager, IZkStateListener {
 
   private BaseDataAccessor<ZNRecord> _baseDataAccessor;
   private ZKHelixDataAccessor _dataAccessor;
+  private final CurrentStateWriteCoalescer _currentStateWriteCoalescer;
   private final Builder _keyBuilder;
   private ConfigAccessor _configAccessor;
   private ZkHelixPropertyStore<ZNRecord> _helixPropertyStore;
@@ -266,6 +268,7 @@ public class ZKHelixManager implements HelixManager, IZkStateListener {
 
     _keyBuilder = new Builder(clusterName);
     _messagingService = new DefaultMessagingService(this);
+    _currentStateWriteCoalescer = createCurrentStateWriteCoalescer();
     try {
       _callbackMonitors = new HashMap<>();
       for (ChangeType changeType : ChangeType.values()) {
@@ -759,7 +762,16 @@ public class ZKHelixManager implements HelixManager, IZkStateListener {
       _baseDataAccessor = createBaseDataAccessor();
 
       _dataAccessor = new ZKHelixDataAccessor(_clusterName, _baseDataAccessor);
-      _configAccessor = new ConfigAccessor(_zkclient);
+      if (_currentStateWriteCoalescer != null) {
+        _dataAccessor.setCurrentStateWriteCoalescer(_currentStateWriteCoalescer);
+      }
+      if (_configAccessor instanceof CachedConfigAccessor) {
+        // Drop the watches and MBeans of the accessor on the previous client
+        _configAccessor.close();
+      }
+      _configAccessor = Boolean.getBoolean(SystemPropertyKeys.CONFIG_ACCESSOR_CACHE_ENABLED)
+          ? new CachedConfigAccessor(_zkclient, _clusterName + "." + _instanceName)
+          : new ConfigAccessor(_zkclient);
 
       if (_instanceType == InstanceType.CONTROLLER
           || _instanceType == InstanceType.CONTROLLER_PARTICIPANT) {
@@ -904,6 +916,10 @@ public class ZKHelixManager implements HelixManager, IZkStateListener {
           _participantManager = null;
         }
 
+        if (_configAccessor instanceof CachedConfigAccessor) {
+          _configAccessor.close();
+        }
+
         if (_zkclient != null) {
           _zkclient.close();
         }
@@ -1487,6 +1503,27 @@ public class ZKHelixManager implements HelixManager, IZkStateListener {
     return cloudProperty.getCloudEventCallbackProperty();
   }
 
+  /*
+   * Participants coalesce the CurrentState writes of concurrent state transitions unless it is
+   * disabled through the system property. Other instance types keep using the group commit.
+   */
+  private CurrentStateWriteCoalescer createCurrentStateWriteCoalescer() {
+    if (_instanceType != InstanceType.PARTICIPANT
+        && _instanceType != InstanceType.CONTROLLER_PARTICIPANT) {
+      return null;
+    }
+    if (!Boolean.parseBoolean(
+        System.getProperty(SystemPropertyKeys.CURRENT_STATE_WRITE_COALESCING_ENABLED, "true"))) {
+      return null;
+    }
+    return new CurrentStateWriteCoalescer(
+        HelixUtil.getSystemPropertyAsLong(SystemPropertyKeys.CURRENT_STATE_WRITE_WINDOW_MS,
+            CurrentStateWriteCoalescer.DEFAULT_WINDOW_MS),
+        HelixUtil.getSystemPropertyAsInt(SystemPropertyKeys.CURRENT_STATE_WRITE_MAX_BATCH_SIZE,
+            CurrentStateWriteCoalescer.DEFAULT_MAX_BATCH_SIZE),
+        _messagingService.getExecutor().getParticipantMonitor());
+  }
+
   /*
    * Prepares connection config and client config based on the internal parameters given to
    * HelixManager in order to create a ZkClient instance to use. Note that a shared ZkClient
@@ -60,6 +60,7 @@ import org.apache.zookeeper.KeeperException;
 import org.apache.zookeeper.KeeperException.Code;
 import org.apache.zookeeper.Op;
 import org.apache.zookeeper.OpResult;
+import org.apache.zookeeper.ZooDefs;
 import org.apache.zookeeper.data.Stat;
 import org.apache.zookeeper.server.DataTree;
 import org.slf4j.Logger;
@@ -535,6 +536,43 @@ public class ZkBaseDataAccessor<T> implements BaseDataAccessor<T> {
     return result;
   }
 
+  /**
+   * Serialize a record with the serializer that is configured for the path.
+   */
+  public byte[] serialize(T record, String path) {
+    return _zkClient.serialize(record, path);
+  }
+
+  /**
+   * transactional sync create: create the nodes in a single ZooKeeper multi, so that either all of
+   * them are created or none is. The parents are not created. The data must have been serialized
+   * with {@link #serialize(Object, String)}.
+   * @return true if all the nodes are created
+   */
+  public boolean multiCreate(List<String> paths, List<byte[]> data, int options) {
+    CreateMode mode = AccessOption.getMode(options);
+    if (mode == null) {
+      LOG.error("Invalid multi create mode. options: " + options);
+      return false;
+    }
+    if (paths.isEmpty()) {
+      return true;
+    }
+
+    List<Op> ops = new ArrayList<>(paths.size());
+    for (int i = 0; i < paths.size(); i++) {
+      ops.add(Op.create(paths.get(i), data.get(i), ZooDefs.Ids.OPEN_ACL_UNSAFE, mode));
+    }
+    try {
+      _zkClient.multi(ops);
+      return true;
+    } catch (Exception e) {
+      LOG.error("Exception while creating " + paths.size() + " paths in multi, first path: "
+          + paths.get(0), e);
+      return false;
+    }
+  }
+
   /**
    * sync get
    */
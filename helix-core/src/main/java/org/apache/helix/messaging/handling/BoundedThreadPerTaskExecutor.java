@@ -0,0 +1,195 @@
+package org.apache.helix.messaging.handling;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An executor that starts a new thread for every task, and lets at most maxConcurrency of the
+ * tasks run at the same time. The other threads wait for a permit in submission order.
+ *
+ * It is meant to be used with virtual threads ({@link VirtualThreads#newThreadFactory(String)}):
+ * a task blocked on I/O then does not hold a platform thread, and the waiting tasks are cheap, so
+ * the concurrency limit can be far larger than a platform thread pool would allow.
+ */
+public class BoundedThreadPerTaskExecutor extends AbstractExecutorService {
+  private final ThreadFactory _threadFactory;
+  private final int _maxConcurrency;
+  private final Semaphore _permits;
+  private final Set<Thread> _threads = ConcurrentHashMap.newKeySet();
+  // The tasks that have not started yet, by the thread that will run them.
+  private final Map<Thread, Runnable> _waitingTasks = new ConcurrentHashMap<>();
+  private final Object _lock = new Object();
+  private boolean _shutdown = false; // guarded by _lock
+
+  public BoundedThreadPerTaskExecutor(int maxConcurrency, ThreadFactory threadFactory) {
+    if (maxConcurrency <= 0) {
+      throw new IllegalArgumentException("Max concurrency must be positive: " + maxConcurrency);
+    }
+    _threadFactory = Objects.requireNonNull(threadFactory);
+    _maxConcurrency = maxConcurrency;
+    _permits = new Semaphore(maxConcurrency, true);
+  }
+
+  @Override
+  public void execute(Runnable command) {
+    Objects.requireNonNull(command);
+    synchronized (_lock) {
+      if (_shutdown) {
+        throw new RejectedExecutionException("Executor has been shut down.");
+      }
+      Thread thread = _threadFactory.newThread(() -> runTask(command));
+      if (thread == null) {
+        throw new RejectedExecutionException("Thread factory failed to create a thread.");
+      }
+      _threads.add(thread);
+      _waitingTasks.put(thread, command);
+      thread.start();
+    }
+  }
+
+  private void runTask(Runnable command) {
+    Thread currentThread = Thread.currentThread();
+    try {
+      _permits.acquire();
+      try {
+        // shutdownNow() may have drained the task while it was waiting for the permit.
+        if (_waitingTasks.remove(currentThread) != null) {
+          command.run();
+        }
+      } finally {
+        _permits.release();
+      }
+    } catch (InterruptedException e) {
+      // Interrupted before the task could start, cancel it so that its callers are released.
+      currentThread.interrupt();
+      if (_waitingTasks.remove(currentThread) != null) {
+        cancel(command);
+      }
+    } finally {
+      synchronized (_lock) {
+        _threads.remove(Thread.currentThread());
+        _lock.notifyAll();
+      }
+    }
+  }
+
+  @Override
+  public void shutdown() {
+    synchronized (_lock) {
+      _shutdown = true;
+      _lock.notifyAll();
+    }
+  }
+
+  /**
+   * Interrupt all the threads. The tasks still waiting for a permit are drained without running:
+   * the ones that are futures, like the tasks created by submit(), are cancelled, so that callers
+   * blocked on them are released.
+   * @return the drained tasks
+   */
+  @Override
+  public List<Runnable> shutdownNow() {
+    shutdown();
+    List<Runnable> drainedTasks = new ArrayList<>();
+    for (Thread thread : _waitingTasks.keySet()) {
+      Runnable task = _waitingTasks.remove(thread);
+      if (task != null) {
+        cancel(task);
+        drainedTasks.add(task);
+      }
+    }
+    for (Thread thread : _threads) {
+      thread.interrupt();
+    }
+    return drainedTasks;
+  }
+
+  private static void cancel(Runnable task) {
+    if (task instanceof Future) {
+      ((Future<?>) task).cancel(false);
+    }
+  }
+
+  @Override
+  public boolean isShutdown() {
+    synchronized (_lock) {
+      return _shutdown;
+    }
+  }
+
+  @Override
+  public boolean isTerminated() {
+    synchronized (_lock) {
+      return _shutdown && _threads.isEmpty();
+    }
+  }
+
+  @Override
+  public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+    long deadline = System.nanoTime() + unit.toNanos(timeout);
+    synchronized (_lock) {
+      while (!(_shutdown && _threads.isEmpty())) {
+        long remainingNanos = deadline - System.nanoTime();
+        if (remainingNanos <= 0) {
+          return false;
+        }
+        TimeUnit.NANOSECONDS.timedWait(_lock, remainingNanos);
+      }
+      return true;
+    }
+  }
+
+  public int getMaxConcurrency() {
+    return _maxConcurrency;
+  }
+
+  /**
+   * @return the number of tasks running now
+   */
+  public int getActiveCount() {
+    return _maxConcurrency - _permits.availablePermits();
+  }
+
+  /**
+   * @return the approximate number of tasks waiting for a permit
+   */
+  public int getWaitingCount() {
+    return _permits.getQueueLength();
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%s[maxConcurrency = %d, active = %d, waiting = %d, shutdown = %s]",
+        getClass().getSimpleName(), _maxConcurrency, getActiveCount(), getWaitingCount(),
+        isShutdown());
+  }
+}
@@ -0,0 +1,178 @@
+package org.apache.helix.messaging.handling;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.helix.ConfigAccessor;
+import org.apache.helix.HelixDataAccessor;
+import org.apache.helix.HelixManager;
+import org.apache.helix.model.ClusterConfig;
+import org.apache.helix.model.IdealState;
+import org.apache.helix.model.Message;
+import org.apache.helix.model.ResourceConfig;
+import org.apache.helix.model.StateModelDefinition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The default state transition priority policy:
+ * <ol>
+ * <li>Transitions to the top state of their state model go first, so that the promotions which
+ * restore availability are not stuck behind bootstraps.</li>
+ * <li>Then transitions are ordered by the state transition priority list of their
+ * {@link StateModelDefinition}. Transitions missing from the list go last.</li>
+ * <li>Then transitions are ordered by resource priority, highest first. The priority is read from
+ * the ResourceConfig, or the IdealState, field named by
+ * {@link ClusterConfig#getResourcePriorityField()}, the same way the controller does.</li>
+ * </ol>
+ * The state model definitions and resource priorities are loaded once and cached. Changes to them
+ * only take effect after the participant restarts.
+ */
+public class DefaultStateTransitionPriorityPolicy implements StateTransitionPriorityPolicy {
+  private static final Logger LOG =
+      LoggerFactory.getLogger(DefaultStateTransitionPriorityPolicy.class);
+  private static final int LOWEST_RESOURCE_PRIORITY = Integer.MIN_VALUE;
+
+  // state model name -> state transition name -> index in the transition priority list
+  private final Map<String, Map<String, Integer>> _transitionPriorities =
+      new ConcurrentHashMap<>();
+  private final Map<String, String> _topStates = new ConcurrentHashMap<>();
+  private final Map<String, Integer> _resourcePriorities = new ConcurrentHashMap<>();
+  private volatile String _resourcePriorityField;
+  private volatile boolean _clusterConfigLoaded = false;
+
+  @Override
+  public void prepare(Message message, HelixManager manager) {
+    String stateModelName = message.getStateModelDef();
+    if (stateModelName != null && !_transitionPriorities.containsKey(stateModelName)) {
+      loadStateModel(stateModelName, manager);
+    }
+    if (!_clusterConfigLoaded) {
+      loadResourcePriorityField(manager);
+    }
+    String resourceName = message.getResourceName();
+    if (resourceName != null && !_resourcePriorities.containsKey(resourceName)) {
+      _resourcePriorities.put(resourceName, loadResourcePriority(resourceName, manager));
+    }
+  }
+
+  @Override
+  public int compare(Message m1, Message m2) {
+    boolean topState1 = isTopStatePromotion(m1);
+    boolean topState2 = isTopStatePromotion(m2);
+    if (topState1 != topState2) {
+      return topState1 ? -1 : 1;
+    }
+    int result = Integer.compare(getTransitionPriority(m1), getTransitionPriority(m2));
+    if (result != 0) {
+      return result;
+    }
+    return Integer.compare(getResourcePriority(m2), getResourcePriority(m1));
+  }
+
+  private boolean isTopStatePromotion(Message message) {
+    String topState =
+        message.getStateModelDef() == null ? null : _topStates.get(message.getStateModelDef());
+    return topState != null && topState.equals(message.getToState());
+  }
+
+  private int getTransitionPriority(Message message) {
+    Map<String, Integer> priorities = message.getStateModelDef() == null ? null
+        : _transitionPriorities.get(message.getStateModelDef());
+    Integer priority = priorities == null ? null
+        : priorities.get(message.getFromState() + "-" + message.getToState());
+    return priority == null ? Integer.MAX_VALUE : priority;
+  }
+
+  private int getResourcePriority(Message message) {
+    Integer priority = message.getResourceName() == null ? null
+        : _resourcePriorities.get(message.getResourceName());
+    return priority == null ? LOWEST_RESOURCE_PRIORITY : priority;
+  }
+
+  private void loadStateModel(String stateModelName, HelixManager manager) {
+    Map<String, Integer> priorities = new ConcurrentHashMap<>();
+    try {
+      HelixDataAccessor accessor = manager.getHelixDataAccessor();
+      StateModelDefinition stateModelDef =
+          accessor.getProperty(accessor.keyBuilder().stateModelDef(stateModelName));
+      if (stateModelDef != null) {
+        List<String> transitions = stateModelDef.getStateTransitionPriorityList();
+        if (transitions != null) {
+          for (int i = 0; i < transitions.size(); i++) {
+            priorities.putIfAbsent(transitions.get(i), i);
+          }
+        }
+        if (stateModelDef.getTopState() != null) {
+          _topStates.put(stateModelName, stateModelDef.getTopState());
+        }
+      }
+    } catch (Exception e) {
+      LOG.warn("Failed to load state model definition {} for transition priorities.",
+          stateModelName, e);
+    }
+    _transitionPriorities.put(stateModelName, priorities);
+  }
+
+  private void loadResourcePriorityField(HelixManager manager) {
+    try {
+      ConfigAccessor configAccessor = manager.getConfigAccessor();
+      ClusterConfig clusterConfig =
+          configAccessor == null ? null : configAccessor.getClusterConfig(manager.getClusterName());
+      _resourcePriorityField =
+          clusterConfig == null ? null : clusterConfig.getResourcePriorityField();
+    } catch (Exception e) {
+      LOG.warn("Failed to load the resource priority field of cluster {}.",
+          manager.getClusterName(), e);
+    }
+    _clusterConfigLoaded = true;
+  }
+
+  private int loadResourcePriority(String resourceName, HelixManager manager) {
+    String priorityField = _resourcePriorityField;
+    if (priorityField == null) {
+      return LOWEST_RESOURCE_PRIORITY;
+    }
+    String priority = null;
+    try {
+      ConfigAccessor configAccessor = manager.getConfigAccessor();
+      ResourceConfig resourceConfig = configAccessor == null ? null
+          : configAccessor.getResourceConfig(manager.getClusterName(), resourceName);
+      if (resourceConfig != null) {
+        priority = resourceConfig.getSimpleConfig(priorityField);
+      }
+      if (priority == null) {
+        HelixDataAccessor accessor = manager.getHelixDataAccessor();
+        IdealState idealState =
+            accessor.getProperty(accessor.keyBuilder().idealStates(resourceName));
+        if (idealState != null) {
+          priority = idealState.getRecord().getSimpleField(priorityField);
+        }
+      }
+      return priority == null ? LOWEST_RESOURCE_PRIORITY : Integer.parseInt(priority);
+    } catch (Exception e) {
+      LOG.warn("Invalid priority field {} for resource {}", priority, resourceName, e);
+      return LOWEST_RESOURCE_PRIORITY;
+    }
+  }
+}
@@ -82,6 +82,7 @@ public class HelixTask implements MessageTask {
     _statusUpdateUtil.logInfo(_message, HelixTask.class, "Message handling task begin execute",
         _manager);
     _message.setExecuteStartTimeStamp(new Date().getTime());
+    _executor.getParticipantMonitor().reportStateTransitionQueueWait(_message);
 
     // add a concurrent map to hold currentStateUpdates for sub-messages of a batch-message
     // partitionName -> csUpdate
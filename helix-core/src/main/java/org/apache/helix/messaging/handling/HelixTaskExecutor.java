@@ -37,6 +37,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -148,6 +149,11 @@ public class HelixTaskExecutor implements MessageListener, TaskExecutor {
   private static final int SESSION_SYNC_INTERVAL = 2000; // 2 seconds
   private static final String SESSION_SYNC = "SESSION-SYNC";
 
+  // null unless the state transition thread pool orders the pending messages by priority
+  private final StateTransitionPriorityPolicy _stateTransitionPriorityPolicy;
+  // run the message handlers on virtual threads instead of fixed size thread pools
+  private final boolean _virtualThreadsEnabled;
+
   /**
    * Map of MsgType->MsgHandlerFactoryRegistryItem
    */
@@ -206,6 +212,9 @@ public class HelixTaskExecutor implements MessageListener, TaskExecutor {
     _isShuttingDown = false;
     _liveInstanceStatus = LiveInstanceStatus.NORMAL;
 
+    _stateTransitionPriorityPolicy = createStateTransitionPriorityPolicy();
+    _virtualThreadsEnabled = isVirtualThreadsEnabled();
+
     startMonitorThread();
   }
 
@@ -248,8 +257,9 @@ public class HelixTaskExecutor implements MessageListener, TaskExecutor {
     MsgHandlerFactoryRegistryItem prevItem = _hdlrFtyRegistry.putIfAbsent(type, newItem);
     if (prevItem == null) {
       _executorMap.computeIfAbsent(type, msgType -> {
-        ExecutorService newPool = Executors.newFixedThreadPool(threadpoolSize, r -> new Thread(r,
-            "HelixTaskExecutor-message_handle_thread_" + thread_uid.getAndIncrement()));
+        ExecutorService newPool = createMessageHandlerPool(type, threadpoolSize,
+            r -> new Thread(r,
+                "HelixTaskExecutor-message_handle_thread_" + thread_uid.getAndIncrement()));
         _monitor.createExecutorMonitor(type, newPool);
         return newPool;
       });
@@ -262,6 +272,68 @@ public class HelixTaskExecutor implements MessageListener, TaskExecutor {
     }
   }
 
+  /**
+   * Create the thread pool of a message type. The state transition pool orders the pending
+   * messages by priority if it is enabled, the other pools run them in arrival order. The state
+   * transitions that run on a per-resource pool, a pool provided by the state model factory, or
+   * the batch message pool are not ordered by priority.
+   */
+  private ExecutorService createMessageHandlerPool(String type, int poolSize,
+      ThreadFactory threadFactory) {
+    if (_stateTransitionPriorityPolicy != null && MessageType.STATE_TRANSITION.name()
+        .equals(type)) {
+      LOG.info("Use priority ordered thread pool for type: {}, policy: {}", type,
+          _stateTransitionPriorityPolicy.getClass().getName());
+      return new StateTransitionPriorityExecutor(poolSize, _stateTransitionPriorityPolicy,
+          threadFactory);
+    }
+    return createFixedSizePool(type, poolSize, threadFactory);
+  }
+
+  /**
+   * Create a pool running at most poolSize messages at the same time. In virtual thread mode every
+   * message gets its own virtual thread, and poolSize only bounds the concurrency.
+   */
+  private ExecutorService createFixedSizePool(String key, int poolSize,
+      ThreadFactory threadFactory) {
+    if (_virtualThreadsEnabled) {
+      return new BoundedThreadPerTaskExecutor(poolSize,
+          VirtualThreads.newThreadFactory("HelixTaskExecutor-virtual_message_handle_" + key + "-"));
+    }
+    return Executors.newFixedThreadPool(poolSize, threadFactory);
+  }
+
+  private static boolean isVirtualThreadsEnabled() {
+    if (!Boolean.getBoolean(SystemPropertyKeys.MESSAGE_HANDLER_VIRTUAL_THREADS_ENABLED)) {
+      return false;
+    }
+    if (!VirtualThreads.isSupported()) {
+      LOG.warn("{} is set, but virtual threads require Java 21. Use platform thread pools.",
+          SystemPropertyKeys.MESSAGE_HANDLER_VIRTUAL_THREADS_ENABLED);
+      return false;
+    }
+    LOG.info("Run the message handlers on virtual threads.");
+    return true;
+  }
+
+  private static StateTransitionPriorityPolicy createStateTransitionPriorityPolicy() {
+    if (!Boolean.getBoolean(SystemPropertyKeys.STATE_TRANSITION_PRIORITY_EXECUTION_ENABLED)) {
+      return null;
+    }
+    String policyClass =
+        System.getProperty(SystemPropertyKeys.STATE_TRANSITION_PRIORITY_POLICY_CLASS);
+    if (policyClass != null) {
+      try {
+        return (StateTransitionPriorityPolicy) HelixUtil.loadClass(HelixTaskExecutor.class,
+            policyClass).newInstance();
+      } catch (Exception e) {
+        LOG.error("Failed to create state transition priority policy {}, use the default one.",
+            policyClass, e);
+      }
+    }
+    return new DefaultStateTransitionPriorityPolicy();
+  }
+
   public void setController(GenericHelixController controller) {
     _controller = controller;
   }
@@ -345,7 +417,7 @@ public class HelixTaskExecutor implements MessageListener, TaskExecutor {
       }
       final String key = msgInfo.getMessageIdentifier(Message.MessageInfo.MessageIdentifierBase.PER_RESOURCE);
       if (threadpoolSize > 0) {
-        _executorMap.put(key, Executors.newFixedThreadPool(threadpoolSize,
+        _executorMap.put(key, createFixedSizePool(key, threadpoolSize,
             r -> new Thread(r, "GenericHelixController-message_handle_" + key)));
         LOG.info("Added dedicate threadpool for resource: " + resourceName + " with size: " + threadpoolSize);
       } else {
@@ -444,6 +516,10 @@ public class HelixTaskExecutor implements MessageListener, TaskExecutor {
     try {
       // Check to see if dedicate thread pool for handling state transition messages is configured or provided.
       updateStateTransitionMessageThreadPool(message, manager);
+      if (_stateTransitionPriorityPolicy != null && MessageType.STATE_TRANSITION.name()
+          .equals(message.getMsgType())) {
+        _stateTransitionPriorityPolicy.prepare(message, manager);
+      }
 
       LOG.info("Scheduling message {}: {}:{}, {}->{}", taskId, message.getResourceName(),
           message.getPartitionName(), message.getFromState(), message.getToState());
@@ -768,7 +844,7 @@ public class HelixTaskExecutor implements MessageListener, TaskExecutor {
     for (final String msgType : _hdlrFtyRegistry.keySet()) {
       MsgHandlerFactoryRegistryItem item = _hdlrFtyRegistry.get(msgType);
       ExecutorService pool = _executorMap.computeIfAbsent(msgType, type -> {
-        ExecutorService newPool = Executors.newFixedThreadPool(item.threadPoolSize(),
+        ExecutorService newPool = createMessageHandlerPool(type, item.threadPoolSize(),
             r -> new Thread(r, "HelixTaskExecutor-message_handle_" + thread_uid.getAndIncrement()));
         _monitor.createExecutorMonitor(type, newPool);
         return newPool;
@@ -0,0 +1,112 @@
+package org.apache.helix.messaging.handling;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.Comparator;
+import java.util.concurrent.Callable;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.helix.model.Message;
+
+/**
+ * A fixed size thread pool whose pending tasks are ordered by a
+ * {@link StateTransitionPriorityPolicy} instead of their arrival order. Tasks that are not message
+ * tasks go before the message tasks, and tasks that the policy cannot tell apart keep their
+ * arrival order.
+ *
+ * Like the other message handler pools, the pending queue is unbounded, so a message is never
+ * rejected while the pool is running. Only the messages submitted to this pool are ordered; the
+ * state transitions that run on per-resource or custom thread pools keep their arrival order.
+ */
+public class StateTransitionPriorityExecutor extends ThreadPoolExecutor {
+  private final AtomicLong _sequence = new AtomicLong(0L);
+
+  public StateTransitionPriorityExecutor(int poolSize, StateTransitionPriorityPolicy policy,
+      ThreadFactory threadFactory) {
+    super(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+        new PriorityBlockingQueue<>(11, new TaskComparator(policy)), threadFactory);
+  }
+
+  @Override
+  protected <T> RunnableFuture<T> newTaskFor(Callable<T> callable) {
+    Message message =
+        callable instanceof MessageTask ? ((MessageTask) callable).getMessage() : null;
+    return new PriorityTask<>(callable, message, _sequence.getAndIncrement());
+  }
+
+  @Override
+  protected <T> RunnableFuture<T> newTaskFor(Runnable runnable, T value) {
+    return new PriorityTask<>(runnable, value, _sequence.getAndIncrement());
+  }
+
+  @Override
+  public void execute(Runnable command) {
+    if (!(command instanceof PriorityTask)) {
+      command = newTaskFor(command, null);
+    }
+    super.execute(command);
+  }
+
+  private static final class PriorityTask<T> extends FutureTask<T> {
+    private final Message _message;
+    private final long _sequence;
+
+    PriorityTask(Callable<T> callable, Message message, long sequence) {
+      super(callable);
+      _message = message;
+      _sequence = sequence;
+    }
+
+    PriorityTask(Runnable runnable, T value, long sequence) {
+      super(runnable, value);
+      _message = null;
+      _sequence = sequence;
+    }
+  }
+
+  private static final class TaskComparator implements Comparator<Runnable> {
+    private final StateTransitionPriorityPolicy _policy;
+
+    TaskComparator(StateTransitionPriorityPolicy policy) {
+      _policy = policy;
+    }
+
+    @Override
+    public int compare(Runnable r1, Runnable r2) {
+      PriorityTask<?> t1 = (PriorityTask<?>) r1;
+      PriorityTask<?> t2 = (PriorityTask<?>) r2;
+      if (t1._message != null && t2._message != null) {
+        int result = _policy.compare(t1._message, t2._message);
+        if (result != 0) {
+          return result;
+        }
+      } else if (t1._message != t2._message) {
+        return t1._message == null ? -1 : 1;
+      }
+      return Long.compare(t1._sequence, t2._sequence);
+    }
+  }
+}
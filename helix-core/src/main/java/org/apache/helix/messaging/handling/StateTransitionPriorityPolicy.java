@@ -0,0 +1,43 @@
+package org.apache.helix.messaging.handling;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.Comparator;
+
+import org.apache.helix.HelixManager;
+import org.apache.helix.model.Message;
+
+/**
+ * Decides the order in which the pending state transition messages of a participant are executed
+ * when the state transition thread pool runs in priority mode. Messages that compare as smaller
+ * are executed first, and messages that compare as equal are executed in arrival order.
+ *
+ * {@link #compare(Object, Object)} is called while the pending queue is locked, so it must not do
+ * any I/O. Whatever it needs should be loaded in {@link #prepare(Message, HelixManager)}, which is
+ * called in the scheduling thread before the message is queued.
+ */
+public interface StateTransitionPriorityPolicy extends Comparator<Message> {
+  /**
+   * Load the information needed to order the message.
+   * @param message the message about to be queued
+   * @param manager the participant manager
+   */
+  void prepare(Message message, HelixManager manager);
+}
@@ -0,0 +1,51 @@
+package org.apache.helix.messaging.handling;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Creates the virtual thread factories used by the message handler pools.
+ *
+ * Virtual threads need Java 21, so this base version reports them as unsupported. helix-core is
+ * a multi-release jar, and on Java 21 the version of this class under META-INF/versions/21 is
+ * loaded instead.
+ */
+public final class VirtualThreads {
+  private VirtualThreads() {
+  }
+
+  /**
+   * @return true if the running JVM can create virtual threads
+   */
+  public static boolean isSupported() {
+    return false;
+  }
+
+  /**
+   * Create a factory of virtual threads named namePrefix0, namePrefix1 and so on.
+   * @param namePrefix the thread name prefix
+   * @return the thread factory
+   * @throws UnsupportedOperationException if virtual threads are not supported
+   */
+  public static ThreadFactory newThreadFactory(String namePrefix) {
+    throw new UnsupportedOperationException("Virtual threads require Java 21 or later.");
+  }
+}
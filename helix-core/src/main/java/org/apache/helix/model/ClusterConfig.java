@@ -129,6 +129,43 @@ public class ClusterConfig extends HelixProperty {
     //
     // Default to be true.
     GLOBAL_REBALANCE_ASYNC_MODE,
+    // Specify if the WAGED rebalancer should calculate the Baseline incrementally when only some
+    // instance configs, resource configs or ideal states are changed. In the incremental mode, only
+    // the replicas on the changed instances or of the changed resources are re-assigned, and the
+    // rest of the Baseline stays as it is. If the incremental result violates any hard constraint,
+    // the rebalancer falls back to the full Baseline calculation.
+    //
+    // Default to be false.
+    GLOBAL_REBALANCE_INCREMENTAL_MODE,
+    // The number of worker threads that the WAGED rebalancer uses to evaluate the constraints on
+    // the candidate instances of each replica. The scores are reduced deterministically, so the
+    // result is the same as the single thread evaluation.
+    //
+    // Default to be 1, which means the candidates are evaluated in the rebalancer thread.
+    GLOBAL_REBALANCE_SCORING_PARALLELISM,
+    // The number of workers that the controller pipeline stages use to compute the per-resource
+    // best possible states, intermediate states and messages. The per-resource results are merged
+    // after all the workers are done, so the stage output is the same as the serial computation.
+    // The user defined rebalancers must be thread safe when this is larger than 1.
+    //
+    // Default to be 1, which means the resources are computed in the pipeline thread.
+    PIPELINE_RESOURCE_COMPUTE_PARALLELISM,
+    // The max time in milliseconds that the controller waits for more events of the same type
+    // before running the pipeline. The window grows while the events keep arriving faster than the
+    // pipeline runs, and shrinks once they slow down. The events that arrive within the window are
+    // coalesced into one pipeline run.
+    //
+    // Default to be 0, which means the pipeline runs as soon as an event is taken.
+    CLUSTER_EVENT_BATCH_MAX_WINDOW,
+    // Send the controller messages in ZooKeeper multi transactions. The messages of each target
+    // instance are packed into chunks that stay under MESSAGE_DISPATCH_MAX_CHUNK_BYTES, and at most
+    // MESSAGE_DISPATCH_MAX_IN_FLIGHT chunks are outstanding. A chunk that keeps failing falls back
+    // to creating its messages one by one.
+    //
+    // Default to be false, which creates the message ZNodes with one async create each.
+    MESSAGE_DISPATCH_MULTI_MODE,
+    MESSAGE_DISPATCH_MAX_CHUNK_BYTES,
+    MESSAGE_DISPATCH_MAX_IN_FLIGHT,
 
     /**
      * Configure the abnormal partition states resolver classes for the corresponding state model.
@@ -201,6 +238,14 @@ public class ClusterConfig extends HelixProperty {
   private final static int MIN_REBALANCE_PREFERENCE = 0;
   public final static boolean DEFAULT_GLOBAL_REBALANCE_ASYNC_MODE_ENABLED = true;
   public final static boolean DEFAULT_PARTIAL_REBALANCE_ASYNC_MODE_ENABLED = true;
+  public final static boolean DEFAULT_GLOBAL_REBALANCE_INCREMENTAL_MODE_ENABLED = false;
+  // 0 means evaluating in parallel on the common ForkJoinPool of the JVM
+  public final static int DEFAULT_GLOBAL_REBALANCE_SCORING_PARALLELISM = 0;
+  public final static int DEFAULT_PIPELINE_RESOURCE_COMPUTE_PARALLELISM = 1;
+  public final static long DEFAULT_CLUSTER_EVENT_BATCH_MAX_WINDOW_MS = 0L;
+  public final static boolean DEFAULT_MESSAGE_DISPATCH_MULTI_MODE_ENABLED = false;
+  public final static int DEFAULT_MESSAGE_DISPATCH_MAX_CHUNK_BYTES = 512 * 1024;
+  public final static int DEFAULT_MESSAGE_DISPATCH_MAX_IN_FLIGHT = 4;
   private static final int GLOBAL_TARGET_TASK_THREAD_POOL_SIZE_NOT_SET = -1;
   private static final int OFFLINE_NODE_TIME_OUT_FOR_MAINTENANCE_MODE_NOT_SET = -1;
   private final static int DEFAULT_VIEW_CLUSTER_REFRESH_PERIOD = 30;
@@ -1066,6 +1111,119 @@ public class ClusterConfig extends HelixProperty {
         DEFAULT_GLOBAL_REBALANCE_ASYNC_MODE_ENABLED);
   }
 
+  /**
+   * Set the incremental global rebalance mode.
+   * @param isIncremental true if the Baseline should be calculated incrementally when possible
+   */
+  public void setGlobalRebalanceIncrementalMode(boolean isIncremental) {
+    _record.setBooleanField(ClusterConfigProperty.GLOBAL_REBALANCE_INCREMENTAL_MODE.name(),
+        isIncremental);
+  }
+
+  public boolean isGlobalRebalanceIncrementalModeEnabled() {
+    return _record.getBooleanField(ClusterConfigProperty.GLOBAL_REBALANCE_INCREMENTAL_MODE.name(),
+        DEFAULT_GLOBAL_REBALANCE_INCREMENTAL_MODE_ENABLED);
+  }
+
+  /**
+   * Set the number of threads used to score the candidate instances in the WAGED rebalancer.
+   * @param parallelism the number of threads, 1 means evaluating in the rebalancer thread, and 0
+   *                    (the default) means evaluating in parallel on the common ForkJoinPool of
+   *                    the JVM
+   */
+  public void setGlobalRebalanceScoringParallelism(int parallelism) {
+    if (parallelism < 0) {
+      throw new IllegalArgumentException("The scoring parallelism must not be negative.");
+    }
+    _record.setIntField(ClusterConfigProperty.GLOBAL_REBALANCE_SCORING_PARALLELISM.name(),
+        parallelism);
+  }
+
+  public int getGlobalRebalanceScoringParallelism() {
+    return _record.getIntField(ClusterConfigProperty.GLOBAL_REBALANCE_SCORING_PARALLELISM.name(),
+        DEFAULT_GLOBAL_REBALANCE_SCORING_PARALLELISM);
+  }
+
+  /**
+   * Set the number of workers used by the controller pipeline stages to compute the resources.
+   * @param parallelism the number of workers, 1 means computing in the pipeline thread
+   */
+  public void setPipelineResourceComputeParallelism(int parallelism) {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("The resource compute parallelism must be positive.");
+    }
+    _record.setIntField(ClusterConfigProperty.PIPELINE_RESOURCE_COMPUTE_PARALLELISM.name(),
+        parallelism);
+  }
+
+  public int getPipelineResourceComputeParallelism() {
+    return _record.getIntField(ClusterConfigProperty.PIPELINE_RESOURCE_COMPUTE_PARALLELISM.name(),
+        DEFAULT_PIPELINE_RESOURCE_COMPUTE_PARALLELISM);
+  }
+
+  /**
+   * Set the max time that the controller waits to coalesce the cluster events.
+   * @param milliseconds the max window, 0 means the events are not batched
+   */
+  public void setClusterEventBatchMaxWindow(long milliseconds) {
+    if (milliseconds < 0) {
+      throw new IllegalArgumentException("The event batch window must not be negative.");
+    }
+    _record.setLongField(ClusterConfigProperty.CLUSTER_EVENT_BATCH_MAX_WINDOW.name(),
+        milliseconds);
+  }
+
+  public long getClusterEventBatchMaxWindow() {
+    return _record.getLongField(ClusterConfigProperty.CLUSTER_EVENT_BATCH_MAX_WINDOW.name(),
+        DEFAULT_CLUSTER_EVENT_BATCH_MAX_WINDOW_MS);
+  }
+
+  /**
+   * Enable or disable sending the controller messages in ZooKeeper multi transactions.
+   * @param enabled true to group the messages per instance into multi transactions
+   */
+  public void setMessageDispatchMultiMode(boolean enabled) {
+    _record.setBooleanField(ClusterConfigProperty.MESSAGE_DISPATCH_MULTI_MODE.name(), enabled);
+  }
+
+  public boolean isMessageDispatchMultiModeEnabled() {
+    return _record.getBooleanField(ClusterConfigProperty.MESSAGE_DISPATCH_MULTI_MODE.name(),
+        DEFAULT_MESSAGE_DISPATCH_MULTI_MODE_ENABLED);
+  }
+
+  /**
+   * Set the max serialized size of the messages sent in one multi transaction. It should be well
+   * below the jute.maxbuffer of the ZooKeeper servers.
+   * @param bytes the max chunk size in bytes
+   */
+  public void setMessageDispatchMaxChunkBytes(int bytes) {
+    if (bytes < 1) {
+      throw new IllegalArgumentException("The message dispatch chunk size must be positive.");
+    }
+    _record.setIntField(ClusterConfigProperty.MESSAGE_DISPATCH_MAX_CHUNK_BYTES.name(), bytes);
+  }
+
+  public int getMessageDispatchMaxChunkBytes() {
+    return _record.getIntField(ClusterConfigProperty.MESSAGE_DISPATCH_MAX_CHUNK_BYTES.name(),
+        DEFAULT_MESSAGE_DISPATCH_MAX_CHUNK_BYTES);
+  }
+
+  /**
+   * Set the max number of message multi transactions that are outstanding at the same time.
+   * @param inFlight the max number of concurrent multi transactions
+   */
+  public void setMessageDispatchMaxInFlight(int inFlight) {
+    if (inFlight < 1) {
+      throw new IllegalArgumentException("The message dispatch in-flight limit must be positive.");
+    }
+    _record.setIntField(ClusterConfigProperty.MESSAGE_DISPATCH_MAX_IN_FLIGHT.name(), inFlight);
+  }
+
+  public int getMessageDispatchMaxInFlight() {
+    return _record.getIntField(ClusterConfigProperty.MESSAGE_DISPATCH_MAX_IN_FLIGHT.name(),
+        DEFAULT_MESSAGE_DISPATCH_MAX_IN_FLIGHT);
+  }
+
   /**
    * Set the time out window for offline nodes during maintenance mode. If an offline node has been
    * offline for more than this specified time period, it's treated as offline for the rest of
@@ -35,6 +35,8 @@ public class ClusterEventMonitor extends DynamicMBeanProvider {
   public enum PhaseName {
     Callback,
     InQueue,
+    // The time waited for the event batch window, the queue depth and the coalesced event count.
+    Batching,
     TotalProcessed
   }
 
@@ -47,6 +49,9 @@ public class ClusterEventMonitor extends DynamicMBeanProvider {
   private SimpleDynamicMetric<Long> _totalDuration;
   private SimpleDynamicMetric<Long> _maxDuration;
   private SimpleDynamicMetric<Long> _count;
+  private SimpleDynamicMetric<Long> _parallelism;
+  private SimpleDynamicMetric<Long> _queueDepth;
+  private SimpleDynamicMetric<Long> _coalescedEventCount;
   private HistogramDynamicMetric _duration;
 
   private long _lastResetTime;
@@ -61,6 +66,9 @@ public class ClusterEventMonitor extends DynamicMBeanProvider {
     _count = new SimpleDynamicMetric("EventCounter", 0l);
     _maxDuration = new SimpleDynamicMetric("MaxSingleDurationGauge", 0l);
     _totalDuration = new SimpleDynamicMetric("TotalDurationCounter", 0l);
+    _parallelism = new SimpleDynamicMetric("ParallelismGauge", 1l);
+    _queueDepth = new SimpleDynamicMetric("QueueDepthGauge", 0l);
+    _coalescedEventCount = new SimpleDynamicMetric("CoalescedEventCounter", 0l);
   }
 
   public ClusterEventMonitor(ClusterStatusMonitor clusterStatusMonitor, String phaseName,
@@ -73,6 +81,9 @@ public class ClusterEventMonitor extends DynamicMBeanProvider {
     _count = new SimpleDynamicMetric("EventCounter", 0l);
     _maxDuration = new SimpleDynamicMetric("MaxSingleDurationGauge", 0l);
     _totalDuration = new SimpleDynamicMetric("TotalDurationCounter", 0l);
+    _parallelism = new SimpleDynamicMetric("ParallelismGauge", 1l);
+    _queueDepth = new SimpleDynamicMetric("QueueDepthGauge", 0l);
+    _coalescedEventCount = new SimpleDynamicMetric("CoalescedEventCounter", 0l);
   }
 
   public void reportDuration(long duration) {
@@ -86,6 +97,22 @@ public class ClusterEventMonitor extends DynamicMBeanProvider {
     }
   }
 
+  /**
+   * Report the number of workers that computed the resources in the latest run of the phase.
+   */
+  public void reportParallelism(int parallelism) {
+    _parallelism.updateValue((long) parallelism);
+  }
+
+  /**
+   * Report the events that remain in the queue and the events that have been coalesced into the
+   * latest taken event.
+   */
+  public void reportEventBatch(int queueDepth, int coalescedEventCount) {
+    _queueDepth.updateValue((long) queueDepth);
+    _coalescedEventCount.updateValue(_coalescedEventCount.getValue() + coalescedEventCount);
+  }
+
   @Override
   public String getSensorName() {
     return String.format("%s.%s.%s.%s", CLUSTEREVENT_DN_KEY, _clusterStatusMonitor.getClusterName(),
@@ -103,6 +130,11 @@ public class ClusterEventMonitor extends DynamicMBeanProvider {
     attributeList.add(_maxDuration);
     attributeList.add(_count);
     attributeList.add(_duration);
+    attributeList.add(_parallelism);
+    if (PhaseName.Batching.name().equals(_phaseName)) {
+      attributeList.add(_queueDepth);
+      attributeList.add(_coalescedEventCount);
+    }
     doRegister(attributeList, _clusterStatusMonitor.getObjectName(getBeanName()));
     return this;
   }
@@ -87,6 +87,16 @@ public class ClusterStatusMonitor implements ClusterStatusMonitorMBean {
   private AtomicLong _rebalanceFailureCount = new AtomicLong(0L);
   private AtomicLong _continuousResourceRebalanceFailureCount = new AtomicLong(0L);
   private AtomicLong _continuousTaskRebalanceFailureCount = new AtomicLong(0L);
+  private AtomicLong _dataRefreshStatReadGauge = new AtomicLong(0L);
+  private AtomicLong _dataRefreshReadGauge = new AtomicLong(0L);
+  private AtomicLong _dataRefreshStatReadCount = new AtomicLong(0L);
+  private AtomicLong _dataRefreshReadCount = new AtomicLong(0L);
+  private AtomicLong _messageDispatchChunkGauge = new AtomicLong(0L);
+  private AtomicLong _messageDispatchChunkBytesGauge = new AtomicLong(0L);
+  private AtomicLong _messageDispatchLatencyGauge = new AtomicLong(0L);
+  private AtomicLong _messageDispatchChunkCount = new AtomicLong(0L);
+  private AtomicLong _messageDispatchChunkBytesCount = new AtomicLong(0L);
+  private AtomicLong _messageDispatchFailedChunkCount = new AtomicLong(0L);
 
   private final ConcurrentHashMap<String, ResourceMonitor> _resourceMonitorMap =
       new ConcurrentHashMap<>();
@@ -96,6 +106,9 @@ public class ClusterStatusMonitor implements ClusterStatusMonitorMBean {
   // phaseName -> eventMonitor
   protected final ConcurrentHashMap<String, ClusterEventMonitor> _clusterEventMonitorMap =
       new ConcurrentHashMap<>();
+  // pipelineType.eventType.stageName -> stageMonitor
+  protected final ConcurrentHashMap<String, PipelineStageMonitor> _pipelineStageMonitorMap =
+      new ConcurrentHashMap<>();
 
   private CustomizedViewMonitor _customizedViewMonitor;
 
@@ -335,6 +348,45 @@ public class ClusterStatusMonitor implements ClusterStatusMonitorMBean {
     }
   }
 
+  /**
+   * Update the event batching metrics after the controller takes an event from the event queue.
+   * @param batchWindow the time in milliseconds waited for the batch window
+   * @param coalescedEventCount the number of events coalesced into the taken event
+   * @param queueDepth the number of events that remain in the queue
+   */
+  public void updateClusterEventBatch(long batchWindow, int coalescedEventCount, int queueDepth) {
+    ClusterEventMonitor monitor =
+        getOrCreateClusterEventMonitor(ClusterEventMonitor.PhaseName.Batching.name());
+    if (monitor != null) {
+      monitor.reportDuration(batchWindow);
+      monitor.reportEventBatch(queueDepth, coalescedEventCount);
+    }
+  }
+
+  /**
+   * Update the latency and the allocation of a pipeline stage run.
+   * @param pipelineType the type of the pipeline that runs the stage
+   * @param eventType the type of the cluster event that triggers the pipeline
+   * @param stageName the stage name
+   * @param latency the time in milliseconds spent in the stage
+   * @param allocatedBytes the bytes allocated in the stage, or a negative value if not measured
+   */
+  public void updatePipelineStageMetrics(String pipelineType, String eventType, String stageName,
+      long latency, long allocatedBytes) {
+    PipelineStageMonitor monitor =
+        getOrCreatePipelineStageMonitor(pipelineType, eventType, stageName);
+    if (monitor != null) {
+      monitor.reportStageRun(latency, allocatedBytes);
+    }
+  }
+
+  public void updateClusterEventParallelism(String phase, int parallelism) {
+    ClusterEventMonitor monitor = getOrCreateClusterEventMonitor(phase);
+    if (monitor != null) {
+      monitor.reportParallelism(parallelism);
+    }
+  }
+
   /**
    * Lazy initialization of customized view monitor
    * @param clusterName the cluster name of the cluster to be monitored
@@ -371,6 +423,28 @@ public class ClusterStatusMonitor implements ClusterStatusMonitorMBean {
     return _clusterEventMonitorMap.get(phase);
   }
 
+  private PipelineStageMonitor getOrCreatePipelineStageMonitor(String pipelineType,
+      String eventType, String stageName) {
+    String key = String.format("%s.%s.%s", pipelineType, eventType, stageName);
+    try {
+      if (!_pipelineStageMonitorMap.containsKey(key)) {
+        synchronized (_pipelineStageMonitorMap) {
+          if (!_pipelineStageMonitorMap.containsKey(key)) {
+            PipelineStageMonitor monitor =
+                new PipelineStageMonitor(this, pipelineType, eventType, stageName);
+            monitor.register();
+            _pipelineStageMonitorMap.put(key, monitor);
+          }
+        }
+      }
+    } catch (JMException e) {
+      LOG.error("Failed to register PipelineStageMonitorMbean for cluster " + _clusterName
+          + " and stage: " + key, e);
+    }
+
+    return _pipelineStageMonitorMap.get(key);
+  }
+
   /**
    * Update the total count of messages that the controller has sent to each instance and each resource so far
    * @param messages a list of messages
@@ -660,6 +734,16 @@ public class ClusterStatusMonitor implements ClusterStatusMonitorMBean {
       _rebalanceFailureCount.set(0L);
       _continuousResourceRebalanceFailureCount.set(0L);
       _continuousTaskRebalanceFailureCount.set(0L);
+      _dataRefreshStatReadGauge.set(0L);
+      _dataRefreshReadGauge.set(0L);
+      _dataRefreshStatReadCount.set(0L);
+      _dataRefreshReadCount.set(0L);
+      _messageDispatchChunkGauge.set(0L);
+      _messageDispatchChunkBytesGauge.set(0L);
+      _messageDispatchLatencyGauge.set(0L);
+      _messageDispatchChunkCount.set(0L);
+      _messageDispatchChunkBytesCount.set(0L);
+      _messageDispatchFailedChunkCount.set(0L);
     } catch (Exception e) {
       LOG.error("Fail to reset ClusterStatusMonitor, cluster: " + _clusterName, e);
     }
@@ -887,6 +971,12 @@ public class ClusterStatusMonitor implements ClusterStatusMonitorMBean {
       }
       _clusterEventMonitorMap.clear();
     }
+    synchronized (_pipelineStageMonitorMap) {
+      for (PipelineStageMonitor monitor : _pipelineStageMonitorMap.values()) {
+        monitor.unregister();
+      }
+      _pipelineStageMonitorMap.clear();
+    }
   }
 
   private void registerPerInstanceResources(Collection<PerInstanceResourceMonitor> monitors)
@@ -1037,6 +1127,35 @@ public class ClusterStatusMonitor implements ClusterStatusMonitorMBean {
     _continuousTaskRebalanceFailureCount.set(newValue);
   }
 
+  /**
+   * Report the ZK reads of a controller data cache refresh.
+   * @param statReadCount the number of ZNode stats read
+   * @param dataReadCount the number of ZNodes read
+   */
+  public void updateDataRefreshReads(long statReadCount, long dataReadCount) {
+    _dataRefreshStatReadGauge.set(statReadCount);
+    _dataRefreshReadGauge.set(dataReadCount);
+    _dataRefreshStatReadCount.addAndGet(statReadCount);
+    _dataRefreshReadCount.addAndGet(dataReadCount);
+  }
+
+  /**
+   * Report one message dispatch of the controller.
+   * @param chunkCount the number of multi transactions used, 0 if the messages were sent one by one
+   * @param chunkBytes the estimated total size of the multi transactions
+   * @param failedChunkCount the number of multi transactions that fell back to single creates
+   * @param latencyMs the time taken to send all the messages
+   */
+  public void updateMessageDispatch(long chunkCount, long chunkBytes, long failedChunkCount,
+      long latencyMs) {
+    _messageDispatchChunkGauge.set(chunkCount);
+    _messageDispatchChunkBytesGauge.set(chunkBytes);
+    _messageDispatchLatencyGauge.set(latencyMs);
+    _messageDispatchChunkCount.addAndGet(chunkCount);
+    _messageDispatchChunkBytesCount.addAndGet(chunkBytes);
+    _messageDispatchFailedChunkCount.addAndGet(failedChunkCount);
+  }
+
   @Override
   public long getRebalanceFailureCounter() {
     return _rebalanceFailureCount.get();
@@ -1052,6 +1171,56 @@ public class ClusterStatusMonitor implements ClusterStatusMonitorMBean {
     return _continuousTaskRebalanceFailureCount.get();
   }
 
+  @Override
+  public long getDataRefreshStatReadGauge() {
+    return _dataRefreshStatReadGauge.get();
+  }
+
+  @Override
+  public long getDataRefreshReadGauge() {
+    return _dataRefreshReadGauge.get();
+  }
+
+  @Override
+  public long getDataRefreshStatReadCounter() {
+    return _dataRefreshStatReadCount.get();
+  }
+
+  @Override
+  public long getDataRefreshReadCounter() {
+    return _dataRefreshReadCount.get();
+  }
+
+  @Override
+  public long getMessageDispatchChunkGauge() {
+    return _messageDispatchChunkGauge.get();
+  }
+
+  @Override
+  public long getMessageDispatchChunkBytesGauge() {
+    return _messageDispatchChunkBytesGauge.get();
+  }
+
+  @Override
+  public long getMessageDispatchLatencyGauge() {
+    return _messageDispatchLatencyGauge.get();
+  }
+
+  @Override
+  public long getMessageDispatchChunkCounter() {
+    return _messageDispatchChunkCount.get();
+  }
+
+  @Override
+  public long getMessageDispatchChunkBytesCounter() {
+    return _messageDispatchChunkBytesCount.get();
+  }
+
+  @Override
+  public long getMessageDispatchFailedChunkCounter() {
+    return _messageDispatchFailedChunkCount.get();
+  }
+
   @Override
   public long getTotalResourceGauge() {
     return _resourceMonitorMap.size();
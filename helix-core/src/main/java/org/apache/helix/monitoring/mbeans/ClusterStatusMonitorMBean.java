@@ -97,6 +97,56 @@ public interface ClusterStatusMonitorMBean extends SensorNameProvider {
    */
   long getContinuousTaskRebalanceFailureCount();
 
+  /**
+   * @return The number of ZNode stats read by the latest controller data cache refresh
+   */
+  long getDataRefreshStatReadGauge();
+
+  /**
+   * @return The number of ZNodes read by the latest controller data cache refresh
+   */
+  long getDataRefreshReadGauge();
+
+  /**
+   * @return The total number of ZNode stats read by the controller data cache refreshes
+   */
+  long getDataRefreshStatReadCounter();
+
+  /**
+   * @return The total number of ZNodes read by the controller data cache refreshes
+   */
+  long getDataRefreshReadCounter();
+
+  /**
+   * @return The number of multi transactions used by the latest message dispatch
+   */
+  long getMessageDispatchChunkGauge();
+
+  /**
+   * @return The estimated size in bytes of the multi transactions of the latest message dispatch
+   */
+  long getMessageDispatchChunkBytesGauge();
+
+  /**
+   * @return The time in milliseconds taken by the latest message dispatch
+   */
+  long getMessageDispatchLatencyGauge();
+
+  /**
+   * @return The total number of multi transactions used to dispatch messages
+   */
+  long getMessageDispatchChunkCounter();
+
+  /**
+   * @return The total estimated size in bytes of the message dispatch multi transactions
+   */
+  long getMessageDispatchChunkBytesCounter();
+
+  /**
+   * @return The total number of message multi transactions that fell back to single creates
+   */
+  long getMessageDispatchFailedChunkCounter();
+
   /**
    * @return number of all resources in this cluster
    */
@@ -0,0 +1,107 @@
+package org.apache.helix.monitoring.mbeans;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.management.JMException;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+
+import org.apache.helix.monitoring.mbeans.dynamicMBeans.DynamicMBeanProvider;
+import org.apache.helix.monitoring.mbeans.dynamicMBeans.DynamicMetric;
+import org.apache.helix.monitoring.mbeans.dynamicMBeans.SimpleDynamicMetric;
+
+/**
+ * Tracks the cache of one config scope of a {@link org.apache.helix.CachedConfigAccessor}: the
+ * lookups served from the cache, the lookups that had to read ZooKeeper, and the entries dropped
+ * because of a watch event or the size bound.
+ */
+public class ConfigAccessorCacheMonitor extends DynamicMBeanProvider {
+  public static final String ACCESSOR_KEY = "Accessor";
+  public static final String SCOPE_KEY = "Scope";
+
+  private static final String MBEAN_DESCRIPTION = "Helix ConfigAccessor Cache Monitor";
+  private final String _sensorName;
+  private final String _accessorName;
+  private final String _scope;
+
+  private SimpleDynamicMetric<Long> _hitCounter;
+  private SimpleDynamicMetric<Long> _missCounter;
+  private SimpleDynamicMetric<Long> _invalidationCounter;
+  private SimpleDynamicMetric<Long> _evictionCounter;
+  private SimpleDynamicMetric<Long> _cacheSizeGauge;
+
+  public ConfigAccessorCacheMonitor(String accessorName, String scope) {
+    _accessorName = accessorName;
+    _scope = scope;
+    _sensorName = String
+        .format("%s.%s.%s", MonitorDomainNames.ConfigAccessorCache.name(), _accessorName, _scope);
+
+    _hitCounter = new SimpleDynamicMetric("HitCounter", 0L);
+    _missCounter = new SimpleDynamicMetric("MissCounter", 0L);
+    _invalidationCounter = new SimpleDynamicMetric("InvalidationCounter", 0L);
+    _evictionCounter = new SimpleDynamicMetric("EvictionCounter", 0L);
+    _cacheSizeGauge = new SimpleDynamicMetric("CacheSizeGauge", 0L);
+  }
+
+  @Override
+  public String getSensorName() {
+    return _sensorName;
+  }
+
+  private ObjectName getMBeanName() throws MalformedObjectNameException {
+    return new ObjectName(String
+        .format("%s:%s=%s,%s=%s", MonitorDomainNames.ConfigAccessorCache.name(), ACCESSOR_KEY,
+            _accessorName, SCOPE_KEY, _scope));
+  }
+
+  public synchronized void increaseHitCounter() {
+    _hitCounter.updateValue(_hitCounter.getValue() + 1);
+  }
+
+  public synchronized void increaseMissCounter() {
+    _missCounter.updateValue(_missCounter.getValue() + 1);
+  }
+
+  public synchronized void increaseInvalidationCounter() {
+    _invalidationCounter.updateValue(_invalidationCounter.getValue() + 1);
+  }
+
+  public synchronized void increaseEvictionCounter() {
+    _evictionCounter.updateValue(_evictionCounter.getValue() + 1);
+  }
+
+  public void updateCacheSize(long size) {
+    _cacheSizeGauge.updateValue(size);
+  }
+
+  @Override
+  public ConfigAccessorCacheMonitor register() throws JMException {
+    List<DynamicMetric<?, ?>> attributeList = new ArrayList<>();
+    attributeList.add(_hitCounter);
+    attributeList.add(_missCounter);
+    attributeList.add(_invalidationCounter);
+    attributeList.add(_evictionCounter);
+    attributeList.add(_cacheSizeGauge);
+    doRegister(attributeList, MBEAN_DESCRIPTION, getMBeanName());
+    return this;
+  }
+}
@@ -0,0 +1,100 @@
+package org.apache.helix.monitoring.mbeans;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.management.JMException;
+
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.SlidingTimeWindowArrayReservoir;
+import org.apache.helix.monitoring.mbeans.dynamicMBeans.DynamicMBeanProvider;
+import org.apache.helix.monitoring.mbeans.dynamicMBeans.DynamicMetric;
+import org.apache.helix.monitoring.mbeans.dynamicMBeans.HistogramDynamicMetric;
+import org.apache.helix.monitoring.mbeans.dynamicMBeans.SimpleDynamicMetric;
+
+/**
+ * Tracks the coalesced CurrentState writes issued by a participant: how many transition updates
+ * were folded into each ZooKeeper write and how long the write took.
+ */
+public class CurrentStateWriteMonitor extends DynamicMBeanProvider {
+  private static final String MBEAN_DESCRIPTION = "Helix CurrentState Write Monitor";
+  private final String _sensorName;
+  private final String _domainName;
+  private final String _participantName;
+
+  private SimpleDynamicMetric<Long> _totalWriteCount;
+  private SimpleDynamicMetric<Long> _totalUpdateCount;
+  private SimpleDynamicMetric<Long> _failedWriteCount;
+  private HistogramDynamicMetric _batchSizeGauge;
+  private HistogramDynamicMetric _writeLatencyGauge;
+
+  public CurrentStateWriteMonitor(String domainName, String participantName) throws JMException {
+    _domainName = domainName;
+    _participantName = participantName;
+    _sensorName = String.format("%s.%s", ParticipantMessageMonitor.PARTICIPANT_STATUS_KEY,
+        "CurrentStateWrite");
+
+    _batchSizeGauge = new HistogramDynamicMetric("CurrentStateWriteBatchSizeGauge", new Histogram(
+        new SlidingTimeWindowArrayReservoir(getResetIntervalInMs(), TimeUnit.MILLISECONDS)));
+    _writeLatencyGauge = new HistogramDynamicMetric("CurrentStateWriteLatencyGauge", new Histogram(
+        new SlidingTimeWindowArrayReservoir(getResetIntervalInMs(), TimeUnit.MILLISECONDS)));
+    _totalWriteCount = new SimpleDynamicMetric("TotalCurrentStateWriteCounter", 0L);
+    _totalUpdateCount = new SimpleDynamicMetric("TotalCurrentStateUpdateCounter", 0L);
+    _failedWriteCount = new SimpleDynamicMetric("FailedCurrentStateWriteCounter", 0L);
+  }
+
+  @Override
+  public String getSensorName() {
+    return _sensorName;
+  }
+
+  /**
+   * Record one coalesced write.
+   * @param batchSize number of CurrentState updates merged into the write
+   * @param latencyMs time spent reading, merging and writing the ZNode
+   * @param success whether the write eventually succeeded
+   */
+  public synchronized void updateWrite(int batchSize, long latencyMs, boolean success) {
+    _totalWriteCount.updateValue(_totalWriteCount.getValue() + 1);
+    _totalUpdateCount.updateValue(_totalUpdateCount.getValue() + batchSize);
+    if (!success) {
+      _failedWriteCount.updateValue(_failedWriteCount.getValue() + 1);
+    }
+    _batchSizeGauge.updateValue((long) batchSize);
+    _writeLatencyGauge.updateValue(latencyMs);
+  }
+
+  @Override
+  public CurrentStateWriteMonitor register() throws JMException {
+    List<DynamicMetric<?, ?>> attributeList = new ArrayList<>();
+    attributeList.add(_totalWriteCount);
+    attributeList.add(_totalUpdateCount);
+    attributeList.add(_failedWriteCount);
+    attributeList.add(_batchSizeGauge);
+    attributeList.add(_writeLatencyGauge);
+    doRegister(attributeList, MBEAN_DESCRIPTION, _domainName,
+        ParticipantStatusMonitor.PARTICIPANT_KEY, _participantName, "MonitorType",
+        CurrentStateWriteMonitor.class.getSimpleName());
+
+    return this;
+  }
+}
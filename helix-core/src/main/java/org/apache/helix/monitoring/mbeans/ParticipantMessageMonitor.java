@@ -21,10 +21,16 @@ package org.apache.helix.monitoring.mbeans;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import javax.management.JMException;
 
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.SlidingTimeWindowArrayReservoir;
 import org.apache.helix.monitoring.mbeans.dynamicMBeans.DynamicMBeanProvider;
 import org.apache.helix.monitoring.mbeans.dynamicMBeans.DynamicMetric;
+import org.apache.helix.monitoring.mbeans.dynamicMBeans.HistogramDynamicMetric;
 import org.apache.helix.monitoring.mbeans.dynamicMBeans.SimpleDynamicMetric;
 
 public class ParticipantMessageMonitor extends DynamicMBeanProvider {
@@ -39,6 +45,9 @@ public class ParticipantMessageMonitor extends DynamicMBeanProvider {
   private SimpleDynamicMetric<Long> _completedMessages;
   private SimpleDynamicMetric<Long> _failedMessages;
   private SimpleDynamicMetric<Long> _pendingMessages;
+  // state transition -> time the messages waited in the queue before being executed
+  private final Map<String, HistogramDynamicMetric> _queueWaitTimeGauges =
+      new ConcurrentHashMap<>();
 
   /**
    * The current processed state of the message
@@ -83,6 +92,31 @@ public class ParticipantMessageMonitor extends DynamicMBeanProvider {
     incrementSimpleDynamicMetric(_pendingMessages, -1 * count);
   }
 
+  /**
+   * Record how long a state transition message waited before its execution started. The gauge of
+   * a transition is added the first time the transition is reported.
+   * @param fromState the from state of the transition
+   * @param toState the to state of the transition
+   * @param waitTimeMs the time between the message being read and its execution start
+   */
+  public void updateQueueWaitTime(String fromState, String toState, long waitTimeMs) {
+    String gaugeName = String.format("%s_%s_QueueWaitTimeGauge", fromState, toState)
+        .replaceAll("\\*", "ANY");
+    HistogramDynamicMetric gauge = _queueWaitTimeGauges.get(gaugeName);
+    if (gauge == null) {
+      synchronized (this) {
+        gauge = _queueWaitTimeGauges.get(gaugeName);
+        if (gauge == null) {
+          gauge = new HistogramDynamicMetric(gaugeName, new Histogram(
+              new SlidingTimeWindowArrayReservoir(getResetIntervalInMs(), TimeUnit.MILLISECONDS)));
+          _queueWaitTimeGauges.put(gaugeName, gauge);
+          updateAttributesInfo(buildAttributeList(), MBEAN_DESCRIPTION);
+        }
+      }
+    }
+    gauge.updateValue(waitTimeMs);
+  }
+
   @Override
   public String getSensorName() {
     return PARTICIPANT_STATUS_KEY;
@@ -95,15 +129,20 @@ public class ParticipantMessageMonitor extends DynamicMBeanProvider {
    */
   @Override
   public DynamicMBeanProvider register() throws JMException {
+    doRegister(buildAttributeList(), MBEAN_DESCRIPTION, _domainName,
+        ParticipantStatusMonitor.PARTICIPANT_KEY, _participantName, "MonitorType",
+        ParticipantMessageMonitor.class.getSimpleName());
+    return this;
+  }
+
+  private List<DynamicMetric<?, ?>> buildAttributeList() {
     List<DynamicMetric<?, ?>> attributeList = new ArrayList<>();
     attributeList.add(_receivedMessages);
     attributeList.add(_discardedMessages);
     attributeList.add(_completedMessages);
     attributeList.add(_failedMessages);
     attributeList.add(_pendingMessages);
-    doRegister(attributeList, MBEAN_DESCRIPTION, _domainName,
-        ParticipantStatusMonitor.PARTICIPANT_KEY, _participantName, "MonitorType",
-        ParticipantMessageMonitor.class.getSimpleName());
-    return this;
+    attributeList.addAll(_queueWaitTimeGauges.values());
+    return attributeList;
   }
 }
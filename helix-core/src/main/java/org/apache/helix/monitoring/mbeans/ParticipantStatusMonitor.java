@@ -46,6 +46,7 @@ public class ParticipantStatusMonitor {
   private MBeanServer _beanServer;
   private ParticipantMessageMonitor _messageMonitor;
   private MessageLatencyMonitor _messageLatencyMonitor;
+  private CurrentStateWriteMonitor _currentStateWriteMonitor;
   private Map<String, ThreadPoolExecutorMonitor> _executorMonitors;
 
   public ParticipantStatusMonitor(boolean isParticipant, String instanceName) {
@@ -61,6 +62,10 @@ public class ParticipantStatusMonitor {
             new MessageLatencyMonitor(MonitorDomainNames.CLMParticipantReport.name(),
                 _instanceName);
         _messageLatencyMonitor.register();
+        _currentStateWriteMonitor =
+            new CurrentStateWriteMonitor(MonitorDomainNames.CLMParticipantReport.name(),
+                _instanceName);
+        _currentStateWriteMonitor.register();
         _executorMonitors = new ConcurrentHashMap<>();
       }
     } catch (Exception e) {
@@ -98,6 +103,35 @@ public class ParticipantStatusMonitor {
     }
   }
 
+  /**
+   * Report how long a state transition message waited between being read and its execution start.
+   * @param message the message whose execution is starting
+   */
+  public void reportStateTransitionQueueWait(Message message) {
+    if (_messageMonitor == null  // not participant
+        || !Message.MessageType.STATE_TRANSITION.name().equals(message.getMsgType())) {
+      return;
+    }
+    long readTime = message.getReadTimeStamp();
+    long executeStartTime = message.getExecuteStartTimeStamp();
+    if (readTime > 0 && executeStartTime >= readTime) {
+      _messageMonitor.updateQueueWaitTime(message.getFromState(), message.getToState(),
+          executeStartTime - readTime);
+    }
+  }
+
+  /**
+   * Report one coalesced CurrentState write.
+   * @param batchSize number of CurrentState updates merged into the write
+   * @param latencyMs time taken by the write, including the read and any retries
+   * @param success whether the write eventually succeeded
+   */
+  public void reportCurrentStateWrite(int batchSize, long latencyMs, boolean success) {
+    if (_currentStateWriteMonitor != null) {  // is participant
+      _currentStateWriteMonitor.updateWrite(batchSize, latencyMs, success);
+    }
+  }
+
   public void reportTransitionStat(StateTransitionContext cxt, StateTransitionDataPoint data) {
     if (_beanServer == null) {
       LOG.warn("bean server is null, skip reporting");
@@ -136,6 +170,9 @@ public class ParticipantStatusMonitor {
   }
 
   public void shutDown() {
+    if (_currentStateWriteMonitor != null) {
+      _currentStateWriteMonitor.unregister();
+    }
     if (_messageLatencyMonitor != null) {
       _messageLatencyMonitor.unregister();
     }
@@ -0,0 +1,110 @@
+package org.apache.helix.monitoring.mbeans;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.management.JMException;
+
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.SlidingTimeWindowArrayReservoir;
+import org.apache.helix.monitoring.mbeans.dynamicMBeans.DynamicMBeanProvider;
+import org.apache.helix.monitoring.mbeans.dynamicMBeans.DynamicMetric;
+import org.apache.helix.monitoring.mbeans.dynamicMBeans.HistogramDynamicMetric;
+import org.apache.helix.monitoring.mbeans.dynamicMBeans.SimpleDynamicMetric;
+
+/**
+ * The latency and the allocation of a controller pipeline stage, for a pipeline type and a cluster
+ * event type.
+ */
+public class PipelineStageMonitor extends DynamicMBeanProvider {
+  private static final String PIPELINE_STAGE_DN_KEY = "PipelineStageStatus";
+  private static final String EVENT_DN_KEY = "eventName";
+  private static final String PIPELINE_TYPE_DN_KEY = "pipelineType";
+  private static final String EVENT_TYPE_DN_KEY = "eventType";
+  private static final String STAGE_DN_KEY = "stageName";
+
+  private final ClusterStatusMonitor _clusterStatusMonitor;
+  private final String _pipelineType;
+  private final String _eventType;
+  private final String _stageName;
+
+  private SimpleDynamicMetric<Long> _count;
+  private SimpleDynamicMetric<Long> _allocatedBytesCounter;
+  private HistogramDynamicMetric _latency;
+  private HistogramDynamicMetric _allocatedBytes;
+
+  public PipelineStageMonitor(ClusterStatusMonitor clusterStatusMonitor, String pipelineType,
+      String eventType, String stageName) {
+    _clusterStatusMonitor = clusterStatusMonitor;
+    // An ObjectName key property cannot be empty
+    _pipelineType = pipelineType == null || pipelineType.isEmpty() ? ClusterStatusMonitor.DEFAULT_TAG
+        : pipelineType;
+    _eventType = eventType == null || eventType.isEmpty() ? ClusterStatusMonitor.DEFAULT_TAG
+        : eventType;
+    _stageName = stageName;
+
+    _count = new SimpleDynamicMetric("ProcessCounter", 0l);
+    _allocatedBytesCounter = new SimpleDynamicMetric("AllocatedBytesCounter", 0l);
+    _latency = new HistogramDynamicMetric("LatencyGauge", new Histogram(
+        new SlidingTimeWindowArrayReservoir(getResetIntervalInMs(), TimeUnit.MILLISECONDS)));
+    _allocatedBytes = new HistogramDynamicMetric("AllocatedBytesGauge", new Histogram(
+        new SlidingTimeWindowArrayReservoir(getResetIntervalInMs(), TimeUnit.MILLISECONDS)));
+  }
+
+  /**
+   * Report a run of the stage.
+   * @param latency the time in milliseconds spent in the stage
+   * @param allocatedBytes the bytes allocated by the pipeline thread in the stage, or a negative
+   *          value if the allocation is not measured
+   */
+  public void reportStageRun(long latency, long allocatedBytes) {
+    _count.updateValue(_count.getValue() + 1);
+    _latency.updateValue(latency);
+    if (allocatedBytes >= 0) {
+      _allocatedBytesCounter.updateValue(_allocatedBytesCounter.getValue() + allocatedBytes);
+      _allocatedBytes.updateValue(allocatedBytes);
+    }
+  }
+
+  @Override
+  public String getSensorName() {
+    return String.format("%s.%s.%s.%s.%s", PIPELINE_STAGE_DN_KEY,
+        _clusterStatusMonitor.getClusterName(), _pipelineType, _eventType, _stageName);
+  }
+
+  private String getBeanName() {
+    return String.format("%s,%s=%s,%s=%s,%s=%s,%s=%s", _clusterStatusMonitor.clusterBeanName(),
+        EVENT_DN_KEY, "PipelineStage", PIPELINE_TYPE_DN_KEY, _pipelineType, EVENT_TYPE_DN_KEY,
+        _eventType, STAGE_DN_KEY, _stageName);
+  }
+
+  @Override
+  public PipelineStageMonitor register() throws JMException {
+    List<DynamicMetric<?, ?>> attributeList = new ArrayList<>();
+    attributeList.add(_count);
+    attributeList.add(_allocatedBytesCounter);
+    attributeList.add(_latency);
+    attributeList.add(_allocatedBytes);
+    doRegister(attributeList, _clusterStatusMonitor.getObjectName(getBeanName()));
+    return this;
+  }
+}
@@ -47,6 +47,11 @@ public class RoutingTableProviderMonitor extends DynamicMBeanProvider {
   private SimpleDynamicMetric<Long> _callbackCounter;
   private SimpleDynamicMetric<Long> _eventQueueSizeGauge;
   private SimpleDynamicMetric<Long> _dataRefreshCounter;
+  private SimpleDynamicMetric<Long> _incrementalRefreshCounter;
+  private SimpleDynamicMetric<Long> _fullRefreshCounter;
+  private SimpleDynamicMetric<Long> _refreshedResourceCounter;
+  private SimpleDynamicMetric<Long> _sharedProviderGauge;
+  private SimpleDynamicMetric<Long> _routingTableHeapBytesGauge;
   private HistogramDynamicMetric _dataRefreshLatencyGauge;
   private HistogramDynamicMetric _statePropLatencyGauge;
 
@@ -64,6 +69,11 @@ public class RoutingTableProviderMonitor extends DynamicMBeanProvider {
     _callbackCounter = new SimpleDynamicMetric("CallbackCounter", 0l);
     _eventQueueSizeGauge = new SimpleDynamicMetric("EventQueueSizeGauge", 0l);
     _dataRefreshCounter = new SimpleDynamicMetric("DataRefreshCounter", 0l);
+    _incrementalRefreshCounter = new SimpleDynamicMetric("IncrementalRefreshCounter", 0l);
+    _fullRefreshCounter = new SimpleDynamicMetric("FullRefreshCounter", 0l);
+    _refreshedResourceCounter = new SimpleDynamicMetric("RefreshedResourceCounter", 0l);
+    _sharedProviderGauge = new SimpleDynamicMetric("SharedProviderGauge", 0l);
+    _routingTableHeapBytesGauge = new SimpleDynamicMetric("RoutingTableHeapBytesGauge", 0l);
     if (propertyType.equals(PropertyType.CURRENTSTATES)) {
       _statePropLatencyGauge = new HistogramDynamicMetric("StatePropagationLatencyGauge",
           new Histogram(
@@ -92,6 +102,36 @@ public class RoutingTableProviderMonitor extends DynamicMBeanProvider {
     _dataRefreshLatencyGauge.updateValue(System.currentTimeMillis() - startTime);
   }
 
+  /**
+   * Record a routing table rebuild.
+   * @param isIncremental whether the new routing table is derived from the previous one
+   * @param refreshedResourceCount the number of resources that are indexed for the new table
+   */
+  public void increaseRoutingTableRefreshCounters(boolean isIncremental,
+      long refreshedResourceCount) {
+    SimpleDynamicMetric<Long> refreshCounter =
+        isIncremental ? _incrementalRefreshCounter : _fullRefreshCounter;
+    refreshCounter.updateValue(refreshCounter.getValue() + 1);
+    _refreshedResourceCounter
+        .updateValue(_refreshedResourceCounter.getValue() + refreshedResourceCount);
+  }
+
+  /**
+   * Record the number of RoutingTableProviders that share the routing tables of this monitor.
+   * @param sharedProviderCount the number of subscribed providers, 0 if the data is not shared
+   */
+  public void updateSharedProviderCount(long sharedProviderCount) {
+    _sharedProviderGauge.updateValue(sharedProviderCount);
+  }
+
+  /**
+   * Record the estimated heap size of the latest routing table.
+   * @param heapBytes the estimated heap size in bytes
+   */
+  public void updateRoutingTableHeapBytes(long heapBytes) {
+    _routingTableHeapBytesGauge.updateValue(heapBytes);
+  }
+
   public void recordStatePropagationLatency(long latency) {
     if (_statePropLatencyGauge != null) {
       _statePropLatencyGauge.updateValue(latency);
@@ -105,6 +145,11 @@ public class RoutingTableProviderMonitor extends DynamicMBeanProvider {
     attributeList.add(_callbackCounter);
     attributeList.add(_eventQueueSizeGauge);
     attributeList.add(_dataRefreshCounter);
+    attributeList.add(_incrementalRefreshCounter);
+    attributeList.add(_fullRefreshCounter);
+    attributeList.add(_refreshedResourceCounter);
+    attributeList.add(_sharedProviderGauge);
+    attributeList.add(_routingTableHeapBytesGauge);
     if (_statePropLatencyGauge != null) {
       attributeList.add(_statePropLatencyGauge);
     }
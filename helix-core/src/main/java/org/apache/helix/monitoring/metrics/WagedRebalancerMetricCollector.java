@@ -42,6 +42,8 @@ public class WagedRebalancerMetricCollector extends MetricCollector {
   public enum WagedRebalancerMetricNames {
     // Per-stage latency metrics
     GlobalBaselineCalcLatencyGauge,
+    GlobalBaselineFullCalcLatencyGauge,
+    GlobalBaselineIncrementalCalcLatencyGauge,
     PartialRebalanceLatencyGauge,
     EmergencyRebalanceLatencyGauge,
     RebalanceOverwriteLatencyGauge,
@@ -63,6 +65,11 @@ public class WagedRebalancerMetricCollector extends MetricCollector {
 
     // Waged rebalance counters.
     GlobalBaselineCalcCounter,
+    GlobalBaselineFullCalcCounter,
+    GlobalBaselineIncrementalCalcCounter,
+    // Count of the incremental baseline calculations that were discarded and replaced by a full
+    // calculation because the incremental result violates the hard constraints.
+    GlobalBaselineIncrementalFallbackCounter,
     PartialRebalanceCounter,
     EmergencyRebalanceCounter,
     RebalanceOverwriteCounter
@@ -98,6 +105,12 @@ public class WagedRebalancerMetricCollector extends MetricCollector {
     LatencyMetric globalBaselineCalcLatencyGauge =
         new RebalanceLatencyGauge(WagedRebalancerMetricNames.GlobalBaselineCalcLatencyGauge.name(),
             getResetIntervalInMs());
+    LatencyMetric globalBaselineFullCalcLatencyGauge = new RebalanceLatencyGauge(
+        WagedRebalancerMetricNames.GlobalBaselineFullCalcLatencyGauge.name(),
+        getResetIntervalInMs());
+    LatencyMetric globalBaselineIncrementalCalcLatencyGauge = new RebalanceLatencyGauge(
+        WagedRebalancerMetricNames.GlobalBaselineIncrementalCalcLatencyGauge.name(),
+        getResetIntervalInMs());
     LatencyMetric partialRebalanceLatencyGauge =
         new RebalanceLatencyGauge(WagedRebalancerMetricNames.PartialRebalanceLatencyGauge.name(),
             getResetIntervalInMs());
@@ -119,6 +132,12 @@ public class WagedRebalancerMetricCollector extends MetricCollector {
         new RebalanceFailureCount(WagedRebalancerMetricNames.RebalanceFailureCounter.name());
     CountMetric globalBaselineCalcCounter =
         new RebalanceCounter(WagedRebalancerMetricNames.GlobalBaselineCalcCounter.name());
+    CountMetric globalBaselineFullCalcCounter =
+        new RebalanceCounter(WagedRebalancerMetricNames.GlobalBaselineFullCalcCounter.name());
+    CountMetric globalBaselineIncrementalCalcCounter = new RebalanceCounter(
+        WagedRebalancerMetricNames.GlobalBaselineIncrementalCalcCounter.name());
+    CountMetric globalBaselineIncrementalFallbackCounter = new RebalanceCounter(
+        WagedRebalancerMetricNames.GlobalBaselineIncrementalFallbackCounter.name());
     CountMetric partialRebalanceCounter =
         new RebalanceCounter(WagedRebalancerMetricNames.PartialRebalanceCounter.name());
     CountMetric emergencyRebalanceCounter =
@@ -128,6 +147,8 @@ public class WagedRebalancerMetricCollector extends MetricCollector {
 
     // Add metrics to WagedRebalancerMetricCollector
     addMetric(globalBaselineCalcLatencyGauge);
+    addMetric(globalBaselineFullCalcLatencyGauge);
+    addMetric(globalBaselineIncrementalCalcLatencyGauge);
     addMetric(partialRebalanceLatencyGauge);
     addMetric(emergencyRebalanceLatencyGauge);
     addMetric(rebalanceOverwriteLatencyGauge);
@@ -136,6 +157,9 @@ public class WagedRebalancerMetricCollector extends MetricCollector {
     addMetric(baselineDivergenceGauge);
     addMetric(calcFailureCount);
     addMetric(globalBaselineCalcCounter);
+    addMetric(globalBaselineFullCalcCounter);
+    addMetric(globalBaselineIncrementalCalcCounter);
+    addMetric(globalBaselineIncrementalFallbackCounter);
     addMetric(partialRebalanceCounter);
     addMetric(emergencyRebalanceCounter);
     addMetric(rebalanceOverwriteCounter);
@@ -0,0 +1,538 @@
+package org.apache.helix.spectator;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import org.apache.helix.PropertyType;
+import org.apache.helix.model.CurrentState;
+import org.apache.helix.model.ExternalView;
+import org.apache.helix.model.InstanceConfig;
+import org.apache.helix.model.LiveInstance;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An immutable RoutingTable that is optimized for the lookups.
+ *
+ * The instances are interned into an array that is sorted by the instance id, so every entry is
+ * recorded as the position of the instance. Once all the entries are recorded, each resource is
+ * compacted into a partition index and a partition x state table of the result lists. The result
+ * lists are immutable and sorted by the instance id, so the lookups return them as they are without
+ * any allocation or sorting.
+ *
+ * The table is never modified after construction, so it can be shared by the reader threads once it
+ * is published through the reference in the {@link RoutingTableProvider}. For the same reason, a new
+ * table can be derived from the previous one by rebuilding the changed resources only, and sharing
+ * the indexes of all the other resources.
+ */
+class CompactRoutingTable extends RoutingTable {
+  private static final Logger logger = LoggerFactory.getLogger(CompactRoutingTable.class);
+  // Rough 64-bit JVM sizes with compressed references, used for the heap estimation only.
+  private static final int OBJECT_HEADER_BYTES = 16;
+  private static final int REFERENCE_BYTES = 4;
+  private static final int MAP_ENTRY_BYTES = 32;
+
+  private final Map<String, InstanceConfig> _instanceConfigMap;
+  private final Map<String, ExternalView> _externalViewMap;
+  private final int _changedResourceCount;
+  private final Map<String, ResourceIndex> _resourceIndexMap;
+  private final Map<String, ResourceGroupIndex> _resourceGroupIndexMap;
+
+  public CompactRoutingTable(Collection<ExternalView> externalViews,
+      Collection<InstanceConfig> instanceConfigs, Collection<LiveInstance> liveInstances,
+      PropertyType propertyType) {
+    super(Collections.<ExternalView> emptyList(), instanceConfigs, liveInstances, propertyType);
+    _instanceConfigMap = toInstanceConfigMap(_instanceConfigs);
+    _externalViewMap = new HashMap<>();
+    IndexBuilder builder = new IndexBuilder(_instanceConfigs);
+    for (ExternalView extView : externalViews) {
+      _externalViewMap.put(extView.getId(), extView);
+      builder.addExternalView(extView, true, extView.isGroupRoutingEnabled());
+    }
+    _changedResourceCount = _externalViewMap.size();
+    _resourceIndexMap = builder.buildResourceIndexes();
+    _resourceGroupIndexMap = builder.buildResourceGroupIndexes();
+  }
+
+  /**
+   * Create a routing table by patching the previous table with the changed ExternalViews. The
+   * indexes of the unchanged resources and resource groups are shared with the previous table, so
+   * the cost is proportional to the changes instead of the cluster size.
+   * The data cache keeps the unchanged ExternalViews as they are on refresh, so the changed ones
+   * are found by comparing the references with the ExternalViews of the previous table.
+   * The previous table must have the same instances, see {@link #hasSameInstances(Collection)}.
+   */
+  public CompactRoutingTable(CompactRoutingTable previous, Collection<ExternalView> externalViews,
+      Collection<InstanceConfig> instanceConfigs, Collection<LiveInstance> liveInstances) {
+    super(Collections.<ExternalView> emptyList(), instanceConfigs, liveInstances,
+        previous.getPropertyType());
+    _instanceConfigMap = previous._instanceConfigMap;
+    _externalViewMap = new HashMap<>();
+    Set<String> changedResources = new HashSet<>();
+    for (ExternalView extView : externalViews) {
+      _externalViewMap.put(extView.getId(), extView);
+      if (previous._externalViewMap.get(extView.getId()) != extView) {
+        changedResources.add(extView.getId());
+      }
+    }
+    for (String resourceName : previous._externalViewMap.keySet()) {
+      if (!_externalViewMap.containsKey(resourceName)) {
+        changedResources.add(resourceName);
+      }
+    }
+    _changedResourceCount = changedResources.size();
+    _resourceIndexMap = new HashMap<>(previous._resourceIndexMap);
+    _resourceGroupIndexMap = new HashMap<>(previous._resourceGroupIndexMap);
+
+    // A resource group aggregates all its resources, so it is rebuilt if any of them changed.
+    Set<String> changedResourceGroups = new HashSet<>();
+    for (String resourceName : changedResources) {
+      _resourceIndexMap.remove(resourceName);
+      addResourceGroupName(previous._externalViewMap.get(resourceName), changedResourceGroups);
+      addResourceGroupName(_externalViewMap.get(resourceName), changedResourceGroups);
+    }
+    changedResourceGroups.forEach(_resourceGroupIndexMap::remove);
+
+    IndexBuilder builder = new IndexBuilder(_instanceConfigs);
+    for (String resourceName : changedResources) {
+      ExternalView extView = _externalViewMap.get(resourceName);
+      if (extView != null) {
+        builder.addExternalView(extView, true, false);
+      }
+    }
+    if (!changedResourceGroups.isEmpty()) {
+      for (ExternalView extView : _externalViewMap.values()) {
+        if (extView.isGroupRoutingEnabled()
+            && changedResourceGroups.contains(extView.getResourceGroupName())) {
+          builder.addExternalView(extView, false, true);
+        }
+      }
+    }
+    _resourceIndexMap.putAll(builder.buildResourceIndexes());
+    _resourceGroupIndexMap.putAll(builder.buildResourceGroupIndexes());
+  }
+
+  public CompactRoutingTable(Map<String, Map<String, Map<String, CurrentState>>> currentStateMap,
+      Collection<InstanceConfig> instanceConfigs, Collection<LiveInstance> liveInstances) {
+    super(Collections.<ExternalView> emptyList(), instanceConfigs, liveInstances,
+        PropertyType.CURRENTSTATES);
+    _instanceConfigMap = toInstanceConfigMap(_instanceConfigs);
+    _externalViewMap = Collections.emptyMap();
+    IndexBuilder builder = new IndexBuilder(_instanceConfigs);
+    if (currentStateMap != null) {
+      for (LiveInstance liveInstance : getLiveInstances()) {
+        String instanceName = liveInstance.getInstanceName();
+        if (!builder.containsInstance(instanceName)) {
+          logger.warn(
+              "Participant {} is not found with proper configuration information. It might already be removed from the cluster. "
+                  + "Skip recording partition assignments that are related to this instance.",
+              instanceName);
+          continue;
+        }
+        Map<String, Map<String, CurrentState>> sessionMap = currentStateMap.get(instanceName);
+        if (sessionMap == null || !sessionMap.containsKey(liveInstance.getEphemeralOwner())) {
+          continue;
+        }
+        for (CurrentState currentState : sessionMap.get(liveInstance.getEphemeralOwner())
+            .values()) {
+          for (Map.Entry<String, String> entry : currentState.getPartitionStateMap().entrySet()) {
+            builder.addEntry(currentState.getResourceName(), entry.getKey(), entry.getValue(),
+                instanceName);
+          }
+        }
+      }
+    }
+    _resourceIndexMap = builder.buildResourceIndexes();
+    _resourceGroupIndexMap = builder.buildResourceGroupIndexes();
+    _changedResourceCount = _resourceIndexMap.size();
+  }
+
+  /**
+   * @return true if the given instances are exactly the ones this table is built with, so a new
+   *         table can be derived from this one.
+   */
+  boolean hasSameInstances(Collection<InstanceConfig> instanceConfigs) {
+    if (instanceConfigs.size() != _instanceConfigMap.size()) {
+      return false;
+    }
+    for (InstanceConfig instanceConfig : instanceConfigs) {
+      if (_instanceConfigMap.get(instanceConfig.getId()) != instanceConfig) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @return the number of resources that were indexed when building this table
+   */
+  int getChangedResourceCount() {
+    return _changedResourceCount;
+  }
+
+  /**
+   * Estimate the heap retained by the indexes of this table. The indexes shared with the previous
+   * tables are counted as well, so this is the heap of the snapshot rather than the increment over
+   * the previous one. The InstanceConfigs and ExternalViews are owned by the data cache and are not
+   * counted.
+   * @return the estimated heap size of the indexes in bytes
+   */
+  long getEstimatedHeapBytes() {
+    long heapBytes = 0;
+    for (ResourceIndex resourceIndex : _resourceIndexMap.values()) {
+      heapBytes += MAP_ENTRY_BYTES + resourceIndex._estimatedHeapBytes;
+    }
+    for (ResourceGroupIndex groupIndex : _resourceGroupIndexMap.values()) {
+      heapBytes += MAP_ENTRY_BYTES + groupIndex._aggregatedIndex._estimatedHeapBytes;
+      for (ResourceIndex tagIndex : groupIndex._tagIndexMap.values()) {
+        heapBytes += MAP_ENTRY_BYTES + tagIndex._estimatedHeapBytes;
+      }
+    }
+    return heapBytes;
+  }
+
+  @Override
+  public Set<InstanceConfig> getInstancesForResource(String resourceName, String state) {
+    ResourceIndex resourceIndex = _resourceIndexMap.get(resourceName);
+    return resourceIndex == null ? Collections.<InstanceConfig> emptySet()
+        : resourceIndex.getInstances(state);
+  }
+
+  @Override
+  public List<InstanceConfig> getInstancesForResource(String resourceName, String partitionName,
+      String state) {
+    ResourceIndex resourceIndex = _resourceIndexMap.get(resourceName);
+    return resourceIndex == null ? Collections.<InstanceConfig> emptyList()
+        : resourceIndex.getInstances(partitionName, state);
+  }
+
+  @Override
+  public Set<InstanceConfig> getInstancesForResourceGroup(String resourceGroupName,
+      String state) {
+    ResourceGroupIndex groupIndex = _resourceGroupIndexMap.get(resourceGroupName);
+    return groupIndex == null ? Collections.<InstanceConfig> emptySet()
+        : groupIndex._aggregatedIndex.getInstances(state);
+  }
+
+  @Override
+  public Set<InstanceConfig> getInstancesForResourceGroup(String resourceGroupName, String state,
+      List<String> resourceTags) {
+    ResourceGroupIndex groupIndex = _resourceGroupIndexMap.get(resourceGroupName);
+    if (groupIndex == null) {
+      return Collections.emptySet();
+    }
+    Set<InstanceConfig> instanceSet = new HashSet<>();
+    for (String tag : resourceTags) {
+      ResourceIndex tagIndex = groupIndex._tagIndexMap.get(tag);
+      if (tagIndex != null) {
+        instanceSet.addAll(tagIndex.getInstances(state));
+      }
+    }
+    return instanceSet;
+  }
+
+  @Override
+  public List<InstanceConfig> getInstancesForResourceGroup(String resourceGroupName,
+      String partitionName, String state) {
+    ResourceGroupIndex groupIndex = _resourceGroupIndexMap.get(resourceGroupName);
+    return groupIndex == null ? Collections.<InstanceConfig> emptyList()
+        : groupIndex._aggregatedIndex.getInstances(partitionName, state);
+  }
+
+  @Override
+  public List<InstanceConfig> getInstancesForResourceGroup(String resourceGroupName,
+      String partitionName, String state, List<String> resourceTags) {
+    ResourceGroupIndex groupIndex = _resourceGroupIndexMap.get(resourceGroupName);
+    if (groupIndex == null) {
+      return Collections.emptyList();
+    }
+    List<InstanceConfig> instanceList = new ArrayList<>();
+    for (String tag : resourceTags) {
+      ResourceIndex tagIndex = groupIndex._tagIndexMap.get(tag);
+      if (tagIndex != null) {
+        instanceList.addAll(tagIndex.getInstances(partitionName, state));
+      }
+    }
+    return Collections.unmodifiableList(instanceList);
+  }
+
+  @Override
+  protected Collection<String> getResources() {
+    return Collections.unmodifiableCollection(_resourceIndexMap.keySet());
+  }
+
+  @Override
+  protected Collection<ExternalView> getExternalViews() {
+    return Collections.unmodifiableCollection(_externalViewMap.values());
+  }
+
+  private static Map<String, InstanceConfig> toInstanceConfigMap(
+      Collection<InstanceConfig> instanceConfigs) {
+    Map<String, InstanceConfig> instanceConfigMap = new HashMap<>();
+    for (InstanceConfig instanceConfig : instanceConfigs) {
+      instanceConfigMap.put(instanceConfig.getId(), instanceConfig);
+    }
+    return instanceConfigMap;
+  }
+
+  private static void addResourceGroupName(ExternalView extView, Set<String> resourceGroups) {
+    if (extView != null && extView.isGroupRoutingEnabled()) {
+      resourceGroups.add(extView.getResourceGroupName());
+    }
+  }
+
+  /**
+   * The compacted partition and state assignment of a resource, or of the resources in a group.
+   */
+  private static class ResourceIndex {
+    private final Map<String, Integer> _partitionPositions;
+    private final String[] _states;
+    // [partition][state] -> the instances in the state, or null if there is none
+    private final List<InstanceConfig>[][] _partitionStateInstances;
+    // [state] -> the instances that have any partition in the state
+    private final Set<InstanceConfig>[] _stateInstances;
+    private final long _estimatedHeapBytes;
+
+    private ResourceIndex(Map<String, Integer> partitionPositions, String[] states,
+        List<InstanceConfig>[][] partitionStateInstances, Set<InstanceConfig>[] stateInstances) {
+      _partitionPositions = partitionPositions;
+      _states = states;
+      _partitionStateInstances = partitionStateInstances;
+      _stateInstances = stateInstances;
+      _estimatedHeapBytes = estimateHeapBytes();
+    }
+
+    private long estimateHeapBytes() {
+      // The partition names and the states are owned by the source records, only the references
+      // are counted.
+      long heapBytes = OBJECT_HEADER_BYTES
+          + (long) _partitionPositions.size() * (MAP_ENTRY_BYTES + OBJECT_HEADER_BYTES)
+          + OBJECT_HEADER_BYTES + (long) _states.length * REFERENCE_BYTES;
+      for (List<InstanceConfig>[] stateInstances : _partitionStateInstances) {
+        heapBytes += OBJECT_HEADER_BYTES + (long) stateInstances.length * REFERENCE_BYTES;
+        for (List<InstanceConfig> instances : stateInstances) {
+          if (instances != null) {
+            heapBytes += 2 * OBJECT_HEADER_BYTES + (long) instances.size() * REFERENCE_BYTES;
+          }
+        }
+      }
+      for (Set<InstanceConfig> instances : _stateInstances) {
+        // An immutable set keeps both the element array and the hash table.
+        heapBytes += 3 * OBJECT_HEADER_BYTES + (long) instances.size() * 3 * REFERENCE_BYTES;
+      }
+      return heapBytes;
+    }
+
+    List<InstanceConfig> getInstances(String partitionName, String state) {
+      Integer partitionPosition = _partitionPositions.get(partitionName);
+      int statePosition = getStatePosition(state);
+      if (partitionPosition == null || statePosition < 0) {
+        return Collections.emptyList();
+      }
+      List<InstanceConfig> instances = _partitionStateInstances[partitionPosition][statePosition];
+      return instances == null ? Collections.<InstanceConfig> emptyList() : instances;
+    }
+
+    Set<InstanceConfig> getInstances(String state) {
+      int statePosition = getStatePosition(state);
+      return statePosition < 0 ? Collections.<InstanceConfig> emptySet()
+          : _stateInstances[statePosition];
+    }
+
+    private int getStatePosition(String state) {
+      // A state model has only a handful of states, so a scan is cheaper than a hash lookup.
+      for (int i = 0; i < _states.length; i++) {
+        if (_states[i].equals(state)) {
+          return i;
+        }
+      }
+      return -1;
+    }
+  }
+
+  private static class ResourceGroupIndex {
+    private final ResourceIndex _aggregatedIndex;
+    private final Map<String, ResourceIndex> _tagIndexMap;
+
+    private ResourceGroupIndex(ResourceIndex aggregatedIndex,
+        Map<String, ResourceIndex> tagIndexMap) {
+      _aggregatedIndex = aggregatedIndex;
+      _tagIndexMap = tagIndexMap;
+    }
+  }
+
+  /**
+   * Records the entries by the interned instance positions, and compacts them into the indexes.
+   */
+  private static class IndexBuilder {
+    private final InstanceConfig[] _instances;
+    private final Map<String, Integer> _instancePositions;
+    private final Map<String, ResourceEntries> _resourceEntries = new HashMap<>();
+    private final Map<String, ResourceEntries> _groupEntries = new HashMap<>();
+    private final Map<String, Map<String, ResourceEntries>> _groupTagEntries = new HashMap<>();
+
+    IndexBuilder(Collection<InstanceConfig> instanceConfigs) {
+      _instances = instanceConfigs.toArray(new InstanceConfig[0]);
+      Arrays.sort(_instances, (config1, config2) -> config1.getId().compareTo(config2.getId()));
+      _instancePositions = new HashMap<>();
+      for (int i = 0; i < _instances.length; i++) {
+        _instancePositions.put(_instances[i].getId(), i);
+      }
+    }
+
+    boolean containsInstance(String instanceName) {
+      return _instancePositions.containsKey(instanceName);
+    }
+
+    void addEntry(String resourceName, String partitionName, String state, String instanceName) {
+      Integer instancePosition = getInstancePosition(instanceName, partitionName, state);
+      if (instancePosition != null) {
+        _resourceEntries.computeIfAbsent(resourceName, k -> new ResourceEntries())
+            .add(partitionName, state, instancePosition);
+      }
+    }
+
+    void addExternalView(ExternalView extView, boolean includeResource,
+        boolean includeResourceGroup) {
+      String resourceName = extView.getId();
+      String resourceGroupName = extView.getResourceGroupName();
+      String resourceTag = extView.getInstanceGroupTag();
+      for (String partitionName : extView.getPartitionSet()) {
+        for (Map.Entry<String, String> entry : extView.getStateMap(partitionName).entrySet()) {
+          String state = entry.getValue();
+          Integer instancePosition = getInstancePosition(entry.getKey(), partitionName, state);
+          if (instancePosition == null) {
+            continue;
+          }
+          if (includeResource) {
+            _resourceEntries.computeIfAbsent(resourceName, k -> new ResourceEntries())
+                .add(partitionName, state, instancePosition);
+          }
+          if (includeResourceGroup) {
+            _groupEntries.computeIfAbsent(resourceGroupName, k -> new ResourceEntries())
+                .add(partitionName, state, instancePosition);
+            _groupTagEntries.computeIfAbsent(resourceGroupName, k -> new HashMap<>())
+                .computeIfAbsent(resourceTag, k -> new ResourceEntries())
+                .add(partitionName, state, instancePosition);
+          }
+        }
+      }
+    }
+
+    Map<String, ResourceIndex> buildResourceIndexes() {
+      Map<String, ResourceIndex> indexes = new HashMap<>();
+      _resourceEntries.forEach((resourceName, entries) -> indexes.put(resourceName, build(entries)));
+      return indexes;
+    }
+
+    Map<String, ResourceGroupIndex> buildResourceGroupIndexes() {
+      Map<String, ResourceGroupIndex> indexes = new HashMap<>();
+      _groupEntries.forEach((groupName, entries) -> {
+        Map<String, ResourceIndex> tagIndexMap = new HashMap<>();
+        _groupTagEntries.get(groupName)
+            .forEach((tag, tagEntries) -> tagIndexMap.put(tag, build(tagEntries)));
+        indexes.put(groupName, new ResourceGroupIndex(build(entries), tagIndexMap));
+      });
+      return indexes;
+    }
+
+    private Integer getInstancePosition(String instanceName, String partitionName,
+        String state) {
+      Integer instancePosition = _instancePositions.get(instanceName);
+      if (instancePosition == null) {
+        logger.warn(
+            "Participant {} is not found with proper configuration information. It might already be removed from the cluster. "
+                + "Skip recording partition assignment entry: Partition {}, Participant {}, State {}.",
+            instanceName, partitionName, instanceName, state);
+      }
+      return instancePosition;
+    }
+
+    @SuppressWarnings("unchecked")
+    private ResourceIndex build(ResourceEntries entries) {
+      String[] states = entries._states.toArray(new String[0]);
+      Map<String, Integer> partitionPositions = new HashMap<>();
+      List<InstanceConfig>[][] partitionStateInstances =
+          new List[entries._partitionStateEntries.size()][];
+      int partitionPosition = 0;
+      for (Map.Entry<String, Map<String, List<Integer>>> partitionEntry : entries._partitionStateEntries
+          .entrySet()) {
+        partitionPositions.put(partitionEntry.getKey(), partitionPosition);
+        List<InstanceConfig>[] stateInstances = new List[states.length];
+        for (int statePosition = 0; statePosition < states.length; statePosition++) {
+          List<Integer> instancePositions = partitionEntry.getValue().get(states[statePosition]);
+          if (instancePositions != null) {
+            stateInstances[statePosition] = toSortedInstances(instancePositions);
+          }
+        }
+        partitionStateInstances[partitionPosition++] = stateInstances;
+      }
+
+      Set<InstanceConfig>[] stateInstanceSets = new Set[states.length];
+      for (int statePosition = 0; statePosition < states.length; statePosition++) {
+        stateInstanceSets[statePosition] = ImmutableSet.copyOf(
+            toSortedInstances(entries._stateEntries.get(states[statePosition])));
+      }
+      return new ResourceIndex(partitionPositions, states, partitionStateInstances,
+          stateInstanceSets);
+    }
+
+    private List<InstanceConfig> toSortedInstances(Collection<Integer> instancePositions) {
+      // The instances are sorted by id, so sorting the positions sorts the instances.
+      int[] positions = new int[instancePositions.size()];
+      int i = 0;
+      for (int position : instancePositions) {
+        positions[i++] = position;
+      }
+      Arrays.sort(positions);
+      ImmutableList.Builder<InstanceConfig> builder = ImmutableList.builder();
+      for (int position : positions) {
+        builder.add(_instances[position]);
+      }
+      return builder.build();
+    }
+  }
+
+  private static class ResourceEntries {
+    private final Set<String> _states = new HashSet<>();
+    private final Map<String, Map<String, List<Integer>>> _partitionStateEntries =
+        new LinkedHashMap<>();
+    private final Map<String, Set<Integer>> _stateEntries = new HashMap<>();
+
+    void add(String partitionName, String state, int instancePosition) {
+      _states.add(state);
+      _partitionStateEntries.computeIfAbsent(partitionName, k -> new HashMap<>())
+          .computeIfAbsent(state, k -> new ArrayList<>()).add(instancePosition);
+      _stateEntries.computeIfAbsent(state, k -> new HashSet<>()).add(instancePosition);
+    }
+  }
+}
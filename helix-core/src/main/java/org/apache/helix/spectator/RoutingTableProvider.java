@@ -79,6 +79,9 @@ public class RoutingTableProvider
   private final Map<PropertyType, List<String>> _sourceDataTypeMap;
   private final Map<RoutingTableChangeListener, ListenerContext> _routingTableChangeListenerMap;
   private final Map<PropertyType, RoutingTableProviderMonitor> _monitorMap;
+  // Only set if this provider subscribes to a shared routing data source
+  private final SharedRoutingDataSource _sharedSource;
+  private final RoutingTableChangeListener _sharedSourceListener;
 
   // For periodic refresh
   private long _lastRefreshTimestamp;
@@ -94,7 +97,7 @@ public class RoutingTableProvider
 
 
   public RoutingTableProvider() {
-    this(null);
+    this((HelixManager) null);
   }
 
   public RoutingTableProvider(HelixManager helixManager) throws HelixException {
@@ -142,6 +145,8 @@ public class RoutingTableProvider
 
     _routingTableRefMap = new HashMap<>();
     _helixManager = helixManager;
+    _sharedSource = null;
+    _sharedSourceListener = null;
     _sourceDataTypeMap = sourceDataTypeMap;
     _routingTableChangeListenerMap = new ConcurrentHashMap<>();
     String clusterName = _helixManager != null ? _helixManager.getClusterName() : null;
@@ -217,6 +222,49 @@ public class RoutingTableProvider
     }
   }
 
+  /**
+   * Initialize a RoutingTableProvider that subscribes to a shared routing data source. It reads
+   * the routing tables and queues the refresh events of the source's internal provider, and
+   * relays the routing table changes to its own listeners.
+   * @param sharedSource
+   */
+  private RoutingTableProvider(SharedRoutingDataSource sharedSource) {
+    RoutingTableProvider sourceProvider = sharedSource.getProvider();
+    _routingTableRefMap = sourceProvider._routingTableRefMap;
+    _helixManager = sourceProvider._helixManager;
+    _routerUpdater = sourceProvider._routerUpdater;
+    _sourceDataTypeMap = sourceProvider._sourceDataTypeMap;
+    _monitorMap = sourceProvider._monitorMap;
+    _routingTableChangeListenerMap = new ConcurrentHashMap<>();
+    _isPeriodicRefreshEnabled = false;
+    _sharedSource = sharedSource;
+    _sharedSourceListener =
+        (routingTableSnapshot, context) -> dispatchRoutingTableChange(routingTableSnapshot);
+    sourceProvider.addRoutingTableChangeListener(_sharedSourceListener, null);
+  }
+
+  /**
+   * Create a RoutingTableProvider that shares the routing data with all the other shared providers
+   * of the same ZK address, cluster and source data types in this JVM. The cluster data is watched,
+   * read and indexed once over a dedicated spectator connection no matter how many providers are
+   * created, and the same routing table snapshots are handed to all of them.
+   * The shared data is released once all the providers are shutdown.
+   * @param zkAddress
+   * @param clusterName
+   * @param sourceDataTypeMap
+   * @return the new RoutingTableProvider
+   * @throws HelixException if the shared data source cannot be created
+   */
+  public static RoutingTableProvider createShared(String zkAddress, String clusterName,
+      Map<PropertyType, List<String>> sourceDataTypeMap) throws HelixException {
+    if (zkAddress == null || clusterName == null || sourceDataTypeMap == null) {
+      throw new IllegalArgumentException("The zkAddress, clusterName and sourceDataTypeMap of a "
+          + "shared RoutingTableProvider should not be null");
+    }
+    return new RoutingTableProvider(
+        SharedRoutingDataSource.acquire(zkAddress, clusterName, sourceDataTypeMap));
+  }
+
   /**
    * A method that adds the ChangeListeners to HelixManager
    */
@@ -320,6 +368,14 @@ public class RoutingTableProvider
    * Shutdown current RoutingTableProvider. Once it is shutdown, it should never be reused.
    */
   public void shutdown() {
+    if (_sharedSource != null) {
+      // The shared data is owned by the source, only drop the subscription once.
+      if (_sharedSource.getProvider().removeRoutingTableChangeListener(_sharedSourceListener)
+          != null) {
+        _sharedSource.release();
+      }
+      return;
+    }
     if (_periodicRefreshExecutor != null) {
       _periodicRefreshExecutor.purge();
       _periodicRefreshExecutor.shutdown();
@@ -819,9 +875,25 @@ public class RoutingTableProvider
       Collection<InstanceConfig> instanceConfigs, Collection<LiveInstance> liveInstances,
       String referenceKey) {
     long startTime = System.currentTimeMillis();
-    PropertyType propertyType = _routingTableRefMap.get(referenceKey).get().getPropertyType();
-    RoutingTable newRoutingTable =
-        new RoutingTable(externalViews, instanceConfigs, liveInstances, propertyType);
+    RoutingTable currentRoutingTable = _routingTableRefMap.get(referenceKey).get();
+    PropertyType propertyType = currentRoutingTable.getPropertyType();
+    CompactRoutingTable newRoutingTable;
+    // Only the changed resources need to be indexed again if the instances are not changed.
+    boolean isIncremental = currentRoutingTable instanceof CompactRoutingTable
+        && ((CompactRoutingTable) currentRoutingTable).hasSameInstances(instanceConfigs);
+    if (isIncremental) {
+      newRoutingTable = new CompactRoutingTable((CompactRoutingTable) currentRoutingTable,
+          externalViews, instanceConfigs, liveInstances);
+    } else {
+      newRoutingTable =
+          new CompactRoutingTable(externalViews, instanceConfigs, liveInstances, propertyType);
+    }
+    RoutingTableProviderMonitor monitor = _monitorMap.get(propertyType);
+    if (monitor != null) {
+      monitor.increaseRoutingTableRefreshCounters(isIncremental,
+          newRoutingTable.getChangedResourceCount());
+      monitor.updateRoutingTableHeapBytes(newRoutingTable.getEstimatedHeapBytes());
+    }
     resetRoutingTableAndNotify(startTime, newRoutingTable, referenceKey);
   }
 
@@ -840,8 +912,12 @@ public class RoutingTableProvider
       Collection<InstanceConfig> instanceConfigs, Collection<LiveInstance> liveInstances,
       String referenceKey) {
     long startTime = System.currentTimeMillis();
-    RoutingTable newRoutingTable =
-        new RoutingTable(currentStateMap, instanceConfigs, liveInstances);
+    CompactRoutingTable newRoutingTable =
+        new CompactRoutingTable(currentStateMap, instanceConfigs, liveInstances);
+    RoutingTableProviderMonitor monitor = _monitorMap.get(PropertyType.CURRENTSTATES);
+    if (monitor != null) {
+      monitor.updateRoutingTableHeapBytes(newRoutingTable.getEstimatedHeapBytes());
+    }
     resetRoutingTableAndNotify(startTime, newRoutingTable, referenceKey);
   }
 
@@ -866,14 +942,28 @@ public class RoutingTableProvider
     // record time spent
     // here. Potentially, we should call this callback in a separate thread if this is a bottleneck.
     long startTime = System.currentTimeMillis();
+    dispatchRoutingTableChange(
+        new RoutingTableSnapshot(_routingTableRefMap.get(referenceKey).get()));
+    logger.info("RoutingTableProvider user callback time for cluster {}, took {} ms.", clusterName,
+        (System.currentTimeMillis() - startTime));
+  }
+
+  private void dispatchRoutingTableChange(RoutingTableSnapshot routingTableSnapshot) {
+    // The snapshot is immutable, so all the listeners can share it.
     for (Map.Entry<RoutingTableChangeListener, ListenerContext> entry : _routingTableChangeListenerMap
         .entrySet()) {
-      entry.getKey().onRoutingTableChange(
-          new RoutingTableSnapshot(_routingTableRefMap.get(referenceKey).get()),
-          entry.getValue().getContext());
+      entry.getKey().onRoutingTableChange(routingTableSnapshot, entry.getValue().getContext());
+    }
+  }
+
+  /**
+   * Report the number of providers that subscribe to the routing data of this provider.
+   * @param sharedProviderCount
+   */
+  void reportSharedProviderCount(int sharedProviderCount) {
+    for (RoutingTableProviderMonitor monitor : _monitorMap.values()) {
+      monitor.updateSharedProviderCount(sharedProviderCount);
     }
-    logger.info("RoutingTableProvider user callback time for cluster {}, took {} ms.", clusterName,
-        (System.currentTimeMillis() - startTime));
   }
 
   private class RouterUpdater extends ClusterEventProcessor {
@@ -0,0 +1,179 @@
+package org.apache.helix.spectator;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import org.apache.helix.HelixException;
+import org.apache.helix.HelixManager;
+import org.apache.helix.HelixManagerFactory;
+import org.apache.helix.InstanceType;
+import org.apache.helix.PropertyType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The routing data of a cluster that is shared by all the {@link RoutingTableProvider}s created by
+ * {@link RoutingTableProvider#createShared} in this JVM with the same ZK address, cluster and
+ * source data types. The data is watched, read and indexed only once by an internal provider over
+ * a dedicated spectator connection, and its routing tables are shared by all the subscribers.
+ *
+ * The source is reference counted. It is created by the first subscriber, and closed once the last
+ * subscriber is shut down.
+ */
+class SharedRoutingDataSource {
+  private static final Logger logger = LoggerFactory.getLogger(SharedRoutingDataSource.class);
+  private static final String INSTANCE_NAME_PREFIX = "SharedRoutingDataSource_";
+  // All the open sources, keyed by the ZK address, cluster name and source data types.
+  private static final Map<String, SharedRoutingDataSource> SOURCES = new HashMap<>();
+
+  private final String _key;
+  private final String _zkAddress;
+  private final String _clusterName;
+  private final Map<PropertyType, List<String>> _sourceDataTypeMap;
+  // Set by the first subscriber that connects the source, guarded by this
+  private HelixManager _helixManager;
+  private volatile RoutingTableProvider _provider;
+  // Guarded by SOURCES
+  private int _refCount = 0;
+
+  private SharedRoutingDataSource(String key, String zkAddress, String clusterName,
+      Map<PropertyType, List<String>> sourceDataTypeMap) {
+    _key = key;
+    _zkAddress = zkAddress;
+    _clusterName = clusterName;
+    _sourceDataTypeMap = sourceDataTypeMap;
+  }
+
+  /**
+   * Subscribe to the shared routing data of a cluster, creating the source if there is none yet.
+   * Each call must be paired with a {@link #release()}.
+   * @param zkAddress the ZK address of the cluster
+   * @param clusterName the cluster name
+   * @param sourceDataTypeMap the source data types of the routing tables
+   * @return the shared source
+   */
+  static SharedRoutingDataSource acquire(String zkAddress, String clusterName,
+      Map<PropertyType, List<String>> sourceDataTypeMap) {
+    String key = generateKey(zkAddress, clusterName, sourceDataTypeMap);
+    SharedRoutingDataSource source;
+    synchronized (SOURCES) {
+      source = SOURCES.get(key);
+      if (source == null) {
+        source = new SharedRoutingDataSource(key, zkAddress, clusterName, sourceDataTypeMap);
+        SOURCES.put(key, source);
+        logger.info("Created the shared routing data source {}.", key);
+      }
+      source._refCount++;
+    }
+    // Connect outside of the SOURCES lock, so that a slow connection only blocks the subscribers
+    // of this source.
+    try {
+      source.connect();
+    } catch (RuntimeException e) {
+      source.release();
+      throw e;
+    }
+    synchronized (SOURCES) {
+      source._provider.reportSharedProviderCount(source._refCount);
+    }
+    return source;
+  }
+
+  /**
+   * Unsubscribe from the shared routing data. The source is closed by the last subscriber.
+   */
+  void release() {
+    synchronized (SOURCES) {
+      _refCount--;
+      if (_refCount > 0) {
+        if (_provider != null) {
+          _provider.reportSharedProviderCount(_refCount);
+        }
+        return;
+      }
+      SOURCES.remove(_key);
+    }
+    logger.info("Closing the shared routing data source {}.", _key);
+    close();
+  }
+
+  /**
+   * Connect the source if no subscriber did it yet. If the connection fails, the next subscriber
+   * tries again.
+   */
+  private synchronized void connect() {
+    if (_provider != null) {
+      return;
+    }
+    HelixManager helixManager = HelixManagerFactory.getZKHelixManager(_clusterName,
+        INSTANCE_NAME_PREFIX + UUID.randomUUID(), InstanceType.SPECTATOR, _zkAddress);
+    try {
+      helixManager.connect();
+    } catch (Exception e) {
+      helixManager.disconnect();
+      throw new HelixException(
+          String.format("Failed to connect the shared routing data source of cluster %s to %s",
+              _clusterName, _zkAddress), e);
+    }
+    try {
+      _provider = new RoutingTableProvider(helixManager, _sourceDataTypeMap);
+    } catch (RuntimeException e) {
+      helixManager.disconnect();
+      throw e;
+    }
+    _helixManager = helixManager;
+  }
+
+  private synchronized void close() {
+    if (_provider == null) {
+      return;
+    }
+    _provider.shutdown();
+    _helixManager.disconnect();
+    _provider = null;
+    _helixManager = null;
+  }
+
+  /**
+   * @return the internal provider that maintains the shared routing tables
+   */
+  RoutingTableProvider getProvider() {
+    return _provider;
+  }
+
+  private static String generateKey(String zkAddress, String clusterName,
+      Map<PropertyType, List<String>> sourceDataTypeMap) {
+    // Normalize the source data types so the same set of types always maps to the same source.
+    Map<PropertyType, List<String>> sortedTypeMap = new TreeMap<>();
+    for (Map.Entry<PropertyType, List<String>> entry : sourceDataTypeMap.entrySet()) {
+      List<String> stateTypes = new ArrayList<>(entry.getValue());
+      Collections.sort(stateTypes);
+      sortedTypeMap.put(entry.getKey(), stateTypes);
+    }
+    return String.format("%s/%s%s", zkAddress, clusterName, sortedTypeMap);
+  }
+}
@@ -21,6 +21,7 @@ package org.apache.helix.task;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
@@ -38,6 +39,7 @@ import org.apache.helix.model.Message;
 import org.apache.helix.model.Partition;
 import org.apache.helix.model.Resource;
 import org.apache.helix.task.assigner.AssignableInstance;
+import org.apache.helix.task.assigner.InstanceCapacityIndex;
 import org.apache.helix.task.assigner.TaskAssignResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -59,6 +61,10 @@ public class AssignableInstanceManager {
   // This map is quota type -> remaining global quota
   private Map<String, Integer> _globalThreadBasedQuotaMap;
 
+  // AssignableInstances ordered by remaining thread capacity per quota type. Kept up to date on
+  // every assign/release so that task assigners do not need to sort instances on every call
+  private final InstanceCapacityIndex _capacityIndex;
+
   /**
    * Basic constructor for AssignableInstanceManager to allow an empty instantiation.
    * buildAssignableInstances() must be explicitly called after instantiation.
@@ -67,6 +73,7 @@ public class AssignableInstanceManager {
     _assignableInstanceMap = new ConcurrentHashMap<>();
     _taskAssignResultMap = new ConcurrentHashMap<>();
     _globalThreadBasedQuotaMap = new ConcurrentHashMap<>();
+    _capacityIndex = new InstanceCapacityIndex();
   }
 
   /**
@@ -499,7 +506,9 @@ public class AssignableInstanceManager {
       quotaType = AssignableInstance.DEFAULT_QUOTA_TYPE;
     }
     if (_assignableInstanceMap.containsKey(instanceName)) {
-      _assignableInstanceMap.get(instanceName).release(taskConfig, quotaType);
+      AssignableInstance assignableInstance = _assignableInstanceMap.get(instanceName);
+      assignableInstance.release(taskConfig, quotaType);
+      _capacityIndex.refresh(assignableInstance);
     }
 
     if (_globalThreadBasedQuotaMap.containsKey(quotaType)) {
@@ -531,8 +540,10 @@ public class AssignableInstanceManager {
    */
   public void assign(String instanceName, TaskAssignResult result) throws IllegalStateException {
     if (result != null && _assignableInstanceMap.containsKey(instanceName)) {
-      _assignableInstanceMap.get(instanceName).assign(result);
+      AssignableInstance assignableInstance = _assignableInstanceMap.get(instanceName);
+      assignableInstance.assign(result);
       _taskAssignResultMap.put(result.getTaskConfig().getId(), result);
+      _capacityIndex.refresh(assignableInstance);
     }
 
     if (_globalThreadBasedQuotaMap.containsKey(result.getQuotaType())) {
@@ -541,6 +552,52 @@ public class AssignableInstanceManager {
     }
   }
 
+  /**
+   * Assigns the given tasks in one pass. Every task is offered to the eligible instance that has
+   * the most remaining capacity of the given quota type, which is looked up in the capacity index
+   * instead of sorting all instances again. Successful results are assigned right away.
+   * @param instances names of the instances eligible for the tasks
+   * @param tasks TaskConfigs of the same quota type
+   * @param quotaType quota type of the tasks
+   * @return taskID -> TaskAssignResult mappings
+   */
+  public Map<String, TaskAssignResult> assignTasks(Collection<String> instances,
+      Iterable<TaskConfig> tasks, String quotaType) {
+    Set<String> candidates =
+        instances instanceof Set ? (Set<String>) instances : new HashSet<>(instances);
+    Map<String, TaskAssignResult> assignResults = new HashMap<>();
+    for (TaskConfig task : tasks) {
+      if (assignResults.containsKey(task.getId())) {
+        LOG.warn("Duplicated task assignment {}", task);
+        continue;
+      }
+      String instanceName = _capacityIndex.pollMostAvailable(quotaType, candidates);
+      AssignableInstance assignableInstance =
+          instanceName == null ? null : _assignableInstanceMap.get(instanceName);
+      if (assignableInstance == null) {
+        assignResults.put(task.getId(),
+            new TaskAssignResult(task, quotaType, null, false, 0,
+                TaskAssignResult.FailureReason.INSUFFICIENT_QUOTA,
+                "No assignable instance to assign"));
+        continue;
+      }
+      TaskAssignResult result = assignableInstance.tryAssign(task, quotaType);
+      assignResults.put(task.getId(), result);
+      if (result.isSuccessful()) {
+        assign(instanceName, result);
+      }
+    }
+    return assignResults;
+  }
+
+  /**
+   * Returns the index of AssignableInstances ordered by remaining capacity.
+   * @return capacity index
+   */
+  public InstanceCapacityIndex getCapacityIndex() {
+    return _capacityIndex;
+  }
+
   /**
    * Get all the AssignableInstance names
    * @return
@@ -617,6 +674,7 @@ public class AssignableInstanceManager {
   }
 
   private void computeGlobalThreadBasedCapacity() {
+    _capacityIndex.rebuild(_assignableInstanceMap.values());
     _globalThreadBasedQuotaMap.clear();
     for (AssignableInstance assignableInstance : _assignableInstanceMap.values()) {
       Map<String, Map<String, Integer>> capacityMap = assignableInstance.getTotalCapacity();
@@ -0,0 +1,217 @@
+package org.apache.helix.task;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import com.google.common.base.Joiner;
+import com.google.common.base.Splitter;
+import org.apache.helix.zookeeper.datamodel.ZNRecord;
+
+/**
+ * Encodes the per-partition fields of a large {@link JobContext} into buckets, so the context of
+ * a job with many tasks is not limited by the ZNode size and a change of a few tasks only
+ * rewrites the buckets that contain them.
+ *
+ * A bucketed context is stored as a header record in the context node, which has the simple and
+ * list fields of the context, the bucket size and the version of every bucket, and no map fields.
+ * Bucket i is stored in the node {@link TaskConstants#CONTEXT_BUCKETS_NODE}/i next to the context
+ * node and holds the partitions [i * bucketSize, (i + 1) * bucketSize). The partitions of a bucket
+ * are encoded as columns: one list field per context field, aligned with the partition list, so
+ * the field names are not repeated per partition. The bucket records are compressed when they are
+ * written.
+ *
+ * The decoded context is a plain context record with all the map fields, so the readers and the
+ * writers of the context don't need to know about the buckets.
+ */
+public class JobContextBucketCodec {
+  /**
+   * The number of partitions in a bucket.
+   */
+  public static final int DEFAULT_BUCKET_SIZE = 1000;
+
+  private static final String BUCKET_SIZE = "PARTITION_BUCKET_SIZE";
+  private static final String BUCKET_VERSIONS = "PARTITION_BUCKET_VERSIONS";
+  private static final String BUCKET_PARTITIONS = "PARTITIONS";
+  private static final String BUCKET_VERSION = "VERSION";
+  // Marks a field that is not set for the partition in a column
+  private static final String ABSENT_VALUE = "\u0000";
+
+  private JobContextBucketCodec() {
+  }
+
+  /**
+   * @return true if the context record is the header of a bucketed context
+   */
+  public static boolean isBucketed(ZNRecord contextRecord) {
+    return contextRecord != null && contextRecord.getSimpleField(BUCKET_SIZE) != null;
+  }
+
+  /**
+   * @return the bucket versions that the header of a bucketed context refers to
+   */
+  public static List<String> getBucketVersions(ZNRecord header) {
+    List<String> versions = header.getListField(BUCKET_VERSIONS);
+    return versions == null ? Collections.<String> emptyList() : versions;
+  }
+
+  /**
+   * @return the version of a bucket record
+   */
+  public static String getVersion(ZNRecord bucket) {
+    return bucket.getSimpleField(BUCKET_VERSION);
+  }
+
+  /**
+   * @return the path of the bucket node, relative to the node of the job
+   */
+  public static String getBucketPath(String jobPath, int bucketIndex) {
+    return Joiner.on("/").join(jobPath, TaskConstants.CONTEXT_BUCKETS_NODE, bucketIndex);
+  }
+
+  /**
+   * Encode the partitions of a plain context record into buckets. The buckets have no version.
+   * @param contextRecord the plain context record
+   * @param bucketSize the number of partitions in a bucket
+   * @return the buckets, indexed by the bucket number
+   */
+  public static List<ZNRecord> encodeBuckets(ZNRecord contextRecord, int bucketSize) {
+    List<Map<Integer, Map<String, String>>> bucketPartitions = new ArrayList<>();
+    for (Map.Entry<String, Map<String, String>> entry : contextRecord.getMapFields().entrySet()) {
+      int partition = Integer.parseInt(entry.getKey());
+      int bucketIndex = partition / bucketSize;
+      while (bucketPartitions.size() <= bucketIndex) {
+        bucketPartitions.add(new TreeMap<>());
+      }
+      bucketPartitions.get(bucketIndex).put(partition, entry.getValue());
+    }
+
+    List<ZNRecord> buckets = new ArrayList<>(bucketPartitions.size());
+    for (int i = 0; i < bucketPartitions.size(); i++) {
+      buckets.add(encodeBucket(contextRecord.getId(), i, bucketPartitions.get(i)));
+    }
+    return buckets;
+  }
+
+  /**
+   * @return true if the two buckets have the same partitions and fields, regardless of the versions
+   */
+  public static boolean hasSameContent(ZNRecord bucket1, ZNRecord bucket2) {
+    return bucket1.getSimpleField(BUCKET_PARTITIONS)
+        .equals(bucket2.getSimpleField(BUCKET_PARTITIONS))
+        && bucket1.getListFields().equals(bucket2.getListFields());
+  }
+
+  /**
+   * Set the version of a bucket.
+   */
+  public static void setVersion(ZNRecord bucket, String version) {
+    bucket.setSimpleField(BUCKET_VERSION, version);
+  }
+
+  /**
+   * Build the header of a bucketed context.
+   * @param contextRecord the plain context record
+   * @param bucketSize the number of partitions in a bucket
+   * @param buckets the buckets of the context, with the versions
+   * @return the header record
+   */
+  public static ZNRecord buildHeader(ZNRecord contextRecord, int bucketSize,
+      List<ZNRecord> buckets) {
+    ZNRecord header = new ZNRecord(contextRecord.getId());
+    header.getSimpleFields().putAll(contextRecord.getSimpleFields());
+    header.getListFields().putAll(contextRecord.getListFields());
+    header.setSimpleField(BUCKET_SIZE, String.valueOf(bucketSize));
+    List<String> versions = new ArrayList<>(buckets.size());
+    for (ZNRecord bucket : buckets) {
+      versions.add(getVersion(bucket));
+    }
+    header.setListField(BUCKET_VERSIONS, versions);
+    return header;
+  }
+
+  /**
+   * Decode a bucketed context into a plain context record.
+   * @param header the header of the bucketed context
+   * @param buckets the buckets of the context, a null bucket is considered empty
+   * @return the plain context record
+   */
+  public static ZNRecord decode(ZNRecord header, List<ZNRecord> buckets) {
+    ZNRecord contextRecord = new ZNRecord(header.getId());
+    contextRecord.getSimpleFields().putAll(header.getSimpleFields());
+    contextRecord.getListFields().putAll(header.getListFields());
+    contextRecord.getSimpleFields().remove(BUCKET_SIZE);
+    contextRecord.getListFields().remove(BUCKET_VERSIONS);
+    for (ZNRecord bucket : buckets) {
+      if (bucket != null) {
+        decodeBucket(bucket, contextRecord.getMapFields());
+      }
+    }
+    return contextRecord;
+  }
+
+  private static ZNRecord encodeBucket(String contextId, int bucketIndex,
+      Map<Integer, Map<String, String>> partitions) {
+    ZNRecord bucket = new ZNRecord(contextId + "_" + bucketIndex);
+    bucket.setBooleanField(ZNRecord.ENABLE_COMPRESSION_BOOLEAN_FIELD, true);
+    bucket.setSimpleField(BUCKET_PARTITIONS, Joiner.on(",").join(partitions.keySet()));
+    Set<String> fieldNames = new TreeSet<>();
+    for (Map<String, String> fields : partitions.values()) {
+      fieldNames.addAll(fields.keySet());
+    }
+    for (String fieldName : fieldNames) {
+      List<String> column = new ArrayList<>(partitions.size());
+      for (Map<String, String> fields : partitions.values()) {
+        String value = fields.get(fieldName);
+        column.add(value == null ? ABSENT_VALUE : value);
+      }
+      bucket.setListField(fieldName, column);
+    }
+    return bucket;
+  }
+
+  private static void decodeBucket(ZNRecord bucket, Map<String, Map<String, String>> mapFields) {
+    String partitionList = bucket.getSimpleField(BUCKET_PARTITIONS);
+    if (partitionList == null || partitionList.isEmpty()) {
+      return;
+    }
+    List<Map<String, String>> partitionFields = new ArrayList<>();
+    for (String partition : Splitter.on(',').split(partitionList)) {
+      // Same map type as the fields created by the JobContext
+      Map<String, String> fields = new TreeMap<>();
+      mapFields.put(partition, fields);
+      partitionFields.add(fields);
+    }
+    for (Map.Entry<String, List<String>> column : bucket.getListFields().entrySet()) {
+      List<String> values = column.getValue();
+      for (int i = 0; i < values.size() && i < partitionFields.size(); i++) {
+        if (!ABSENT_VALUE.equals(values.get(i))) {
+          partitionFields.get(i).put(column.getKey(), values.get(i));
+        }
+      }
+    }
+  }
+}
@@ -21,6 +21,7 @@ package org.apache.helix.task;
 
 import java.io.IOException;
 import java.security.InvalidParameterException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -205,9 +206,17 @@ public class TaskUtil {
     if (jobResource == null) {
       throw new InvalidParameterException("Null job name is now allowed");
     }
-    ZNRecord r = propertyStore.get(
-        Joiner.on("/").join(TaskConstants.REBALANCER_CONTEXT_ROOT, jobResource, CONTEXT_NODE), null,
+    String jobPath = Joiner.on("/").join(TaskConstants.REBALANCER_CONTEXT_ROOT, jobResource);
+    ZNRecord r = propertyStore.get(Joiner.on("/").join(jobPath, CONTEXT_NODE), null,
         AccessOption.PERSISTENT);
+    if (JobContextBucketCodec.isBucketed(r)) {
+      List<String> bucketPaths = new ArrayList<>();
+      for (int i = 0; i < JobContextBucketCodec.getBucketVersions(r).size(); i++) {
+        bucketPaths.add(JobContextBucketCodec.getBucketPath(jobPath, i));
+      }
+      r = JobContextBucketCodec
+          .decode(r, propertyStore.get(bucketPaths, null, AccessOption.PERSISTENT, false));
+    }
     return r != null ? new JobContext(r) : null;
   }
 
@@ -0,0 +1,174 @@
+package org.apache.helix.task.assigner;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.apache.helix.model.LiveInstance;
+
+/**
+ * InstanceCapacityIndex keeps AssignableInstances ordered by their remaining TASK_EXEC_THREAD
+ * capacity, one index per quota type, so that the instance with the most free threads can be
+ * found without sorting all instances again for every batch of tasks.
+ * Instances are bucketed by their number of free threads. Within a bucket, instances are kept in
+ * insertion order and a picked instance is moved to the tail, so instances with equal capacity
+ * take turns.
+ * The index is only as fresh as the last refresh() of an instance; capacity changes are expected
+ * to go through AssignableInstanceManager, which keeps the index up to date.
+ */
+public class InstanceCapacityIndex {
+  private static final String RESOURCE_TYPE =
+      LiveInstance.InstanceResourceType.TASK_EXEC_THREAD.name();
+
+  // quotaType -> free thread count -> instance names
+  private final Map<String, TreeMap<Integer, LinkedHashSet<String>>> _buckets = new HashMap<>();
+  // quotaType -> instance name -> free thread count the instance is indexed with
+  private final Map<String, Map<String, Integer>> _indexedCapacity = new HashMap<>();
+
+  /**
+   * Drops the current index and re-indexes all given instances. Quota types are collected from
+   * the instances' total capacity.
+   * @param assignableInstances all AssignableInstances
+   */
+  public synchronized void rebuild(Collection<AssignableInstance> assignableInstances) {
+    _buckets.clear();
+    _indexedCapacity.clear();
+    for (AssignableInstance assignableInstance : assignableInstances) {
+      Map<String, Integer> quotaMap = assignableInstance.getTotalCapacity().get(RESOURCE_TYPE);
+      if (quotaMap == null) {
+        continue;
+      }
+      for (String quotaType : quotaMap.keySet()) {
+        if (!_buckets.containsKey(quotaType)) {
+          _buckets.put(quotaType, new TreeMap<Integer, LinkedHashSet<String>>());
+          _indexedCapacity.put(quotaType, new HashMap<String, Integer>());
+        }
+      }
+    }
+    for (AssignableInstance assignableInstance : assignableInstances) {
+      refresh(assignableInstance);
+    }
+  }
+
+  /**
+   * Re-indexes a single instance after its used or total capacity changed.
+   * @param assignableInstance the instance to re-index
+   */
+  public synchronized void refresh(AssignableInstance assignableInstance) {
+    String instanceName = assignableInstance.getInstanceName();
+    for (Map.Entry<String, TreeMap<Integer, LinkedHashSet<String>>> entry : _buckets
+        .entrySet()) {
+      String quotaType = entry.getKey();
+      TreeMap<Integer, LinkedHashSet<String>> buckets = entry.getValue();
+      Map<String, Integer> indexedCapacity = _indexedCapacity.get(quotaType);
+      int remaining = getRemainingCapacity(assignableInstance, quotaType);
+      Integer previous = indexedCapacity.put(instanceName, remaining);
+      if (previous != null) {
+        if (previous == remaining) {
+          continue;
+        }
+        LinkedHashSet<String> bucket = buckets.get(previous);
+        bucket.remove(instanceName);
+        if (bucket.isEmpty()) {
+          buckets.remove(previous);
+        }
+      }
+      LinkedHashSet<String> bucket = buckets.get(remaining);
+      if (bucket == null) {
+        bucket = new LinkedHashSet<>();
+        buckets.put(remaining, bucket);
+      }
+      bucket.add(instanceName);
+    }
+  }
+
+  /**
+   * Picks the instance with the most remaining capacity of the given quota type. Quota types that
+   * are not supported by the instances are looked up as DEFAULT, which is how
+   * AssignableInstance.tryAssign() treats them.
+   * The picked instance is moved behind the other instances with the same capacity.
+   * @param quotaType quota type of the task to be assigned
+   * @param candidates names of eligible instances; null if all instances are eligible
+   * @return name of the picked instance, or null if no eligible instance is indexed
+   */
+  public synchronized String pollMostAvailable(String quotaType, Set<String> candidates) {
+    TreeMap<Integer, LinkedHashSet<String>> buckets = _buckets.get(resolveQuotaType(quotaType));
+    if (buckets == null) {
+      return null;
+    }
+    for (Map.Entry<Integer, LinkedHashSet<String>> entry = buckets.lastEntry(); entry != null;
+        entry = buckets.lowerEntry(entry.getKey())) {
+      LinkedHashSet<String> bucket = entry.getValue();
+      Iterator<String> iterator = bucket.iterator();
+      while (iterator.hasNext()) {
+        String instanceName = iterator.next();
+        if (candidates == null || candidates.contains(instanceName)) {
+          iterator.remove();
+          bucket.add(instanceName);
+          return instanceName;
+        }
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Returns the indexed remaining capacity of an instance for the given quota type.
+   * @param quotaType quota type
+   * @param instanceName instance name
+   * @return remaining capacity, or null if the instance is not indexed
+   */
+  public synchronized Integer getIndexedCapacity(String quotaType, String instanceName) {
+    Map<String, Integer> indexedCapacity = _indexedCapacity.get(resolveQuotaType(quotaType));
+    return indexedCapacity == null ? null : indexedCapacity.get(instanceName);
+  }
+
+  private String resolveQuotaType(String quotaType) {
+    if (quotaType == null || !_buckets.containsKey(quotaType)) {
+      return AssignableInstance.DEFAULT_QUOTA_TYPE;
+    }
+    return quotaType;
+  }
+
+  private static int getRemainingCapacity(AssignableInstance assignableInstance,
+      String quotaType) {
+    Map<String, Integer> totalQuota = assignableInstance.getTotalCapacity().get(RESOURCE_TYPE);
+    Map<String, Integer> usedQuota = assignableInstance.getUsedCapacity().get(RESOURCE_TYPE);
+    if (totalQuota == null || usedQuota == null) {
+      return 0;
+    }
+    if (!totalQuota.containsKey(quotaType)) {
+      // Tasks of an unsupported quota type are assigned as DEFAULT
+      quotaType = AssignableInstance.DEFAULT_QUOTA_TYPE;
+    }
+    Integer total = totalQuota.get(quotaType);
+    Integer used = usedQuota.get(quotaType);
+    if (total == null) {
+      return 0;
+    }
+    return used == null ? total : total - used;
+  }
+}
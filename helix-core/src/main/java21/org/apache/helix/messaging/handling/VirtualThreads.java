@@ -0,0 +1,47 @@
+package org.apache.helix.messaging.handling;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Creates the virtual thread factories used by the message handler pools. This is the Java 21
+ * version of the class, packaged under META-INF/versions/21 of the multi-release jar.
+ */
+public final class VirtualThreads {
+  private VirtualThreads() {
+  }
+
+  /**
+   * @return true if the running JVM can create virtual threads
+   */
+  public static boolean isSupported() {
+    return true;
+  }
+
+  /**
+   * Create a factory of virtual threads named namePrefix0, namePrefix1 and so on.
+   * @param namePrefix the thread name prefix
+   * @return the thread factory
+   */
+  public static ThreadFactory newThreadFactory(String namePrefix) {
+    return Thread.ofVirtual().name(namePrefix, 0L).factory();
+  }
+}
@@ -0,0 +1,137 @@
+package org.apache.helix;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.lang.management.ManagementFactory;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import org.apache.helix.model.ClusterConfig;
+import org.apache.helix.model.InstanceConfig;
+import org.apache.helix.model.ResourceConfig;
+import org.apache.helix.monitoring.mbeans.ConfigAccessorCacheMonitor;
+import org.apache.helix.monitoring.mbeans.MonitorDomainNames;
+import org.apache.helix.zookeeper.api.client.RealmAwareZkClient;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class TestCachedConfigAccessor extends ZkUnitTestBase {
+  private static final String INSTANCE = "localhost_12918";
+
+  @Test
+  public void testWatchInvalidation() throws Exception {
+    String clusterName = CLUSTER_PREFIX + "_" + TestHelper.getTestMethodName();
+    TestHelper.setupCluster(clusterName, ZK_ADDR, 12918, "localhost", "TestDB", 1, 10, 2, 2,
+        "MasterSlave", true);
+    ConfigAccessor writer = new ConfigAccessor(_gZkClient);
+    CachedConfigAccessor cached =
+        new CachedConfigAccessor(_gZkClient, TestHelper.getTestMethodName());
+    try {
+      // The second lookup is served from the cache.
+      Assert.assertNotNull(cached.getClusterConfig(clusterName));
+      Assert.assertNotNull(cached.getClusterConfig(clusterName));
+      Assert.assertEquals(getCounter(cached, "CLUSTER", "MissCounter"), 1L);
+      Assert.assertEquals(getCounter(cached, "CLUSTER", "HitCounter"), 1L);
+
+      // The configs returned are copies.
+      cached.getClusterConfig(clusterName).getRecord().setSimpleField("local", "change");
+      Assert.assertNull(cached.getClusterConfig(clusterName).getRecord().getSimpleField("local"));
+
+      // A change made by another accessor is picked up through the watch.
+      ClusterConfig clusterConfig = writer.getClusterConfig(clusterName);
+      clusterConfig.setDelayRebalaceEnabled(false);
+      writer.setClusterConfig(clusterName, clusterConfig);
+      Assert.assertTrue(TestHelper.verify(
+          () -> !cached.getClusterConfig(clusterName).isDelayRebalaceEnabled(),
+          TestHelper.WAIT_DURATION));
+      Assert.assertTrue(getCounter(cached, "CLUSTER", "InvalidationCounter") >= 1L);
+
+      InstanceConfig instanceConfig = cached.getInstanceConfig(clusterName, INSTANCE);
+      Assert.assertTrue(instanceConfig.getInstanceEnabled());
+      instanceConfig = writer.getInstanceConfig(clusterName, INSTANCE);
+      instanceConfig.setInstanceEnabled(false);
+      writer.setInstanceConfig(clusterName, INSTANCE, instanceConfig);
+      Assert.assertTrue(TestHelper.verify(
+          () -> !cached.getInstanceConfig(clusterName, INSTANCE).getInstanceEnabled(),
+          TestHelper.WAIT_DURATION));
+
+      // A missing config is cached too, until it is created.
+      Assert.assertNull(cached.getResourceConfig(clusterName, "TestDB0"));
+      Assert.assertNull(cached.getResourceConfig(clusterName, "TestDB0"));
+      Assert.assertEquals(getCounter(cached, "RESOURCE", "HitCounter"), 1L);
+      ResourceConfig resourceConfig = new ResourceConfig("TestDB0");
+      resourceConfig.getRecord().setSimpleField("key", "value");
+      writer.setResourceConfig(clusterName, "TestDB0", resourceConfig);
+      Assert.assertTrue(TestHelper.verify(
+          () -> cached.getResourceConfig(clusterName, "TestDB0") != null,
+          TestHelper.WAIT_DURATION));
+
+      // A write through the cached accessor is visible right away.
+      resourceConfig.getRecord().setSimpleField("key", "newValue");
+      cached.setResourceConfig(clusterName, "TestDB0", resourceConfig);
+      Assert.assertEquals(
+          cached.getResourceConfig(clusterName, "TestDB0").getRecord().getSimpleField("key"),
+          "newValue");
+    } finally {
+      cached.close();
+      deleteCluster(clusterName);
+    }
+  }
+
+  @Test
+  public void testLruEviction() throws Exception {
+    String clusterName = CLUSTER_PREFIX + "_" + TestHelper.getTestMethodName();
+    TestHelper.setupCluster(clusterName, ZK_ADDR, 12918, "localhost", "TestDB", 3, 10, 2, 2,
+        "MasterSlave", true);
+    ConfigAccessor writer = new ConfigAccessor(_gZkClient);
+    for (int i = 0; i < 3; i++) {
+      writer.setResourceConfig(clusterName, "TestDB" + i, new ResourceConfig("TestDB" + i));
+    }
+    CachedConfigAccessor cached = new CachedConfigAccessor.Builder()
+        .setRealmMode(RealmAwareZkClient.RealmMode.SINGLE_REALM).setZkAddress(ZK_ADDR)
+        .setName(TestHelper.getTestMethodName()).setMaxResourceConfigs(2).build();
+    try {
+      cached.getResourceConfig(clusterName, "TestDB0");
+      cached.getResourceConfig(clusterName, "TestDB1");
+      // TestDB0 is the most recently used entry now, so TestDB1 is evicted next.
+      cached.getResourceConfig(clusterName, "TestDB0");
+      cached.getResourceConfig(clusterName, "TestDB2");
+      Assert.assertEquals(getCounter(cached, "RESOURCE", "EvictionCounter"), 1L);
+      Assert.assertEquals(getCounter(cached, "RESOURCE", "CacheSizeGauge"), 2L);
+
+      cached.getResourceConfig(clusterName, "TestDB0");
+      Assert.assertEquals(getCounter(cached, "RESOURCE", "HitCounter"), 2L);
+      cached.getResourceConfig(clusterName, "TestDB1");
+      Assert.assertEquals(getCounter(cached, "RESOURCE", "MissCounter"), 4L);
+    } finally {
+      cached.close();
+      deleteCluster(clusterName);
+    }
+  }
+
+  private static long getCounter(CachedConfigAccessor accessor, String scope, String attribute)
+      throws JMException {
+    ObjectName objectName = new ObjectName(String
+        .format("%s:%s=%s,%s=%s", MonitorDomainNames.ConfigAccessorCache.name(),
+            ConfigAccessorCacheMonitor.ACCESSOR_KEY, accessor.getName(),
+            ConfigAccessorCacheMonitor.SCOPE_KEY, scope));
+    return (long) ManagementFactory.getPlatformMBeanServer().getAttribute(objectName, attribute);
+  }
+}
@@ -0,0 +1,241 @@
+package org.apache.helix.common.caches;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.helix.HelixDataAccessor;
+import org.apache.helix.PropertyKey;
+import org.apache.helix.TestHelper;
+import org.apache.helix.common.ZkTestBase;
+import org.apache.helix.manager.zk.ZKHelixDataAccessor;
+import org.apache.helix.model.CurrentState;
+import org.apache.helix.model.InstanceConfig;
+import org.apache.helix.model.LiveInstance;
+import org.apache.helix.zookeeper.impl.client.ZkClient;
+import org.apache.zookeeper.Watcher;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+public class TestZkPathChangeTracker extends ZkTestBase {
+  private static final int NUM_INSTANCES = 5;
+  private static final long RECONCILIATION_INTERVAL_MS = 3600 * 1000L;
+  private final String _clusterName = CLUSTER_PREFIX + "_" + getShortClassName();
+  private ZkClient _persistWatcherClient;
+  private HelixDataAccessor _accessor;
+
+  @BeforeClass
+  public void beforeClass() {
+    _gSetupTool.addCluster(_clusterName, true);
+    for (int i = 0; i < NUM_INSTANCES; i++) {
+      _gSetupTool.addInstanceToCluster(_clusterName, "localhost_" + (12918 + i));
+    }
+    _persistWatcherClient = new ZkClient.Builder().setZkServer(ZK_ADDR)
+        .setMonitorRootPathOnly(false).setUsePersistWatcher(true).build();
+    _accessor = new ZKHelixDataAccessor(_clusterName, _baseAccessor);
+  }
+
+  @AfterClass
+  public void afterClass() {
+    _persistWatcherClient.close();
+    deleteCluster(_clusterName);
+  }
+
+  @Test
+  public void testWatchDrivenRefresh() throws Exception {
+    PropertyCache<InstanceConfig> cache = createInstanceConfigCache();
+    ZkPathChangeTracker tracker = new ZkPathChangeTracker(_persistWatcherClient,
+        _accessor.keyBuilder().instanceConfigs().getPath(), RECONCILIATION_INTERVAL_MS);
+    tracker.start();
+    cache.setChangeTracker(tracker);
+    try {
+      cache.refresh(_accessor);
+      Assert.assertEquals(cache.getPropertyMap().size(), NUM_INSTANCES);
+      Assert.assertEquals(cache.getStatReadCount(), 0);
+      Assert.assertEquals(cache.getDataReadCount(), NUM_INSTANCES);
+
+      // Nothing changed, so nothing is read.
+      cache.refresh(_accessor);
+      Assert.assertEquals(cache.getStatReadCount(), 0);
+      Assert.assertEquals(cache.getDataReadCount(), NUM_INSTANCES);
+
+      // Only the changed instance config is reloaded.
+      String instanceName = "localhost_12918";
+      InstanceConfig instanceConfig = cache.getPropertyByName(instanceName);
+      instanceConfig.setHostName("changedHost");
+      _accessor.setProperty(_accessor.keyBuilder().instanceConfig(instanceName), instanceConfig);
+      Assert.assertTrue(TestHelper.verify(() -> {
+        cache.refresh(_accessor);
+        return "changedHost".equals(cache.getPropertyByName(instanceName).getHostName());
+      }, TestHelper.WAIT_DURATION));
+      Assert.assertEquals(cache.getStatReadCount(), 0);
+      Assert.assertEquals(cache.getDataReadCount(), NUM_INSTANCES + 1);
+
+      // A change reported by another session is reloaded before the watch delivers it.
+      tracker.markChanged(_accessor.keyBuilder().instanceConfig(instanceName).getPath());
+      cache.refresh(_accessor);
+      Assert.assertEquals(cache.getStatReadCount(), 0);
+      Assert.assertEquals(cache.getDataReadCount(), NUM_INSTANCES + 2);
+      // A changed parent path reloads all of its children.
+      tracker.markChanged(_accessor.keyBuilder().instanceConfigs().getPath());
+      cache.refresh(_accessor);
+      Assert.assertEquals(cache.getStatReadCount(), 0);
+      Assert.assertEquals(cache.getDataReadCount(), 2 * NUM_INSTANCES + 2);
+
+      // Changes may be missed while disconnected, so the stats of all the properties are checked.
+      tracker.handleStateChanged(Watcher.Event.KeeperState.Disconnected);
+      cache.refresh(_accessor);
+      Assert.assertEquals(cache.getStatReadCount(), NUM_INSTANCES);
+      Assert.assertEquals(cache.getDataReadCount(), 2 * NUM_INSTANCES + 2);
+      cache.refresh(_accessor);
+      Assert.assertEquals(cache.getStatReadCount(), NUM_INSTANCES);
+    } finally {
+      tracker.stop();
+    }
+
+    // Without the watch, the stats are checked on every refresh.
+    cache.refresh(_accessor);
+    Assert.assertEquals(cache.getStatReadCount(), 2 * NUM_INSTANCES);
+    Assert.assertEquals(cache.getDataReadCount(), 2 * NUM_INSTANCES + 2);
+  }
+
+  @Test
+  public void testPeriodicReconciliation() {
+    ZkPathChangeTracker tracker = new ZkPathChangeTracker(_persistWatcherClient,
+        _accessor.keyBuilder().instanceConfigs().getPath(), 0L);
+    Assert.assertNull(tracker.drainChangedPaths());
+    tracker.start();
+    try {
+      Assert.assertNull(tracker.drainChangedPaths());
+      Assert.assertNull(tracker.drainChangedPaths());
+    } finally {
+      tracker.stop();
+    }
+
+    tracker = new ZkPathChangeTracker(_persistWatcherClient,
+        _accessor.keyBuilder().instanceConfigs().getPath(), RECONCILIATION_INTERVAL_MS);
+    tracker.start();
+    try {
+      Assert.assertNull(tracker.drainChangedPaths());
+      tracker.handleZNodeChange("/path", Watcher.Event.EventType.NodeDataChanged);
+      Assert.assertEquals(tracker.drainChangedPaths().size(), 1);
+      Assert.assertTrue(tracker.drainChangedPaths().isEmpty());
+      for (int i = 0; i <= ZkPathChangeTracker.MAX_CHANGED_PATHS; i++) {
+        tracker.handleZNodeChange("/path" + i, Watcher.Event.EventType.NodeCreated);
+      }
+      // Too many changes to track.
+      Assert.assertNull(tracker.drainChangedPaths());
+      Assert.assertTrue(tracker.drainChangedPaths().isEmpty());
+    } finally {
+      tracker.stop();
+    }
+  }
+
+  @Test
+  public void testParticipantStateRootPaths() throws Exception {
+    String instanceName = "localhost_12918";
+    String resourceName = "TestDB";
+    PropertyKey.Builder keyBuilder = _accessor.keyBuilder();
+    CurrentStateCache cache =
+        new CurrentStateCache(AbstractDataCache.createDefaultControlContextProvider(_clusterName));
+    ZkPathChangeTracker tracker =
+        new ZkPathChangeTracker(_persistWatcherClient, RECONCILIATION_INTERVAL_MS);
+    tracker.start();
+    cache.setChangeTracker(tracker);
+    try {
+      String sessionId = "session_0";
+      Map<String, LiveInstance> liveInstanceMap = createCurrentState(instanceName, sessionId,
+          resourceName);
+      cache.refresh(_accessor, liveInstanceMap);
+      // Only the CurrentStates of the live session are watched.
+      Assert.assertEquals(tracker.getRootPaths(),
+          Collections.singleton(keyBuilder.currentStates(instanceName, sessionId).getPath()));
+      Assert.assertEquals(cache.getDataReadCount(), 1);
+
+      // The other ZNodes of the instance are not tracked.
+      _gZkClient.createPersistent(keyBuilder.message(instanceName, "message_0").getPath(), true);
+      String currentStatePath =
+          keyBuilder.currentState(instanceName, sessionId, resourceName).getPath();
+      CurrentState currentState = new CurrentState(resourceName);
+      currentState.setSessionId(sessionId);
+      currentState.setState(resourceName + "_0", "SLAVE");
+      currentState.setStateModelDefRef("MasterSlave");
+      _accessor.setProperty(keyBuilder.currentState(instanceName, sessionId, resourceName),
+          currentState);
+      Set<String> changedPaths = new HashSet<>();
+      Assert.assertTrue(TestHelper.verify(() -> {
+        changedPaths.addAll(tracker.drainChangedPaths());
+        return changedPaths.contains(currentStatePath);
+      }, TestHelper.WAIT_DURATION));
+      Assert.assertEquals(changedPaths, Collections.singleton(currentStatePath));
+
+      // A new session of the instance replaces the watched path, and its CurrentStates are read.
+      String newSessionId = "session_1";
+      liveInstanceMap = createCurrentState(instanceName, newSessionId, resourceName);
+      cache.refresh(_accessor, liveInstanceMap);
+      Assert.assertEquals(tracker.getRootPaths(),
+          Collections.singleton(keyBuilder.currentStates(instanceName, newSessionId).getPath()));
+      Assert.assertEquals(cache.getStatReadCount(), 0);
+      Assert.assertEquals(cache.getDataReadCount(), 2);
+      Assert.assertEquals(cache.getParticipantState(instanceName, newSessionId).get(resourceName)
+          .getState(resourceName + "_0"), "MASTER");
+    } finally {
+      tracker.stop();
+    }
+  }
+
+  private Map<String, LiveInstance> createCurrentState(String instanceName, String sessionId,
+      String resourceName) {
+    CurrentState currentState = new CurrentState(resourceName);
+    currentState.setSessionId(sessionId);
+    currentState.setState(resourceName + "_0", "MASTER");
+    currentState.setStateModelDefRef("MasterSlave");
+    _accessor.setProperty(_accessor.keyBuilder().currentState(instanceName, sessionId,
+        resourceName), currentState);
+    LiveInstance liveInstance = new LiveInstance(instanceName);
+    liveInstance.setSessionId(sessionId);
+    return Collections.singletonMap(instanceName, liveInstance);
+  }
+
+  private PropertyCache<InstanceConfig> createInstanceConfigCache() {
+    return new PropertyCache<>(AbstractDataCache.createDefaultControlContextProvider(_clusterName),
+        "InstanceConfig", new PropertyCache.PropertyCacheKeyFuncs<InstanceConfig>() {
+      @Override
+      public PropertyKey getRootKey(HelixDataAccessor accessor) {
+        return accessor.keyBuilder().instanceConfigs();
+      }
+
+      @Override
+      public PropertyKey getObjPropertyKey(HelixDataAccessor accessor, String objName) {
+        return accessor.keyBuilder().instanceConfig(objName);
+      }
+
+      @Override
+      public String getObjName(InstanceConfig obj) {
+        return obj.getInstanceName();
+      }
+    }, true);
+  }
+}
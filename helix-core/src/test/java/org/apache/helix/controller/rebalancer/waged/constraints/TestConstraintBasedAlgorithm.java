@@ -23,6 +23,7 @@ import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
@@ -30,7 +31,10 @@ import org.apache.helix.HelixRebalanceException;
 import org.apache.helix.controller.rebalancer.waged.model.AssignableReplica;
 import org.apache.helix.controller.rebalancer.waged.model.ClusterModel;
 import org.apache.helix.controller.rebalancer.waged.model.ClusterModelTestHelper;
+import org.apache.helix.controller.rebalancer.waged.RebalanceAlgorithm;
 import org.apache.helix.controller.rebalancer.waged.model.OptimalAssignment;
+import org.apache.helix.model.ClusterConfig;
+import org.apache.helix.model.ResourceAssignment;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
@@ -127,6 +131,31 @@ public class TestConstraintBasedAlgorithm {
         }));
   }
 
+  @Test
+  public void testParallelScoringMatchesSerialScoring()
+      throws IOException, HelixRebalanceException {
+    RebalanceAlgorithm serialAlgorithm = ConstraintBasedAlgorithmFactory
+        .getInstance(ClusterConfig.DEFAULT_GLOBAL_REBALANCE_PREFERENCE);
+    Map<String, ResourceAssignment> serialAssignment =
+        serialAlgorithm.calculate(new ClusterModelTestHelper().getMultiNodeClusterModel())
+            .getOptimalResourceAssignment();
+
+    ForkJoinPool scoringPool = new ForkJoinPool(4);
+    try {
+      RebalanceAlgorithm parallelAlgorithm = ConstraintBasedAlgorithmFactory
+          .getInstance(ClusterConfig.DEFAULT_GLOBAL_REBALANCE_PREFERENCE, scoringPool);
+      // Repeat to cover the different splits of the candidate nodes across the workers.
+      for (int i = 0; i < 10; i++) {
+        Map<String, ResourceAssignment> parallelAssignment =
+            parallelAlgorithm.calculate(new ClusterModelTestHelper().getMultiNodeClusterModel())
+                .getOptimalResourceAssignment();
+        Assert.assertEquals(parallelAssignment, serialAssignment);
+      }
+    } finally {
+      scoringPool.shutdown();
+    }
+  }
+
   // Add capacity related hard/soft constraint to test sorting algorithm in ConstraintBasedAlgorithm.
   @Test
   public void testSortingByResourceCapacity() throws IOException, HelixRebalanceException {
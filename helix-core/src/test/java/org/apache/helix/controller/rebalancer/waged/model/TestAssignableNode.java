@@ -172,6 +172,42 @@ public class TestAssignableNode extends AbstractTestClusterModel {
         expectedTopStateAssignmentSet1.size() + expectedTopStateAssignmentSet2.size());
   }
 
+  @Test
+  public void testCapacityArrayMatchesCapacityMap() throws IOException {
+    ResourceControllerDataProvider testCache = setupClusterDataCache();
+    Set<AssignableReplica> assignmentSet = generateReplicas(testCache);
+    AssignableNode arrayNode = new AssignableNode(testCache.getClusterConfig(),
+        testCache.getAssignableInstanceConfigMap().get(_testInstanceId), _testInstanceId);
+    AssignableNode mapNode = new AssignableNode(testCache.getClusterConfig(),
+        testCache.getAssignableInstanceConfigMap().get(_testInstanceId), _testInstanceId);
+    List<String> preferredScoringKeys = Collections.singletonList("item2");
+
+    for (AssignableReplica replica : assignmentSet) {
+      // The replica capacity is a view of the indexed array, and a plain map copy of it goes
+      // through the key lookup path.
+      Assert.assertTrue(replica.getCapacity() instanceof CapacityMap);
+      Map<String, Integer> capacityCopy = new HashMap<>(replica.getCapacity());
+      Assert.assertEquals(capacityCopy, replica.getCapacity());
+      Assert.assertEquals(arrayNode.getGeneralProjectedHighestUtilization(replica.getCapacity()),
+          mapNode.getGeneralProjectedHighestUtilization(capacityCopy));
+      Assert.assertEquals(
+          arrayNode.getTopStateProjectedHighestUtilization(replica.getCapacity(),
+              preferredScoringKeys),
+          mapNode.getTopStateProjectedHighestUtilization(capacityCopy, preferredScoringKeys));
+      arrayNode.assign(replica);
+      mapNode.assign(replica);
+      Assert.assertEquals(arrayNode.getRemainingCapacity(), mapNode.getRemainingCapacity());
+    }
+
+    // The max capacity view is read only.
+    try {
+      arrayNode.getMaxCapacity().put("item1", 0);
+      Assert.fail("The max capacity should not be modifiable.");
+    } catch (UnsupportedOperationException expected) {
+      // expected
+    }
+  }
+
   @Test
   public void testReleaseNoPartition() throws IOException {
     ResourceControllerDataProvider testCache = setupClusterDataCache();
@@ -555,6 +555,70 @@ public class TestClusterModelProvider extends AbstractTestClusterModel {
         .allMatch(replicaSet -> replicaSet.size() == 8));
   }
 
+  @Test (dependsOnMethods = "testGenerateClusterModel")
+  public void testGenerateClusterModelForIncrementalBaseline() throws IOException {
+    ResourceControllerDataProvider testCache = setupClusterDataCache();
+    testCache.getAssignableInstanceConfigMap().values().stream()
+        .forEach(config -> config.setZoneId(config.getInstanceName()));
+    Map<String, Resource> resourceMap = _resourceNames.stream()
+        .collect(Collectors.toMap(resource -> resource, resource -> new Resource(resource)));
+    // Mock a baseline assignment based on the current states.
+    Map<String, ResourceAssignment> baselineAssignment = new HashMap<>();
+    for (String resource : _resourceNames) {
+      ResourceAssignment assignment = new ResourceAssignment(resource);
+      CurrentState cs = testCache.getCurrentState(_testInstanceId, _sessionId).get(resource);
+      for (Map.Entry<String, String> stateEntry : cs.getPartitionStateMap().entrySet()) {
+        assignment.addReplicaMap(new Partition(stateEntry.getKey()),
+            Collections.singletonMap(_testInstanceId, stateEntry.getValue()));
+      }
+      baselineAssignment.put(resource, assignment);
+    }
+    String otherInstance =
+        _instances.stream().filter(instance -> !instance.equals(_testInstanceId)).findFirst()
+            .get();
+
+    // 1. Another instance config is changed. The global baseline scope resets all the replicas,
+    // while the incremental scope keeps the replicas on the unchanged instance.
+    Map<HelixConstants.ChangeType, Set<String>> clusterChanges = Collections
+        .singletonMap(HelixConstants.ChangeType.INSTANCE_CONFIG, Collections.singleton(otherInstance));
+    ClusterModel clusterModel = ClusterModelProvider
+        .generateClusterModelForBaseline(testCache, resourceMap, _instances, clusterChanges,
+            baselineAssignment);
+    Assert.assertEquals(
+        clusterModel.getAssignableNodes().get(_testInstanceId).getAssignedReplicaCount(), 0);
+    clusterModel = ClusterModelProvider
+        .generateClusterModelForIncrementalBaseline(testCache, resourceMap, _instances,
+            clusterChanges, baselineAssignment);
+    Assert.assertEquals(
+        clusterModel.getAssignableNodes().get(_testInstanceId).getAssignedReplicaCount(), 4);
+    Assert.assertTrue(clusterModel.getAssignableReplicaMap().values().stream()
+        .allMatch(replicaSet -> replicaSet.size() == 10));
+
+    // 2. The config of the instance that holds the replicas is changed. All its replicas need to
+    // be re-assigned.
+    clusterModel = ClusterModelProvider
+        .generateClusterModelForIncrementalBaseline(testCache, resourceMap, _instances,
+            Collections.singletonMap(HelixConstants.ChangeType.INSTANCE_CONFIG,
+                Collections.singleton(_testInstanceId)), baselineAssignment);
+    Assert.assertFalse(clusterModel.getAssignableNodes().values().stream()
+        .anyMatch(node -> node.getAssignedReplicaCount() != 0));
+    Assert.assertTrue(clusterModel.getAssignableReplicaMap().values().stream()
+        .allMatch(replicaSet -> replicaSet.size() == 12));
+
+    // 3. One resource config is changed. Only the replicas of that resource are re-assigned.
+    String changedResourceName = _resourceNames.get(0);
+    clusterModel = ClusterModelProvider
+        .generateClusterModelForIncrementalBaseline(testCache, resourceMap, _instances,
+            Collections.singletonMap(HelixConstants.ChangeType.RESOURCE_CONFIG,
+                Collections.singleton(changedResourceName)), baselineAssignment);
+    Assert.assertEquals(
+        clusterModel.getAssignableNodes().get(_testInstanceId).getAssignedReplicaCount(), 2);
+    for (String resource : _resourceNames) {
+      Assert.assertEquals(clusterModel.getAssignableReplicaMap().get(resource).size(),
+          resource.equals(changedResourceName) ? 12 : 10);
+    }
+  }
+
   @Test (dependsOnMethods = "testGenerateClusterModel")
   public void testGenerateClusterModelForPartialRebalance() throws IOException {
     ResourceControllerDataProvider testCache = setupClusterDataCache();
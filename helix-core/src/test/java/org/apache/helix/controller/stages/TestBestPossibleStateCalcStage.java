@@ -20,13 +20,18 @@ package org.apache.helix.controller.stages;
  */
 
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.apache.helix.controller.dataproviders.ResourceControllerDataProvider;
 import org.apache.helix.model.BuiltInStateModelDefinitions;
 import org.apache.helix.model.ClusterConfig;
 import org.apache.helix.model.IdealState.RebalanceMode;
+import org.apache.helix.model.Message;
 import org.apache.helix.model.Partition;
 import org.apache.helix.model.Resource;
 import org.testng.Assert;
@@ -146,4 +151,85 @@ public class TestBestPossibleStateCalcStage extends BaseStageTest {
         output.getInstanceStateMap("testResourceName", new Partition("testResourceName_1"))
             .get("localhost_2"));
   }
+
+  @Test
+  public void testParallelResourceComputation() {
+    String[] resources = new String[8];
+    for (int i = 0; i < resources.length; i++) {
+      resources[i] = "testResourceName_" + i;
+    }
+    int numInstances = 5;
+    int numPartitions = 4;
+
+    setupIdealState(numInstances, resources, numPartitions, 2, RebalanceMode.SEMI_AUTO,
+        BuiltInStateModelDefinitions.MasterSlave.name());
+    setupLiveInstances(numInstances);
+    setupStateModel();
+    setupInstances(numInstances);
+
+    ClusterConfig clusterConfig = accessor.getProperty(accessor.keyBuilder().clusterConfig());
+    clusterConfig.setPipelineResourceComputeParallelism(4);
+    setClusterConfig(clusterConfig);
+
+    Map<String, Resource> resourceMap =
+        getResourceMap(resources, numPartitions, BuiltInStateModelDefinitions.MasterSlave.name());
+
+    ExecutorService pool = Executors.newFixedThreadPool(4);
+    try {
+      ClusterEvent serialEvent = runBestPossibleAndMessageGeneration(resourceMap, null);
+      ClusterEvent parallelEvent = runBestPossibleAndMessageGeneration(resourceMap, pool);
+
+      BestPossibleStateOutput serialOutput =
+          serialEvent.getAttribute(AttributeName.BEST_POSSIBLE_STATE.name());
+      BestPossibleStateOutput parallelOutput =
+          parallelEvent.getAttribute(AttributeName.BEST_POSSIBLE_STATE.name());
+      MessageOutput serialMessages = serialEvent.getAttribute(AttributeName.MESSAGES_ALL.name());
+      MessageOutput parallelMessages =
+          parallelEvent.getAttribute(AttributeName.MESSAGES_ALL.name());
+
+      Assert.assertEquals(parallelOutput.resourceSet(), serialOutput.resourceSet());
+      Assert.assertEquals(parallelOutput.getPreferenceLists(), serialOutput.getPreferenceLists());
+      for (Resource resource : resourceMap.values()) {
+        String resourceName = resource.getResourceName();
+        for (Partition partition : resource.getPartitions()) {
+          Assert.assertEquals(parallelOutput.getInstanceStateMap(resourceName, partition),
+              serialOutput.getInstanceStateMap(resourceName, partition));
+          Set<String> transitions = toTransitions(serialMessages.getMessages(resourceName, partition));
+          Assert.assertFalse(transitions.isEmpty());
+          Assert.assertEquals(toTransitions(parallelMessages.getMessages(resourceName, partition)),
+              transitions);
+        }
+      }
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  private ClusterEvent runBestPossibleAndMessageGeneration(Map<String, Resource> resourceMap,
+      ExecutorService pool) {
+    ClusterEvent event = new ClusterEvent(ClusterEventType.Unknown);
+    ResourceControllerDataProvider cache = new ResourceControllerDataProvider();
+    cache.setResourceComputeThreadPool(pool);
+    CurrentStateOutput currentStateOutput = new CurrentStateOutput();
+    event.addAttribute(AttributeName.helixmanager.name(), manager);
+    event.addAttribute(AttributeName.RESOURCES.name(), resourceMap);
+    event.addAttribute(AttributeName.RESOURCES_TO_REBALANCE.name(), resourceMap);
+    event.addAttribute(AttributeName.CURRENT_STATE.name(), currentStateOutput);
+    event.addAttribute(AttributeName.CURRENT_STATE_EXCLUDING_UNKNOWN.name(), currentStateOutput);
+    event.addAttribute(AttributeName.ControllerDataProvider.name(), cache);
+
+    runStage(event, new ReadClusterDataStage());
+    runStage(event, new BestPossibleStateCalcStage());
+    runStage(event, new MessageGenerationPhase());
+    return event;
+  }
+
+  private Set<String> toTransitions(List<Message> messages) {
+    Set<String> transitions = new HashSet<>();
+    for (Message message : messages) {
+      transitions.add(
+          message.getTgtName() + ":" + message.getFromState() + "->" + message.getToState());
+    }
+    return transitions;
+  }
 }
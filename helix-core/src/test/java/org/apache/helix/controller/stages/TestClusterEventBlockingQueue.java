@@ -78,6 +78,54 @@ public class TestClusterEventBlockingQueue {
     Assert.assertEquals(queue.size(), 0);
   }
 
+  @Test
+  public void testEventBatching() throws Exception {
+    ClusterEventBlockingQueue queue = new ClusterEventBlockingQueue();
+    ListeningExecutorService service =
+        MoreExecutors.listeningDecorator(Executors.newCachedThreadPool());
+
+    // No batching by default
+    queue.put(new ClusterEvent(ClusterEventType.CurrentStateChange));
+    queue.put(new ClusterEvent(ClusterEventType.CurrentStateChange));
+    safeTake(queue, service);
+    Assert.assertEquals(queue.getLastBatchWindow(), 0L);
+    Assert.assertEquals(queue.getLastCoalescedEventCount(), 1);
+
+    // The window doubles while the events keep arriving, until it reaches the max window.
+    long maxWindow = 400L;
+    queue.setMaxBatchWindow(maxWindow);
+    long expectedWindow = 10L;
+    while (expectedWindow < maxWindow) {
+      queue.put(new ClusterEvent(ClusterEventType.CurrentStateChange));
+      queue.put(new ClusterEvent(ClusterEventType.CurrentStateChange));
+      safeTake(queue, service);
+      Assert.assertEquals(queue.getLastBatchWindow(), expectedWindow);
+      expectedWindow *= 2;
+    }
+
+    // The event that arrives within the window is coalesced into the taken event.
+    ClusterEvent oldEvent = new ClusterEvent(ClusterEventType.CurrentStateChange);
+    queue.put(oldEvent);
+    queue.put(new ClusterEvent(ClusterEventType.ConfigChange));
+    ListenableFuture<ClusterEvent> future = service.submit(queue::take);
+    Thread.sleep(100L);
+    ClusterEvent newEvent = new ClusterEvent(ClusterEventType.CurrentStateChange);
+    newEvent.addAttribute("attr", 1);
+    queue.put(newEvent);
+    ClusterEvent takenEvent = future.get(30, TimeUnit.SECONDS);
+    Assert.assertEquals(queue.getLastBatchWindow(), maxWindow);
+    Assert.assertEquals(queue.getLastCoalescedEventCount(), 1);
+    Assert.assertEquals((int) takenEvent.getAttribute("attr"), 1);
+    Assert.assertEquals(takenEvent.getCreationTime(), oldEvent.getCreationTime());
+    Assert.assertEquals(queue.size(), 1);
+    Assert.assertEquals(queue.peek().getEventType(), ClusterEventType.ConfigChange);
+
+    // The window shrinks once the events slow down.
+    safeTake(queue, service);
+    Assert.assertEquals(queue.getLastBatchWindow(), maxWindow / 2);
+    service.shutdownNow();
+  }
+
   private ClusterEvent safeTake(final ClusterEventBlockingQueue queue,
       final ListeningExecutorService service) throws InterruptedException, ExecutionException,
       TimeoutException {
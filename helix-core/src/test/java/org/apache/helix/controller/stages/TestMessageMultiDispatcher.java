@@ -0,0 +1,121 @@
+package org.apache.helix.controller.stages;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.helix.AccessOption;
+import org.apache.helix.PropertyKey;
+import org.apache.helix.TestHelper;
+import org.apache.helix.ZkUnitTestBase;
+import org.apache.helix.manager.zk.ZkBaseDataAccessor;
+import org.apache.helix.model.Message;
+import org.apache.helix.zookeeper.datamodel.ZNRecord;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+public class TestMessageMultiDispatcher extends ZkUnitTestBase {
+  private static final int NUM_INSTANCES = 3;
+  private final String _clusterName = CLUSTER_PREFIX + "_" + TestHelper.getTestClassName();
+  private final PropertyKey.Builder _keyBuilder = new PropertyKey.Builder(_clusterName);
+  private ZkBaseDataAccessor<ZNRecord> _accessor;
+  private ExecutorService _pool;
+
+  @BeforeClass
+  public void beforeClass() {
+    _gSetupTool.addCluster(_clusterName, true);
+    for (int i = 0; i < NUM_INSTANCES; i++) {
+      _gSetupTool.addInstanceToCluster(_clusterName, "localhost_" + i);
+    }
+    _accessor = new ZkBaseDataAccessor<>(_gZkClient);
+    _pool = Executors.newFixedThreadPool(2);
+  }
+
+  @AfterClass
+  public void afterClass() {
+    _pool.shutdown();
+    deleteCluster(_clusterName);
+  }
+
+  @Test
+  public void testDispatchInChunks() {
+    List<String> instanceNames = new ArrayList<>();
+    List<String> paths = new ArrayList<>();
+    List<ZNRecord> records = new ArrayList<>();
+    for (int i = 0; i < 300; i++) {
+      addMessage("localhost_" + (i % NUM_INSTANCES), "chunked_" + i, instanceNames, paths,
+          records);
+    }
+
+    MessageMultiDispatcher.Result result =
+        MessageMultiDispatcher.dispatch(_accessor, _pool, 3, 4096, instanceNames, paths, records);
+
+    for (int i = 0; i < paths.size(); i++) {
+      Assert.assertTrue(result._success[i], paths.get(i));
+      Assert.assertTrue(_gZkClient.exists(paths.get(i)), paths.get(i));
+    }
+    // The messages of each instance need several chunks to stay under the size limit.
+    Assert.assertTrue(result._chunkCount > NUM_INSTANCES * 2, "chunks: " + result._chunkCount);
+    Assert.assertTrue(result._chunkBytes > 0L);
+    Assert.assertEquals(result._failedChunkCount.get(), 0);
+  }
+
+  @Test
+  public void testFailedChunkFallsBackToSingleCreates() {
+    List<String> instanceNames = new ArrayList<>();
+    List<String> paths = new ArrayList<>();
+    List<ZNRecord> records = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      addMessage("localhost_0", "fallback_" + i, instanceNames, paths, records);
+      addMessage("localhost_1", "fallback_" + i, instanceNames, paths, records);
+    }
+    // An existing message fails the multi of its instance only.
+    Assert.assertTrue(_accessor.create(paths.get(0), records.get(0), AccessOption.PERSISTENT));
+
+    MessageMultiDispatcher.Result result = MessageMultiDispatcher
+        .dispatch(_accessor, null, 1, Integer.MAX_VALUE, instanceNames, paths, records);
+
+    Assert.assertEquals(result._chunkCount, 2);
+    Assert.assertEquals(result._failedChunkCount.get(), 1);
+    Assert.assertFalse(result._success[0]);
+    for (int i = 1; i < paths.size(); i++) {
+      Assert.assertTrue(result._success[i], paths.get(i));
+      Assert.assertTrue(_gZkClient.exists(paths.get(i)), paths.get(i));
+    }
+  }
+
+  private void addMessage(String instanceName, String msgId, List<String> instanceNames,
+      List<String> paths, List<ZNRecord> records) {
+    Message message = new Message(Message.MessageType.STATE_TRANSITION, msgId);
+    message.setTgtName(instanceName);
+    message.setResourceName("TestDB");
+    message.setPartitionName("TestDB_0");
+    message.setFromState("OFFLINE");
+    message.setToState("SLAVE");
+    instanceNames.add(instanceName);
+    paths.add(_keyBuilder.message(instanceName, msgId).getPath());
+    records.add(message.getRecord());
+  }
+}
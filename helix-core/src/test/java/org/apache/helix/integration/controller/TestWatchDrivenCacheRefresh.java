@@ -0,0 +1,107 @@
+package org.apache.helix.integration.controller;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.helix.SystemPropertyKeys;
+import org.apache.helix.TestHelper;
+import org.apache.helix.common.ZkTestBase;
+import org.apache.helix.controller.GenericHelixController;
+import org.apache.helix.integration.manager.ClusterControllerManager;
+import org.apache.helix.integration.manager.MockParticipantManager;
+import org.apache.helix.tools.ClusterVerifiers.BestPossibleExternalViewVerifier;
+import org.apache.helix.tools.ClusterVerifiers.ZkHelixClusterVerifier;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+public class TestWatchDrivenCacheRefresh extends ZkTestBase {
+  private static final int NUM_NODES = 3;
+  private static final String TEST_DB = "TestDB";
+  private final String CLUSTER_NAME = CLUSTER_PREFIX + "_" + getShortClassName();
+  private final List<MockParticipantManager> _participants = new ArrayList<>();
+  private ClusterControllerManager _controller;
+  private ZkHelixClusterVerifier _clusterVerifier;
+
+  @BeforeClass
+  public void beforeClass() throws Exception {
+    System.setProperty(SystemPropertyKeys.CONTROLLER_WATCH_DRIVEN_CACHE_REFRESH_INTERVAL,
+        String.valueOf(3600 * 1000L));
+    _gSetupTool.addCluster(CLUSTER_NAME, true);
+    for (int i = 0; i < NUM_NODES; i++) {
+      String instanceName = PARTICIPANT_PREFIX + "_" + (12918 + i);
+      _gSetupTool.addInstanceToCluster(CLUSTER_NAME, instanceName);
+      MockParticipantManager participant =
+          new MockParticipantManager(ZK_ADDR, CLUSTER_NAME, instanceName);
+      participant.syncStart();
+      _participants.add(participant);
+    }
+    _gSetupTool.addResourceToCluster(CLUSTER_NAME, TEST_DB, 8, "MasterSlave");
+    _gSetupTool.rebalanceStorageCluster(CLUSTER_NAME, TEST_DB, 2);
+
+    _controller = new ClusterControllerManager(ZK_ADDR, CLUSTER_NAME, "controller_0");
+    _controller.syncStart();
+    _clusterVerifier =
+        new BestPossibleExternalViewVerifier.Builder(CLUSTER_NAME).setZkClient(_gZkClient)
+            .setWaitTillVerify(TestHelper.DEFAULT_REBALANCE_PROCESSING_WAIT_TIME)
+            .build();
+  }
+
+  @AfterClass
+  public void afterClass() {
+    System.clearProperty(SystemPropertyKeys.CONTROLLER_WATCH_DRIVEN_CACHE_REFRESH_INTERVAL);
+    _clusterVerifier.close();
+    _controller.syncStop();
+    for (MockParticipantManager participant : _participants) {
+      participant.syncStop();
+    }
+    deleteCluster(CLUSTER_NAME);
+  }
+
+  @Test
+  public void testWatchDrivenCacheRefresh() throws Exception {
+    Assert.assertTrue(_clusterVerifier.verifyByPolling());
+    GenericHelixController controller = GenericHelixController.getLeaderController(CLUSTER_NAME);
+    Assert.assertNotNull(controller);
+    Assert.assertTrue(controller.isWatchDrivenCacheRefreshEnabled());
+
+    // The CurrentStates written by the transitions of a new participant session are picked up.
+    String instanceName = _participants.get(0).getInstanceName();
+    _participants.get(0).syncStop();
+    Assert.assertTrue(_clusterVerifier.verifyByPolling());
+    MockParticipantManager participant =
+        new MockParticipantManager(ZK_ADDR, CLUSTER_NAME, instanceName);
+    participant.syncStart();
+    _participants.set(0, participant);
+    Assert.assertTrue(_clusterVerifier.verifyByPolling());
+
+    // So are the InstanceConfig changes.
+    _gSetupTool.getClusterManagementTool()
+        .enableInstance(CLUSTER_NAME, _participants.get(1).getInstanceName(), false);
+    Assert.assertTrue(_clusterVerifier.verifyByPolling());
+
+    // The watches are removed once the controller no longer leads.
+    _controller.syncStop();
+    Assert.assertFalse(controller.isWatchDrivenCacheRefreshEnabled());
+  }
+}
@@ -0,0 +1,60 @@
+package org.apache.helix.integration.messaging;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.lang.management.ManagementFactory;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.apache.helix.ConfigAccessor;
+import org.apache.helix.integration.common.ZkStandAloneCMTestBase;
+import org.apache.helix.model.ClusterConfig;
+import org.apache.helix.monitoring.mbeans.ClusterStatusMonitor;
+import org.apache.helix.monitoring.mbeans.MonitorDomainNames;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class TestMessageMultiDispatch extends ZkStandAloneCMTestBase {
+
+  @Test
+  public void testRebalanceWithMultiDispatch() throws Exception {
+    ConfigAccessor configAccessor = new ConfigAccessor(_gZkClient);
+    ClusterConfig clusterConfig = configAccessor.getClusterConfig(CLUSTER_NAME);
+    clusterConfig.setMessageDispatchMultiMode(true);
+    // Small chunks so that the messages of each instance are split into several multis.
+    clusterConfig.setMessageDispatchMaxChunkBytes(2048);
+    clusterConfig.setMessageDispatchMaxInFlight(2);
+    configAccessor.setClusterConfig(CLUSTER_NAME, clusterConfig);
+
+    String dbName = "TestMultiDispatchDB";
+    _gSetupTool.addResourceToCluster(CLUSTER_NAME, dbName, 40, STATE_MODEL);
+    _gSetupTool.rebalanceStorageCluster(CLUSTER_NAME, dbName, _replica);
+    Assert.assertTrue(_clusterVerifier.verifyByPolling());
+
+    MBeanServer beanServer = ManagementFactory.getPlatformMBeanServer();
+    ObjectName clusterMonitorObjName = new ObjectName(String.format("%s:%s=%s",
+        MonitorDomainNames.ClusterStatus.name(), ClusterStatusMonitor.CLUSTER_DN_KEY,
+        CLUSTER_NAME));
+    Assert.assertTrue((long) beanServer.getAttribute(clusterMonitorObjName,
+        "MessageDispatchChunkCounter") > 0L);
+    Assert.assertEquals((long) beanServer.getAttribute(clusterMonitorObjName,
+        "MessageDispatchFailedChunkCounter"), 0L);
+  }
+}
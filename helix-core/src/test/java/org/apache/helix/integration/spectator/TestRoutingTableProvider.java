@@ -389,6 +389,45 @@ public class TestRoutingTableProvider extends ZkTestBase {
     routingTableProvider.shutdown();
   }
 
+  @Test(dependsOnMethods = "testGetRoutingTableSnapshot")
+  public void testSharedRoutingTableProvider() throws Exception {
+    Map<PropertyType, List<String>> sourceDataTypes =
+        Collections.singletonMap(PropertyType.EXTERNALVIEW, Collections.emptyList());
+    RoutingTableProvider sharedProvider1 =
+        RoutingTableProvider.createShared(ZK_ADDR, CLUSTER_NAME, sourceDataTypes);
+    RoutingTableProvider sharedProvider2 =
+        RoutingTableProvider.createShared(ZK_ADDR, CLUSTER_NAME, sourceDataTypes);
+    MockRoutingTableChangeListener routingTableChangeListener = new MockRoutingTableChangeListener();
+    sharedProvider2.addRoutingTableChangeListener(routingTableChangeListener, null, true);
+    Assert.assertTrue(TestHelper.verify(() -> routingTableChangeListener.routingTableChangeReceived,
+        TestHelper.WAIT_DURATION));
+
+    // Both providers read the same routing data, which matches the one of a dedicated provider.
+    IdealState is =
+        _gSetupTool.getClusterManagementTool().getResourceIdealState(CLUSTER_NAME, TEST_DB);
+    Assert.assertTrue(TestHelper.verify(() -> {
+      for (String p : is.getPartitionSet()) {
+        for (String state : Arrays.asList("MASTER", "SLAVE")) {
+          List<InstanceConfig> expected = _routingTableProvider_ev.getInstances(TEST_DB, p, state);
+          if (!new HashSet<>(expected)
+              .equals(new HashSet<>(sharedProvider1.getInstances(TEST_DB, p, state)))
+              || !new HashSet<>(expected)
+              .equals(new HashSet<>(sharedProvider2.getInstances(TEST_DB, p, state)))) {
+            return false;
+          }
+        }
+      }
+      return true;
+    }, WAIT_DURATION));
+
+    // Shutting down one of the providers keeps the shared data for the other one.
+    sharedProvider1.shutdown();
+    Assert.assertEquals(sharedProvider2.getLiveInstances().size(),
+        _routingTableProvider_ev.getLiveInstances().size());
+    Assert.assertFalse(sharedProvider2.getInstancesForResource(TEST_DB, "SLAVE").isEmpty());
+    sharedProvider2.shutdown();
+  }
+
   private void validateRoutingTable(RoutingTableProvider routingTableProvider,
       Set<String> masterNodes, Set<String> slaveNodes) {
     IdealState is =
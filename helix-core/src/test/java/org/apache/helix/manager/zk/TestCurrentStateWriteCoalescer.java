@@ -0,0 +1,180 @@
+package org.apache.helix.manager.zk;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.apache.helix.AccessOption;
+import org.apache.helix.TestHelper;
+import org.apache.helix.ZkUnitTestBase;
+import org.apache.helix.monitoring.mbeans.CurrentStateWriteMonitor;
+import org.apache.helix.monitoring.mbeans.MonitorDomainNames;
+import org.apache.helix.monitoring.mbeans.ParticipantStatusMonitor;
+import org.apache.helix.zookeeper.datamodel.ZNRecord;
+import org.apache.zookeeper.data.Stat;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+public class TestCurrentStateWriteCoalescer extends ZkUnitTestBase {
+  private final String _rootPath = "/" + TestHelper.getTestClassName();
+
+  @AfterMethod
+  public void afterMethod() {
+    if (_gZkClient.exists(_rootPath)) {
+      _gZkClient.deleteRecursively(_rootPath);
+    }
+  }
+
+  @Test
+  public void testConcurrentUpdatesAreCoalesced() throws Exception {
+    final String path = _rootPath + "/currentState";
+    final ZkBaseDataAccessor<ZNRecord> accessor = new ZkBaseDataAccessor<>(_gZkClient);
+    String instanceName = "localhost_" + TestHelper.getTestMethodName();
+    ParticipantStatusMonitor monitor = new ParticipantStatusMonitor(true, instanceName);
+    final CurrentStateWriteCoalescer coalescer = new CurrentStateWriteCoalescer(20, 500, monitor);
+
+    int numThreads = 16;
+    final int updatesPerThread = 50;
+    ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+    try {
+      List<Future<Boolean>> futures = new ArrayList<>();
+      for (int t = 0; t < numThreads; t++) {
+        final int threadId = t;
+        futures.add(executor.submit(new Callable<Boolean>() {
+          @Override
+          public Boolean call() {
+            boolean success = true;
+            // Each thread owns its partition, so its updates must land in order.
+            for (int i = 0; i < updatesPerThread; i++) {
+              ZNRecord delta = new ZNRecord("resource");
+              delta.setMapField("partition_" + threadId, new HashMap<String, String>());
+              delta.getMapField("partition_" + threadId).put("CURRENT_STATE", "STATE_" + i);
+              success &= coalescer.commit(accessor, AccessOption.PERSISTENT, path, delta, true);
+            }
+            return success;
+          }
+        }));
+      }
+      for (Future<Boolean> future : futures) {
+        Assert.assertTrue(future.get());
+      }
+    } finally {
+      executor.shutdown();
+    }
+
+    Stat stat = new Stat();
+    ZNRecord record = accessor.get(path, stat, AccessOption.PERSISTENT);
+    Assert.assertEquals(record.getMapFields().size(), numThreads);
+    for (int t = 0; t < numThreads; t++) {
+      Assert.assertEquals(record.getMapField("partition_" + t).get("CURRENT_STATE"),
+          "STATE_" + (updatesPerThread - 1));
+    }
+    int totalUpdates = numThreads * updatesPerThread;
+    // The node was created by the first write, each later write bumped the version once.
+    int totalWrites = stat.getVersion() + 1;
+    Assert.assertTrue(totalWrites < totalUpdates,
+        "Expected fewer writes than updates, but got " + totalWrites);
+
+    MBeanServer beanServer = ManagementFactory.getPlatformMBeanServer();
+    ObjectName objectName = new ObjectName(String.format("%s:%s=%s,MonitorType=%s",
+        MonitorDomainNames.CLMParticipantReport.name(), ParticipantStatusMonitor.PARTICIPANT_KEY,
+        instanceName, CurrentStateWriteMonitor.class.getSimpleName()));
+    Assert.assertEquals(
+        (long) beanServer.getAttribute(objectName, "TotalCurrentStateUpdateCounter"),
+        totalUpdates);
+    Assert.assertEquals(
+        (long) beanServer.getAttribute(objectName, "TotalCurrentStateWriteCounter"), totalWrites);
+    Assert.assertEquals(
+        (long) beanServer.getAttribute(objectName, "FailedCurrentStateWriteCounter"), 0L);
+
+    monitor.shutDown();
+    Assert.assertFalse(beanServer.isRegistered(objectName));
+  }
+
+  @Test
+  public void testRemoveIfEmptyAndFailure() {
+    String path = _rootPath + "/currentState";
+    ZkBaseDataAccessor<ZNRecord> accessor = new ZkBaseDataAccessor<>(_gZkClient);
+    CurrentStateWriteCoalescer coalescer = new CurrentStateWriteCoalescer();
+
+    ZNRecord delta = new ZNRecord("resource");
+    delta.setSimpleField("SESSION_ID", "session_0");
+    Assert.assertTrue(coalescer.commit(accessor, AccessOption.PERSISTENT, path, delta, true));
+    Assert.assertFalse(_gZkClient.exists(path));
+
+    delta.setMapField("partition_0", new HashMap<String, String>());
+    Assert.assertTrue(coalescer.commit(accessor, AccessOption.PERSISTENT, path, delta, true));
+    Assert.assertTrue(_gZkClient.exists(path));
+
+    // A write that keeps failing is reported to the caller.
+    ZkBaseDataAccessor<ZNRecord> failingAccessor = new ZkBaseDataAccessor<ZNRecord>(_gZkClient) {
+      @Override
+      public boolean set(String path, ZNRecord record, int expectVersion, int options) {
+        return false;
+      }
+    };
+    Assert.assertFalse(
+        coalescer.commit(failingAccessor, AccessOption.PERSISTENT, path, delta, true));
+  }
+
+  @Test
+  public void testLeaderStepsDownOnUnexpectedException() {
+    String path = _rootPath + "/currentState";
+    ZkBaseDataAccessor<ZNRecord> accessor = new ZkBaseDataAccessor<>(_gZkClient);
+    ParticipantStatusMonitor failingMonitor =
+        new ParticipantStatusMonitor(false, "localhost_" + TestHelper.getTestMethodName()) {
+          private boolean _failed = false;
+
+          @Override
+          public void reportCurrentStateWrite(int batchSize, long latencyMs, boolean success) {
+            if (!_failed) {
+              _failed = true;
+              throw new IllegalStateException("Injected failure");
+            }
+          }
+        };
+    CurrentStateWriteCoalescer coalescer = new CurrentStateWriteCoalescer(0, 500, failingMonitor);
+
+    ZNRecord delta = new ZNRecord("resource");
+    delta.setMapField("partition_0", new HashMap<String, String>());
+    try {
+      coalescer.commit(accessor, AccessOption.PERSISTENT, path, delta, true);
+      Assert.fail("Expecting the injected failure");
+    } catch (IllegalStateException e) {
+      // Expected.
+    }
+
+    // The failed leader must have stepped down, so the next writer leads instead of waiting.
+    delta.setMapField("partition_1", new HashMap<String, String>());
+    Assert.assertTrue(coalescer.commit(accessor, AccessOption.PERSISTENT, path, delta, true));
+    Assert.assertEquals(accessor.get(path, null, AccessOption.PERSISTENT).getMapFields().size(),
+        2);
+  }
+}
@@ -0,0 +1,108 @@
+package org.apache.helix.messaging.handling;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.helix.TestHelper;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class TestBoundedThreadPerTaskExecutor {
+  @Test
+  public void testConcurrencyLimit() throws Exception {
+    // Platform threads stand in for virtual threads, which need Java 21.
+    BoundedThreadPerTaskExecutor executor =
+        new BoundedThreadPerTaskExecutor(3, Executors.defaultThreadFactory());
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger maxRunning = new AtomicInteger();
+    List<Future<?>> futures = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      futures.add(executor.submit(() -> {
+        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+        release.await();
+        running.decrementAndGet();
+        return null;
+      }));
+    }
+
+    Assert.assertTrue(TestHelper.verify(
+        () -> executor.getActiveCount() == 3 && executor.getWaitingCount() == 7,
+        TestHelper.WAIT_DURATION));
+    release.countDown();
+    for (Future<?> future : futures) {
+      future.get(10, TimeUnit.SECONDS);
+    }
+    Assert.assertEquals(maxRunning.get(), 3);
+    Assert.assertEquals(executor.getActiveCount(), 0);
+
+    executor.shutdown();
+    Assert.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    Assert.assertTrue(executor.isTerminated());
+  }
+
+  @Test
+  public void testShutdown() throws Exception {
+    BoundedThreadPerTaskExecutor executor =
+        new BoundedThreadPerTaskExecutor(1, Executors.defaultThreadFactory());
+    CountDownLatch started = new CountDownLatch(1);
+    Future<?> blocking = executor.submit(() -> {
+      started.countDown();
+      Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+      return null;
+    });
+    AtomicInteger waitingTaskRuns = new AtomicInteger();
+    Future<?> waiting = executor.submit(waitingTaskRuns::incrementAndGet);
+    Assert.assertTrue(started.await(10, TimeUnit.SECONDS));
+
+    executor.shutdown();
+    Assert.assertTrue(executor.isShutdown());
+    Assert.assertFalse(executor.isTerminated());
+    try {
+      executor.submit(waitingTaskRuns::incrementAndGet);
+      Assert.fail("Tasks should be rejected after shutdown.");
+    } catch (RejectedExecutionException expected) {
+      // expected
+    }
+
+    List<Runnable> drainedTasks = executor.shutdownNow();
+    Assert.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    Assert.assertTrue(blocking.isDone());
+    // The task waiting for a permit is drained and cancelled, so get() does not block.
+    Assert.assertEquals(drainedTasks.size(), 1);
+    Assert.assertTrue(waiting.isCancelled());
+    try {
+      waiting.get(10, TimeUnit.SECONDS);
+      Assert.fail("The drained task should be cancelled.");
+    } catch (CancellationException expected) {
+      // expected
+    }
+    Assert.assertEquals(waitingTaskRuns.get(), 0);
+  }
+}
@@ -0,0 +1,165 @@
+package org.apache.helix.messaging.handling;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.helix.HelixDataAccessor;
+import org.apache.helix.HelixManager;
+import org.apache.helix.NotificationContext;
+import org.apache.helix.mock.MockManager;
+import org.apache.helix.model.Message;
+import org.apache.helix.model.StateModelDefinition;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class TestStateTransitionPriorityExecutor {
+  private static final String STATE_MODEL = "TestPriorityMasterSlave";
+  private static final String RESOURCE = "TestResource";
+
+  @Test
+  public void testDefaultPolicyOrder() {
+    MockManager manager = new MockManager();
+    HelixDataAccessor accessor = manager.getHelixDataAccessor();
+    StateModelDefinition stateModelDef = new StateModelDefinition.Builder(STATE_MODEL)
+        .addState("MASTER", 1).addState("SLAVE", 2).addState("OFFLINE", 3)
+        .addState("DROPPED", 4).initialState("OFFLINE")
+        .addTransition("MASTER", "SLAVE", 1).addTransition("OFFLINE", "SLAVE", 2)
+        .addTransition("SLAVE", "OFFLINE", 3).addTransition("SLAVE", "MASTER", 4)
+        .addTransition("OFFLINE", "DROPPED").build();
+    accessor.setProperty(accessor.keyBuilder().stateModelDef(STATE_MODEL), stateModelDef);
+
+    Message bootstrap = newMessage("p0", "OFFLINE", "SLAVE");
+    Message promotion = newMessage("p1", "SLAVE", "MASTER");
+    Message demotion = newMessage("p2", "MASTER", "SLAVE");
+    Message offline = newMessage("p3", "SLAVE", "OFFLINE");
+    Message unknown = newMessage("p4", "OFFLINE", "BOOTSTRAP");
+
+    DefaultStateTransitionPriorityPolicy policy = new DefaultStateTransitionPriorityPolicy();
+    List<Message> messages = Arrays.asList(unknown, offline, bootstrap, demotion, promotion);
+    for (Message message : messages) {
+      policy.prepare(message, manager);
+    }
+    List<Message> sorted = new ArrayList<>(messages);
+    sorted.sort(policy);
+    // The top state promotion goes first, the rest follow the transition priority list.
+    Assert.assertEquals(sorted, Arrays.asList(promotion, demotion, bootstrap, offline, unknown));
+  }
+
+  @Test
+  public void testExecutionOrder() throws Exception {
+    // Run the partitions with the highest name first.
+    StateTransitionPriorityPolicy policy = new ReversePartitionOrderPolicy();
+    StateTransitionPriorityExecutor executor =
+        new StateTransitionPriorityExecutor(1, policy, Executors.defaultThreadFactory());
+    try {
+      CountDownLatch blocker = new CountDownLatch(1);
+      executor.submit(() -> {
+        blocker.await();
+        return null;
+      });
+
+      List<String> executed = Collections.synchronizedList(new ArrayList<>());
+      List<Future<HelixTaskResult>> futures = new ArrayList<>();
+      for (String partition : Arrays.asList("p1", "p3", "p0", "p2")) {
+        Message message = newMessage(partition, "OFFLINE", "SLAVE");
+        futures.add(executor.submit(new RecordingTask(message, executed)));
+      }
+      blocker.countDown();
+      for (Future<HelixTaskResult> future : futures) {
+        Assert.assertTrue(future.get(10, TimeUnit.SECONDS).isSuccess());
+      }
+      Assert.assertEquals(executed, Arrays.asList("p3", "p2", "p1", "p0"));
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static Message newMessage(String partition, String fromState, String toState) {
+    Message message = new Message(Message.MessageType.STATE_TRANSITION,
+        partition + "_" + fromState + "_" + toState);
+    message.setStateModelDef(STATE_MODEL);
+    message.setResourceName(RESOURCE);
+    message.setPartitionName(partition);
+    message.setFromState(fromState);
+    message.setToState(toState);
+    return message;
+  }
+
+  private static class ReversePartitionOrderPolicy implements StateTransitionPriorityPolicy {
+    @Override
+    public void prepare(Message message, HelixManager manager) {
+    }
+
+    @Override
+    public int compare(Message m1, Message m2) {
+      return m2.getPartitionName().compareTo(m1.getPartitionName());
+    }
+  }
+
+  private static class RecordingTask implements MessageTask {
+    private final Message _message;
+    private final List<String> _executed;
+
+    RecordingTask(Message message, List<String> executed) {
+      _message = message;
+      _executed = executed;
+    }
+
+    @Override
+    public HelixTaskResult call() {
+      _executed.add(_message.getPartitionName());
+      HelixTaskResult result = new HelixTaskResult();
+      result.setSuccess(true);
+      return result;
+    }
+
+    @Override
+    public String getTaskId() {
+      return _message.getId();
+    }
+
+    @Override
+    public Message getMessage() {
+      return _message;
+    }
+
+    @Override
+    public NotificationContext getNotificationContext() {
+      return null;
+    }
+
+    @Override
+    public void onTimeout() {
+    }
+
+    @Override
+    public boolean cancel() {
+      return false;
+    }
+  }
+}
@@ -117,6 +117,15 @@ public class TestClusterEventStatusMonitor {
       Assert.assertTrue(Math.abs(pct99th - 500.0) < 1);
       Assert.assertTrue(max == 500);
       Assert.assertTrue(Math.abs(stddev - 158.0) < 0.2);
+      Assert.assertEquals(_server.getAttribute(mbean.getObjectName(), "ParallelismGauge"), 1L);
+    }
+
+    monitor.updateClusterEventParallelism(BestPossibleStateCalcStage.class.getSimpleName(), 4);
+    for (ObjectInstance mbean : mbeans) {
+      long expectedParallelism = BestPossibleStateCalcStage.class.getSimpleName()
+          .equals(mbean.getObjectName().getKeyProperty("phaseName")) ? 4L : 1L;
+      Assert.assertEquals(_server.getAttribute(mbean.getObjectName(), "ParallelismGauge"),
+          expectedParallelism);
     }
 
     System.out.println("\nWaiting for time window to expire\n");
@@ -148,6 +157,42 @@ public class TestClusterEventStatusMonitor {
     System.out.println("END TestParticipantMonitor");
   }
 
+  @Test
+  public void testPipelineStageMetrics() throws Exception {
+    String clusterName = "TestPipelineStageCluster";
+    ClusterStatusMonitorForTest monitor = new ClusterStatusMonitorForTest(clusterName);
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    ObjectName query =
+        new ObjectName("ClusterStatus:cluster=" + clusterName + ",eventName=PipelineStage,*");
+
+    String stageName = BestPossibleStateCalcStage.class.getSimpleName();
+    monitor.updatePipelineStageMetrics("DEFAULT", "CurrentStateChange", stageName, 100, 1000);
+    monitor.updatePipelineStageMetrics("DEFAULT", "CurrentStateChange", stageName, 300, 3000);
+    monitor.updatePipelineStageMetrics("TASK", "CurrentStateChange", stageName, 50, -1);
+    // An empty pipeline type is reported as the default one
+    monitor.updatePipelineStageMetrics("", "", stageName, 10, 10);
+
+    Set<ObjectInstance> mbeans = server.queryMBeans(query, null);
+    Assert.assertEquals(mbeans.size(), 3);
+    ObjectName defaultStage = new ObjectName("ClusterStatus:cluster=" + clusterName
+        + ",eventName=PipelineStage,pipelineType=DEFAULT,eventType=CurrentStateChange,stageName="
+        + stageName);
+    Assert.assertEquals(server.getAttribute(defaultStage, "ProcessCounter"), 2L);
+    Assert.assertEquals(server.getAttribute(defaultStage, "AllocatedBytesCounter"), 4000L);
+    Assert.assertEquals(server.getAttribute(defaultStage, "LatencyGauge.Max"), 300L);
+    Assert.assertEquals(server.getAttribute(defaultStage, "AllocatedBytesGauge.Max"), 3000L);
+
+    // The allocation is not reported if it is not measured
+    ObjectName taskStage = new ObjectName("ClusterStatus:cluster=" + clusterName
+        + ",eventName=PipelineStage,pipelineType=TASK,eventType=CurrentStateChange,stageName="
+        + stageName);
+    Assert.assertEquals(server.getAttribute(taskStage, "ProcessCounter"), 1L);
+    Assert.assertEquals(server.getAttribute(taskStage, "AllocatedBytesCounter"), 0L);
+
+    monitor.reset();
+    Assert.assertEquals(server.queryMBeans(query, null).size(), 0);
+  }
+
   private void addTestEventMonitor(ClusterStatusMonitorForTest monitor, String phaseName) throws
       JMException {
     ConcurrentHashMap<String, ClusterEventMonitor> monitors = monitor.getClusterEventMonitors();
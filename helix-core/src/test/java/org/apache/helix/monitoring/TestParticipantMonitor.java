@@ -20,7 +20,9 @@ package org.apache.helix.monitoring;
  */
 
 import java.io.IOException;
+import java.lang.management.ManagementFactory;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import javax.management.AttributeNotFoundException;
@@ -28,6 +30,7 @@ import javax.management.InstanceNotFoundException;
 import javax.management.MBeanAttributeInfo;
 import javax.management.MBeanException;
 import javax.management.MBeanInfo;
+import javax.management.MBeanServer;
 import javax.management.MBeanServerConnection;
 import javax.management.MBeanServerNotification;
 import javax.management.MalformedObjectNameException;
@@ -190,7 +193,8 @@ public class TestParticipantMonitor {
     ParticipantMonitorListener monitorListener =
         new ParticipantMonitorListener(DOMAIN_NAME, "ParticipantName", PARTICIPANT_NAME);
     Thread.sleep(1000);
-    Assert.assertEquals(monitorListener._beanValueMap.size(), 2);
+    // ParticipantMessageMonitor, MessageLatencyMonitor and CurrentStateWriteMonitor
+    Assert.assertEquals(monitorListener._beanValueMap.size(), 3);
     Assert.assertEquals(monitorListener._beanValueMap.get(
         getObjectName("ParticipantName=participant_0,MonitorType=ParticipantMessageMonitor")
             .toString()).get("ReceivedMessages"), 1L);
@@ -243,4 +247,39 @@ public class TestParticipantMonitor {
 
     System.out.println("END TestParticipantMessageMonitor");
   }
+
+  @Test()
+  public void testReportStateTransitionQueueWait() throws Exception {
+    String participantName = "participant_queueWait";
+    ParticipantStatusMonitor monitor = new ParticipantStatusMonitor(true, participantName);
+    try {
+      Message message = new Message(Message.MessageType.STATE_TRANSITION, "0");
+      message.setFromState("OFFLINE");
+      message.setToState("SLAVE");
+      message.setReadTimeStamp(1000L);
+      message.setExecuteStartTimeStamp(1250L);
+      monitor.reportStateTransitionQueueWait(message);
+
+      // Non state transition messages are not reported.
+      Message noOp = new Message(Message.MessageType.NO_OP, "1");
+      noOp.setReadTimeStamp(1000L);
+      noOp.setExecuteStartTimeStamp(5000L);
+      monitor.reportStateTransitionQueueWait(noOp);
+
+      ObjectName objectName = getObjectName(String
+          .format("ParticipantName=%s,MonitorType=ParticipantMessageMonitor", participantName));
+      MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+      Assert.assertEquals(server.getAttribute(objectName, "OFFLINE_SLAVE_QueueWaitTimeGauge.Max"),
+          250L);
+      Set<String> attributeNames = new HashSet<>();
+      for (MBeanAttributeInfo info : server.getMBeanInfo(objectName).getAttributes()) {
+        attributeNames.add(info.getName());
+      }
+      Assert.assertEquals(attributeNames.stream()
+          .filter(name -> name.contains("QueueWaitTimeGauge") && name.endsWith(".Max")).count(),
+          1L);
+    } finally {
+      monitor.shutDown();
+    }
+  }
 }
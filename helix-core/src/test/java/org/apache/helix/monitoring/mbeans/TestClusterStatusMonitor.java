@@ -255,6 +255,52 @@ public class TestClusterStatusMonitor {
     System.out.println("END " + clusterName + " at " + new Date(System.currentTimeMillis()));
   }
 
+  @Test
+  public void testDataRefreshReadMetrics() throws Exception {
+    String clusterName = TestHelper.getTestClassName() + "_" + TestHelper.getTestMethodName();
+    ClusterStatusMonitor monitor = new ClusterStatusMonitor(clusterName);
+    monitor.active();
+    ObjectName clusterMonitorObjName = monitor.getObjectName(monitor.clusterBeanName());
+
+    monitor.updateDataRefreshReads(100, 10);
+    monitor.updateDataRefreshReads(0, 2);
+    Assert.assertEquals((long) _server.getAttribute(clusterMonitorObjName,
+        "DataRefreshStatReadGauge"), 0L);
+    Assert.assertEquals((long) _server.getAttribute(clusterMonitorObjName,
+        "DataRefreshReadGauge"), 2L);
+    Assert.assertEquals((long) _server.getAttribute(clusterMonitorObjName,
+        "DataRefreshStatReadCounter"), 100L);
+    Assert.assertEquals((long) _server.getAttribute(clusterMonitorObjName,
+        "DataRefreshReadCounter"), 12L);
+
+    monitor.reset();
+  }
+
+  @Test
+  public void testMessageDispatchMetrics() throws Exception {
+    String clusterName = TestHelper.getTestClassName() + "_" + TestHelper.getTestMethodName();
+    ClusterStatusMonitor monitor = new ClusterStatusMonitor(clusterName);
+    monitor.active();
+    ObjectName clusterMonitorObjName = monitor.getObjectName(monitor.clusterBeanName());
+
+    monitor.updateMessageDispatch(4, 4096, 1, 20);
+    monitor.updateMessageDispatch(2, 1024, 0, 5);
+    Assert.assertEquals((long) _server.getAttribute(clusterMonitorObjName,
+        "MessageDispatchChunkGauge"), 2L);
+    Assert.assertEquals((long) _server.getAttribute(clusterMonitorObjName,
+        "MessageDispatchChunkBytesGauge"), 1024L);
+    Assert.assertEquals((long) _server.getAttribute(clusterMonitorObjName,
+        "MessageDispatchLatencyGauge"), 5L);
+    Assert.assertEquals((long) _server.getAttribute(clusterMonitorObjName,
+        "MessageDispatchChunkCounter"), 6L);
+    Assert.assertEquals((long) _server.getAttribute(clusterMonitorObjName,
+        "MessageDispatchChunkBytesCounter"), 5120L);
+    Assert.assertEquals((long) _server.getAttribute(clusterMonitorObjName,
+        "MessageDispatchFailedChunkCounter"), 1L);
+
+    monitor.reset();
+  }
+
   @Test
   public void testResourceAggregation() throws JMException, IOException {
     String className = TestHelper.getTestClassName();
@@ -124,6 +124,18 @@ public class TestRoutingTableProviderMonitor {
     Assert.assertTrue(newLatency >= latency);
     Assert.assertEquals((long) _beanServer.getAttribute(name, "DataRefreshCounter"), 2);
 
+    monitor.increaseRoutingTableRefreshCounters(false, 100);
+    monitor.increaseRoutingTableRefreshCounters(true, 2);
+    monitor.increaseRoutingTableRefreshCounters(true, 0);
+    Assert.assertEquals((long) _beanServer.getAttribute(name, "FullRefreshCounter"), 1);
+    Assert.assertEquals((long) _beanServer.getAttribute(name, "IncrementalRefreshCounter"), 2);
+    Assert.assertEquals((long) _beanServer.getAttribute(name, "RefreshedResourceCounter"), 102);
+
+    monitor.updateSharedProviderCount(3);
+    monitor.updateRoutingTableHeapBytes(4096);
+    Assert.assertEquals((long) _beanServer.getAttribute(name, "SharedProviderGauge"), 3);
+    Assert.assertEquals((long) _beanServer.getAttribute(name, "RoutingTableHeapBytesGauge"), 4096);
+
     monitor.unregister();
   }
 
@@ -0,0 +1,55 @@
+package org.apache.helix.spectator;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.Collection;
+
+import org.apache.helix.PropertyType;
+import org.apache.helix.model.ExternalView;
+import org.apache.helix.model.InstanceConfig;
+import org.apache.helix.model.LiveInstance;
+
+/**
+ * Static test utility methods that build the package private routing tables, so they can be used
+ * outside of this package, e.g. by the benchmarks.
+ */
+public class RoutingTableTestUtil {
+  private RoutingTableTestUtil() {
+  }
+
+  /**
+   * Build a {@link RoutingTable} of the given external views.
+   */
+  public static RoutingTableSnapshot buildRoutingTable(Collection<ExternalView> externalViews,
+      Collection<InstanceConfig> instanceConfigs, Collection<LiveInstance> liveInstances) {
+    return new RoutingTableSnapshot(new RoutingTable(externalViews, instanceConfigs,
+        liveInstances, PropertyType.EXTERNALVIEW));
+  }
+
+  /**
+   * Build a {@link CompactRoutingTable} of the given external views.
+   */
+  public static RoutingTableSnapshot buildCompactRoutingTable(
+      Collection<ExternalView> externalViews, Collection<InstanceConfig> instanceConfigs,
+      Collection<LiveInstance> liveInstances) {
+    return new RoutingTableSnapshot(new CompactRoutingTable(externalViews, instanceConfigs,
+        liveInstances, PropertyType.EXTERNALVIEW));
+  }
+}
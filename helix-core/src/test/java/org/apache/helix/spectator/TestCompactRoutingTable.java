@@ -0,0 +1,244 @@
+package org.apache.helix.spectator;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.helix.PropertyType;
+import org.apache.helix.model.CurrentState;
+import org.apache.helix.model.ExternalView;
+import org.apache.helix.model.InstanceConfig;
+import org.apache.helix.model.LiveInstance;
+import org.apache.helix.zookeeper.datamodel.ZNRecord;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+public class TestCompactRoutingTable {
+  private static final int NUM_INSTANCES = 6;
+  private static final int NUM_PARTITIONS = 8;
+  private static final String[] STATES = {"MASTER", "SLAVE", "OFFLINE"};
+  private static final String GROUP = "testGroup";
+  private static final List<String> TAGS = Arrays.asList("tag_0", "tag_1");
+
+  private final List<InstanceConfig> _instanceConfigs = new ArrayList<>();
+  private final List<LiveInstance> _liveInstances = new ArrayList<>();
+  private final List<ExternalView> _externalViews = new ArrayList<>();
+  private final Map<String, Map<String, Map<String, CurrentState>>> _currentStateMap =
+      new HashMap<>();
+
+  @BeforeClass
+  public void beforeClass() {
+    // Register the instances in the reverse order so the tables need to sort them.
+    for (int i = NUM_INSTANCES - 1; i >= 0; i--) {
+      String instanceName = "localhost_" + i;
+      _instanceConfigs.add(new InstanceConfig(instanceName));
+      LiveInstance liveInstance = new LiveInstance(instanceName);
+      liveInstance.setSessionId("session_" + i);
+      _liveInstances.add(liveInstance);
+    }
+
+    for (int r = 0; r < 4; r++) {
+      String resourceName = "resource_" + r;
+      ExternalView externalView = new ExternalView(resourceName);
+      if (r < TAGS.size()) {
+        externalView.getRecord().setSimpleField(
+            ExternalView.ExternalViewProperty.GROUP_ROUTING_ENABLED.name(), "true");
+        externalView.getRecord().setSimpleField(
+            ExternalView.ExternalViewProperty.RESOURCE_GROUP_NAME.name(), GROUP);
+        externalView.getRecord().setSimpleField(
+            ExternalView.ExternalViewProperty.INSTANCE_GROUP_TAG.name(), TAGS.get(r));
+      }
+      for (int p = 0; p < NUM_PARTITIONS; p++) {
+        // The group resources share the partition names so the group lookups aggregate them.
+        String partitionName = (r < TAGS.size() ? GROUP : resourceName) + "_" + p;
+        for (int i = 0; i < NUM_INSTANCES; i++) {
+          String state = STATES[(p + i + r) % STATES.length];
+          String instanceName = "localhost_" + i;
+          externalView.setState(partitionName, instanceName, state);
+          _currentStateMap.computeIfAbsent(instanceName, k -> new HashMap<>())
+              .computeIfAbsent("session_" + i, k -> new HashMap<>())
+              .computeIfAbsent(resourceName, CurrentState::new).setState(partitionName, state);
+        }
+        // An instance without config must be skipped.
+        externalView.setState(partitionName, "unknown_instance", "MASTER");
+      }
+      _externalViews.add(externalView);
+    }
+  }
+
+  @Test
+  public void testExternalViewRoutingTable() {
+    RoutingTable expected = new RoutingTable(_externalViews, _instanceConfigs, _liveInstances,
+        PropertyType.EXTERNALVIEW);
+    RoutingTable compact = new CompactRoutingTable(_externalViews, _instanceConfigs,
+        _liveInstances, PropertyType.EXTERNALVIEW);
+
+    Assert.assertEquals(new HashSet<>(compact.getResources()),
+        new HashSet<>(expected.getResources()));
+    Assert.assertEquals(new HashSet<>(compact.getExternalViews()),
+        new HashSet<>(expected.getExternalViews()));
+    Assert.assertEquals(compact.getPropertyType(), PropertyType.EXTERNALVIEW);
+    verifyResources(expected, compact);
+
+    for (String state : STATES) {
+      Assert.assertEquals(new ArrayList<>(compact.getInstancesForResourceGroup(GROUP, state)),
+          new ArrayList<>(expected.getInstancesForResourceGroup(GROUP, state)));
+      Assert.assertEquals(compact.getInstancesForResourceGroup(GROUP, state, TAGS),
+          expected.getInstancesForResourceGroup(GROUP, state, TAGS));
+      for (int p = 0; p < NUM_PARTITIONS; p++) {
+        String partitionName = GROUP + "_" + p;
+        Assert.assertEquals(
+            compact.getInstancesForResourceGroup(GROUP, partitionName, state),
+            sorted(expected.getInstancesForResourceGroup(GROUP, partitionName, state)));
+        Assert.assertEquals(
+            sorted(compact.getInstancesForResourceGroup(GROUP, partitionName, state, TAGS)),
+            sorted(expected.getInstancesForResourceGroup(GROUP, partitionName, state, TAGS)));
+      }
+    }
+    Assert.assertTrue(compact.getInstancesForResourceGroup("unknown", "MASTER").isEmpty());
+    Assert.assertTrue(
+        compact.getInstancesForResourceGroup(GROUP, GROUP + "_0", "unknown", TAGS).isEmpty());
+  }
+
+  @Test
+  public void testCurrentStateRoutingTable() {
+    RoutingTable expected =
+        new RoutingTable(_currentStateMap, _instanceConfigs, _liveInstances);
+    RoutingTable compact =
+        new CompactRoutingTable(_currentStateMap, _instanceConfigs, _liveInstances);
+
+    Assert.assertEquals(new HashSet<>(compact.getResources()),
+        new HashSet<>(expected.getResources()));
+    Assert.assertEquals(compact.getPropertyType(), PropertyType.CURRENTSTATES);
+    verifyResources(expected, compact);
+
+    // The current states of an expired session must be ignored.
+    RoutingTable compactWithoutSession = new CompactRoutingTable(_currentStateMap,
+        _instanceConfigs, Collections.singletonList(new LiveInstance("localhost_0")));
+    Assert.assertTrue(compactWithoutSession.getResources().isEmpty());
+  }
+
+  @Test
+  public void testLookupResultsAreShared() {
+    RoutingTable compact = new CompactRoutingTable(_externalViews, _instanceConfigs,
+        _liveInstances, PropertyType.EXTERNALVIEW);
+    List<InstanceConfig> instances =
+        compact.getInstancesForResource("resource_2", "resource_2_0", "MASTER");
+    Assert.assertFalse(instances.isEmpty());
+    Assert.assertSame(compact.getInstancesForResource("resource_2", "resource_2_0", "MASTER"),
+        instances);
+    try {
+      instances.clear();
+      Assert.fail("The lookup results should be immutable.");
+    } catch (UnsupportedOperationException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void testIncrementalRefresh() {
+    CompactRoutingTable previous = new CompactRoutingTable(_externalViews, _instanceConfigs,
+        _liveInstances, PropertyType.EXTERNALVIEW);
+    Assert.assertTrue(previous.hasSameInstances(_instanceConfigs));
+    Assert.assertFalse(previous.hasSameInstances(_instanceConfigs.subList(1, NUM_INSTANCES)));
+    Assert.assertFalse(previous.hasSameInstances(Collections.nCopies(NUM_INSTANCES,
+        new InstanceConfig("localhost_0"))));
+
+    // Change one resource in the group and one regular resource, and remove another one.
+    List<ExternalView> externalViews = new ArrayList<>(_externalViews);
+    ExternalView changedGroupView = copyOf(_externalViews.get(0));
+    changedGroupView.setState(GROUP + "_0", "localhost_0", "DROPPED");
+    externalViews.set(0, changedGroupView);
+    ExternalView changedView = copyOf(_externalViews.get(2));
+    changedView.getRecord().getMapFields().remove("resource_2_0");
+    changedView.setState("resource_2_1", "localhost_1", "MASTER");
+    externalViews.set(2, changedView);
+    externalViews.remove(3);
+
+    CompactRoutingTable incremental =
+        new CompactRoutingTable(previous, externalViews, _instanceConfigs, _liveInstances);
+    Assert.assertEquals(incremental.getChangedResourceCount(), 3);
+    RoutingTable expected = new RoutingTable(externalViews, _instanceConfigs, _liveInstances,
+        PropertyType.EXTERNALVIEW);
+    Assert.assertEquals(new HashSet<>(incremental.getResources()),
+        new HashSet<>(expected.getResources()));
+    verifyResources(expected, incremental);
+    for (String state : STATES) {
+      Assert.assertEquals(new ArrayList<>(incremental.getInstancesForResourceGroup(GROUP, state)),
+          new ArrayList<>(expected.getInstancesForResourceGroup(GROUP, state)));
+      Assert.assertEquals(
+          incremental.getInstancesForResourceGroup(GROUP, GROUP + "_0", state),
+          sorted(expected.getInstancesForResourceGroup(GROUP, GROUP + "_0", state)));
+    }
+    Assert.assertEquals(incremental.getInstancesForResourceGroup(GROUP, GROUP + "_0", "DROPPED",
+        Collections.singletonList(TAGS.get(0))).size(), 1);
+
+    // The unchanged resources are shared with the previous table.
+    Assert.assertSame(incremental.getInstancesForResource("resource_1", GROUP + "_1", "MASTER"),
+        previous.getInstancesForResource("resource_1", GROUP + "_1", "MASTER"));
+    Assert.assertNotSame(incremental.getInstancesForResource("resource_2", "resource_2_1", "MASTER"),
+        previous.getInstancesForResource("resource_2", "resource_2_1", "MASTER"));
+
+    // Nothing needs to be indexed again if no view is changed.
+    CompactRoutingTable unchanged =
+        new CompactRoutingTable(incremental, externalViews, _instanceConfigs, _liveInstances);
+    Assert.assertEquals(unchanged.getChangedResourceCount(), 0);
+    verifyResources(expected, unchanged);
+  }
+
+  private void verifyResources(RoutingTable expected, RoutingTable compact) {
+    for (String resourceName : expected.getResources()) {
+      for (String state : STATES) {
+        // Both tables iterate the per-state instances in the order of the instance id.
+        Assert.assertEquals(new ArrayList<>(compact.getInstancesForResource(resourceName, state)),
+            new ArrayList<>(expected.getInstancesForResource(resourceName, state)));
+        for (int p = 0; p < NUM_PARTITIONS; p++) {
+          String partitionName = (resourceName.equals("resource_0") || resourceName
+              .equals("resource_1") ? GROUP : resourceName) + "_" + p;
+          Assert.assertEquals(compact.getInstancesForResource(resourceName, partitionName, state),
+              sorted(expected.getInstancesForResource(resourceName, partitionName, state)));
+        }
+      }
+    }
+    Assert.assertTrue(compact.getInstancesForResource("unknown", "MASTER").isEmpty());
+    Assert.assertTrue(compact.getInstancesForResource("resource_2", "unknown", "MASTER").isEmpty());
+    Assert.assertTrue(compact.getInstancesForResource("resource_2", "resource_2_0", "unknown")
+        .isEmpty());
+  }
+
+  private static ExternalView copyOf(ExternalView externalView) {
+    ZNRecord record = new ZNRecord(externalView.getRecord());
+    record.getMapFields().replaceAll((partitionName, stateMap) -> new HashMap<>(stateMap));
+    return new ExternalView(record);
+  }
+
+  private static List<InstanceConfig> sorted(List<InstanceConfig> instances) {
+    List<InstanceConfig> sortedInstances = new ArrayList<>(instances);
+    sortedInstances.sort((config1, config2) -> config1.getId().compareTo(config2.getId()));
+    return sortedInstances;
+  }
+}
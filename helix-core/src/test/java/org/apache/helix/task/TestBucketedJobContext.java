@@ -0,0 +1,128 @@
+package org.apache.helix.task;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.Collections;
+import java.util.Map;
+
+import org.apache.helix.AccessOption;
+import org.apache.helix.HelixDataAccessor;
+import org.apache.helix.PropertyPathBuilder;
+import org.apache.helix.SystemPropertyKeys;
+import org.apache.helix.common.ZkTestBase;
+import org.apache.helix.common.caches.TaskDataCache;
+import org.apache.helix.manager.zk.ZKHelixDataAccessor;
+import org.apache.helix.manager.zk.ZkBaseDataAccessor;
+import org.apache.helix.model.ResourceConfig;
+import org.apache.helix.store.zk.ZkHelixPropertyStore;
+import org.apache.helix.zookeeper.datamodel.ZNRecord;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+public class TestBucketedJobContext extends ZkTestBase {
+  private static final String JOB_NAME = "TestWorkflow_TestJob";
+  private static final int NUM_PARTITIONS = 2500;
+
+  private final String _clusterName =
+      CLUSTER_PREFIX + "_" + TestBucketedJobContext.class.getSimpleName();
+  private HelixDataAccessor _accessor;
+  private ZkHelixPropertyStore<ZNRecord> _propertyStore;
+  private Map<String, ResourceConfig> _resourceConfigMap;
+
+  @BeforeClass
+  public void beforeClass() {
+    System.setProperty(SystemPropertyKeys.TASK_JOB_CONTEXT_BUCKET_THRESHOLD, "1000");
+    _accessor = new ZKHelixDataAccessor(_clusterName, _baseAccessor);
+    _propertyStore = new ZkHelixPropertyStore<>(new ZkBaseDataAccessor<>(_gZkClient),
+        PropertyPathBuilder.propertyStore(_clusterName), null);
+    ResourceConfig jobConfig = new ResourceConfig(JOB_NAME);
+    jobConfig.getRecord()
+        .setSimpleField(WorkflowConfig.WorkflowConfigProperty.WorkflowID.name(), "TestWorkflow");
+    _resourceConfigMap = Collections.singletonMap(JOB_NAME, jobConfig);
+  }
+
+  @AfterClass
+  public void afterClass() {
+    System.clearProperty(SystemPropertyKeys.TASK_JOB_CONTEXT_BUCKET_THRESHOLD);
+    _baseAccessor.remove("/" + _clusterName, AccessOption.PERSISTENT);
+  }
+
+  @Test
+  public void testPersistAndRefresh() {
+    TaskDataCache cache = new TaskDataCache(_clusterName);
+    cache.refresh(_accessor, _resourceConfigMap);
+    JobContext jobContext = new JobContext(new ZNRecord(JOB_NAME));
+    jobContext.setName(JOB_NAME);
+    for (int p = 0; p < NUM_PARTITIONS; p++) {
+      jobContext.setPartitionState(p, TaskPartitionState.RUNNING);
+      jobContext.setAssignedParticipant(p, "localhost_" + (p % 10));
+    }
+    cache.updateJobContext(JOB_NAME, jobContext);
+    cache.persistDataChanges(_accessor);
+
+    String jobPath = PropertyPathBuilder.propertyStore(_clusterName)
+        + TaskConstants.REBALANCER_CONTEXT_ROOT + "/" + JOB_NAME;
+    ZNRecord header = _baseAccessor
+        .get(jobPath + "/" + TaskConstants.CONTEXT_NODE, null, AccessOption.PERSISTENT);
+    Assert.assertTrue(JobContextBucketCodec.isBucketed(header));
+    Assert.assertTrue(header.getMapFields().isEmpty());
+    Assert.assertEquals(JobContextBucketCodec.getBucketVersions(header).size(), 3);
+
+    // Readers outside of the controller get the whole context
+    JobContext readContext = TaskUtil.getJobContext(_propertyStore, JOB_NAME);
+    Assert.assertEquals(readContext.getPartitionSet().size(), NUM_PARTITIONS);
+    Assert.assertEquals(readContext.getAssignedParticipant(2345), "localhost_5");
+
+    // Only the bucket of the changed partition is written
+    int bucket0Version = getZNodeVersion(JobContextBucketCodec.getBucketPath(jobPath, 0));
+    int bucket2Version = getZNodeVersion(JobContextBucketCodec.getBucketPath(jobPath, 2));
+    cache.refresh(_accessor, _resourceConfigMap);
+    jobContext = cache.getJobContext(JOB_NAME);
+    Assert.assertEquals(jobContext.getPartitionSet().size(), NUM_PARTITIONS);
+    jobContext.setPartitionState(2001, TaskPartitionState.COMPLETED);
+    cache.updateJobContext(JOB_NAME, jobContext);
+    cache.persistDataChanges(_accessor);
+    Assert.assertEquals(getZNodeVersion(JobContextBucketCodec.getBucketPath(jobPath, 0)),
+        bucket0Version);
+    Assert.assertEquals(getZNodeVersion(JobContextBucketCodec.getBucketPath(jobPath, 2)),
+        bucket2Version + 1);
+
+    // A new cache reads all the buckets
+    TaskDataCache newCache = new TaskDataCache(_clusterName);
+    newCache.refresh(_accessor, _resourceConfigMap);
+    JobContext newContext = newCache.getJobContext(JOB_NAME);
+    Assert.assertEquals(newContext.getPartitionSet().size(), NUM_PARTITIONS);
+    Assert.assertEquals(newContext.getPartitionState(2001), TaskPartitionState.COMPLETED);
+    Assert.assertEquals(newContext.getPartitionState(2000), TaskPartitionState.RUNNING);
+    Assert.assertEquals(newContext.getName(), JOB_NAME);
+
+    // The buckets are removed with the context
+    newCache.removeContext(JOB_NAME);
+    newCache.persistDataChanges(_accessor);
+    Assert.assertFalse(_baseAccessor.exists(jobPath + "/" + TaskConstants.CONTEXT_BUCKETS_NODE,
+        AccessOption.PERSISTENT));
+  }
+
+  private int getZNodeVersion(String path) {
+    return _baseAccessor.getStat(path, AccessOption.PERSISTENT).getVersion();
+  }
+}
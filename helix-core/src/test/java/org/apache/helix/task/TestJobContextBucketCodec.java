@@ -0,0 +1,106 @@
+package org.apache.helix.task;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.List;
+
+import org.apache.helix.zookeeper.datamodel.ZNRecord;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class TestJobContextBucketCodec {
+  private static final int BUCKET_SIZE = 10;
+
+  @Test
+  public void testEncodeAndDecode() {
+    JobContext jobContext = buildJobContext(25);
+    ZNRecord contextRecord = jobContext.getRecord();
+
+    List<ZNRecord> buckets = JobContextBucketCodec.encodeBuckets(contextRecord, BUCKET_SIZE);
+    Assert.assertEquals(buckets.size(), 3);
+    for (int i = 0; i < buckets.size(); i++) {
+      JobContextBucketCodec.setVersion(buckets.get(i), String.valueOf(i));
+      Assert.assertTrue(buckets.get(i).getMapFields().isEmpty());
+    }
+
+    ZNRecord header = JobContextBucketCodec.buildHeader(contextRecord, BUCKET_SIZE, buckets);
+    Assert.assertTrue(JobContextBucketCodec.isBucketed(header));
+    Assert.assertFalse(JobContextBucketCodec.isBucketed(contextRecord));
+    Assert.assertTrue(header.getMapFields().isEmpty());
+    Assert.assertEquals(JobContextBucketCodec.getBucketVersions(header).size(), 3);
+    Assert.assertEquals(JobContextBucketCodec.getBucketVersions(header).get(2), "2");
+
+    ZNRecord decodedRecord = JobContextBucketCodec.decode(header, buckets);
+    Assert.assertFalse(JobContextBucketCodec.isBucketed(decodedRecord));
+    Assert.assertEquals(decodedRecord.getSimpleFields(), contextRecord.getSimpleFields());
+    Assert.assertEquals(decodedRecord.getMapFields(), contextRecord.getMapFields());
+    JobContext decodedContext = new JobContext(decodedRecord);
+    Assert.assertEquals(decodedContext.getPartitionState(3), TaskPartitionState.RUNNING);
+    // Only the even partitions have a target
+    Assert.assertEquals(decodedContext.getTargetForPartition(4), "target_4");
+    Assert.assertNull(decodedContext.getTargetForPartition(5));
+  }
+
+  @Test
+  public void testChangedBuckets() {
+    JobContext jobContext = buildJobContext(25);
+    List<ZNRecord> buckets =
+        JobContextBucketCodec.encodeBuckets(jobContext.getRecord(), BUCKET_SIZE);
+
+    jobContext.setPartitionState(12, TaskPartitionState.COMPLETED);
+    List<ZNRecord> newBuckets =
+        JobContextBucketCodec.encodeBuckets(jobContext.getRecord(), BUCKET_SIZE);
+    Assert.assertTrue(JobContextBucketCodec.hasSameContent(buckets.get(0), newBuckets.get(0)));
+    Assert.assertFalse(JobContextBucketCodec.hasSameContent(buckets.get(1), newBuckets.get(1)));
+    Assert.assertTrue(JobContextBucketCodec.hasSameContent(buckets.get(2), newBuckets.get(2)));
+
+    jobContext.removePartition(24);
+    newBuckets = JobContextBucketCodec.encodeBuckets(jobContext.getRecord(), BUCKET_SIZE);
+    Assert.assertFalse(JobContextBucketCodec.hasSameContent(buckets.get(2), newBuckets.get(2)));
+  }
+
+  @Test
+  public void testMissingBucket() {
+    JobContext jobContext = buildJobContext(25);
+    List<ZNRecord> buckets =
+        JobContextBucketCodec.encodeBuckets(jobContext.getRecord(), BUCKET_SIZE);
+    ZNRecord header = JobContextBucketCodec.buildHeader(jobContext.getRecord(), BUCKET_SIZE, buckets);
+    buckets.set(1, null);
+
+    JobContext decodedContext = new JobContext(JobContextBucketCodec.decode(header, buckets));
+    Assert.assertEquals(decodedContext.getPartitionSet().size(), 15);
+    Assert.assertNull(decodedContext.getPartitionState(15));
+  }
+
+  private JobContext buildJobContext(int numPartitions) {
+    JobContext jobContext = new JobContext(new ZNRecord("TestJob"));
+    jobContext.setName("TestJob");
+    jobContext.setStartTime(1000L);
+    for (int p = 0; p < numPartitions; p++) {
+      jobContext.setPartitionState(p, TaskPartitionState.RUNNING);
+      jobContext.setAssignedParticipant(p, "localhost_" + (p % 3));
+      jobContext.setPartitionNumAttempts(p, 1);
+      if (p % 2 == 0) {
+        jobContext.setPartitionTarget(p, "target_" + p);
+      }
+    }
+    return jobContext;
+  }
+}
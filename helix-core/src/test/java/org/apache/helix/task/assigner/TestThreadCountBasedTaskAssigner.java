@@ -185,6 +185,39 @@ public class TestThreadCountBasedTaskAssigner extends AssignerTestBase {
     }
   }
 
+  @Test
+  public void testCapacityIndexFollowsAssignAndRelease() {
+    TaskAssigner assigner = new ThreadCountBasedTaskAssigner();
+    // 2 instances with 10 * Type1 quota each
+    AssignableInstanceManager assignableInstanceManager = createAssignableInstanceManager(2, 20);
+    InstanceCapacityIndex capacityIndex = assignableInstanceManager.getCapacityIndex();
+    String quotaType = testQuotaTypes[0];
+    Assert.assertEquals(capacityIndex.getIndexedCapacity(quotaType, "instance-0"),
+        Integer.valueOf(10));
+
+    List<TaskConfig> tasks = createTaskConfigs(15, false);
+    Map<String, TaskAssignResult> results = assigner.assignTasks(assignableInstanceManager,
+        assignableInstanceManager.getAssignableInstanceNames(), tasks, quotaType);
+    assertAssignmentResults(results.values(), true);
+    int remaining = capacityIndex.getIndexedCapacity(quotaType, "instance-0")
+        + capacityIndex.getIndexedCapacity(quotaType, "instance-1");
+    Assert.assertEquals(remaining, 5);
+
+    // Release all tasks of instance-0 and the index must prefer it again
+    for (TaskAssignResult result : results.values()) {
+      if (result.getInstanceName().equals("instance-0")) {
+        assignableInstanceManager.release("instance-0", result.getTaskConfig(), quotaType);
+      }
+    }
+    Assert.assertEquals(capacityIndex.getIndexedCapacity(quotaType, "instance-0"),
+        Integer.valueOf(10));
+    Assert.assertEquals(capacityIndex.pollMostAvailable(quotaType, null), "instance-0");
+
+    // Other quota types are not touched by Type1 assignments
+    Assert.assertEquals(capacityIndex.getIndexedCapacity(testQuotaTypes[1], "instance-1"),
+        Integer.valueOf(6));
+  }
+
   private void profileAssigner(int assignBatchSize, int instanceCount, int taskCount) {
     int trail = 100;
     long totalTime = 0;
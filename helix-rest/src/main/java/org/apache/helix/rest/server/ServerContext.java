@@ -25,6 +25,7 @@ import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.helix.BaseDataAccessor;
+import org.apache.helix.CachedConfigAccessor;
 import org.apache.helix.ConfigAccessor;
 import org.apache.helix.HelixAdmin;
 import org.apache.helix.HelixDataAccessor;
@@ -242,7 +243,9 @@ public class ServerContext implements IZkDataListener, IZkChildListener, IZkStat
     if (_configAccessor == null) {
       synchronized (this) {
         if (_configAccessor == null) {
-          _configAccessor = new ConfigAccessor(getRealmAwareZkClient());
+          _configAccessor = Boolean.getBoolean(SystemPropertyKeys.CONFIG_ACCESSOR_CACHE_ENABLED)
+              ? new CachedConfigAccessor(getRealmAwareZkClient(), "HelixRestServer")
+              : new ConfigAccessor(getRealmAwareZkClient());
         }
       }
     }
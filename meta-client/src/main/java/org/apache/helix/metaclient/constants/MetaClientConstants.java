@@ -45,5 +45,8 @@ public final class MetaClientConstants {
   // Auto Reconnect timeout
   public static final long DEFAULT_AUTO_RECONNECT_TIMEOUT_MS = 30 * 60 * 1000;
 
+  // Max number of async requests a batch operation keeps in flight.
+  public static final int DEFAULT_BATCH_IN_FLIGHT_WINDOW = 1000;
+
   //public static final long DEFAULT_MAX_LINEAR_BACKOFF_RETRY_WINDOW_MS = 5*1000;
 }
@@ -22,14 +22,38 @@ package org.apache.helix.metaclient.factories;
 
 
 public class MetaClientCacheConfig {
+    // Passed as maxCachedDataEntries to keep every loaded value on heap.
+    public static final long UNBOUNDED_CACHED_DATA_ENTRIES = -1;
+
     private final String _rootEntry;
     private final boolean _cacheData;
     private final boolean _cacheChildren;
+    private final boolean _lazyLoading;
+    private final long _maxCachedDataEntries;
 
     public MetaClientCacheConfig(String rootEntry, boolean cacheData, boolean cacheChildren) {
+        this(rootEntry, cacheData, cacheChildren, false, UNBOUNDED_CACHED_DATA_ENTRIES);
+    }
+
+    /**
+     * @param rootEntry root of the subtree to cache
+     * @param cacheData whether to cache the data of the entries
+     * @param cacheChildren whether to cache the children of the entries
+     * @param lazyLoading if true, nothing is read when the cache connects. Data and children of an
+     *                    entry are read on first access, and later changes are applied from the
+     *                    watch events of the subtree.
+     * @param maxCachedDataEntries max number of entry values kept on heap in lazy loading mode.
+     *                             Least recently used values are evicted above this size, while
+     *                             the key and stat of the entry are kept. Use
+     *                             UNBOUNDED_CACHED_DATA_ENTRIES to never evict.
+     */
+    public MetaClientCacheConfig(String rootEntry, boolean cacheData, boolean cacheChildren,
+        boolean lazyLoading, long maxCachedDataEntries) {
         _rootEntry = rootEntry;
         _cacheData = cacheData;
         _cacheChildren = cacheChildren;
+        _lazyLoading = lazyLoading;
+        _maxCachedDataEntries = maxCachedDataEntries;
     }
 
     public String getRootEntry() {
@@ -43,4 +67,12 @@ public class MetaClientCacheConfig {
     public boolean getCacheChildren() {
         return _cacheChildren;
     }
+
+    public boolean getLazyLoading() {
+        return _lazyLoading;
+    }
+
+    public long getMaxCachedDataEntries() {
+        return _maxCachedDataEntries;
+    }
 }
@@ -19,6 +19,7 @@ package org.apache.helix.metaclient.impl.zk;
  * under the License.
  */
 
+import java.util.ArrayList;
 import java.util.ConcurrentModificationException;
 import java.util.List;
 import java.util.concurrent.Executors;
@@ -26,6 +27,7 @@ import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntFunction;
 
 import com.google.common.annotations.VisibleForTesting;
 import org.apache.commons.lang3.NotImplementedException;
@@ -40,8 +42,10 @@ import org.apache.helix.metaclient.api.DirectChildSubscribeResult;
 import org.apache.helix.metaclient.api.MetaClientInterface;
 import org.apache.helix.metaclient.api.Op;
 import org.apache.helix.metaclient.api.OpResult;
+import org.apache.helix.metaclient.constants.MetaClientConstants;
 import org.apache.helix.metaclient.exception.MetaClientBadVersionException;
 import org.apache.helix.metaclient.exception.MetaClientException;
+import org.apache.helix.metaclient.exception.MetaClientInterruptException;
 import org.apache.helix.metaclient.exception.MetaClientNoNodeException;
 import org.apache.helix.metaclient.exception.MetaClientNodeExistsException;
 import org.apache.helix.metaclient.impl.zk.adapter.ChildListenerAdapter;
@@ -59,6 +63,7 @@ import org.apache.helix.zookeeper.api.client.ChildrenSubscribeResult;
 import org.apache.helix.zookeeper.impl.client.ZkClient;
 import org.apache.helix.zookeeper.zkclient.IZkStateListener;
 import org.apache.helix.zookeeper.zkclient.ZkConnection;
+import org.apache.helix.zookeeper.zkclient.callback.ZkAsyncCallbacks;
 import org.apache.helix.zookeeper.zkclient.exception.ZkException;
 import org.apache.zookeeper.CreateMode;
 import org.apache.zookeeper.KeeperException;
@@ -480,39 +485,304 @@ public class ZkMetaClient<T> implements MetaClientInterface<T>, AutoCloseable {
     return false;
   }
 
+  // The batch operations below issue async requests to ZK and keep up to
+  // MetaClientConstants.DEFAULT_BATCH_IN_FLIGHT_WINDOW of them in flight, so a batch costs about
+  // one round trip per window instead of one round trip per key. Failures are reported per key:
+  // a false or null entry in the result, and a log line with the ZK return code.
+
   @Override
   public boolean[] create(List<String> key, List<T> data, List<EntryMode> mode) {
-    return new boolean[0];
+    checkBatchArguments(key, data, "data");
+    checkBatchArguments(key, mode, "mode");
+    List<OpResult> results = batchOP(toOps(key, data, mode, null), false);
+    return toSuccessArray(results);
   }
 
   @Override
   public boolean[] create(List<String> key, List<T> data) {
-    return new boolean[0];
+    checkBatchArguments(key, data, "data");
+    List<EntryMode> modes = new ArrayList<>(key.size());
+    for (int i = 0; i < key.size(); i++) {
+      modes.add(EntryMode.PERSISTENT);
+    }
+    return create(key, data, modes);
   }
 
   @Override
   public boolean[] delete(List<String> keys) {
-    return new boolean[0];
+    List<Op> ops = new ArrayList<>(keys.size());
+    for (String key : keys) {
+      ops.add(Op.delete(key, -1));
+    }
+    return toSuccessArray(batchOP(ops, false));
   }
 
   @Override
   public List<Stat> exists(List<String> keys) {
-    return null;
+    List<ZkAsyncCallbacks.ExistsCallbackHandler> callbacks = pipeline(keys.size(), i -> {
+      ZkAsyncCallbacks.ExistsCallbackHandler cb = new ZkAsyncCallbacks.ExistsCallbackHandler();
+      _zkClient.asyncExists(keys.get(i), cb);
+      return cb;
+    });
+    List<Stat> stats = new ArrayList<>(keys.size());
+    for (int i = 0; i < keys.size(); i++) {
+      ZkAsyncCallbacks.ExistsCallbackHandler cb = callbacks.get(i);
+      if (cb.getRc() == KeeperException.Code.OK.intValue() && cb.getStat() != null) {
+        stats.add(ZkMetaClientUtil.convertZkStatToStat(cb.getStat()));
+      } else {
+        logBatchFailure("exists", keys.get(i), cb.getRc(), KeeperException.Code.NONODE);
+        stats.add(null);
+      }
+    }
+    return stats;
   }
 
   @Override
   public List<T> get(List<String> keys) {
-    return null;
+    List<ZkAsyncCallbacks.GetDataCallbackHandler> callbacks = pipeline(keys.size(), i -> {
+      ZkAsyncCallbacks.GetDataCallbackHandler cb = new ZkAsyncCallbacks.GetDataCallbackHandler();
+      _zkClient.asyncGetData(keys.get(i), cb);
+      return cb;
+    });
+    List<T> dataList = new ArrayList<>(keys.size());
+    for (int i = 0; i < keys.size(); i++) {
+      ZkAsyncCallbacks.GetDataCallbackHandler cb = callbacks.get(i);
+      if (cb.getRc() == KeeperException.Code.OK.intValue()) {
+        dataList.add(cb.getData() == null ? null : _zkClient.deserialize(cb.getData(), keys.get(i)));
+      } else {
+        logBatchFailure("get", keys.get(i), cb.getRc(), KeeperException.Code.NONODE);
+        dataList.add(null);
+      }
+    }
+    return dataList;
   }
 
+  /**
+   * Batch version of update. All entries are read in one pipelined pass and written back in a
+   * second pass with the version they were read at. Entries whose write fails with a version
+   * conflict are updated again one by one with retries, like {@link #update(String, DataUpdater,
+   * boolean, boolean)}.
+   * @return the updated entry values. The entry is null if the key does not exist or the update
+   *         failed.
+   */
   @Override
   public List<T> update(List<String> keys, List<DataUpdater<T>> updater) {
-    return null;
+    checkBatchArguments(keys, updater, "updater");
+    List<ZkAsyncCallbacks.GetDataCallbackHandler> reads = pipeline(keys.size(), i -> {
+      ZkAsyncCallbacks.GetDataCallbackHandler cb = new ZkAsyncCallbacks.GetDataCallbackHandler();
+      _zkClient.asyncGetData(keys.get(i), cb);
+      return cb;
+    });
+
+    List<T> updatedData = new ArrayList<>(keys.size());
+    List<Integer> toWrite = new ArrayList<>(keys.size());
+    for (int i = 0; i < keys.size(); i++) {
+      ZkAsyncCallbacks.GetDataCallbackHandler cb = reads.get(i);
+      if (cb.getRc() != KeeperException.Code.OK.intValue()) {
+        logBatchFailure("update", keys.get(i), cb.getRc(), null);
+        updatedData.add(null);
+        continue;
+      }
+      T oldData = cb.getData() == null ? null : _zkClient.deserialize(cb.getData(), keys.get(i));
+      updatedData.add(updater.get(i).update(oldData));
+      toWrite.add(i);
+    }
+
+    List<ZkAsyncCallbacks.SetDataCallbackHandler> writes = pipeline(toWrite.size(), j -> {
+      int i = toWrite.get(j);
+      ZkAsyncCallbacks.SetDataCallbackHandler cb = new ZkAsyncCallbacks.SetDataCallbackHandler();
+      _zkClient.asyncSetData(keys.get(i), updatedData.get(i), reads.get(i).getStat().getVersion(),
+          cb);
+      return cb;
+    });
+    for (int j = 0; j < toWrite.size(); j++) {
+      int i = toWrite.get(j);
+      int rc = writes.get(j).getRc();
+      if (rc == KeeperException.Code.OK.intValue()) {
+        continue;
+      }
+      if (rc == KeeperException.Code.BADVERSION.intValue()) {
+        // Changed concurrently, fall back to the retrying single entry update
+        try {
+          updatedData.set(i, update(keys.get(i), updater.get(i), true, false));
+          continue;
+        } catch (MetaClientException e) {
+          LOG.warn("Batch update of key {} failed.", keys.get(i), e);
+        }
+      } else {
+        logBatchFailure("update", keys.get(i), rc, null);
+      }
+      updatedData.set(i, null);
+    }
+    return updatedData;
   }
 
   @Override
   public boolean[] set(List<String> keys, List<T> datas, List<Integer> version) {
-    return new boolean[0];
+    checkBatchArguments(keys, datas, "datas");
+    checkBatchArguments(keys, version, "version");
+    return toSuccessArray(batchOP(toOps(keys, datas, null, version), false));
+  }
+
+  /**
+   * Executes a list of create, set, delete and check operations and returns one result per
+   * operation.
+   * @param ops the operations
+   * @param atomic if true, the operations are executed as one transaction with
+   *               {@link #transactionOP(Iterable)}: all of them are applied or none of them, and
+   *               a failed operation fails the whole call with a MetaClientException.
+   *               Otherwise they are pipelined and each operation succeeds or fails on its own.
+   * @return the result of each operation, an {@link OpResult.ErrorResult} with the ZK return code
+   *         for failed operations
+   */
+  public List<OpResult> batchOP(List<Op> ops, boolean atomic) {
+    if (atomic) {
+      try {
+        return transactionOP(ops);
+      } catch (ZkException e) {
+        throw translateZkExceptionToMetaclientException(e);
+      }
+    }
+    List<ZkAsyncCallbacks.DefaultCallback> callbacks = pipeline(ops.size(), i -> {
+      Op op = ops.get(i);
+      switch (op.getType()) {
+      case CREATE:
+        ZkAsyncCallbacks.CreateCallbackHandler createCb = new ZkAsyncCallbacks.CreateCallbackHandler();
+        CreateMode createMode;
+        try {
+          createMode = ZkMetaClientUtil.convertMetaClientMode(((Op.Create) op).getEntryMode());
+        } catch (KeeperException | IllegalArgumentException e) {
+          createCb.processResult(KeeperException.Code.BADARGUMENTS.intValue(), op.getPath(), null,
+              null);
+          return createCb;
+        }
+        _zkClient.asyncCreateRawData(op.getPath(), ((Op.Create) op).getData(), createMode, createCb);
+        return createCb;
+      case SET:
+        ZkAsyncCallbacks.SetDataCallbackHandler setCb = new ZkAsyncCallbacks.SetDataCallbackHandler();
+        _zkClient.asyncSetRawData(op.getPath(), ((Op.Set) op).getData(), ((Op.Set) op).getVersion(),
+            setCb);
+        return setCb;
+      case DELETE:
+        ZkAsyncCallbacks.DeleteCallbackHandler deleteCb = new ZkAsyncCallbacks.DeleteCallbackHandler();
+        _zkClient.asyncDelete(op.getPath(), ((Op.Delete) op).getVersion(), deleteCb);
+        return deleteCb;
+      case CHECK:
+        ZkAsyncCallbacks.ExistsCallbackHandler checkCb = new ZkAsyncCallbacks.ExistsCallbackHandler();
+        _zkClient.asyncExists(op.getPath(), checkCb);
+        return checkCb;
+      default:
+        throw new IllegalArgumentException("Op type " + op.getType().name() + " is not supported.");
+      }
+    });
+
+    List<OpResult> results = new ArrayList<>(ops.size());
+    for (int i = 0; i < ops.size(); i++) {
+      Op op = ops.get(i);
+      ZkAsyncCallbacks.DefaultCallback cb = callbacks.get(i);
+      int rc = cb.getRc();
+      if (rc == KeeperException.Code.OK.intValue() && op.getType() == Op.Type.CHECK) {
+        org.apache.zookeeper.data.Stat stat = ((ZkAsyncCallbacks.ExistsCallbackHandler) cb).getStat();
+        int expectedVersion = ((Op.Check) op).getVersion();
+        if (stat == null) {
+          rc = KeeperException.Code.NONODE.intValue();
+        } else if (expectedVersion != -1 && stat.getVersion() != expectedVersion) {
+          rc = KeeperException.Code.BADVERSION.intValue();
+        }
+      }
+      if (rc != KeeperException.Code.OK.intValue()) {
+        logBatchFailure(op.getType().name().toLowerCase(), op.getPath(), rc, null);
+        results.add(new OpResult.ErrorResult(rc));
+        continue;
+      }
+      switch (op.getType()) {
+      case CREATE:
+        results.add(new OpResult.CreateResult(op.getPath()));
+        break;
+      case SET:
+        results.add(new OpResult.SetDataResult(ZkMetaClientUtil
+            .convertZkStatToStat(((ZkAsyncCallbacks.SetDataCallbackHandler) cb).getStat())));
+        break;
+      case DELETE:
+        results.add(new OpResult.DeleteResult());
+        break;
+      default:
+        results.add(new OpResult.CheckResult());
+        break;
+      }
+    }
+    return results;
+  }
+
+  /**
+   * Issues one async request per index and keeps at most
+   * MetaClientConstants.DEFAULT_BATCH_IN_FLIGHT_WINDOW requests in flight. Returns once all the
+   * requests are done.
+   */
+  private <C extends ZkAsyncCallbacks.DefaultCallback> List<C> pipeline(int size,
+      IntFunction<C> request) {
+    int window = MetaClientConstants.DEFAULT_BATCH_IN_FLIGHT_WINDOW;
+    List<C> callbacks = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      if (i >= window) {
+        waitForBatchRequest(callbacks.get(i - window));
+      }
+      try {
+        callbacks.add(request.apply(i));
+      } catch (ZkException e) {
+        // The ZkClient methods complete the callback with an error before throwing
+        throw translateZkExceptionToMetaclientException(e);
+      }
+    }
+    for (int i = Math.max(0, size - window); i < size; i++) {
+      waitForBatchRequest(callbacks.get(i));
+    }
+    return callbacks;
+  }
+
+  private static void waitForBatchRequest(ZkAsyncCallbacks.DefaultCallback callback) {
+    if (!callback.waitForSuccess()) {
+      Thread.currentThread().interrupt();
+      throw new MetaClientInterruptException("Interrupted waiting for batch request of path "
+          + callback.getPath());
+    }
+  }
+
+  private List<Op> toOps(List<String> keys, List<T> data, List<EntryMode> modes,
+      List<Integer> versions) {
+    List<Op> ops = new ArrayList<>(keys.size());
+    for (int i = 0; i < keys.size(); i++) {
+      String key = keys.get(i);
+      byte[] bytes = data.get(i) == null ? null : serialize(data.get(i), key);
+      ops.add(modes != null ? Op.create(key, bytes, modes.get(i))
+          : Op.set(key, bytes, versions.get(i)));
+    }
+    return ops;
+  }
+
+  private static boolean[] toSuccessArray(List<OpResult> results) {
+    boolean[] success = new boolean[results.size()];
+    for (int i = 0; i < results.size(); i++) {
+      success[i] = results.get(i).getType() != OpResult.Type.ERRORRESULT;
+    }
+    return success;
+  }
+
+  private static void checkBatchArguments(List<String> keys, List<?> values, String name) {
+    if (keys == null || values == null || keys.size() != values.size()) {
+      throw new IllegalArgumentException(
+          "Keys and " + name + " of a batch operation must be non-null and of the same length.");
+    }
+  }
+
+  private static void logBatchFailure(String operation, String key, int rc,
+      KeeperException.Code expectedCode) {
+    KeeperException.Code code = KeeperException.Code.get(rc);
+    if (code == expectedCode) {
+      LOG.debug("Batch {} of key {} returned {}.", operation, key, code);
+    } else {
+      LOG.warn("Batch {} of key {} failed with {}.", operation, key, code);
+    }
   }
 
   @Override
@@ -19,10 +19,15 @@ package org.apache.helix.metaclient.impl.zk;
  * under the License.
  */
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
 import com.google.common.collect.ImmutableList;
+import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.helix.metaclient.api.ChildChangeListener;
 import org.apache.helix.metaclient.api.MetaClientCacheInterface;
 import org.apache.helix.metaclient.exception.MetaClientException;
+import org.apache.helix.metaclient.exception.MetaClientNoNodeException;
 import org.apache.helix.metaclient.factories.MetaClientCacheConfig;
 import org.apache.helix.metaclient.impl.zk.adapter.ChildListenerAdapter;
 import org.apache.helix.metaclient.impl.zk.factory.ZkMetaClientConfig;
@@ -32,26 +37,47 @@ import org.slf4j.LoggerFactory;
 
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Queue;
+import java.util.Set;
 
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 public class ZkMetaClientCache<T> extends ZkMetaClient<T> implements MetaClientCacheInterface<T> {
 
-    private ConcurrentHashMap<String, T> _dataCacheMap;
+    // Number of stripes of the invalidation counters used in lazy loading mode.
+    private static final int INVALIDATION_STRIPES = 256;
+
+    private ConcurrentMap<String, T> _dataCacheMap;
     private final String _rootEntry;
     private TrieNode _childrenCacheTree;
     private ChildChangeListener _eventListener;
     private boolean _cacheData;
     private boolean _cacheChildren;
+    private final boolean _lazyLoading;
     private static final Logger LOG = LoggerFactory.getLogger(ZkMetaClientCache.class);
     private  ZkClient _cacheClient;
     private ExecutorService executor;
 
+    // Lazy loading mode only. Stat of the entries read so far, kept after their data is evicted.
+    private ConcurrentHashMap<String, Stat> _entryStatMap;
+    // Lazy loading mode only. Keys whose children in _childrenCacheTree are complete.
+    private Set<String> _loadedChildrenKeys;
+    // Lazy loading mode only. Bumped for every event on a key, so that a read from ZK that raced
+    // with an event is not cached.
+    private final AtomicLongArray _invalidationCounters = new AtomicLongArray(INVALIDATION_STRIPES);
+
+    private final AtomicLong _cacheHitCount = new AtomicLong();
+    private final AtomicLong _cacheMissCount = new AtomicLong();
+    private final AtomicLong _cacheEvictionCount = new AtomicLong();
+
     // TODO: Look into using conditional variable instead of latch.
     private final CountDownLatch _initializedCache = new CountDownLatch(1);
 
@@ -66,12 +92,31 @@ public class ZkMetaClientCache<T> extends ZkMetaClient<T> implements MetaClientC
         _rootEntry = cacheConfig.getRootEntry();
         _cacheData = cacheConfig.getCacheData();
         _cacheChildren = cacheConfig.getCacheChildren();
+        _lazyLoading = cacheConfig.getLazyLoading();
 
         if (_cacheData) {
-            _dataCacheMap = new ConcurrentHashMap<>();
+            if (_lazyLoading) {
+                CacheBuilder<Object, Object> cacheBuilder = CacheBuilder.newBuilder();
+                if (cacheConfig.getMaxCachedDataEntries() >= 0) {
+                    cacheBuilder.maximumSize(cacheConfig.getMaxCachedDataEntries());
+                }
+                RemovalListener<String, T> evictionListener = notification -> {
+                    if (notification.wasEvicted()) {
+                        _cacheEvictionCount.incrementAndGet();
+                    }
+                };
+                Cache<String, T> dataCache = cacheBuilder.removalListener(evictionListener).build();
+                _dataCacheMap = dataCache.asMap();
+                _entryStatMap = new ConcurrentHashMap<>();
+            } else {
+                _dataCacheMap = new ConcurrentHashMap<>();
+            }
         }
         if (_cacheChildren) {
             _childrenCacheTree = new TrieNode(_rootEntry, _rootEntry.substring(1));
+            if (_lazyLoading) {
+                _loadedChildrenKeys = ConcurrentHashMap.newKeySet();
+            }
         }
     }
 
@@ -79,6 +124,7 @@ public class ZkMetaClientCache<T> extends ZkMetaClient<T> implements MetaClientC
      * Get data for a given key.
      * If datacache is enabled, will fetch for cache. If it doesn't exist
      * returns null (for when initial populating cache is in progress).
+     * In lazy loading mode, data that is not cached is read from ZK and cached.
      * @param key key to identify the entry
      * @return data for the key
      */
@@ -86,10 +132,16 @@ public class ZkMetaClientCache<T> extends ZkMetaClient<T> implements MetaClientC
     public T get(final String key) {
         if (_cacheData) {
             T data = getDataCacheMap().get(key);
-            if (data == null) {
-                LOG.debug("Data not found in cache for key: {}. This could be because the cache is still being populated.", key);
+            if (data != null) {
+                _cacheHitCount.incrementAndGet();
+                return data;
+            }
+            _cacheMissCount.incrementAndGet();
+            if (_lazyLoading) {
+                return loadData(key);
             }
-            return data;
+            LOG.debug("Data not found in cache for key: {}. This could be because the cache is still being populated.", key);
+            return null;
         }
         return super.get(key);
     }
@@ -103,6 +155,32 @@ public class ZkMetaClientCache<T> extends ZkMetaClient<T> implements MetaClientC
         return dataList;
     }
 
+    /**
+     * Check if there is an entry for the given key. In lazy loading mode, the stat of the entries
+     * read so far is served from cache, including entries whose data was evicted.
+     * @param key key to identify the entry
+     * @return stat of the entry, or null if it doesn't exist
+     */
+    @Override
+    public Stat exists(final String key) {
+        if (_entryStatMap == null) {
+            return super.exists(key);
+        }
+        Stat stat = _entryStatMap.get(key);
+        if (stat != null) {
+            return stat;
+        }
+        long invalidationCount = getInvalidationCount(key);
+        stat = super.exists(key);
+        if (stat != null) {
+            _entryStatMap.put(key, stat);
+            if (getInvalidationCount(key) != invalidationCount) {
+                _entryStatMap.remove(key);
+            }
+        }
+        return stat;
+    }
+
     /**
      * Get the direct children for a given key.
      * @param key For metadata storage that has hierarchical key space (e.g. ZK), the key would be
@@ -114,12 +192,14 @@ public class ZkMetaClientCache<T> extends ZkMetaClient<T> implements MetaClientC
     @Override
     public List<String> getDirectChildrenKeys(final String key) {
         if (_cacheChildren) {
-            TrieNode node = _childrenCacheTree.processPath(key, true);
+            TrieNode node = getChildrenCacheNode(key);
             if (node == null) {
                 LOG.debug("Children not found in cache for key: {}. This could be because the cache is still being populated.", key);
                 return null;
             }
-            return ImmutableList.copyOf(node.getChildren().keySet());
+            synchronized (_childrenCacheTree) {
+                return ImmutableList.copyOf(node.getChildren().keySet());
+            }
         }
         return super.getDirectChildrenKeys(key);
     }
@@ -135,16 +215,113 @@ public class ZkMetaClientCache<T> extends ZkMetaClient<T> implements MetaClientC
     @Override
     public int countDirectChildren(final String key) {
         if (_cacheChildren) {
-            TrieNode node = _childrenCacheTree.processPath(key, true);
+            TrieNode node = getChildrenCacheNode(key);
             if (node == null) {
                 LOG.debug("Children not found in cache for key: {}. This could be because the cache is still being populated.", key);
                 return 0;
             }
-            return node.getChildren().size();
+            synchronized (_childrenCacheTree) {
+                return node.getChildren().size();
+            }
         }
         return super.countDirectChildren(key);
     }
 
+    /**
+     * @return number of data lookups served from cache
+     */
+    public long getCacheHitCount() {
+        return _cacheHitCount.get();
+    }
+
+    /**
+     * @return number of data lookups that were not in cache. In lazy loading mode these are read
+     * from ZK.
+     */
+    public long getCacheMissCount() {
+        return _cacheMissCount.get();
+    }
+
+    /**
+     * @return number of values evicted from the data cache because it reached its max size
+     */
+    public long getCacheEvictionCount() {
+        return _cacheEvictionCount.get();
+    }
+
+    private TrieNode getChildrenCacheNode(String key) {
+        if (_lazyLoading && !_loadedChildrenKeys.contains(key) && !loadChildren(key)) {
+            return null;
+        }
+        synchronized (_childrenCacheTree) {
+            return _childrenCacheTree.processPath(key, true);
+        }
+    }
+
+    private T loadData(String key) {
+        long invalidationCount = getInvalidationCount(key);
+        ImmutablePair<T, Stat> dataAndStat;
+        try {
+            dataAndStat = super.getDataAndStat(key);
+        } catch (MetaClientNoNodeException e) {
+            return null;
+        }
+        T data = dataAndStat.getLeft();
+        if (data != null) {
+            _dataCacheMap.put(key, data);
+            _entryStatMap.put(key, dataAndStat.getRight());
+            // An event on the key may have been applied while it was read. Drop what was read as
+            // it could be older than the event.
+            if (getInvalidationCount(key) != invalidationCount) {
+                _dataCacheMap.remove(key);
+                _entryStatMap.remove(key);
+            }
+        }
+        return data;
+    }
+
+    private boolean loadChildren(String key) {
+        long invalidationCount = getInvalidationCount(key);
+        List<String> children;
+        try {
+            children = super.getDirectChildrenKeys(key);
+        } catch (MetaClientNoNodeException e) {
+            return false;
+        }
+        synchronized (_childrenCacheTree) {
+            TrieNode node = _childrenCacheTree.processPath(key, true);
+            Set<String> childSet = new HashSet<>(children);
+            node.getChildren().keySet().retainAll(childSet);
+            for (String child : childSet) {
+                if (!node.getChildren().containsKey(child)) {
+                    node.addChild(child, new TrieNode(node.getPath() + "/" + child, child));
+                }
+            }
+        }
+        // Children created or deleted while they were read are reconciled on the next access.
+        if (getInvalidationCount(key) == invalidationCount) {
+            _loadedChildrenKeys.add(key);
+        }
+        return true;
+    }
+
+    private long getInvalidationCount(String key) {
+        return _invalidationCounters.get(getInvalidationStripe(key));
+    }
+
+    private void invalidate(String key) {
+        _invalidationCounters.incrementAndGet(getInvalidationStripe(key));
+    }
+
+    private static int getInvalidationStripe(String key) {
+        return (key.hashCode() & Integer.MAX_VALUE) % INVALIDATION_STRIPES;
+    }
+
+    private static String getParentKey(String key) {
+        int lastSlash = key.lastIndexOf('/');
+        return lastSlash > 0 ? key.substring(0, lastSlash) : "/";
+    }
+
     private void populateAllCache() {
         // TODO: Concurrently populate children and data cache.
         if (!_cacheClient.exists(_rootEntry)) {
@@ -164,7 +341,9 @@ public class ZkMetaClientCache<T> extends ZkMetaClient<T> implements MetaClientC
                 _dataCacheMap.put(node, dataRecord);
             }
             if (_cacheChildren) {
-                _childrenCacheTree.processPath(node, true);
+                synchronized (_childrenCacheTree) {
+                    _childrenCacheTree.processPath(node, true);
+                }
             }
             List<String> childNodes = _cacheClient.getChildren(node);
             for (String child : childNodes) {
@@ -190,11 +369,11 @@ public class ZkMetaClientCache<T> extends ZkMetaClient<T> implements MetaClientC
             //  TODO: HANDLE DEDUP EVENT CHANGES
             switch (changeType) {
                 case ENTRY_CREATED:
-                    _childrenCacheTree.processPath(path, true);
+                    modifyChildrenInCache(path, false);
                     modifyDataInCache(path, false);
                     break;
                 case ENTRY_DELETED:
-                    _childrenCacheTree.processPath(path, false);
+                    modifyChildrenInCache(path, true);
                     modifyDataInCache(path, true);
                     break;
                 case ENTRY_DATA_CHANGE:
@@ -214,18 +393,45 @@ public class ZkMetaClientCache<T> extends ZkMetaClient<T> implements MetaClientC
         }
     }
 
+    private void modifyChildrenInCache(String path, boolean isDelete) {
+        if (!_cacheChildren) {
+            return;
+        }
+        if (_lazyLoading) {
+            invalidate(getParentKey(path));
+            if (isDelete) {
+                _loadedChildrenKeys.remove(path);
+            }
+        }
+        synchronized (_childrenCacheTree) {
+            _childrenCacheTree.processPath(path, !isDelete);
+        }
+    }
+
     private void modifyDataInCache(String path, Boolean isDelete) {
-        if (_cacheData) {
+        if (!_cacheData) {
+            return;
+        }
+        if (!_lazyLoading) {
             if (isDelete) {
                 getDataCacheMap().remove(path);
             } else {
                 T dataRecord = _cacheClient.readData(path, true);
                 getDataCacheMap().put(path, dataRecord);
             }
+            return;
+        }
+        // In lazy loading mode only the entries that are in cache are refreshed. Cold entries are
+        // dropped and read again on their next access.
+        invalidate(path);
+        boolean isCached = _dataCacheMap.remove(path) != null;
+        _entryStatMap.remove(path);
+        if (!isDelete && isCached) {
+            loadData(path);
         }
     }
 
-    public ConcurrentHashMap<String, T> getDataCacheMap() {
+    public ConcurrentMap<String, T> getDataCacheMap() {
         return _dataCacheMap;
     }
 
@@ -242,6 +448,11 @@ public class ZkMetaClientCache<T> extends ZkMetaClient<T> implements MetaClientC
         };
         executor = Executors.newSingleThreadExecutor();
         _cacheClient.subscribePersistRecursiveListener(_rootEntry, new ChildListenerAdapter(_eventListener));
-        populateAllCache();
+        if (_lazyLoading) {
+            // Entries are read on first access, so there is nothing to wait for.
+            _initializedCache.countDown();
+        } else {
+            populateAllCache();
+        }
     }
 }
@@ -27,6 +27,7 @@ import org.apache.helix.metaclient.exception.MetaClientBadVersionException;
 import org.apache.helix.metaclient.exception.MetaClientException;
 import org.apache.helix.metaclient.api.DirectChildChangeListener;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
@@ -242,6 +243,83 @@ public class TestZkMetaClient extends ZkMetaClientTestBase{
     }
   }
 
+  @Test
+  public void testBatchOperations() {
+    final String parent = "/TestZkMetaClient_testBatchOperations";
+    int count = 20;
+    List<String> keys = new ArrayList<>();
+    List<String> values = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      keys.add(parent + "/key_" + i);
+      values.add(ENTRY_STRING_VALUE + i);
+    }
+    try (ZkMetaClient<String> zkMetaClient = createZkMetaClient()) {
+      zkMetaClient.connect();
+      zkMetaClient.create(parent, ENTRY_STRING_VALUE);
+      // One key already exists, so its create fails and the others succeed
+      zkMetaClient.create(keys.get(0), values.get(0));
+
+      boolean[] created = zkMetaClient.create(keys, values);
+      Assert.assertFalse(created[0]);
+      for (int i = 1; i < count; i++) {
+        Assert.assertTrue(created[i]);
+      }
+      Assert.assertEquals(zkMetaClient.get(keys), values);
+
+      List<String> keysWithMissing = new ArrayList<>(keys);
+      keysWithMissing.add(parent + "/missing");
+      List<MetaClientInterface.Stat> stats = zkMetaClient.exists(keysWithMissing);
+      Assert.assertEquals(stats.size(), count + 1);
+      Assert.assertEquals(stats.get(1).getVersion(), 0);
+      Assert.assertNull(stats.get(count));
+      Assert.assertNull(zkMetaClient.get(keysWithMissing).get(count));
+
+      // Set with expected versions, the bad version of key 1 only fails that key
+      List<Integer> versions = new ArrayList<>();
+      List<String> newValues = new ArrayList<>();
+      for (int i = 0; i < count; i++) {
+        versions.add(i == 1 ? 5 : 0);
+        newValues.add("new_" + i);
+      }
+      boolean[] set = zkMetaClient.set(keys, newValues, versions);
+      Assert.assertFalse(set[1]);
+      Assert.assertTrue(set[0]);
+      Assert.assertEquals(zkMetaClient.get(keys.get(1)), values.get(1));
+      Assert.assertEquals(zkMetaClient.get(keys.get(2)), "new_2");
+
+      List<DataUpdater<String>> updaters = new ArrayList<>();
+      for (int i = 0; i < count; i++) {
+        updaters.add(currentData -> currentData + "_updated");
+      }
+      List<String> updated = zkMetaClient.update(keys, updaters);
+      Assert.assertEquals(updated.get(1), values.get(1) + "_updated");
+      Assert.assertEquals(updated.get(2), "new_2_updated");
+      Assert.assertEquals(zkMetaClient.get(keys), updated);
+
+      // All-or-nothing: the failing check aborts the delete
+      try {
+        zkMetaClient.batchOP(
+            Arrays.asList(Op.delete(keys.get(0), -1), Op.check(keys.get(1), 100)), true);
+        Assert.fail("Should have failed with bad version.");
+      } catch (MetaClientException ignored) {
+      }
+      Assert.assertNotNull(zkMetaClient.exists(keys.get(0)));
+      // Pipelined: each operation fails on its own
+      List<OpResult> results = zkMetaClient.batchOP(
+          Arrays.asList(Op.delete(keys.get(0), -1), Op.check(keys.get(1), 100)), false);
+      Assert.assertEquals(results.get(0).getType(), OpResult.Type.DELETERESULT);
+      Assert.assertEquals(((OpResult.ErrorResult) results.get(1)).getErr(),
+          KeeperException.Code.BADVERSION.intValue());
+
+      boolean[] deleted = zkMetaClient.delete(keys);
+      Assert.assertFalse(deleted[0]);
+      for (int i = 1; i < count; i++) {
+        Assert.assertTrue(deleted[i]);
+      }
+      zkMetaClient.delete(parent);
+    }
+  }
+
   @Test
   public void testUpdateWithRetry() throws InterruptedException {
     final boolean RETRY_ON_FAILURE = true;
@@ -173,6 +173,58 @@ public class TestZkMetaClientCache extends ZkMetaClientTestBase {
     }
 
 
+    @Test
+    public void testLazyLoadingBoundedCache() {
+        final String key = "/testLazyLoadingBoundedCache";
+        ZkMetaClientConfig config =
+                new ZkMetaClientConfig.ZkMetaClientConfigBuilder().setConnectionAddress(ZK_ADDR).build();
+        MetaClientCacheConfig cacheConfig = new MetaClientCacheConfig(key, true, true, true, 2);
+        try (ZkMetaClient<String> zkMetaClient = createZkMetaClient();
+             ZkMetaClientCache<String> zkMetaClientCache = new ZkMetaClientCache<>(config, cacheConfig)) {
+            zkMetaClient.connect();
+            zkMetaClient.create(key, "test");
+            for (int i = 0; i < 3; i++) {
+                zkMetaClient.create(key + "/child" + i, DATA_VALUE + i);
+            }
+            zkMetaClientCache.connect();
+
+            // Nothing is read until first access, then reads are served from cache.
+            Assert.assertEquals(zkMetaClientCache.get(key + "/child0"), DATA_VALUE + 0);
+            Assert.assertEquals(zkMetaClientCache.getCacheMissCount(), 1);
+            Assert.assertEquals(zkMetaClientCache.get(key + "/child0"), DATA_VALUE + 0);
+            Assert.assertEquals(zkMetaClientCache.getCacheHitCount(), 1);
+
+            // Only 2 values are kept, the stat of evicted entries stays in cache.
+            Assert.assertEquals(zkMetaClientCache.get(key + "/child1"), DATA_VALUE + 1);
+            Assert.assertEquals(zkMetaClientCache.get(key + "/child2"), DATA_VALUE + 2);
+            Assert.assertEquals(zkMetaClientCache.getCacheEvictionCount(), 1);
+            Assert.assertTrue(zkMetaClientCache.getDataCacheMap().size() <= 2);
+            for (int i = 0; i < 3; i++) {
+                Assert.assertNotNull(zkMetaClientCache.exists(key + "/child" + i));
+            }
+
+            Assert.assertEquals(new HashSet<>(zkMetaClientCache.getDirectChildrenKeys(key)),
+                    new HashSet<>(Arrays.asList("child0", "child1", "child2")));
+
+            // Changes are applied from the watch events.
+            zkMetaClientCache.set(key + "/child2", "newData", -1);
+            Assert.assertTrue(MetaClientTestUtil.verify(() ->
+                    (Objects.equals(zkMetaClientCache.get(key + "/child2"), "newData")), MetaClientTestUtil.WAIT_DURATION));
+            zkMetaClientCache.create(key + "/child3", DATA_VALUE);
+            zkMetaClientCache.delete(key + "/child0");
+            Assert.assertTrue(MetaClientTestUtil.verify(() ->
+                    (new HashSet<>(zkMetaClientCache.getDirectChildrenKeys(key))
+                            .equals(new HashSet<>(Arrays.asList("child1", "child2", "child3")))),
+                    MetaClientTestUtil.WAIT_DURATION));
+            Assert.assertTrue(MetaClientTestUtil.verify(() ->
+                    (zkMetaClientCache.get(key + "/child0") == null
+                            && zkMetaClientCache.exists(key + "/child0") == null), MetaClientTestUtil.WAIT_DURATION));
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+
     public ZkMetaClientCache<String> createZkMetaClientCacheLazyCaching(String rootPath) {
         ZkMetaClientConfig config =
                 new ZkMetaClientConfig.ZkMetaClientConfigBuilder().setConnectionAddress(ZK_ADDR)
@@ -20,6 +20,7 @@ package org.apache.helix.msdcommon.datamodel;
  */
 
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Deque;
 import java.util.HashMap;
@@ -36,11 +37,20 @@ import org.apache.helix.msdcommon.util.ZkValidationUtil;
  * data. It is not exactly a trie because it in essence stores a mapping (from sharding keys to
  * realm addresses) instead of pure text information; also, only the terminal nodes store meaningful
  * information (realm addresses).
+ * <p>
+ * Once constructed, the trie is also compiled into an open addressing table that maps the path of
+ * every node to the node. Lookups walk the given path once, hashing it as they go, and probe the
+ * table at each delimiter, so resolving a path neither splits it nor allocates. The instance is
+ * immutable; routing data changes are applied by building a new instance.
  */
 public class TrieRoutingData implements MetadataStoreRoutingData {
   private static final String DELIMITER = "/";
+  private static final char DELIMITER_CHAR = '/';
 
   private final TrieNode _rootNode;
+  // Compiled trie: the nodes other than root, indexed by the hash of their paths.
+  private final TrieNode[] _compiledNodes;
+  private final int[] _compiledNodeHashes;
 
   public TrieRoutingData(Map<String, List<String>> routingData)
       throws InvalidRoutingDataException {
@@ -59,6 +69,27 @@ public class TrieRoutingData implements MetadataStoreRoutingData {
       _rootNode = new TrieNode(new HashMap<>(), "/", false, "");
       constructTrie(routingData);
     }
+
+    List<TrieNode> nodes = new ArrayList<>();
+    Deque<TrieNode> nodeStack = new ArrayDeque<>(_rootNode.getChildren().values());
+    while (!nodeStack.isEmpty()) {
+      TrieNode node = nodeStack.pop();
+      nodes.add(node);
+      nodeStack.addAll(node.getChildren().values());
+    }
+    // Keep the load factor at or below 0.5 so probe sequences stay short.
+    int capacity = Integer.highestOneBit(Math.max(nodes.size(), 1) * 2 - 1) << 1;
+    _compiledNodes = new TrieNode[capacity];
+    _compiledNodeHashes = new int[capacity];
+    for (TrieNode node : nodes) {
+      int hash = node.getPath().hashCode();
+      int slot = spread(hash) & (capacity - 1);
+      while (_compiledNodes[slot] != null) {
+        slot = (slot + 1) & (capacity - 1);
+      }
+      _compiledNodes[slot] = node;
+      _compiledNodeHashes[slot] = hash;
+    }
   }
 
   public Map<String, String> getAllMappingUnderPath(String path)
@@ -154,20 +185,66 @@ public class TrieRoutingData implements MetadataStoreRoutingData {
    * @return a TrieNode that represents the longest prefix of the path
    */
   private TrieNode getLongestPrefixNodeAlongPath(String path) {
-    if (path.equals(DELIMITER)) {
+    if (_rootNode.isShardingKey() || path.equals(DELIMITER)) {
       return _rootNode;
     }
 
+    // hash is the String hash code of path.substring(0, i), updated char by char, so that the
+    // prefix ending before each delimiter can be probed without creating the substring.
     TrieNode curNode = _rootNode;
     TrieNode nextNode;
-    for (String pathSection : path.substring(1).split(DELIMITER, 0)) {
-      nextNode = curNode.getChildren().get(pathSection);
-      if (nextNode == null) {
-        return curNode;
+    int hash = DELIMITER_CHAR;
+    for (int i = 1; i < path.length(); i++) {
+      char c = path.charAt(i);
+      if (c == DELIMITER_CHAR) {
+        nextNode = getCompiledNode(path, i, hash);
+        if (nextNode == null) {
+          return curNode;
+        }
+        curNode = nextNode;
+        // A sharding key has no children, so the traversal cannot go any deeper.
+        if (curNode.isShardingKey()) {
+          return curNode;
+        }
       }
-      curNode = nextNode;
+      hash = 31 * hash + c;
     }
-    return curNode;
+    nextNode = getCompiledNode(path, path.length(), hash);
+    return nextNode == null ? curNode : nextNode;
+  }
+
+  /*
+   * Finds the node whose path is the first prefixLength chars of the given path.
+   * @param path - the path where the search is conducted
+   * @param prefixLength - the length of the prefix of the path to find
+   * @param prefixHash - the String hash code of the prefix
+   * @return the node of the prefix, or null if the prefix is not in the trie
+   */
+  private TrieNode getCompiledNode(String path, int prefixLength, int prefixHash) {
+    int mask = _compiledNodes.length - 1;
+    for (int slot = spread(prefixHash) & mask; ; slot = (slot + 1) & mask) {
+      TrieNode node = _compiledNodes[slot];
+      if (node == null) {
+        return null;
+      }
+      String nodePath = node.getPath();
+      if (_compiledNodeHashes[slot] == prefixHash && nodePath.length() == prefixLength
+          && path.regionMatches(0, nodePath, 0, prefixLength)) {
+        return node;
+      }
+    }
+  }
+
+  /*
+   * Paths that differ only in their last chars, like sequentially numbered clusters, have close
+   * String hash codes. Mix the bits (murmur3 finalizer) so they don't form long runs in the table.
+   */
+  private static int spread(int hash) {
+    hash ^= hash >>> 16;
+    hash *= 0x85ebca6b;
+    hash ^= hash >>> 13;
+    hash *= 0xc2b2ae35;
+    return hash ^ (hash >>> 16);
   }
 
   /*
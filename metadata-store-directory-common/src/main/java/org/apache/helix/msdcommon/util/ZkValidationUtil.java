@@ -20,6 +20,24 @@ package org.apache.helix.msdcommon.util;
  */
 
 public class ZkValidationUtil {
+  // Characters allowed in a section of a path: \w and ?$&+,:;=@#|'<>.^*()%!-
+  private static final boolean[] VALID_PATH_SECTION_CHARS = new boolean[128];
+
+  static {
+    for (char c = 'a'; c <= 'z'; c++) {
+      VALID_PATH_SECTION_CHARS[c] = true;
+    }
+    for (char c = 'A'; c <= 'Z'; c++) {
+      VALID_PATH_SECTION_CHARS[c] = true;
+    }
+    for (char c = '0'; c <= '9'; c++) {
+      VALID_PATH_SECTION_CHARS[c] = true;
+    }
+    for (char c : "_?$&+,:;=@#|'<>.^*()%!-".toCharArray()) {
+      VALID_PATH_SECTION_CHARS[c] = true;
+    }
+  }
+
   /**
    * Validates whether a given path string is a valid ZK path.
    *
@@ -33,8 +51,32 @@ public class ZkValidationUtil {
    * null or empty string
    * /abc/
    * /abc/abc/abc/abc/
+   *
+   * It is equivalent to matching "^/|(/[\\w?[$&+,:;=?@#|'<>.^*()%!-]-]+)+$", but scans the path
+   * without allocating, as it is called for every routed ZK request.
    **/
   public static boolean isPathValid(String path) {
-    return path.matches("^/|(/[\\w?[$&+,:;=?@#|'<>.^*()%!-]-]+)+$");
+    int length = path.length();
+    if (length == 0 || path.charAt(0) != '/') {
+      return false;
+    }
+    if (length == 1) {
+      return true;
+    }
+    boolean isSectionEmpty = true;
+    for (int i = 1; i < length; i++) {
+      char c = path.charAt(i);
+      if (c == '/') {
+        if (isSectionEmpty) {
+          return false;
+        }
+        isSectionEmpty = true;
+      } else if (c < VALID_PATH_SECTION_CHARS.length && VALID_PATH_SECTION_CHARS[c]) {
+        isSectionEmpty = false;
+      } else {
+        return false;
+      }
+    }
+    return !isSectionEmpty;
   }
 }
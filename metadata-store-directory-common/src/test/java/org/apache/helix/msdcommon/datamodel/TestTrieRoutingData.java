@@ -19,6 +19,7 @@ package org.apache.helix.msdcommon.datamodel;
  * under the License.
  */
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
@@ -343,4 +344,31 @@ public class TestTrieRoutingData {
   public void testContainsKeyRealmPairNoRealm() {
     Assert.assertFalse(_trie.containsKeyRealmPair("/h/i", "realmAddress0"));
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testGetMetadataStoreRealmManyShardingKeys() throws InvalidRoutingDataException {
+    Map<String, List<String>> routingData = new HashMap<>();
+    for (int i = 0; i < 1000; i++) {
+      routingData.computeIfAbsent("realmAddress" + i % 7, realm -> new ArrayList<>())
+          .add("/group" + i % 10 + "/cluster" + i);
+    }
+    TrieRoutingData trie = new TrieRoutingData(routingData);
+
+    for (int i = 0; i < 1000; i++) {
+      String shardingKey = "/group" + i % 10 + "/cluster" + i;
+      Assert.assertEquals(trie.getMetadataStoreRealm(shardingKey), "realmAddress" + i % 7);
+      Assert.assertEquals(trie.getShardingKeyInPath(shardingKey + "/INSTANCES/host_" + i),
+          shardingKey);
+    }
+    // Prefixes of sharding keys and paths beside them have no realm.
+    for (String path : Arrays.asList("/group1", "/group1/cluster2", "/group1/cluster1x",
+        "/group1/cluste", "/cluster1")) {
+      try {
+        trie.getMetadataStoreRealm(path);
+        Assert.fail("Expecting NoSuchElementException");
+      } catch (NoSuchElementException e) {
+        Assert.assertTrue(e.getMessage().contains(path));
+      }
+    }
+  }
+}
@@ -27,17 +27,20 @@ import org.apache.helix.msdcommon.datamodel.MetadataStoreRoutingData;
 import org.apache.helix.msdcommon.exception.InvalidRoutingDataException;
 import org.apache.helix.zookeeper.constant.RoutingDataReaderType;
 import org.apache.helix.zookeeper.routing.RoutingDataManager;
+import org.apache.helix.zookeeper.util.ZkBatchRequestUtil;
 import org.apache.helix.zookeeper.zkclient.DataUpdater;
 import org.apache.helix.zookeeper.zkclient.IZkChildListener;
 import org.apache.helix.zookeeper.zkclient.IZkDataListener;
 import org.apache.helix.zookeeper.zkclient.IZkStateListener;
 import org.apache.helix.zookeeper.zkclient.callback.ZkAsyncCallbacks;
+import org.apache.helix.zookeeper.zkclient.exception.ZkNoNodeException;
 import org.apache.helix.zookeeper.zkclient.exception.ZkTimeoutException;
 import org.apache.helix.zookeeper.zkclient.serialize.BasicZkSerializer;
 import org.apache.helix.zookeeper.zkclient.serialize.PathBasedZkSerializer;
 import org.apache.helix.zookeeper.zkclient.serialize.SerializableSerializer;
 import org.apache.helix.zookeeper.zkclient.serialize.ZkSerializer;
 import org.apache.zookeeper.CreateMode;
+import org.apache.zookeeper.KeeperException;
 import org.apache.zookeeper.Op;
 import org.apache.zookeeper.OpResult;
 import org.apache.zookeeper.Watcher;
@@ -294,6 +297,81 @@ public interface RealmAwareZkClient {
 
   void asyncDelete(final String path, final ZkAsyncCallbacks.DeleteCallbackHandler cb);
 
+  /**
+   * Reads the children of the given path and completes the callback with them.
+   * The default implementation is for backward compatibility: it reads the children synchronously
+   * with {@link #getChildren(String)} before returning. Implementations should override it with an
+   * asynchronous read.
+   */
+  default void asyncGetChildren(final String path,
+      final ZkAsyncCallbacks.GetChildrenCallbackHandler cb) {
+    List<String> children;
+    try {
+      children = getChildren(path);
+    } catch (ZkNoNodeException e) {
+      cb.processResult(KeeperException.Code.NONODE.intValue(), path, null, null);
+      return;
+    } catch (RuntimeException e) {
+      cb.processResult(KeeperException.Code.SYSTEMERROR.intValue(), path, null, null);
+      return;
+    }
+    cb.processResult(KeeperException.Code.OK.intValue(), path, null, children);
+  }
+
+  // batch data access
+  // The requests of a batch are sent asynchronously and the call returns once all of them are
+  // complete. The results are in the order of the input paths.
+
+  /**
+   * Checks whether the given paths exist.
+   * @param paths the paths to check
+   * @return for each path, true if it exists. False if it doesn't exist or the request failed.
+   */
+  default boolean[] exists(List<String> paths) {
+    return ZkBatchRequestUtil.exists(paths, ZkBatchRequestUtil.singleClientGroup(this, paths.size()));
+  }
+
+  /**
+   * Gets the children of the given paths.
+   * @param paths the paths to get the children of
+   * @return for each path, its children, or null if it doesn't exist or the request failed.
+   */
+  default List<List<String>> getChildren(List<String> paths) {
+    return ZkBatchRequestUtil
+        .getChildren(paths, ZkBatchRequestUtil.singleClientGroup(this, paths.size()));
+  }
+
+  /**
+   * Reads the data of the given paths.
+   * @param paths the paths to read
+   * @return for each path, its data, or null if it doesn't exist or the request failed.
+   */
+  default <T extends Object> List<T> readData(List<String> paths) {
+    return ZkBatchRequestUtil
+        .readData(paths, ZkBatchRequestUtil.singleClientGroup(this, paths.size()));
+  }
+
+  /**
+   * Writes data to the given paths regardless of their versions.
+   * @param paths the paths to write
+   * @param data the data to write to each path, with the same size as paths
+   * @return for each path, true if the write succeeded
+   */
+  default boolean[] writeData(List<String> paths, List<?> data) {
+    return ZkBatchRequestUtil
+        .writeData(paths, data, ZkBatchRequestUtil.singleClientGroup(this, paths.size()));
+  }
+
+  /**
+   * Deletes the given paths. Paths with children are not deleted.
+   * @param paths the paths to delete
+   * @return for each path, true if it was deleted
+   */
+  default boolean[] delete(List<String> paths) {
+    return ZkBatchRequestUtil
+        .delete(paths, ZkBatchRequestUtil.singleClientGroup(this, paths.size()));
+  }
+
   void watchForData(final String path);
 
   List<String> watchForChilds(final String path);
@@ -70,6 +70,19 @@ public class ZkSystemPropertyKeys {
   public static final String ZK_AUTOSYNC_ENABLED =
       "zk.zkclient.autosync.enabled";
 
+  /**
+   * Number of worker lanes ZkClient uses to deliver data and child change events. Events are
+   * hashed to a lane by their path and listener, so one slow listener does not delay the events of
+   * unrelated paths. Session and state events are still delivered in order with all other events.
+   * <p>
+   * Note the Helix CallbackHandlers of one HelixManager still call their listeners one at a time,
+   * since the listeners are serialized on the manager. The lanes only let the handlers read the
+   * changed data concurrently, so they do not help a slow listener.
+   * <p>
+   * The default value is 1, meaning all events are delivered by the single ZkClient event thread.
+   */
+  public static final String ZK_EVENT_THREAD_LANE_COUNT = "zk.zkclient.eventThread.laneCount";
+
   /** System property key for jute.maxbuffer */
   public static final String JUTE_MAXBUFFER = "jute.maxbuffer";
 
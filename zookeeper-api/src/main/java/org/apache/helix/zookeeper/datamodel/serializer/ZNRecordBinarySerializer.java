@@ -0,0 +1,457 @@
+package org.apache.helix.zookeeper.datamodel.serializer;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.helix.zookeeper.datamodel.ZNRecord;
+import org.apache.helix.zookeeper.util.GZipCompressionUtil;
+import org.apache.helix.zookeeper.util.ZNRecordUtil;
+import org.apache.helix.zookeeper.zkclient.exception.ZkMarshallingError;
+import org.apache.helix.zookeeper.zkclient.serialize.ZkSerializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A compact binary serializer for ZNRecord.
+ *
+ * The instance names, partition names and states are repeated many times in a large IdealState,
+ * ExternalView or CurrentState. So every distinct string is written only once in a string table,
+ * and the fields refer to the strings by their positions in the table. All the numbers are written
+ * as variable length integers.
+ *
+ * Format of version 1:
+ * <pre>
+ *   magic (4 bytes) | version (1 byte)
+ *   string table:  count, then the UTF-8 length and bytes of each string
+ *   id:            string reference
+ *   simpleFields:  count, then (key, value) string references
+ *   listFields:    count, then key string reference, list size, and the list string references
+ *   mapFields:     count, then key string reference, map size, and (key, value) string references
+ *   rawPayload:    length + 1 and the bytes, or 0 if there is no payload
+ * </pre>
+ * A string reference is the position in the string table + 1, or 0 for a null string.
+ * The serialized bytes are GZip compressed in the same cases as the JSON serializers, see
+ * {@link ZNRecordUtil#shouldCompress(ZNRecord, int)}.
+ *
+ * On read, the binary format is detected by the magic bytes. Any other data is deserialized by the
+ * fallback serializer, so the nodes written in JSON can still be read. To migrate a cluster
+ * gradually, first deploy this serializer with binary writes disabled to all the readers, then
+ * enable the binary writes. The serializer can be applied to a subset of the paths with
+ * {@link ChainedPathZkSerializer}.
+ */
+public class ZNRecordBinarySerializer implements ZkSerializer {
+  private static final Logger LOG = LoggerFactory.getLogger(ZNRecordBinarySerializer.class);
+
+  // The first byte is not valid in a JSON document or a GZip stream.
+  private static final byte[] MAGIC = {(byte) 0x89, 'Z', 'N', 'R'};
+  public static final byte FORMAT_VERSION = 1;
+
+  private final ZkSerializer _fallbackSerializer;
+  private final boolean _binaryWriteEnabled;
+
+  /**
+   * Create a serializer that writes the binary format, and reads both the binary format and the
+   * JSON format of {@link ZNRecordSerializer}.
+   */
+  public ZNRecordBinarySerializer() {
+    this(new ZNRecordSerializer(), true);
+  }
+
+  /**
+   * @param fallbackSerializer the serializer to read the data that is not in the binary format, and
+   *                           to write the data if the binary writes are disabled
+   * @param binaryWriteEnabled whether to write the binary format
+   */
+  public ZNRecordBinarySerializer(ZkSerializer fallbackSerializer, boolean binaryWriteEnabled) {
+    _fallbackSerializer = fallbackSerializer;
+    _binaryWriteEnabled = binaryWriteEnabled;
+  }
+
+  /**
+   * @return true if the bytes are an uncompressed ZNRecord in the binary format
+   */
+  public static boolean isBinaryFormat(byte[] bytes) {
+    if (bytes == null || bytes.length < MAGIC.length + 1) {
+      return false;
+    }
+    for (int i = 0; i < MAGIC.length; i++) {
+      if (bytes[i] != MAGIC[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static int getListFieldBound(ZNRecord record) {
+    int max = Integer.MAX_VALUE;
+    if (record.getSimpleFields().containsKey(ZNRecord.LIST_FIELD_BOUND)) {
+      String maxStr = record.getSimpleField(ZNRecord.LIST_FIELD_BOUND);
+      try {
+        max = Integer.parseInt(maxStr);
+      } catch (Exception e) {
+        LOG.error("IllegalNumberFormat for list field bound: " + maxStr);
+      }
+    }
+    return max;
+  }
+
+  @Override
+  public byte[] serialize(Object data) throws ZkMarshallingError {
+    if (!_binaryWriteEnabled) {
+      return _fallbackSerializer.serialize(data);
+    }
+    if (!(data instanceof ZNRecord)) {
+      // null is NOT an instance of any class
+      LOG.error("Input object must be of type ZNRecord but it is " + data
+          + ". Will not write to zk");
+      throw new ZkMarshallingError("Input object is not of type ZNRecord (was " + data + ")");
+    }
+
+    // apply retention policy on list field
+    ZNRecord record = (ZNRecord) data;
+    int max = getListFieldBound(record);
+    if (max < Integer.MAX_VALUE) {
+      Map<String, List<String>> listMap = record.getListFields();
+      for (String key : listMap.keySet()) {
+        List<String> list = listMap.get(key);
+        if (list.size() > max) {
+          listMap.put(key, list.subList(0, max));
+        }
+      }
+    }
+
+    byte[] serializedBytes;
+    boolean isCompressed = false;
+    try {
+      serializedBytes = encode(record);
+      // apply compression if needed
+      if (ZNRecordUtil.shouldCompress(record, serializedBytes.length)) {
+        serializedBytes = GZipCompressionUtil.compress(serializedBytes);
+        isCompressed = true;
+      }
+    } catch (Exception e) {
+      LOG.error(
+          "Exception during data serialization. ZNRecord ID: {} will not be written to zk.",
+          record.getId(), e);
+      throw new ZkMarshallingError(e);
+    }
+
+    int writeSizeLimit = ZNRecordUtil.getSerializerWriteSizeLimit();
+    if (serializedBytes.length > writeSizeLimit) {
+      LOG.error("Data size: {} is greater than {} bytes, is compressed: {}, ZNRecord.id: {}."
+              + " Data will not be written to Zookeeper.", serializedBytes.length, writeSizeLimit,
+          isCompressed, record.getId());
+      throw new ZkMarshallingError(
+          "Data size: " + serializedBytes.length + " is greater than " + writeSizeLimit
+              + " bytes, is compressed: " + isCompressed + ", ZNRecord.id: " + record.getId());
+    }
+
+    return serializedBytes;
+  }
+
+  @Override
+  public Object deserialize(byte[] bytes) throws ZkMarshallingError {
+    if (bytes == null || bytes.length == 0) {
+      // reading a parent/null node
+      return null;
+    }
+
+    byte[] uncompressedBytes = bytes;
+    if (GZipCompressionUtil.isCompressed(bytes)) {
+      try {
+        uncompressedBytes = GZipCompressionUtil.uncompress(new ByteArrayInputStream(bytes));
+      } catch (Exception e) {
+        // Not a valid GZip stream, so not written by this serializer. Leave it to the fallback
+        // serializer, which reads the compressed data of its own format.
+        LOG.warn("Failed to decompress {} bytes, deserialize them with {}.", bytes.length,
+            _fallbackSerializer.getClass().getSimpleName(), e);
+        return _fallbackSerializer.deserialize(bytes);
+      }
+    }
+    if (!isBinaryFormat(uncompressedBytes)) {
+      return _fallbackSerializer.deserialize(uncompressedBytes);
+    }
+
+    try {
+      return decode(uncompressedBytes);
+    } catch (Exception e) {
+      LOG.error("Exception during deserialization of binary ZNRecord of {} bytes",
+          uncompressedBytes.length, e);
+      return null;
+    }
+  }
+
+  private static byte[] encode(ZNRecord record) {
+    StringTable stringTable = new StringTable();
+    Output body = new Output(256);
+
+    body.writeVarInt(stringTable.reference(record.getId()));
+
+    Map<String, String> simpleFields = record.getSimpleFields();
+    body.writeVarInt(simpleFields.size());
+    for (Map.Entry<String, String> entry : simpleFields.entrySet()) {
+      body.writeVarInt(stringTable.reference(entry.getKey()));
+      body.writeVarInt(stringTable.reference(entry.getValue()));
+    }
+
+    Map<String, List<String>> listFields = record.getListFields();
+    body.writeVarInt(listFields.size());
+    for (Map.Entry<String, List<String>> entry : listFields.entrySet()) {
+      body.writeVarInt(stringTable.reference(entry.getKey()));
+      List<String> list = entry.getValue();
+      body.writeVarInt(list.size());
+      for (String value : list) {
+        body.writeVarInt(stringTable.reference(value));
+      }
+    }
+
+    Map<String, Map<String, String>> mapFields = record.getMapFields();
+    body.writeVarInt(mapFields.size());
+    for (Map.Entry<String, Map<String, String>> entry : mapFields.entrySet()) {
+      body.writeVarInt(stringTable.reference(entry.getKey()));
+      Map<String, String> map = entry.getValue();
+      body.writeVarInt(map.size());
+      for (Map.Entry<String, String> mapEntry : map.entrySet()) {
+        body.writeVarInt(stringTable.reference(mapEntry.getKey()));
+        body.writeVarInt(stringTable.reference(mapEntry.getValue()));
+      }
+    }
+
+    byte[] rawPayload = record.getRawPayload();
+    if (rawPayload == null) {
+      body.writeVarInt(0);
+    } else {
+      body.writeVarInt(rawPayload.length + 1);
+      body.writeBytes(rawPayload, 0, rawPayload.length);
+    }
+
+    Output output = new Output(MAGIC.length + 1 + stringTable._encodedLength + body._size);
+    output.writeBytes(MAGIC, 0, MAGIC.length);
+    output.writeByte(FORMAT_VERSION);
+    output.writeVarInt(stringTable._encodedStrings.size());
+    for (byte[] encodedString : stringTable._encodedStrings) {
+      output.writeVarInt(encodedString.length);
+      output.writeBytes(encodedString, 0, encodedString.length);
+    }
+    output.writeBytes(body._buffer, 0, body._size);
+    return output.toByteArray();
+  }
+
+  private static ZNRecord decode(byte[] bytes) {
+    Input input = new Input(bytes, MAGIC.length);
+    byte version = input.readByte();
+    if (version != FORMAT_VERSION) {
+      throw new ZkMarshallingError("Unsupported binary ZNRecord format version: " + version);
+    }
+
+    String[] strings = new String[input.readCount()];
+    for (int i = 0; i < strings.length; i++) {
+      strings[i] = input.readString();
+    }
+
+    ZNRecord record = new ZNRecord(input.readStringReference(strings));
+
+    // The fields are written in the iteration order of the record, so insertion ordered maps keep
+    // the order without the cost of sorting, which is also what the JSON serializers produce.
+    int simpleFieldCount = input.readCount();
+    Map<String, String> simpleFields = new LinkedHashMap<>(capacity(simpleFieldCount));
+    for (int i = 0; i < simpleFieldCount; i++) {
+      simpleFields.put(input.readStringReference(strings), input.readStringReference(strings));
+    }
+    record.setSimpleFields(simpleFields);
+
+    int listFieldCount = input.readCount();
+    Map<String, List<String>> listFields = new LinkedHashMap<>(capacity(listFieldCount));
+    for (int i = 0; i < listFieldCount; i++) {
+      String key = input.readStringReference(strings);
+      int size = input.readCount();
+      List<String> list = new ArrayList<>(size);
+      for (int j = 0; j < size; j++) {
+        list.add(input.readStringReference(strings));
+      }
+      listFields.put(key, list);
+    }
+    record.setListFields(listFields);
+
+    int mapFieldCount = input.readCount();
+    Map<String, Map<String, String>> mapFields = new LinkedHashMap<>(capacity(mapFieldCount));
+    for (int i = 0; i < mapFieldCount; i++) {
+      String key = input.readStringReference(strings);
+      int size = input.readCount();
+      Map<String, String> map = new LinkedHashMap<>(capacity(size));
+      for (int j = 0; j < size; j++) {
+        map.put(input.readStringReference(strings), input.readStringReference(strings));
+      }
+      mapFields.put(key, map);
+    }
+    record.setMapFields(mapFields);
+
+    int rawPayloadLength = input.readVarInt() - 1;
+    if (rawPayloadLength >= 0) {
+      record.setRawPayload(input.readBytes(rawPayloadLength));
+    }
+    return record;
+  }
+
+  private static int capacity(int size) {
+    return (int) (size / 0.75f) + 1;
+  }
+
+  /**
+   * Assigns a position to every distinct string in the order of the first reference.
+   */
+  private static class StringTable {
+    private final Map<String, Integer> _positions = new HashMap<>();
+    private final List<byte[]> _encodedStrings = new ArrayList<>();
+    private int _encodedLength = 0;
+
+    int reference(String string) {
+      if (string == null) {
+        return 0;
+      }
+      Integer position = _positions.get(string);
+      if (position == null) {
+        position = _encodedStrings.size();
+        _positions.put(string, position);
+        byte[] encodedString = string.getBytes(StandardCharsets.UTF_8);
+        _encodedStrings.add(encodedString);
+        // The length prefix takes at most 5 bytes.
+        _encodedLength += encodedString.length + 5;
+      }
+      return position + 1;
+    }
+  }
+
+  private static class Output {
+    private byte[] _buffer;
+    private int _size = 0;
+
+    Output(int initialCapacity) {
+      _buffer = new byte[Math.max(initialCapacity, 16)];
+    }
+
+    void writeByte(int value) {
+      ensureCapacity(1);
+      _buffer[_size++] = (byte) value;
+    }
+
+    void writeVarInt(int value) {
+      ensureCapacity(5);
+      while ((value & ~0x7F) != 0) {
+        _buffer[_size++] = (byte) ((value & 0x7F) | 0x80);
+        value >>>= 7;
+      }
+      _buffer[_size++] = (byte) value;
+    }
+
+    void writeBytes(byte[] bytes, int offset, int length) {
+      ensureCapacity(length);
+      System.arraycopy(bytes, offset, _buffer, _size, length);
+      _size += length;
+    }
+
+    byte[] toByteArray() {
+      return _size == _buffer.length ? _buffer : Arrays.copyOf(_buffer, _size);
+    }
+
+    private void ensureCapacity(int length) {
+      if (_size + length > _buffer.length) {
+        _buffer = Arrays.copyOf(_buffer, Math.max(_buffer.length * 2, _size + length));
+      }
+    }
+  }
+
+  private static class Input {
+    private final byte[] _buffer;
+    private int _position;
+
+    Input(byte[] buffer, int position) {
+      _buffer = buffer;
+      _position = position;
+    }
+
+    byte readByte() {
+      checkAvailable(1);
+      return _buffer[_position++];
+    }
+
+    int readVarInt() {
+      int value = 0;
+      for (int shift = 0; shift < 32; shift += 7) {
+        byte b = readByte();
+        value |= (b & 0x7F) << shift;
+        if ((b & 0x80) == 0) {
+          if (value < 0) {
+            throw new ZkMarshallingError("Invalid length in binary ZNRecord: " + value);
+          }
+          return value;
+        }
+      }
+      throw new ZkMarshallingError("Malformed variable length integer in binary ZNRecord");
+    }
+
+    /**
+     * Read the number of the following elements. Every element takes at least one byte, so a count
+     * that exceeds the remaining bytes is rejected before anything is allocated for it.
+     */
+    int readCount() {
+      int count = readVarInt();
+      checkAvailable(count);
+      return count;
+    }
+
+    String readString() {
+      int length = readVarInt();
+      checkAvailable(length);
+      String string = new String(_buffer, _position, length, StandardCharsets.UTF_8);
+      _position += length;
+      return string;
+    }
+
+    String readStringReference(String[] strings) {
+      int reference = readVarInt();
+      if (reference > strings.length) {
+        throw new ZkMarshallingError("Invalid string reference in binary ZNRecord: " + reference);
+      }
+      return reference == 0 ? null : strings[reference - 1];
+    }
+
+    byte[] readBytes(int length) {
+      checkAvailable(length);
+      byte[] bytes = Arrays.copyOfRange(_buffer, _position, _position + length);
+      _position += length;
+      return bytes;
+    }
+
+    private void checkAvailable(int length) {
+      if (length > _buffer.length - _position) {
+        throw new ZkMarshallingError("Unexpected end of binary ZNRecord");
+      }
+    }
+  }
+}
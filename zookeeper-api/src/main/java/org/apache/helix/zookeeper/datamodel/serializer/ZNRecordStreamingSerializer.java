@@ -21,10 +21,13 @@ package org.apache.helix.zookeeper.datamodel.serializer;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.TreeMap;
 
 import org.apache.commons.codec.binary.Base64;
@@ -43,6 +46,42 @@ import org.slf4j.LoggerFactory;
 
 public class ZNRecordStreamingSerializer implements ZkSerializer {
   private static final Logger LOG = LoggerFactory.getLogger(ZNRecordStreamingSerializer.class);
+  // The factory is thread safe. Sharing it lets the parsers reuse the buffers and the canonical
+  // field names instead of allocating them for every record.
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+  /**
+   * The parts of a ZNRecord that can be deserialized. The fields that are not read are left
+   * empty in the returned record. The id is always read.
+   */
+  public enum Field {
+    SIMPLE_FIELDS,
+    LIST_FIELDS,
+    MAP_FIELDS,
+    RAW_PAYLOAD
+  }
+
+  private final Set<Field> _fieldsToRead;
+  private final StringPool _stringPool;
+
+  public ZNRecordStreamingSerializer() {
+    this(EnumSet.allOf(Field.class), 0);
+  }
+
+  /**
+   * @param fieldsToRead the fields to deserialize, e.g. only {@link Field#MAP_FIELDS} for callers
+   *                     that only look at the partition states of an ExternalView
+   * @param stringPoolSize the number of distinct string values to keep for reuse across the
+   *                       deserialized records. 0 disables the pool.
+   */
+  public ZNRecordStreamingSerializer(Set<Field> fieldsToRead, int stringPoolSize) {
+    if (stringPoolSize < 0) {
+      throw new IllegalArgumentException("String pool size cannot be negative: " + stringPoolSize);
+    }
+    _fieldsToRead =
+        fieldsToRead.isEmpty() ? EnumSet.noneOf(Field.class) : EnumSet.copyOf(fieldsToRead);
+    _stringPool = stringPoolSize > 0 ? new StringPool(stringPoolSize) : null;
+  }
 
   private static int getListFieldBound(ZNRecord record) {
     int max = Integer.MAX_VALUE;
@@ -83,8 +122,7 @@ public class ZNRecordStreamingSerializer implements ZkSerializer {
     boolean isCompressed = false;
 
     try {
-      JsonFactory f = new JsonFactory();
-      JsonGenerator g = f.createJsonGenerator(baos);
+      JsonGenerator g = JSON_FACTORY.createGenerator(baos);
 
       g.writeStartObject();
 
@@ -187,23 +225,23 @@ public class ZNRecordStreamingSerializer implements ZkSerializer {
       return null;
     }
 
-    ByteArrayInputStream bais = new ByteArrayInputStream(bytes);
-
     ZNRecord record = null;
     String id = null;
-    Map<String, String> simpleFields = new HashMap<>();
-    Map<String, List<String>> listFields = new HashMap<>();
-    Map<String, Map<String, String>> mapFields = new HashMap<>();
+    Map<String, String> simpleFields = null;
+    Map<String, List<String>> listFields = null;
+    Map<String, Map<String, String>> mapFields = null;
     byte[] rawPayload = null;
 
     try {
       // decompress the data if its already compressed
+      byte[] uncompressedBytes = bytes;
       if (GZipCompressionUtil.isCompressed(bytes)) {
-        byte[] uncompressedBytes = GZipCompressionUtil.uncompress(bais);
-        bais = new ByteArrayInputStream(uncompressedBytes);
+        uncompressedBytes = GZipCompressionUtil.uncompress(new ByteArrayInputStream(bytes));
       }
-      JsonFactory f = new JsonFactory();
-      JsonParser jp = f.createJsonParser(bais);
+      JsonParser jp = JSON_FACTORY.createParser(uncompressedBytes);
+      // Holds the entries of the objects being parsed until their size is known, so every map and
+      // list is allocated once with the right capacity.
+      List<Object> buffer = new ArrayList<>();
 
       jp.nextToken(); // will return JsonToken.START_OBJECT (verify?)
       while (jp.nextToken() != JsonToken.END_OBJECT) {
@@ -213,39 +251,39 @@ public class ZNRecordStreamingSerializer implements ZkSerializer {
           // contains an object
           id = jp.getText();
         } else if ("simpleFields".equals(fieldname)) {
-          while (jp.nextToken() != JsonToken.END_OBJECT) {
-            String key = jp.getCurrentName();
-            jp.nextToken(); // move to value
-            simpleFields.put(key, jp.getText());
+          if (_fieldsToRead.contains(Field.SIMPLE_FIELDS)) {
+            simpleFields = readStringMap(jp, buffer);
+          } else {
+            jp.skipChildren();
           }
         } else if ("mapFields".equals(fieldname)) {
-          // user.setVerified(jp.getCurrentToken() == JsonToken.VALUE_TRUE);
-          while (jp.nextToken() != JsonToken.END_OBJECT) {
-            String key = jp.getCurrentName();
-            mapFields.put(key, new TreeMap<String, String>());
-            jp.nextToken(); // move to value
-
+          if (_fieldsToRead.contains(Field.MAP_FIELDS)) {
+            int start = buffer.size();
             while (jp.nextToken() != JsonToken.END_OBJECT) {
-              String mapKey = jp.getCurrentName();
+              buffer.add(jp.getCurrentName());
               jp.nextToken(); // move to value
-              mapFields.get(key).put(mapKey, jp.getText());
+              buffer.add(readStringMap(jp, buffer));
             }
+            mapFields = toMap(buffer, start);
+          } else {
+            jp.skipChildren();
           }
-
         } else if ("listFields".equals(fieldname)) {
-          // user.setUserImage(jp.getBinaryValue());
-          while (jp.nextToken() != JsonToken.END_OBJECT) {
-            String key = jp.getCurrentName();
-            listFields.put(key, new ArrayList<String>());
-            jp.nextToken(); // move to value
-            while (jp.nextToken() != JsonToken.END_ARRAY) {
-              listFields.get(key).add(jp.getText());
+          if (_fieldsToRead.contains(Field.LIST_FIELDS)) {
+            int start = buffer.size();
+            while (jp.nextToken() != JsonToken.END_OBJECT) {
+              buffer.add(jp.getCurrentName());
+              jp.nextToken(); // move to value
+              buffer.add(readStringList(jp, buffer));
             }
-
+            listFields = toMap(buffer, start);
+          } else {
+            jp.skipChildren();
           }
-
         } else if ("rawPayload".equals(fieldname)) {
-          rawPayload = Base64.decodeBase64(jp.getText());
+          if (_fieldsToRead.contains(Field.RAW_PAYLOAD)) {
+            rawPayload = Base64.decodeBase64(jp.getText());
+          }
         } else {
           throw new IllegalStateException("Unrecognized field '" + fieldname + "'!");
         }
@@ -256,9 +294,15 @@ public class ZNRecordStreamingSerializer implements ZkSerializer {
         throw new IllegalStateException("ZNRecord id field is required!");
       }
       record = new ZNRecord(id);
-      record.setSimpleFields(simpleFields);
-      record.setListFields(listFields);
-      record.setMapFields(mapFields);
+      if (simpleFields != null) {
+        record.setSimpleFields(simpleFields);
+      }
+      if (listFields != null) {
+        record.setListFields(listFields);
+      }
+      if (mapFields != null) {
+        record.setMapFields(mapFields);
+      }
       record.setRawPayload(rawPayload);
     } catch (Exception e) {
       LOG.error("Exception during deserialization of bytes: " + new String(bytes), e);
@@ -266,6 +310,113 @@ public class ZNRecordStreamingSerializer implements ZkSerializer {
     return record;
   }
 
+  /**
+   * Read the JSON object the parser is positioned at into a map of strings.
+   */
+  private Map<String, String> readStringMap(JsonParser jp, List<Object> buffer) throws IOException {
+    int start = buffer.size();
+    while (jp.nextToken() != JsonToken.END_OBJECT) {
+      buffer.add(jp.getCurrentName());
+      jp.nextToken(); // move to value
+      buffer.add(readString(jp));
+    }
+    return toMap(buffer, start);
+  }
+
+  /**
+   * Read the JSON array the parser is positioned at into a list of strings.
+   */
+  private List<String> readStringList(JsonParser jp, List<Object> buffer) throws IOException {
+    int start = buffer.size();
+    while (jp.nextToken() != JsonToken.END_ARRAY) {
+      buffer.add(readString(jp));
+    }
+    List<String> list = new ArrayList<>(buffer.size() - start);
+    for (int i = start; i < buffer.size(); i++) {
+      list.add((String) buffer.get(i));
+    }
+    buffer.subList(start, buffer.size()).clear();
+    return list;
+  }
+
+  private String readString(JsonParser jp) throws IOException {
+    if (jp.getCurrentToken() == JsonToken.VALUE_NULL) {
+      return null;
+    }
+    if (_stringPool != null && jp.getCurrentToken() == JsonToken.VALUE_STRING) {
+      return _stringPool.get(jp.getTextCharacters(), jp.getTextOffset(), jp.getTextLength());
+    }
+    return jp.getText();
+  }
+
+  /**
+   * Move the key/value pairs buffered from the given index on into a map of the exact size, and
+   * release them from the buffer.
+   */
+  @SuppressWarnings("unchecked")
+  private static <V> Map<String, V> toMap(List<Object> buffer, int start) {
+    int size = (buffer.size() - start) / 2;
+    Map<String, V> map = new LinkedHashMap<>((int) (size / 0.75f) + 1);
+    for (int i = start; i < buffer.size(); i += 2) {
+      map.put((String) buffer.get(i), (V) buffer.get(i + 1));
+    }
+    buffer.subList(start, buffer.size()).clear();
+    return map;
+  }
+
+  /**
+   * A fixed size, direct-mapped cache of the string values seen by the deserializer. ZNRecords
+   * repeat a small vocabulary of values, e.g. instance names and states like MASTER or SLAVE, so
+   * the cached copy is returned instead of allocating a new String for each occurrence. A slot is
+   * simply overwritten on collision, so the pool never grows beyond its initial size.
+   *
+   * The pool is shared by all the threads using the serializer without locking. That is safe since
+   * the slots only ever hold immutable Strings, and a lost update only costs a cache miss.
+   */
+  private static final class StringPool {
+    // Longer values are rarely repeated, and hashing them costs more than the allocation saved.
+    private static final int MAX_POOLED_LENGTH = 64;
+
+    private final String[] _slots;
+    private final int _mask;
+
+    StringPool(int size) {
+      int capacity = Integer.highestOneBit(Math.max(size - 1, 1)) << 1;
+      _slots = new String[capacity];
+      _mask = capacity - 1;
+    }
+
+    String get(char[] chars, int offset, int length) {
+      if (length > MAX_POOLED_LENGTH) {
+        return new String(chars, offset, length);
+      }
+      int hash = 0;
+      for (int i = offset; i < offset + length; i++) {
+        hash = 31 * hash + chars[i];
+      }
+      int slot = (hash ^ (hash >>> 16)) & _mask;
+      String cached = _slots[slot];
+      if (cached != null && matches(cached, chars, offset, length)) {
+        return cached;
+      }
+      String value = new String(chars, offset, length);
+      _slots[slot] = value;
+      return value;
+    }
+
+    private static boolean matches(String cached, char[] chars, int offset, int length) {
+      if (cached.length() != length) {
+        return false;
+      }
+      for (int i = 0; i < length; i++) {
+        if (cached.charAt(i) != chars[offset + i]) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
   public static void main(String[] args) {
     ZNRecord record = new ZNRecord("record");
     final int recordSize = 10;
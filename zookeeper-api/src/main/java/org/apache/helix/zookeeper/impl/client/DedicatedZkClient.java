@@ -503,6 +503,12 @@ public class DedicatedZkClient implements RealmAwareZkClient {
     _rawZkClient.asyncDelete(path, cb);
   }
 
+  @Override
+  public void asyncGetChildren(String path, ZkAsyncCallbacks.GetChildrenCallbackHandler cb) {
+    checkIfPathContainsShardingKey(path);
+    _rawZkClient.asyncGetChildren(path, cb);
+  }
+
   @Override
   public void watchForData(String path) {
     checkIfPathContainsShardingKey(path);
@@ -34,6 +34,7 @@ import org.apache.helix.zookeeper.constant.RoutingSystemPropertyKeys;
 import org.apache.helix.zookeeper.exception.MultiZkException;
 import org.apache.helix.zookeeper.impl.factory.DedicatedZkClientFactory;
 import org.apache.helix.zookeeper.routing.RoutingDataManager;
+import org.apache.helix.zookeeper.util.ZkBatchRequestUtil;
 import org.apache.helix.zookeeper.zkclient.DataUpdater;
 import org.apache.helix.zookeeper.zkclient.IZkChildListener;
 import org.apache.helix.zookeeper.zkclient.IZkDataListener;
@@ -479,6 +480,36 @@ public class FederatedZkClient implements RealmAwareZkClient {
     getZkClient(path).asyncDelete(path, cb);
   }
 
+  @Override
+  public void asyncGetChildren(String path, ZkAsyncCallbacks.GetChildrenCallbackHandler cb) {
+    getZkClient(path).asyncGetChildren(path, cb);
+  }
+
+  @Override
+  public boolean[] exists(List<String> paths) {
+    return ZkBatchRequestUtil.exists(paths, groupByRealm(paths));
+  }
+
+  @Override
+  public List<List<String>> getChildren(List<String> paths) {
+    return ZkBatchRequestUtil.getChildren(paths, groupByRealm(paths));
+  }
+
+  @Override
+  public <T> List<T> readData(List<String> paths) {
+    return ZkBatchRequestUtil.readData(paths, groupByRealm(paths));
+  }
+
+  @Override
+  public boolean[] writeData(List<String> paths, List<?> data) {
+    return ZkBatchRequestUtil.writeData(paths, data, groupByRealm(paths));
+  }
+
+  @Override
+  public boolean[] delete(List<String> paths) {
+    return ZkBatchRequestUtil.delete(paths, groupByRealm(paths));
+  }
+
   @Override
   public void watchForData(String path) {
     getZkClient(path).watchForData(path);
@@ -624,11 +655,33 @@ public class FederatedZkClient implements RealmAwareZkClient {
     return getZkClient(path).create(path, dataObject, acl, mode, ttl);
   }
 
+  /**
+   * Groups the indices of the paths by the ZkClient of their realm. All the paths are routed before
+   * any request is sent, so a path without a realm fails the batch as a whole.
+   */
+  private Map<RealmAwareZkClient, List<Integer>> groupByRealm(List<String> paths) {
+    // If FederatedZkClient is closed, should not return ZkClient.
+    checkClosedState();
+
+    Map<String, List<Integer>> realmToIndices = new LinkedHashMap<>();
+    for (int i = 0; i < paths.size(); i++) {
+      realmToIndices.computeIfAbsent(getZkRealm(paths.get(i)), realm -> new ArrayList<>()).add(i);
+    }
+    Map<RealmAwareZkClient, List<Integer>> groups = new LinkedHashMap<>();
+    for (Map.Entry<String, List<Integer>> entry : realmToIndices.entrySet()) {
+      groups.put(getZkClientOfRealm(entry.getKey()), entry.getValue());
+    }
+    return groups;
+  }
+
   private ZkClient getZkClient(String path) {
     // If FederatedZkClient is closed, should not return ZkClient.
     checkClosedState();
 
-    String zkRealm = getZkRealm(path);
+    return getZkClientOfRealm(getZkRealm(path));
+  }
+
+  private ZkClient getZkClientOfRealm(String zkRealm) {
     // Use this zkClient reference to protect the returning zkClient from being null because of
     // race condition. Once we get the reference, even _zkRealmToZkClientMap is cleared by closed(),
     // this zkClient is not null which guarantees the returned value not null.
@@ -535,6 +535,12 @@ public class SharedZkClient implements RealmAwareZkClient {
     _innerSharedZkClient.asyncDelete(path, cb);
   }
 
+  @Override
+  public void asyncGetChildren(String path, ZkAsyncCallbacks.GetChildrenCallbackHandler cb) {
+    checkIfPathContainsShardingKey(path);
+    _innerSharedZkClient.asyncGetChildren(path, cb);
+  }
+
   @Override
   public void watchForData(String path) {
     checkIfPathContainsShardingKey(path);
@@ -0,0 +1,158 @@
+package org.apache.helix.zookeeper.util;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.apache.helix.zookeeper.api.client.RealmAwareZkClient;
+import org.apache.helix.zookeeper.zkclient.callback.ZkAsyncCallbacks;
+import org.apache.helix.zookeeper.zkclient.exception.ZkInterruptedException;
+import org.apache.zookeeper.KeeperException;
+
+
+/**
+ * This utility class runs batches of ZK requests with the async API of RealmAwareZkClient. The
+ * paths of a batch are grouped by the client that serves them. All the requests are sent before
+ * waiting for any response, so the groups of different clients are served concurrently. Results
+ * are returned in the order of the input paths.
+ */
+public class ZkBatchRequestUtil {
+
+  private interface AsyncRequest<C extends ZkAsyncCallbacks.DefaultCallback> {
+    void send(RealmAwareZkClient client, int index, C cb);
+  }
+
+  /**
+   * @param client the client that serves all the paths
+   * @param size number of paths of the batch
+   * @return a single group that maps the client to every index of the batch
+   */
+  public static Map<RealmAwareZkClient, List<Integer>> singleClientGroup(RealmAwareZkClient client,
+      int size) {
+    List<Integer> indices = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      indices.add(i);
+    }
+    return Collections.singletonMap(client, indices);
+  }
+
+  public static boolean[] exists(List<String> paths,
+      Map<RealmAwareZkClient, List<Integer>> groups) {
+    List<ZkAsyncCallbacks.ExistsCallbackHandler> cbs =
+        execute(paths.size(), groups, ZkAsyncCallbacks.ExistsCallbackHandler::new,
+            (client, i, cb) -> client.asyncExists(paths.get(i), cb));
+    boolean[] results = new boolean[paths.size()];
+    for (int i = 0; i < results.length; i++) {
+      results[i] = isOk(cbs.get(i));
+    }
+    return results;
+  }
+
+  public static List<List<String>> getChildren(List<String> paths,
+      Map<RealmAwareZkClient, List<Integer>> groups) {
+    List<ZkAsyncCallbacks.GetChildrenCallbackHandler> cbs =
+        execute(paths.size(), groups, ZkAsyncCallbacks.GetChildrenCallbackHandler::new,
+            (client, i, cb) -> client.asyncGetChildren(paths.get(i), cb));
+    List<List<String>> results = new ArrayList<>(paths.size());
+    for (ZkAsyncCallbacks.GetChildrenCallbackHandler cb : cbs) {
+      results.add(isOk(cb) ? cb.getChildren() : null);
+    }
+    return results;
+  }
+
+  public static <T> List<T> readData(List<String> paths,
+      Map<RealmAwareZkClient, List<Integer>> groups) {
+    List<ZkAsyncCallbacks.GetDataCallbackHandler> cbs =
+        execute(paths.size(), groups, ZkAsyncCallbacks.GetDataCallbackHandler::new,
+            (client, i, cb) -> client.asyncGetData(paths.get(i), cb));
+    List<T> results = new ArrayList<>(Collections.nCopies(paths.size(), null));
+    for (Map.Entry<RealmAwareZkClient, List<Integer>> group : groups.entrySet()) {
+      for (int i : group.getValue()) {
+        ZkAsyncCallbacks.GetDataCallbackHandler cb = cbs.get(i);
+        if (isOk(cb)) {
+          // Deserialize with the client of the path, as each client may have its own serializer.
+          results.set(i, group.getKey().deserialize(cb.getData(), paths.get(i)));
+        }
+      }
+    }
+    return results;
+  }
+
+  public static boolean[] writeData(List<String> paths, List<?> data,
+      Map<RealmAwareZkClient, List<Integer>> groups) {
+    checkDataSize(paths, data);
+    List<ZkAsyncCallbacks.SetDataCallbackHandler> cbs =
+        execute(paths.size(), groups, ZkAsyncCallbacks.SetDataCallbackHandler::new,
+            (client, i, cb) -> client.asyncSetData(paths.get(i), data.get(i), -1, cb));
+    boolean[] results = new boolean[paths.size()];
+    for (int i = 0; i < results.length; i++) {
+      results[i] = isOk(cbs.get(i));
+    }
+    return results;
+  }
+
+  public static boolean[] delete(List<String> paths,
+      Map<RealmAwareZkClient, List<Integer>> groups) {
+    List<ZkAsyncCallbacks.DeleteCallbackHandler> cbs =
+        execute(paths.size(), groups, ZkAsyncCallbacks.DeleteCallbackHandler::new,
+            (client, i, cb) -> client.asyncDelete(paths.get(i), cb));
+    boolean[] results = new boolean[paths.size()];
+    for (int i = 0; i < results.length; i++) {
+      results[i] = isOk(cbs.get(i));
+    }
+    return results;
+  }
+
+  private static <C extends ZkAsyncCallbacks.DefaultCallback> List<C> execute(int size,
+      Map<RealmAwareZkClient, List<Integer>> groups, Supplier<C> callbackFactory,
+      AsyncRequest<C> request) {
+    List<C> cbs = new ArrayList<>(Collections.nCopies(size, null));
+    for (Map.Entry<RealmAwareZkClient, List<Integer>> group : groups.entrySet()) {
+      for (int i : group.getValue()) {
+        C cb = callbackFactory.get();
+        cbs.set(i, cb);
+        request.send(group.getKey(), i, cb);
+      }
+    }
+    for (C cb : cbs) {
+      if (!cb.waitForSuccess()) {
+        throw new ZkInterruptedException(
+            new InterruptedException("Interrupted waiting for a batch of ZK requests"));
+      }
+    }
+    return cbs;
+  }
+
+  private static boolean isOk(ZkAsyncCallbacks.DefaultCallback cb) {
+    return cb.getRc() == KeeperException.Code.OK.intValue();
+  }
+
+  private static void checkDataSize(List<String> paths, List<?> data) {
+    if (data == null || data.size() != paths.size()) {
+      throw new IllegalArgumentException(
+          "paths and data should have the same size, paths: " + paths.size() + ", data: " + (
+              data == null ? null : data.size()));
+    }
+  }
+}
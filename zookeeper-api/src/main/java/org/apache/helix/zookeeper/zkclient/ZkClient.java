@@ -110,6 +110,9 @@ public class ZkClient implements Watcher {
       System.getProperty(ZkSystemPropertyKeys.ZK_AUTOSYNC_ENABLED, "true"));
   private static final String SYNC_PATH = "/";
 
+  private static final int EVENT_THREAD_LANE_COUNT =
+      Integer.getInteger(ZkSystemPropertyKeys.ZK_EVENT_THREAD_LANE_COUNT, 1);
+
   private static AtomicLong UID = new AtomicLong(0);
   public final long _uid;
 
@@ -1935,7 +1938,8 @@ public class ZkClient implements Watcher {
         if (!recListeners.isEmpty()) {
           for (final RecursivePersistListener listener : recListeners) {
             _eventThread.send(
-                new ZkEventThread.ZkEvent("Data of " + path + " changed sent to " + listener) {
+                new ZkEventThread.ZkEvent("Data of " + path + " changed sent to " + listener, path,
+                    listener) {
                   @Override
                   public void run() throws Exception {
                     listener.handleZNodeChange(path, event.getType());
@@ -1955,25 +1959,29 @@ public class ZkClient implements Watcher {
       for (final IZkDataListenerEntry listener : listeners) {
         _eventThread.send(new ZkEventThread.ZkEvent(
             "Data of " + path + " changed sent to " + listener.getDataListener()
-                + " prefetch data: " + listener.isPrefetchData()) {
+                + " prefetch data: " + listener.isPrefetchData(), path,
+            listener.getDataListener()) {
           @Override
           public void run() throws Exception {
-            if (!pathStatRecord.pathChecked()) {
-              // getStat() wrapp two ways to install data watch by using exists() or getData().
-              // getData() aka useGetData (true) would not install the watch if the node not ]
-              // existing. Exists() aka useGetData (false) would install (leak) the watch if the
-              // node not existing.
-              // Here the goal is to avoid leaking watch. Thus, if we know path not exists, we use
-              // the exists() useGetData (false) route to check stat. Otherwise, we use getData()
-              // to install watch.
-              Stat stat = null;
-              // no register one time watcher when _usePersistWatcher is true.
-              if (_usePersistWatcher || !pathExists) {
-                stat = getStat(path, false);
-              } else {
-                stat = installWatchOnlyPathExist(path);
+            // The listeners of one path may be handled by different event lanes
+            synchronized (pathStatRecord) {
+              if (!pathStatRecord.pathChecked()) {
+                // getStat() wrapp two ways to install data watch by using exists() or getData().
+                // getData() aka useGetData (true) would not install the watch if the node not ]
+                // existing. Exists() aka useGetData (false) would install (leak) the watch if the
+                // node not existing.
+                // Here the goal is to avoid leaking watch. Thus, if we know path not exists, we use
+                // the exists() useGetData (false) route to check stat. Otherwise, we use getData()
+                // to install watch.
+                Stat stat = null;
+                // no register one time watcher when _usePersistWatcher is true.
+                if (_usePersistWatcher || !pathExists) {
+                  stat = getStat(path, false);
+                } else {
+                  stat = installWatchOnlyPathExist(path);
+                }
+                pathStatRecord.recordPathStat(stat, notificationTime);
               }
-              pathStatRecord.recordPathStat(stat, notificationTime);
             }
             if (!pathStatRecord.pathExists()) {
               listener.getDataListener().handleDataDeleted(path);
@@ -2005,19 +2013,23 @@ public class ZkClient implements Watcher {
     try {
       final ZkPathStatRecord pathStatRecord = new ZkPathStatRecord(path);
       for (final IZkChildListener listener : childListeners) {
-        _eventThread.send(new ZkEventThread.ZkEvent("Children of " + path + " changed sent to " + listener) {
+        _eventThread.send(new ZkEventThread.ZkEvent("Children of " + path + " changed sent to " + listener,
+            path, listener) {
           @Override
           public void run() throws Exception {
-            if (!pathStatRecord.pathChecked()) {
-              Stat stat = null;
-              if (_usePersistWatcher || !pathExists || !hasChildOrDataListeners(path)) {
-                // will not install listener using exists call
-                stat = getStat(path, false);
-              } else {
-                // will install listener using getData() call; if node not there, install nothing
-                stat = installWatchOnlyPathExist(path);
+            // The listeners of one path may be handled by different event lanes
+            synchronized (pathStatRecord) {
+              if (!pathStatRecord.pathChecked()) {
+                Stat stat = null;
+                if (_usePersistWatcher || !pathExists || !hasChildOrDataListeners(path)) {
+                  // will not install listener using exists call
+                  stat = getStat(path, false);
+                } else {
+                  // will install listener using getData() call; if node not there, install nothing
+                  stat = installWatchOnlyPathExist(path);
+                }
+                pathStatRecord.recordPathStat(stat, OptionalLong.empty());
               }
-              pathStatRecord.recordPathStat(stat, OptionalLong.empty());
             }
             List<String> children = null;
             if (pathStatRecord.pathExists()) {
@@ -2472,6 +2484,18 @@ public class ZkClient implements Watcher {
     }
   }
 
+  /**
+   * Asynchronously creates a node with data that is already serialized.
+   * @param path the path of the node
+   * @param data the serialized data, written as is
+   * @param mode the create mode
+   * @param cb the callback handler
+   */
+  public void asyncCreateRawData(final String path, byte[] data, final CreateMode mode,
+      final ZkAsyncCallbacks.CreateCallbackHandler cb) {
+    doAsyncCreate(path, data, mode, TTL_NOT_SET, System.currentTimeMillis(), cb, null);
+  }
+
   public void asyncCreate(final String path, Object datat, final CreateMode mode, long ttl,
       final ZkAsyncCallbacks.CreateCallbackHandler cb) {
     final long startT = System.currentTimeMillis();
@@ -2523,6 +2547,18 @@ public class ZkClient implements Watcher {
     }
   }
 
+  /**
+   * Asynchronously sets data that is already serialized.
+   * @param path the path of the node
+   * @param data the serialized data, written as is
+   * @param version the expected version of the node, -1 matches any version
+   * @param cb the callback handler
+   */
+  public void asyncSetRawData(final String path, byte[] data, final int version,
+      final ZkAsyncCallbacks.SetDataCallbackHandler cb) {
+    doAsyncSetData(path, data, version, System.currentTimeMillis(), cb, null);
+  }
+
   public void asyncGetData(final String path, final ZkAsyncCallbacks.GetDataCallbackHandler cb) {
     final long startT = System.currentTimeMillis();
     try {
@@ -2565,15 +2601,54 @@ public class ZkClient implements Watcher {
     }
   }
 
+  /**
+   * Asynchronously gets the children of a node. Unlike getChildren(), the children are returned
+   * in one response, so the call may fail if they exceed the max ZK response size.
+   * @param path the path of the node
+   * @param cb the callback handler
+   */
+  public void asyncGetChildren(final String path,
+      final ZkAsyncCallbacks.GetChildrenCallbackHandler cb) {
+    final long startT = System.currentTimeMillis();
+    try {
+      retryUntilConnected(() -> {
+        ((ZkConnection) getConnection()).getZookeeper().getChildren(path, null, cb,
+            new ZkAsyncRetryCallContext(_asyncCallRetryThread, cb, _monitor, startT, 0, true) {
+              @Override
+              protected void doRetry() {
+                asyncGetChildren(path, cb);
+              }
+            });
+        return null;
+      });
+    } catch (RuntimeException e) {
+      // Process callback to release caller from waiting
+      cb.processResult(KeeperException.Code.APIERROR.intValue(), path,
+          new ZkAsyncCallMonitorContext(_monitor, startT, 0, true), null);
+      throw e;
+    }
+  }
+
   public void asyncDelete(final String path, final ZkAsyncCallbacks.DeleteCallbackHandler cb) {
+    asyncDelete(path, -1, cb);
+  }
+
+  /**
+   * Asynchronously deletes a node if it has the expected version.
+   * @param path the path of the node
+   * @param version the expected version of the node, -1 matches any version
+   * @param cb the callback handler
+   */
+  public void asyncDelete(final String path, final int version,
+      final ZkAsyncCallbacks.DeleteCallbackHandler cb) {
     final long startT = System.currentTimeMillis();
     try {
       retryUntilConnected(() -> {
-        ((ZkConnection) getConnection()).getZookeeper().delete(path, -1, cb,
+        ((ZkConnection) getConnection()).getZookeeper().delete(path, version, cb,
             new ZkAsyncRetryCallContext(_asyncCallRetryThread, cb, _monitor, startT, 0, false) {
               @Override
               protected void doRetry() {
-                asyncDelete(path, cb);
+                asyncDelete(path, version, cb);
               }
             });
         return null;
@@ -2748,7 +2823,7 @@ public class ZkClient implements Watcher {
       setShutdownTrigger(false);
 
       IZkConnection zkConnection = getConnection();
-      _eventThread = new ZkEventThread(zkConnection.getServers());
+      _eventThread = new ZkEventThread(zkConnection.getServers(), EVENT_THREAD_LANE_COUNT);
 
       if (_monitor != null) {
         boolean result = _monitor.setAndInitZkEventThreadMonitor(_eventThread);
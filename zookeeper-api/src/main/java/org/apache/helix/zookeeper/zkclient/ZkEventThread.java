@@ -22,6 +22,7 @@ package org.apache.helix.zookeeper.zkclient;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.helix.zookeeper.zkclient.exception.ZkInterruptedException;
 import org.slf4j.Logger;
@@ -35,6 +36,12 @@ import org.slf4j.LoggerFactory;
  * would stop the ZkClient from receiving events from {@link ZooKeeper} as soon as one of the listeners blocks (because
  * it is waiting for something). {@link ZkClient} would then for instance not be able to maintain it's connection state
  * anymore.
+ * <p>
+ * Optionally, the event thread dispatches events to a number of worker lanes. An event that carries a
+ * path is hashed to a lane by its path and listener, so the events of one path and listener are still
+ * handled in order while the events of unrelated paths are handled concurrently. Events without a path,
+ * such as session and state events, are barriers: they are handled by the event thread itself once all
+ * the lanes are drained, and no event sent after them is dispatched before they are done.
  */
 public class ZkEventThread extends Thread {
   private static Logger LOG = LoggerFactory.getLogger(ZkClient.class);
@@ -42,14 +49,22 @@ public class ZkEventThread extends Thread {
   private BlockingQueue<ZkEvent> _events = new LinkedBlockingQueue<>();
 
   private long _totalEventCount = 0L;
-  private long _totalEventCountHandled = 0L;
+  private final AtomicLong _totalEventCountHandled = new AtomicLong(0L);
 
   private static AtomicInteger _eventId = new AtomicInteger(0);
 
+  private final ZkEventLane[] _lanes;
+  // Number of events dispatched to the lanes and not handled yet. Barrier events wait for it to
+  // drop to 0.
+  private final Object _laneEventLock = new Object();
+  private int _inFlightLaneEventCount = 0;
+
   public static abstract class ZkEvent {
 
     private final String _description;
     private final String _sessionId;
+    // Lane hash of the event, null if the event is a barrier
+    private final Integer _laneKey;
 
     public ZkEvent(String description) {
       this(description, null);
@@ -58,6 +73,22 @@ public class ZkEventThread extends Thread {
     ZkEvent(String description, String sessionId) {
       _description = description;
       _sessionId = sessionId;
+      _laneKey = null;
+    }
+
+    /**
+     * Creates an event that only needs to be ordered with the other events of the same path and
+     * listener. If the event thread runs with worker lanes, it may be handled concurrently with
+     * the events of other paths or listeners.
+     * @param description description of the event
+     * @param path the path the event is about
+     * @param listener the listener the event is sent to
+     */
+    public ZkEvent(String description, String path, Object listener) {
+      _description = description;
+      _sessionId = null;
+      _laneKey = path == null ? null
+          : 31 * path.hashCode() + (listener == null ? 0 : System.identityHashCode(listener));
     }
 
     public abstract void run() throws Exception;
@@ -82,36 +113,94 @@ public class ZkEventThread extends Thread {
   }
 
   ZkEventThread(String name) {
+    this(name, 1);
+  }
+
+  /**
+   * @param name name of the event thread
+   * @param laneCount number of worker lanes. If it is 1 or less, all events are handled by the
+   *                  event thread itself in the order they are sent.
+   */
+  ZkEventThread(String name, int laneCount) {
     setDaemon(true);
     setName("ZkClient-EventThread-" + getId() + "-" + name);
+    _lanes = new ZkEventLane[laneCount > 1 ? laneCount : 0];
+    for (int i = 0; i < _lanes.length; i++) {
+      _lanes[i] = new ZkEventLane(i);
+    }
   }
 
   @Override public void run() {
     LOG.info("Starting ZkClient event thread.");
+    for (ZkEventLane lane : _lanes) {
+      lane.start();
+    }
     try {
       while (!isInterrupted()) {
         ZkEvent zkEvent = _events.take();
-        int eventId = _eventId.incrementAndGet();
-        LOG.debug("Delivering event id:{} event: {}", eventId, zkEvent);
-        try {
-          zkEvent.run();
-          _totalEventCountHandled ++;
-        } catch (InterruptedException e) {
-          interrupt();
-        } catch (ZkInterruptedException e) {
+        if (_lanes.length > 0 && zkEvent._laneKey != null) {
+          dispatchToLane(zkEvent);
+          continue;
+        }
+        awaitLanesDrained();
+        if (!deliver(zkEvent)) {
           interrupt();
-        } catch (Throwable e) {
-          LOG.error("Error handling event " + zkEvent, e);
         }
-        LOG.debug("Delivering event id: {} done", eventId);
       }
     } catch (InterruptedException e) {
       LOG.info("Terminate ZkClient event thread.");
+    } finally {
+      for (ZkEventLane lane : _lanes) {
+        lane.interrupt();
+      }
     }
 
     LOG.info("Terminate ZkClient event thread.");
   }
 
+  /**
+   * Runs the event and returns false if the event was interrupted.
+   */
+  private boolean deliver(ZkEvent zkEvent) {
+    int eventId = _eventId.incrementAndGet();
+    LOG.debug("Delivering event id:{} event: {}", eventId, zkEvent);
+    try {
+      zkEvent.run();
+      _totalEventCountHandled.incrementAndGet();
+    } catch (InterruptedException e) {
+      return false;
+    } catch (ZkInterruptedException e) {
+      return false;
+    } catch (Throwable e) {
+      LOG.error("Error handling event " + zkEvent, e);
+    }
+    LOG.debug("Delivering event id: {} done", eventId);
+    return true;
+  }
+
+  private void dispatchToLane(ZkEvent zkEvent) {
+    synchronized (_laneEventLock) {
+      _inFlightLaneEventCount++;
+    }
+    _lanes[Math.floorMod(zkEvent._laneKey, _lanes.length)].send(zkEvent);
+  }
+
+  private void awaitLanesDrained() throws InterruptedException {
+    synchronized (_laneEventLock) {
+      while (_inFlightLaneEventCount > 0) {
+        _laneEventLock.wait();
+      }
+    }
+  }
+
+  private void laneEventDone() {
+    synchronized (_laneEventLock) {
+      if (--_inFlightLaneEventCount == 0) {
+        _laneEventLock.notifyAll();
+      }
+    }
+  }
+
   public void send(ZkEvent event) {
     if (!isInterrupted()) {
       LOG.debug("New event: " + event);
@@ -121,10 +210,92 @@ public class ZkEventThread extends Thread {
   }
 
   public long getPendingEventsCount() {
-    return _events.size();
+    long pendingEventsCount = _events.size();
+    for (ZkEventLane lane : _lanes) {
+      pendingEventsCount += lane.getPendingEventsCount();
+    }
+    return pendingEventsCount;
   }
 
   public long getTotalEventCount() { return _totalEventCount; }
 
-  public long getTotalHandledEventCount() { return _totalEventCountHandled; }
+  public long getTotalHandledEventCount() { return _totalEventCountHandled.get(); }
+
+  /**
+   * Returns the number of worker lanes, 0 if all events are handled by the event thread itself.
+   */
+  public int getLaneCount() {
+    return _lanes.length;
+  }
+
+  public long getLanePendingEventsCount(int lane) {
+    return _lanes[lane].getPendingEventsCount();
+  }
+
+  public long getLaneHandledEventCount(int lane) {
+    return _lanes[lane]._handledEventCount.get();
+  }
+
+  /**
+   * Returns the total time in milliseconds the lane spent handling events.
+   */
+  public long getLaneTotalHandlingLatency(int lane) {
+    return _lanes[lane]._totalHandlingLatency.get();
+  }
+
+  /**
+   * Returns the longest time in milliseconds the lane spent handling a single event.
+   */
+  public long getLaneMaxHandlingLatency(int lane) {
+    return _lanes[lane]._maxHandlingLatency;
+  }
+
+  private class ZkEventLane extends Thread {
+    private final BlockingQueue<ZkEvent> _laneEvents = new LinkedBlockingQueue<>();
+    private final AtomicLong _handledEventCount = new AtomicLong(0L);
+    private final AtomicLong _totalHandlingLatency = new AtomicLong(0L);
+    private volatile long _maxHandlingLatency = 0L;
+
+    ZkEventLane(int lane) {
+      setDaemon(true);
+      setName(ZkEventThread.this.getName() + "-Lane-" + lane);
+    }
+
+    @Override
+    public void run() {
+      try {
+        while (!isInterrupted()) {
+          ZkEvent zkEvent = _laneEvents.take();
+          long startTime = System.currentTimeMillis();
+          boolean delivered;
+          try {
+            delivered = deliver(zkEvent);
+          } finally {
+            laneEventDone();
+          }
+          long latency = System.currentTimeMillis() - startTime;
+          _handledEventCount.incrementAndGet();
+          _totalHandlingLatency.addAndGet(latency);
+          if (latency > _maxHandlingLatency) {
+            _maxHandlingLatency = latency;
+          }
+          if (!delivered) {
+            // Same as an interrupted event on the event thread: stop dispatching
+            ZkEventThread.this.interrupt();
+            interrupt();
+          }
+        }
+      } catch (InterruptedException e) {
+        LOG.info("Terminate ZkClient event lane {}.", getName());
+      }
+    }
+
+    void send(ZkEvent event) {
+      _laneEvents.add(event);
+    }
+
+    long getPendingEventsCount() {
+      return _laneEvents.size();
+    }
+  }
 }
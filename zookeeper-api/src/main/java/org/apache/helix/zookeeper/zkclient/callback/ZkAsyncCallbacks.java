@@ -19,10 +19,12 @@ package org.apache.helix.zookeeper.zkclient.callback;
  * under the License.
  */
 
+import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.helix.zookeeper.zkclient.metric.ZkClientMonitor;
 import org.apache.zookeeper.AsyncCallback;
+import org.apache.zookeeper.AsyncCallback.ChildrenCallback;
 import org.apache.zookeeper.AsyncCallback.Create2Callback;
 import org.apache.zookeeper.AsyncCallback.DataCallback;
 import org.apache.zookeeper.AsyncCallback.StatCallback;
@@ -124,6 +126,34 @@ public class ZkAsyncCallbacks {
     }
   }
 
+  public static class GetChildrenCallbackHandler extends DefaultCallback implements ChildrenCallback {
+    List<String> _children;
+
+    @Override
+    public void processResult(int rc, String path, Object ctx, List<String> children) {
+      if (rc == 0) {
+        _children = children;
+      }
+      callback(rc, path, ctx);
+    }
+
+    public List<String> getChildren() {
+      return _children;
+    }
+
+    @Override
+    public void handle() {
+      // The children are read by the caller with getChildren() once the call is complete.
+    }
+
+    @Override
+    protected void recordFailure(int rc, String path, ZkAsyncCallMonitorContext monitor) {
+      if (rc != Code.NONODE.intValue()) {
+        monitor.recordFailure(path);
+      }
+    }
+  }
+
   public static class CreateCallbackHandler extends DefaultCallback implements StringCallback, Create2Callback {
     @Override
     public void processResult(int rc, String path, Object ctx, String name) {
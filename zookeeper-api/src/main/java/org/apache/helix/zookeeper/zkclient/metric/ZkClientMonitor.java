@@ -265,6 +265,13 @@ public class ZkClientMonitor extends DynamicMBeanProvider {
     });
   }
 
+  private static final String LANE_METRIC_PREFIX = "Lane";
+  // Metrics of every event lane. Latencies are in milliseconds.
+  private static final String[] LANE_METRICS = new String[] {
+      "PendingCallbackGauge", "CallbackHandledCounter", "CallbackHandlingLatencyCounter",
+      "MaxCallbackHandlingLatencyGauge"
+  };
+
   class ZkThreadMetric extends DynamicMetric<ZkEventThread, ZkEventThread> {
     public ZkThreadMetric(ZkEventThread eventThread) {
       super("ZkEventThead", eventThread);
@@ -281,6 +288,14 @@ public class ZkClientMonitor extends DynamicMBeanProvider {
       attributeInfoSet.add(
           new MBeanAttributeInfo("TotalCallbackHandledCounter", Long.TYPE.getName(),
               DEFAULT_ATTRIBUTE_DESCRIPTION, true, false, false));
+      // Lane metrics are named as Lane<index><Metric>, e.g. Lane0PendingCallbackGauge
+      for (int lane = 0; lane < eventThread.getLaneCount(); lane++) {
+        for (String laneMetric : LANE_METRICS) {
+          attributeInfoSet.add(
+              new MBeanAttributeInfo(LANE_METRIC_PREFIX + lane + laneMetric, Long.TYPE.getName(),
+                  DEFAULT_ATTRIBUTE_DESCRIPTION, true, false, false));
+        }
+      }
       return attributeInfoSet;
     }
 
@@ -294,8 +309,42 @@ public class ZkClientMonitor extends DynamicMBeanProvider {
       case "TotalCallbackHandledCounter":
         return getMetricObject().getTotalHandledEventCount();
       default:
-        throw new MetricException("Unknown attribute name: " + attributeName);
+        return getLaneAttributeValue(attributeName);
+      }
+    }
+
+    private Object getLaneAttributeValue(String attributeName) {
+      ZkEventThread eventThread = getMetricObject();
+      if (attributeName.startsWith(LANE_METRIC_PREFIX)) {
+        for (String laneMetric : LANE_METRICS) {
+          if (!attributeName.endsWith(laneMetric)) {
+            continue;
+          }
+          int lane;
+          try {
+            lane = Integer.parseInt(attributeName.substring(LANE_METRIC_PREFIX.length(),
+                attributeName.length() - laneMetric.length()));
+          } catch (NumberFormatException e) {
+            break;
+          }
+          if (lane < 0 || lane >= eventThread.getLaneCount()) {
+            break;
+          }
+          switch (laneMetric) {
+          case "PendingCallbackGauge":
+            return eventThread.getLanePendingEventsCount(lane);
+          case "CallbackHandledCounter":
+            return eventThread.getLaneHandledEventCount(lane);
+          case "CallbackHandlingLatencyCounter":
+            return eventThread.getLaneTotalHandlingLatency(lane);
+          case "MaxCallbackHandlingLatencyGauge":
+            return eventThread.getLaneMaxHandlingLatency(lane);
+          default:
+            break;
+          }
+        }
       }
+      throw new MetricException("Unknown attribute name: " + attributeName);
     }
 
     @Override
@@ -0,0 +1,54 @@
+package org.apache.helix.zookeeper.api.client;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.helix.zookeeper.zkclient.callback.ZkAsyncCallbacks;
+import org.apache.helix.zookeeper.zkclient.exception.ZkNoNodeException;
+import org.apache.zookeeper.KeeperException;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TestRealmAwareZkClient {
+  @Test
+  public void testDefaultAsyncGetChildren() {
+    RealmAwareZkClient zkClient = mock(RealmAwareZkClient.class, CALLS_REAL_METHODS);
+    List<String> children = Arrays.asList("1", "2", "3");
+    when(zkClient.getChildren("/path")).thenReturn(children);
+    when(zkClient.getChildren("/missing")).thenThrow(new ZkNoNodeException("/missing"));
+
+    // The clients that do not implement asyncGetChildren can still run the batch reads.
+    Assert.assertEquals(zkClient.getChildren(Arrays.asList("/path", "/missing")),
+        Arrays.asList(children, null));
+
+    ZkAsyncCallbacks.GetChildrenCallbackHandler cb =
+        new ZkAsyncCallbacks.GetChildrenCallbackHandler();
+    zkClient.asyncGetChildren("/missing", cb);
+    Assert.assertTrue(cb.isOperationDone());
+    Assert.assertEquals(cb.getRc(), KeeperException.Code.NONODE.intValue());
+    Assert.assertNull(cb.getChildren());
+  }
+}
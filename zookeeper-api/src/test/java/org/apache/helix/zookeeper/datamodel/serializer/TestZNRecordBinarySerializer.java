@@ -0,0 +1,188 @@
+package org.apache.helix.zookeeper.datamodel.serializer;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.helix.zookeeper.datamodel.ZNRecord;
+import org.apache.helix.zookeeper.util.GZipCompressionUtil;
+import org.apache.helix.zookeeper.zkclient.serialize.ZkSerializer;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class TestZNRecordBinarySerializer {
+  private static ZNRecord createExternalViewLikeRecord(int numPartitions, int numInstances) {
+    ZNRecord record = new ZNRecord("TestDB");
+    record.setSimpleField("NUM_PARTITIONS", String.valueOf(numPartitions));
+    record.setSimpleField("STATE_MODEL_DEF_REF", "MasterSlave");
+    for (int p = 0; p < numPartitions; p++) {
+      String partition = "TestDB_" + p;
+      Map<String, String> stateMap = new HashMap<>();
+      for (int r = 0; r < 3; r++) {
+        stateMap.put("localhost_" + (12000 + (p + r) % numInstances), r == 0 ? "MASTER" : "SLAVE");
+      }
+      record.setMapField(partition, stateMap);
+      record.setListField(partition,
+          Arrays.asList("localhost_" + (12000 + p % numInstances), "localhost_12000"));
+    }
+    return record;
+  }
+
+  @Test
+  public void testRoundTrip() {
+    ZNRecordBinarySerializer serializer = new ZNRecordBinarySerializer();
+    ZNRecord record = createExternalViewLikeRecord(100, 10);
+    record.setSimpleField("unicode", "分区-😀");
+    record.setSimpleField("nullValue", null);
+    record.setListField("withNull", Arrays.asList("a", null, "a"));
+    record.setListField("empty", Collections.emptyList());
+    record.setMapField("emptyMap", Collections.emptyMap());
+    record.setRawPayload(new byte[] {0, 1, 2, (byte) 0xFF});
+
+    byte[] bytes = serializer.serialize(record);
+    Assert.assertTrue(ZNRecordBinarySerializer.isBinaryFormat(bytes));
+    ZNRecord result = (ZNRecord) serializer.deserialize(bytes);
+    Assert.assertEquals(result, record);
+    Assert.assertEquals(result.getSimpleFields(), record.getSimpleFields());
+    Assert.assertEquals(result.getListFields(), record.getListFields());
+    Assert.assertEquals(result.getMapFields(), record.getMapFields());
+    Assert.assertEquals(result.getRawPayload(), record.getRawPayload());
+
+    // The repeated strings are shared by the deserialized record.
+    Assert.assertSame(result.getMapField("TestDB_0").get("localhost_12000"),
+        result.getMapField("TestDB_1").get("localhost_12001"));
+    Assert.assertSame(result.getListField("TestDB_1").get(1),
+        result.getListField("TestDB_2").get(1));
+
+    ZNRecord emptyRecord = new ZNRecord("empty");
+    Assert.assertEquals(serializer.deserialize(serializer.serialize(emptyRecord)), emptyRecord);
+    Assert.assertNull(
+        ((ZNRecord) serializer.deserialize(serializer.serialize(emptyRecord))).getRawPayload());
+  }
+
+  @Test
+  public void testCompactSize() {
+    ZNRecord record = createExternalViewLikeRecord(1024, 100);
+    byte[] jsonBytes = new ZNRecordSerializer().serialize(record);
+    byte[] binaryBytes = new ZNRecordBinarySerializer().serialize(record);
+    Assert.assertTrue(binaryBytes.length * 3 < jsonBytes.length,
+        "binary: " + binaryBytes.length + ", json: " + jsonBytes.length);
+  }
+
+  @Test
+  public void testCompression() throws Exception {
+    ZNRecordBinarySerializer serializer = new ZNRecordBinarySerializer();
+    ZNRecord record = createExternalViewLikeRecord(100, 10);
+    record.setBooleanField(ZNRecord.ENABLE_COMPRESSION_BOOLEAN_FIELD, true);
+
+    byte[] bytes = serializer.serialize(record);
+    Assert.assertTrue(GZipCompressionUtil.isCompressed(bytes));
+    Assert.assertFalse(ZNRecordBinarySerializer.isBinaryFormat(bytes));
+    Assert.assertEquals(serializer.deserialize(bytes), record);
+  }
+
+  @Test
+  public void testReadJsonFormat() {
+    ZNRecordBinarySerializer serializer = new ZNRecordBinarySerializer();
+    ZNRecord record = createExternalViewLikeRecord(10, 5);
+
+    Assert.assertEquals(serializer.deserialize(new ZNRecordSerializer().serialize(record)), record);
+    Assert.assertEquals(
+        serializer.deserialize(new ZNRecordStreamingSerializer().serialize(record)), record);
+
+    record.setBooleanField(ZNRecord.ENABLE_COMPRESSION_BOOLEAN_FIELD, true);
+    byte[] compressedJson = new ZNRecordSerializer().serialize(record);
+    Assert.assertTrue(GZipCompressionUtil.isCompressed(compressedJson));
+    Assert.assertEquals(serializer.deserialize(compressedJson), record);
+
+    Assert.assertNull(serializer.deserialize(null));
+    Assert.assertNull(serializer.deserialize(new byte[0]));
+  }
+
+  @Test
+  public void testBinaryWriteDisabled() {
+    ZNRecordBinarySerializer serializer =
+        new ZNRecordBinarySerializer(new ZNRecordSerializer(), false);
+    ZNRecord record = createExternalViewLikeRecord(10, 5);
+    byte[] bytes = serializer.serialize(record);
+    Assert.assertFalse(ZNRecordBinarySerializer.isBinaryFormat(bytes));
+    Assert.assertEquals(new ZNRecordSerializer().deserialize(bytes), record);
+    Assert.assertEquals(serializer.deserialize(bytes), record);
+  }
+
+  @Test
+  public void testCorruptedData() {
+    ZNRecordBinarySerializer serializer = new ZNRecordBinarySerializer();
+    byte[] bytes = serializer.serialize(createExternalViewLikeRecord(10, 5));
+    Assert.assertNull(serializer.deserialize(Arrays.copyOf(bytes, bytes.length / 2)));
+
+    byte[] unknownVersion = bytes.clone();
+    unknownVersion[4] = 100;
+    Assert.assertNull(serializer.deserialize(unknownVersion));
+
+    // A huge string count must be rejected without allocating the table.
+    byte[] hugeCount = Arrays.copyOf(bytes, 10);
+    Arrays.fill(hugeCount, 5, 9, (byte) 0xFF);
+    hugeCount[9] = 0x07;
+    Assert.assertNull(serializer.deserialize(hugeCount));
+
+    Assert.assertNull(serializer.deserialize("not a record".getBytes(StandardCharsets.UTF_8)));
+
+    // The data that fails to decompress is left to the fallback serializer.
+    ZNRecord record = createExternalViewLikeRecord(10, 5);
+    record.setBooleanField(ZNRecord.ENABLE_COMPRESSION_BOOLEAN_FIELD, true);
+    byte[] corruptedGzip = Arrays.copyOf(new ZNRecordSerializer().serialize(record), 20);
+    Assert.assertTrue(GZipCompressionUtil.isCompressed(corruptedGzip));
+    ZkSerializer fallbackSerializer = new ZkSerializer() {
+      @Override
+      public byte[] serialize(Object data) {
+        return new byte[0];
+      }
+
+      @Override
+      public Object deserialize(byte[] data) {
+        return data;
+      }
+    };
+    Assert.assertSame(new ZNRecordBinarySerializer(fallbackSerializer, true)
+        .deserialize(corruptedGzip), corruptedGzip);
+  }
+
+  @Test
+  public void testChainedPathSerializer() {
+    ChainedPathZkSerializer serializer =
+        ChainedPathZkSerializer.builder(new ZNRecordSerializer())
+            .serialize("/cluster/EXTERNALVIEW", new ZNRecordBinarySerializer()).build();
+    ZNRecord record = createExternalViewLikeRecord(10, 5);
+
+    byte[] binaryBytes = serializer.serialize(record, "/cluster/EXTERNALVIEW/TestDB");
+    Assert.assertTrue(ZNRecordBinarySerializer.isBinaryFormat(binaryBytes));
+    Assert.assertEquals(serializer.deserialize(binaryBytes, "/cluster/EXTERNALVIEW/TestDB"),
+        record);
+
+    byte[] jsonBytes = serializer.serialize(record, "/cluster/IDEALSTATES/TestDB");
+    Assert.assertFalse(ZNRecordBinarySerializer.isBinaryFormat(jsonBytes));
+    Assert.assertEquals(serializer.deserialize(jsonBytes, "/cluster/IDEALSTATES/TestDB"), record);
+  }
+}
@@ -0,0 +1,118 @@
+package org.apache.helix.zookeeper.datamodel.serializer;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.helix.zookeeper.datamodel.ZNRecord;
+import org.apache.helix.zookeeper.util.GZipCompressionUtil;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class TestZNRecordStreamingSerializer {
+  private static ZNRecord createExternalViewLikeRecord(int numPartitions, int numInstances) {
+    ZNRecord record = new ZNRecord("TestDB");
+    record.setSimpleField("NUM_PARTITIONS", String.valueOf(numPartitions));
+    record.setSimpleField("STATE_MODEL_DEF_REF", "MasterSlave");
+    for (int p = 0; p < numPartitions; p++) {
+      String partition = "TestDB_" + p;
+      Map<String, String> stateMap = new HashMap<>();
+      for (int r = 0; r < 3; r++) {
+        stateMap.put("localhost_" + (12000 + (p + r) % numInstances), r == 0 ? "MASTER" : "SLAVE");
+      }
+      record.setMapField(partition, stateMap);
+      record.setListField(partition,
+          Arrays.asList("localhost_" + (12000 + p % numInstances), "localhost_12000"));
+    }
+    record.setRawPayload(new byte[] {0, 1, 2, (byte) 0xFF});
+    return record;
+  }
+
+  @Test
+  public void testRoundTripWithStringPool() {
+    ZNRecordStreamingSerializer serializer =
+        new ZNRecordStreamingSerializer(EnumSet.allOf(ZNRecordStreamingSerializer.Field.class), 1024);
+    ZNRecord record = createExternalViewLikeRecord(100, 10);
+    String longValue = new String(new char[100]).replace('\0', 'x');
+    record.setSimpleField("longValue", longValue);
+
+    byte[] bytes = serializer.serialize(record);
+    ZNRecord result = (ZNRecord) serializer.deserialize(bytes);
+    Assert.assertEquals(result.getSimpleFields(), record.getSimpleFields());
+    Assert.assertEquals(result.getListFields(), record.getListFields());
+    Assert.assertEquals(result.getMapFields(), record.getMapFields());
+    Assert.assertEquals(result.getRawPayload(), record.getRawPayload());
+
+    // The repeated values are shared, within a record and across records.
+    Assert.assertSame(result.getMapField("TestDB_0").get("localhost_12000"),
+        result.getMapField("TestDB_3").get("localhost_12003"));
+    ZNRecord another = (ZNRecord) serializer.deserialize(bytes);
+    Assert.assertSame(another.getListField("TestDB_1").get(1),
+        result.getListField("TestDB_2").get(1));
+    Assert.assertEquals(another.getSimpleField("longValue"), longValue);
+
+    // The default serializer reads the same record.
+    Assert.assertEquals(new ZNRecordStreamingSerializer().deserialize(bytes), result);
+  }
+
+  @Test
+  public void testSkipFields() {
+    ZNRecordStreamingSerializer serializer = new ZNRecordStreamingSerializer(
+        EnumSet.of(ZNRecordStreamingSerializer.Field.MAP_FIELDS), 0);
+    ZNRecord record = createExternalViewLikeRecord(10, 5);
+
+    ZNRecord result = (ZNRecord) serializer.deserialize(serializer.serialize(record));
+    Assert.assertEquals(result.getId(), record.getId());
+    Assert.assertEquals(result.getMapFields(), record.getMapFields());
+    Assert.assertTrue(result.getSimpleFields().isEmpty());
+    Assert.assertTrue(result.getListFields().isEmpty());
+    Assert.assertNull(result.getRawPayload());
+
+    serializer = new ZNRecordStreamingSerializer(
+        EnumSet.noneOf(ZNRecordStreamingSerializer.Field.class), 0);
+    result = (ZNRecord) serializer.deserialize(serializer.serialize(record));
+    Assert.assertEquals(result.getId(), record.getId());
+    Assert.assertTrue(result.getMapFields().isEmpty());
+  }
+
+  @Test
+  public void testCompressedRecord() {
+    ZNRecordStreamingSerializer serializer = new ZNRecordStreamingSerializer(
+        EnumSet.of(ZNRecordStreamingSerializer.Field.SIMPLE_FIELDS,
+            ZNRecordStreamingSerializer.Field.MAP_FIELDS), 1024);
+    ZNRecord record = createExternalViewLikeRecord(10, 5);
+    record.setBooleanField("enableCompression", true);
+
+    byte[] bytes = serializer.serialize(record);
+    Assert.assertTrue(GZipCompressionUtil.isCompressed(bytes));
+    ZNRecord result = (ZNRecord) serializer.deserialize(bytes);
+    Assert.assertEquals(result.getSimpleFields(), record.getSimpleFields());
+    Assert.assertEquals(result.getMapFields(), record.getMapFields());
+    Assert.assertTrue(result.getListFields().isEmpty());
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void testNegativePoolSize() {
+    new ZNRecordStreamingSerializer(EnumSet.allOf(ZNRecordStreamingSerializer.Field.class), -1);
+  }
+}
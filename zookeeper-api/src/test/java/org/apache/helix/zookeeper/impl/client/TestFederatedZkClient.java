@@ -21,7 +21,9 @@ package org.apache.helix.zookeeper.impl.client;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -354,6 +356,51 @@ public class TestFederatedZkClient extends RealmAwareZkClientTestBase {
     Assert.assertFalse(_realmAwareZkClient.exists(TEST_REALM_TWO_VALID_PATH));
   }
 
+  /*
+   * Tests that batch operations route each path to its realm and return results in input order.
+   */
+  @Test(dependsOnMethods = "testMultiRealmCRUD")
+  public void testMultiRealmBatchOperations() {
+    ZNRecord realmOneZnRecord = new ZNRecord("realmOne");
+    ZNRecord realmTwoZnRecord = new ZNRecord("realmTwo");
+    _realmAwareZkClient.createPersistent(TEST_REALM_ONE_VALID_PATH, true);
+    _realmAwareZkClient.writeData(TEST_REALM_ONE_VALID_PATH, realmOneZnRecord);
+    _realmAwareZkClient.createPersistent(TEST_REALM_TWO_VALID_PATH, true);
+    _realmAwareZkClient.writeData(TEST_REALM_TWO_VALID_PATH, realmTwoZnRecord);
+
+    String missingPath = TEST_REALM_ONE_VALID_PATH + "/missing";
+    List<String> paths =
+        Arrays.asList(TEST_REALM_TWO_VALID_PATH, TEST_REALM_ONE_VALID_PATH, missingPath);
+    Assert.assertEquals(_realmAwareZkClient.exists(paths), new boolean[]{true, true, false});
+    Assert.assertEquals(_realmAwareZkClient.readData(paths),
+        Arrays.asList(realmTwoZnRecord, realmOneZnRecord, null));
+
+    // Swap the records of the two realms.
+    Assert.assertEquals(_realmAwareZkClient
+            .writeData(Arrays.asList(TEST_REALM_ONE_VALID_PATH, TEST_REALM_TWO_VALID_PATH),
+                Arrays.asList(realmTwoZnRecord, realmOneZnRecord)), new boolean[]{true, true});
+    Assert.assertEquals(_realmAwareZkClient.readData(paths),
+        Arrays.asList(realmOneZnRecord, realmTwoZnRecord, null));
+
+    Assert.assertEquals(_realmAwareZkClient.getChildren(
+        Arrays.asList(TEST_SHARDING_KEY_PREFIX + "/1/a/b", TEST_SHARDING_KEY_PREFIX + "/2/x/y",
+            missingPath)),
+        Arrays.asList(Collections.singletonList("c"), Collections.singletonList("z"), null));
+
+    // A path without a realm fails the batch before any request is sent.
+    try {
+      _realmAwareZkClient.delete(Arrays.asList(TEST_REALM_ONE_VALID_PATH, TEST_INVALID_PATH));
+      Assert.fail("Batch delete() should not succeed on an invalid path!");
+    } catch (NoSuchElementException ex) {
+      Assert.assertEquals(ex.getMessage(),
+          "No sharding key found within the provided path. Path: " + TEST_INVALID_PATH);
+    }
+    Assert.assertTrue(_realmAwareZkClient.exists(TEST_REALM_ONE_VALID_PATH));
+
+    Assert.assertEquals(_realmAwareZkClient.delete(paths), new boolean[]{true, true, false});
+    Assert.assertEquals(_realmAwareZkClient.exists(paths), new boolean[]{false, false, false});
+  }
+
   /**
    * This tests the routing data update feature only enabled when
    * RoutingSystemPropertyKeys.UPDATE_ROUTING_DATA_ON_CACHE_MISS is set to true.
@@ -0,0 +1,138 @@
+package org.apache.helix.zookeeper.zkclient;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class TestZkEventThread {
+  private static final long TIMEOUT_MS = 10000L;
+
+  @Test
+  public void testSlowPathDoesNotBlockOtherPaths() throws Exception {
+    ZkEventThread eventThread = new ZkEventThread("TestZkEventThread", 4);
+    eventThread.start();
+    try {
+      final CountDownLatch blockSlowPath = new CountDownLatch(1);
+      final Object slowListener = new Object();
+      final Object fastListener = new Object();
+      // Find a path which is not hashed to the lane of the slow path
+      String slowPath = "/slow";
+      String fastPath = null;
+      for (int i = 0; fastPath == null; i++) {
+        String path = "/fast" + i;
+        if (laneOf(path, fastListener, 4) != laneOf(slowPath, slowListener, 4)) {
+          fastPath = path;
+        }
+      }
+
+      eventThread.send(new ZkEventThread.ZkEvent("slow", slowPath, slowListener) {
+        @Override
+        public void run() throws Exception {
+          blockSlowPath.await();
+        }
+      });
+      final CountDownLatch fastPathHandled = new CountDownLatch(1);
+      eventThread.send(new ZkEventThread.ZkEvent("fast", fastPath, fastListener) {
+        @Override
+        public void run() {
+          fastPathHandled.countDown();
+        }
+      });
+      Assert.assertTrue(fastPathHandled.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+
+      // A barrier event waits for the slow path to be done
+      final CountDownLatch barrierHandled = new CountDownLatch(1);
+      eventThread.send(new ZkEventThread.ZkEvent("barrier") {
+        @Override
+        public void run() {
+          barrierHandled.countDown();
+        }
+      });
+      Assert.assertFalse(barrierHandled.await(200, TimeUnit.MILLISECONDS));
+      blockSlowPath.countDown();
+      Assert.assertTrue(barrierHandled.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+      // Counters are updated right after the events return
+      Assert.assertTrue(waitFor(() -> eventThread.getTotalHandledEventCount() == 3));
+      Assert.assertEquals(eventThread.getPendingEventsCount(), 0);
+    } finally {
+      eventThread.interrupt();
+      eventThread.join(TIMEOUT_MS);
+    }
+  }
+
+  @Test
+  public void testPerPathOrdering() throws Exception {
+    ZkEventThread eventThread = new ZkEventThread("TestZkEventThread", 4);
+    eventThread.start();
+    try {
+      final Object listener = new Object();
+      final List<Integer> handled = Collections.synchronizedList(new ArrayList<Integer>());
+      final int eventCount = 100;
+      final CountDownLatch allHandled = new CountDownLatch(eventCount);
+      for (int i = 0; i < eventCount; i++) {
+        final int seq = i;
+        eventThread.send(new ZkEventThread.ZkEvent("event " + i, "/path", listener) {
+          @Override
+          public void run() {
+            handled.add(seq);
+            allHandled.countDown();
+          }
+        });
+      }
+      Assert.assertTrue(allHandled.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+      for (int i = 0; i < eventCount; i++) {
+        Assert.assertEquals(handled.get(i).intValue(), i);
+      }
+      Assert.assertTrue(waitFor(() -> {
+        long laneHandled = 0;
+        for (int lane = 0; lane < eventThread.getLaneCount(); lane++) {
+          laneHandled += eventThread.getLaneHandledEventCount(lane);
+        }
+        return laneHandled == eventCount;
+      }));
+    } finally {
+      eventThread.interrupt();
+      eventThread.join(TIMEOUT_MS);
+    }
+  }
+
+  private static boolean waitFor(BooleanSupplier condition) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+    while (!condition.getAsBoolean()) {
+      if (System.currentTimeMillis() > deadline) {
+        return false;
+      }
+      Thread.sleep(10);
+    }
+    return true;
+  }
+
+  private static int laneOf(String path, Object listener, int laneCount) {
+    return Math.floorMod(31 * path.hashCode() + System.identityHashCode(listener), laneCount);
+  }
+}